@@ -0,0 +1,66 @@
+package com.example.order.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存配置类
+ * 
+ * 功能: 配置基于Caffeine的Spring Cache
+ * 逻辑链: 配置加载 -> 缓存管理器创建 -> 缓存注册 -> 指标绑定
+ * 注意事项: 按容量淘汰（W-TinyLFU），写入后按 app.cache.ttl 过期；
+ * 缓存名称在启动时注册，以便actuator绑定命中/未命中/淘汰指标；
+ * 写操作的失效延迟到事务提交后执行
+ * 
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * 产品缓存（按产品ID）
+     */
+    public static final String PRODUCTS = "products";
+
+    /**
+     * 产品缓存（按产品编码）
+     */
+    public static final String PRODUCTS_BY_CODE = "productsByCode";
+
+    /**
+     * 产品缓存（按产品名称）
+     */
+    public static final String PRODUCTS_BY_NAME = "productsByName";
+
+    /**
+     * 缓存管理器
+     * 
+     * @param ttlSeconds 缓存过期时间（秒）
+     * @param maximumSize 每个缓存的最大条目数
+     * @return 缓存管理器
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.ttl:3600}") long ttlSeconds,
+                                     @Value("${app.cache.maximum-size:10000}") long maximumSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(Arrays.asList(PRODUCTS, PRODUCTS_BY_CODE, PRODUCTS_BY_NAME));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
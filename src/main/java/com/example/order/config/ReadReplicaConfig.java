@@ -0,0 +1,115 @@
+package com.example.order.config;
+
+import com.example.order.util.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离配置类
+ *
+ * 功能: 以读写分离路由数据源替换默认数据源，只读事务路由到只读副本
+ * 逻辑链: spring.datasource 建立主库连接池 -> app.read-replicas.replicas 逐个建立副本连接池
+ * -> ReadWriteRoutingDataSource 按事务只读标记路由 -> 定时检查副本连通性与复制延迟
+ * 注意事项: 默认关闭（app.read-replicas.enabled）；主库与副本连接池共用 spring.datasource.hikari 的配置，
+ * 副本另使用较短的获取连接超时，以便故障时尽快切换到主库；连接池指标按池名称记录到 hikaricp.*
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+    private static final String REPLICAS_PREFIX = "app.read-replicas.replicas";
+
+    /**
+     * 读写分离路由数据源
+     *
+     * @param properties 主库配置
+     * @param environment 环境配置
+     * @param meterRegistry 指标注册表
+     * @return 路由数据源
+     */
+    @Bean
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                                 MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = createPool(properties, binder, meterRegistry);
+        if (!StringUtils.hasText(primary.getPoolName())) {
+            primary.setPoolName("primary");
+        }
+
+        List<DataSourceProperties> replicaProperties = binder
+                .bind(REPLICAS_PREFIX, Bindable.listOf(DataSourceProperties.class))
+                .orElse(Collections.emptyList());
+        if (replicaProperties.isEmpty()) {
+            throw new IllegalStateException("已开启读写分离但未配置只读副本: " + REPLICAS_PREFIX);
+        }
+        long connectionTimeoutMillis = environment.getProperty(
+                "app.read-replicas.connection-timeout-ms", Long.class, 1000L);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            DataSourceProperties replicaProperty = replicaProperties.get(i);
+            String name = StringUtils.hasText(replicaProperty.getName())
+                    ? replicaProperty.getName() : "replica-" + (i + 1);
+            HikariDataSource replica = createPool(replicaProperty, binder, meterRegistry);
+            replica.setPoolName(name);
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            replicas.put(name, replica);
+        }
+
+        ReadWriteRoutingDataSource.Options options = new ReadWriteRoutingDataSource.Options(
+                environment.getProperty("app.read-replicas.max-lag-ms", Long.class, 5000L),
+                environment.getProperty("app.read-replicas.read-your-writes-ms", Long.class, 5000L),
+                environment.getProperty("app.read-replicas.lag-query"),
+                (int) Math.max(1, (connectionTimeoutMillis + 999) / 1000));
+        log.info("读写分离已开启，主库: {}，只读副本: {}", primary.getPoolName(), replicas.keySet());
+        return new ReadWriteRoutingDataSource(primary, replicas, options, meterRegistry);
+    }
+
+    /**
+     * 定时检查只读副本
+     *
+     * @param dataSource 数据源
+     * @param intervalMillis 检查间隔（毫秒）
+     * @return 定时任务配置
+     * @throws SQLException 数据源不是读写分离路由数据源时
+     */
+    @Bean
+    public SchedulingConfigurer replicaHealthCheckScheduling(
+            DataSource dataSource, @Value("${app.read-replicas.health-check-interval-ms:5000}") long intervalMillis)
+            throws SQLException {
+        ReadWriteRoutingDataSource routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        return registrar -> registrar.addFixedDelayTask(routing::checkReplicas, intervalMillis);
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties properties, Binder binder,
+                                               MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(dataSource));
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.order.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置类
+ * 
+ * 功能: 启用Spring定时任务
+ * 逻辑链: 配置加载 -> 定时任务启用 -> 任务调度
+ * 注意事项: 用于热点库存回写等后台任务
+ * 
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // 定时任务配置已通过注解完成
+}
@@ -121,9 +121,12 @@ public class SecurityConfig {
         
         // 允许的头部
         configuration.setAllowedHeaders(Arrays.asList(
-            "Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin"
+            "Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin", "Idempotency-Key"
         ));
         
+        // 允许前端读取的响应头
+        configuration.setExposedHeaders(Arrays.asList("Idempotent-Replayed"));
+        
         // 允许发送凭证
         configuration.setAllowCredentials(true);
         
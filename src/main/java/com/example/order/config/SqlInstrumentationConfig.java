@@ -0,0 +1,232 @@
+package com.example.order.config;
+
+import com.example.order.util.SqlStatementStats;
+import com.example.order.util.TimedDataSourceProxy;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * SQL统计配置类
+ *
+ * 功能: 统计每个HTTP请求执行的SQL语句数与JDBC耗时，写入MDC、日志和响应头，并记录慢SQL及其绑定参数
+ * 逻辑链: 请求过滤器开始统计 -> StatementInspector 计数Hibernate语句 / 数据源代理计时JDBC执行
+ * -> 响应提交前写入 X-SQL-Count / X-SQL-Time-Ms / X-Hibernate-Statements -> 请求结束写MDC并记录汇总日志
+ * 注意事项: 默认关闭（app.sql-instrumentation.enabled），建议仅在开发/测试环境开启，响应头另由
+ * app.sql-instrumentation.response-headers 控制；流式响应的响应头只包含开始写出前的统计
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.sql-instrumentation", name = "enabled", havingValue = "true")
+public class SqlInstrumentationConfig {
+
+    /**
+     * 响应头：JDBC语句执行次数
+     */
+    public static final String STATEMENT_COUNT_HEADER = "X-SQL-Count";
+
+    /**
+     * 响应头：JDBC累计耗时（毫秒）
+     */
+    public static final String JDBC_TIME_HEADER = "X-SQL-Time-Ms";
+
+    /**
+     * 响应头：Hibernate生成的语句数
+     */
+    public static final String HIBERNATE_STATEMENTS_HEADER = "X-Hibernate-Statements";
+
+    /**
+     * 数据源计时代理
+     *
+     * @param environment 环境配置
+     * @return 数据源后处理器
+     */
+    @Bean
+    public static BeanPostProcessor sqlTimingDataSourcePostProcessor(Environment environment) {
+        long slowQueryThresholdMillis = environment.getProperty(
+                "app.sql-instrumentation.slow-query-threshold-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource
+                        ? TimedDataSourceProxy.wrap((DataSource) bean, slowQueryThresholdMillis) : bean;
+            }
+        };
+    }
+
+    /**
+     * Hibernate语句计数
+     *
+     * @return Hibernate属性定制器
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+    }
+
+    /**
+     * 请求级SQL统计过滤器
+     *
+     * @param environment 环境配置
+     * @return 过滤器注册
+     */
+    @Bean
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(Environment environment) {
+        boolean responseHeaders = environment.getProperty(
+                "app.sql-instrumentation.response-headers", Boolean.class, false);
+        int warnStatements = environment.getProperty(
+                "app.sql-instrumentation.warn-statements", Integer.class, 50);
+        FilterRegistrationBean<SqlStatsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatsFilter(responseHeaders, warnStatements));
+        // 排在安全过滤器之前，JWT认证加载用户的查询也计入
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * 统计Hibernate生成的语句，不修改SQL
+     */
+    static final class CountingStatementInspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            SqlStatementStats.recordHibernateStatement();
+            return sql;
+        }
+    }
+
+    /**
+     * 请求级SQL统计过滤器
+     */
+    @Slf4j
+    static final class SqlStatsFilter extends OncePerRequestFilter {
+
+        static final String MDC_STATEMENT_COUNT = "sqlCount";
+        static final String MDC_JDBC_TIME = "sqlTimeMs";
+        static final String MDC_HIBERNATE_STATEMENTS = "hibernateStatements";
+
+        private final boolean responseHeaders;
+        private final int warnStatements;
+
+        SqlStatsFilter(boolean responseHeaders, int warnStatements) {
+            this.responseHeaders = responseHeaders;
+            this.warnStatements = warnStatements;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            SqlStatementStats stats = SqlStatementStats.start();
+            StatsHeaderResponse headerResponse = responseHeaders ? new StatsHeaderResponse(response, stats) : null;
+            try {
+                filterChain.doFilter(request, headerResponse != null ? headerResponse : response);
+            } finally {
+                if (headerResponse != null) {
+                    headerResponse.writeHeaders();
+                }
+                MDC.put(MDC_STATEMENT_COUNT, String.valueOf(stats.getStatementCount()));
+                MDC.put(MDC_JDBC_TIME, String.valueOf(stats.getJdbcTimeMillis()));
+                MDC.put(MDC_HIBERNATE_STATEMENTS, String.valueOf(stats.getHibernateStatementCount()));
+                try {
+                    if (warnStatements > 0 && stats.getStatementCount() > warnStatements) {
+                        log.warn("请求SQL语句过多 {} {}: 语句 {}，Hibernate语句 {}，JDBC耗时 {} ms",
+                                request.getMethod(), request.getRequestURI(), stats.getStatementCount(),
+                                stats.getHibernateStatementCount(), stats.getJdbcTimeMillis());
+                    } else {
+                        log.debug("请求SQL统计 {} {}: 语句 {}，Hibernate语句 {}，JDBC耗时 {} ms",
+                                request.getMethod(), request.getRequestURI(), stats.getStatementCount(),
+                                stats.getHibernateStatementCount(), stats.getJdbcTimeMillis());
+                    }
+                } finally {
+                    MDC.remove(MDC_STATEMENT_COUNT);
+                    MDC.remove(MDC_JDBC_TIME);
+                    MDC.remove(MDC_HIBERNATE_STATEMENTS);
+                    SqlStatementStats.stop();
+                }
+            }
+        }
+    }
+
+    /**
+     * 在响应提交前写入统计响应头
+     */
+    private static final class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementStats stats;
+        private boolean written;
+
+        private StatsHeaderResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENT_COUNT_HEADER, String.valueOf(stats.getStatementCount()));
+            setHeader(JDBC_TIME_HEADER, String.valueOf(stats.getJdbcTimeMillis()));
+            setHeader(HIBERNATE_STATEMENTS_HEADER, String.valueOf(stats.getHibernateStatementCount()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.order.config;
+
+import com.example.order.util.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 虚拟线程配置类
+ *
+ * 功能: 让Tomcat请求处理、异步任务（流式响应、@Async）与定时任务运行在虚拟线程上
+ * 逻辑链: 每个请求/任务一个虚拟线程 -> 阻塞在JDBC、连接池时让出载体线程 -> 并发连接数不再受固定工作线程池限制
+ * 注意事项: 默认关闭（app.virtual-threads.enabled），需JDK 21及以上，运行时不支持时启动失败；
+ * 数据库并发仍由连接池大小限制，超出的请求在 Hikari 中等待（不占用载体线程）；
+ * 持有 synchronized 监视器时阻塞会钉住载体线程，热点路径上的锁使用 ReentrantLock，
+ * MySQL驱动需使用 Connector/J 9.0 及以上（mvn -Pvirtual-threads 已切换）
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Tomcat请求处理执行器
+     *
+     * @return 每个请求一个虚拟线程的执行器
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadRequestExecutor() {
+        log.info("虚拟线程模式已开启，JDK版本: {}", System.getProperty("java.version"));
+        return VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+    }
+
+    /**
+     * Tomcat使用虚拟线程处理请求
+     *
+     * @param executor 请求处理执行器
+     * @return 协议处理器定制器
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            @Qualifier("virtualThreadRequestExecutor") ExecutorService executor) {
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * 异步任务执行器（流式响应、@Async）
+     *
+     * @return 每个任务一个虚拟线程的执行器
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadTaskExecutorService() {
+        return VirtualThreads.newThreadPerTaskExecutor("task-vt-");
+    }
+
+    /**
+     * 替换默认的 applicationTaskExecutor 线程池
+     *
+     * @param executor 异步任务执行器
+     * @return 异步任务执行器
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(
+            @Qualifier("virtualThreadTaskExecutorService") ExecutorService executor) {
+        return new TaskExecutorAdapter(executor);
+    }
+
+    /**
+     * 定时任务调度器
+     *
+     * 注意事项: 调度线程为虚拟线程，同一时刻最多执行 pool-size 个定时任务
+     *
+     * @param poolSize 调度线程数
+     * @return 调度器
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadFactory(VirtualThreads.threadFactory("scheduling-vt-"));
+        scheduler.setPoolSize(poolSize);
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        return scheduler;
+    }
+}
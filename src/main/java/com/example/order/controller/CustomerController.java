@@ -1,7 +1,10 @@
 package com.example.order.controller;
 
+import com.example.order.dto.CursorPage;
 import com.example.order.dto.CustomerDTO;
+import com.example.order.dto.CustomerSuggestionDTO;
 import com.example.order.service.CustomerService;
+import com.example.order.service.CustomerSuggestIndex;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -9,6 +12,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +20,9 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.util.List;
@@ -201,6 +208,65 @@ public class CustomerController {
         return ResponseEntity.ok(customers);
     }
 
+    /**
+     * 游标分页查询客户
+     * 
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页条数
+     * @return 客户游标分页结果
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询客户", description = "按ID升序游标分页，不统计总记录数，适合深翻页")
+    public ResponseEntity<CursorPage<CustomerDTO>> getCustomersByCursor(
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        
+        log.info("游标分页查询客户，游标: {}, 大小: {}", cursor, size);
+        
+        CursorPage<CustomerDTO> customers = customerService.findByCursor(cursor, size);
+        log.info("客户游标查询完成，本页记录数: {}, 是否有下一页: {}", customers.getSize(), customers.isHasNext());
+        
+        return ResponseEntity.ok(customers);
+    }
+
+    /**
+     * 分页查询客户（不统计总记录数）
+     * 
+     * @param pageable 分页参数
+     * @return 客户切片
+     */
+    @GetMapping("/slice")
+    @Operation(summary = "分页查询客户（不统计总数）", description = "与分页查询相同，但不执行COUNT查询，只返回是否有下一页")
+    public ResponseEntity<Slice<CustomerDTO>> getCustomersSlice(
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        log.info("切片查询客户，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
+        
+        Slice<CustomerDTO> customers = customerService.findSlice(pageable);
+        log.info("客户切片查询完成，本页记录数: {}, 是否有下一页: {}", customers.getNumberOfElements(), customers.hasNext());
+        
+        return ResponseEntity.ok(customers);
+    }
+
+    /**
+     * 客户输入联想
+     * 
+     * @param prefix 输入前缀
+     * @param limit 返回数量
+     * @return 客户建议列表
+     */
+    @GetMapping("/suggest")
+    @Operation(summary = "客户输入联想", description = "按名称、联系人、客户编码、电话、邮箱的前缀联想客户，最近下单的客户排在前面")
+    public ResponseEntity<List<CustomerSuggestionDTO>> suggestCustomers(
+            @Parameter(description = "输入前缀") @RequestParam @NotBlank String prefix,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "10")
+            @Min(1) @Max(CustomerSuggestIndex.MAX_SUGGESTIONS) int limit) {
+        
+        log.debug("客户输入联想，前缀: {}, 数量: {}", prefix, limit);
+        
+        return ResponseEntity.ok(customerService.suggestCustomers(prefix, limit));
+    }
+
     /**
      * 根据名称搜索客户
      * 
@@ -1,7 +1,14 @@
 package com.example.order.controller;
 
+import com.example.order.dto.BulkImportJobDTO;
+import com.example.order.dto.CursorPage;
 import com.example.order.dto.OrderDTO;
 import com.example.order.dto.OrderItemDTO;
+import com.example.order.dto.OrderSummaryDTO;
+import com.example.order.exception.CustomException;
+import com.example.order.service.OrderBulkImportService;
+import com.example.order.service.OrderExportService;
+import com.example.order.service.OrderIdempotencyService;
 import com.example.order.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,18 +17,29 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * 订单管理控制器
@@ -38,24 +56,50 @@ import java.util.List;
 @Tag(name = "订单管理", description = "订单相关API接口")
 public class OrderController {
 
+    /**
+     * 幂等键请求头
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * 幂等重放响应头
+     */
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderBulkImportService orderBulkImportService;
 
     /**
      * 创建订单
      * 
-     * @param orderDTO 订单信息
-     * @param orderItems 订单项列表
+     * 注意事项: 携带 Idempotency-Key 请求头时按键去重，重复请求返回首次创建的订单，
+     * 并带 Idempotent-Replayed: true 响应头
+     * 
+     * @param orderDTO 订单信息（订单项放在 items 字段中）
+     * @param idempotencyKey 幂等键，可选
      * @return 创建的订单信息
      */
     @PostMapping
-    @Operation(summary = "创建订单", description = "创建新订单，包含订单项信息")
-    public ResponseEntity<OrderDTO> createOrder(
-            @Valid @RequestBody OrderDTO orderDTO,
-            @RequestBody(required = false) List<OrderItemDTO> orderItems) {
+    @Operation(summary = "创建订单", description = "创建新订单，包含订单项信息；可通过 Idempotency-Key 请求头安全重试")
+    public ResponseEntity<OrderDTO> createOrder(@Valid @RequestBody OrderDTO orderDTO,
+            @Parameter(description = "幂等键（最长64个字符）")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         
         log.info("开始创建订单，客户ID: {}", orderDTO.getCustomerId());
         
         try {
+            List<OrderItemDTO> orderItems = orderDTO.getItems() != null
+                    ? orderDTO.getItems() : Collections.<OrderItemDTO>emptyList();
+            if (idempotencyKey != null) {
+                OrderIdempotencyService.IdempotentResult result =
+                        orderIdempotencyService.createOrder(idempotencyKey, orderDTO, orderItems);
+                log.info("订单创建成功，订单ID: {}, 幂等重放: {}", result.getOrder().getId(), result.isReplayed());
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.isReplayed()))
+                        .body(result.getOrder());
+            }
             OrderDTO createdOrder = orderService.createOrder(orderDTO, orderItems);
             log.info("订单创建成功，订单ID: {}", createdOrder.getId());
             
@@ -66,6 +110,65 @@ public class OrderController {
         }
     }
 
+    /**
+     * 批量导入订单
+     * 
+     * 注意事项: 请求体按 Content-Type 解析为NDJSON（每行一个订单）或CSV（每行一个订单项）；
+     * 请求体读取完毕后返回任务摘要，部分分块可能仍在处理，逐行结果通过结果流获取
+     * 
+     * @param contentType 请求体格式
+     * @param body 请求体
+     * @return 任务摘要
+     */
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "批量导入订单", description = "流式读取NDJSON或CSV订单，按分块并行创建，返回任务ID")
+    public ResponseEntity<BulkImportJobDTO> importOrders(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        
+        log.info("开始批量导入订单，格式: {}", contentType);
+        
+        BulkImportJobDTO job = orderBulkImportService.importOrders(body,
+                OrderBulkImportService.ImportFormat.fromContentType(contentType));
+        log.info("批量导入订单已受理，任务ID: {}, 订单数: {}", job.getJobId(), job.getRows());
+        
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(HttpHeaders.LOCATION, "/api/v1/orders/bulk/" + job.getJobId())
+                .body(job);
+    }
+
+    /**
+     * 查询批量导入任务
+     * 
+     * @param jobId 任务ID
+     * @return 任务摘要
+     */
+    @GetMapping("/bulk/{jobId}")
+    @Operation(summary = "查询批量导入任务", description = "查询批量导入任务的进度与成功、拒绝数量")
+    public ResponseEntity<BulkImportJobDTO> getImportJob(
+            @Parameter(description = "任务ID") @PathVariable String jobId) {
+        return ResponseEntity.ok(orderBulkImportService.getJob(jobId));
+    }
+
+    /**
+     * 批量导入逐行结果流
+     * 
+     * @param jobId 任务ID
+     * @return NDJSON结果流，任务完成后结束
+     */
+    @GetMapping("/bulk/{jobId}/results")
+    @Operation(summary = "批量导入结果", description = "以NDJSON流式返回每个订单的处理结果，任务完成后结束")
+    public ResponseEntity<StreamingResponseBody> getImportResults(
+            @Parameter(description = "任务ID") @PathVariable String jobId) {
+        
+        // 任务不存在时在进入流式响应前返回404
+        orderBulkImportService.getJob(jobId);
+        StreamingResponseBody body = out -> orderBulkImportService.writeResults(jobId, out);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+                .body(body);
+    }
+
     /**
      * 根据ID查询订单
      * 
@@ -237,21 +340,64 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * 游标分页查询订单
+     * 
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页条数
+     * @return 订单游标分页结果
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询订单", description = "按创建时间、ID倒序游标分页，不统计总记录数，适合深翻页")
+    public ResponseEntity<CursorPage<OrderDTO>> getOrdersByCursor(
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        
+        log.info("游标分页查询订单，游标: {}, 大小: {}", cursor, size);
+        
+        CursorPage<OrderDTO> orders = orderService.findByCursor(cursor, size);
+        log.info("订单游标查询完成，本页记录数: {}, 是否有下一页: {}", orders.getSize(), orders.isHasNext());
+        
+        return ResponseEntity.ok(orders);
+    }
+
+    /**
+     * 分页查询订单（不统计总记录数）
+     * 
+     * @param pageable 分页参数
+     * @return 订单切片
+     */
+    @GetMapping("/slice")
+    @Operation(summary = "分页查询订单（不统计总数）", description = "与分页查询相同，但不执行COUNT查询，只返回是否有下一页")
+    public ResponseEntity<Slice<OrderDTO>> getOrdersSlice(
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        log.info("切片查询订单，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
+        
+        Slice<OrderDTO> orders = orderService.findSlice(pageable);
+        log.info("订单切片查询完成，本页记录数: {}, 是否有下一页: {}", orders.getNumberOfElements(), orders.hasNext());
+        
+        return ResponseEntity.ok(orders);
+    }
+
     /**
      * 根据客户ID查询订单
      * 
      * @param customerId 客户ID
-     * @return 订单列表
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
      */
     @GetMapping("/customer/{customerId}")
-    @Operation(summary = "根据客户ID查询订单", description = "查询指定客户的所有订单")
-    public ResponseEntity<List<OrderDTO>> getOrdersByCustomerId(
-            @Parameter(description = "客户ID") @PathVariable @NotNull Long customerId) {
+    @Operation(summary = "根据客户ID查询订单", description = "分页查询指定客户的订单摘要")
+    public ResponseEntity<Page<OrderSummaryDTO>> getOrdersByCustomerId(
+            @Parameter(description = "客户ID") @PathVariable @NotNull Long customerId,
+            @PageableDefault(size = 20) Pageable pageable) {
         
-        log.info("根据客户ID查询订单，客户ID: {}", customerId);
+        log.info("根据客户ID查询订单，客户ID: {}, 页码: {}, 大小: {}",
+                customerId, pageable.getPageNumber(), pageable.getPageSize());
         
-        List<OrderDTO> orders = orderService.findByCustomerId(customerId);
-        log.info("客户订单查询完成，客户ID: {}, 订单数量: {}", customerId, orders.size());
+        Page<OrderSummaryDTO> orders = orderService.findByCustomerId(customerId, pageable);
+        log.info("客户订单查询完成，客户ID: {}, 总记录数: {}", customerId, orders.getTotalElements());
         
         return ResponseEntity.ok(orders);
     }
@@ -260,18 +406,21 @@ public class OrderController {
      * 根据状态查询订单
      * 
      * @param status 订单状态
-     * @return 订单列表
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
      */
     @GetMapping("/status/{status}")
-    @Operation(summary = "根据状态查询订单", description = "查询指定状态的所有订单")
-    public ResponseEntity<List<OrderDTO>> getOrdersByStatus(
-            @Parameter(description = "订单状态") @PathVariable @NotNull String status) {
+    @Operation(summary = "根据状态查询订单", description = "分页查询指定状态的订单摘要")
+    public ResponseEntity<Page<OrderSummaryDTO>> getOrdersByStatus(
+            @Parameter(description = "订单状态") @PathVariable @NotNull String status,
+            @PageableDefault(size = 20) Pageable pageable) {
         
-        log.info("根据状态查询订单，状态: {}", status);
+        log.info("根据状态查询订单，状态: {}, 页码: {}, 大小: {}",
+                status, pageable.getPageNumber(), pageable.getPageSize());
         
-        List<OrderDTO> orders = orderService.findByStatus(
-                com.example.order.entity.Order.OrderStatus.valueOf(status));
-        log.info("状态订单查询完成，状态: {}, 订单数量: {}", status, orders.size());
+        Page<OrderSummaryDTO> orders = orderService.findByStatus(
+                com.example.order.entity.Order.OrderStatus.valueOf(status), pageable);
+        log.info("状态订单查询完成，状态: {}, 总记录数: {}", status, orders.getTotalElements());
         
         return ResponseEntity.ok(orders);
     }
@@ -280,18 +429,21 @@ public class OrderController {
      * 根据支付状态查询订单
      * 
      * @param paymentStatus 支付状态
-     * @return 订单列表
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
      */
     @GetMapping("/payment-status/{paymentStatus}")
-    @Operation(summary = "根据支付状态查询订单", description = "查询指定支付状态的所有订单")
-    public ResponseEntity<List<OrderDTO>> getOrdersByPaymentStatus(
-            @Parameter(description = "支付状态") @PathVariable @NotNull String paymentStatus) {
+    @Operation(summary = "根据支付状态查询订单", description = "分页查询指定支付状态的订单摘要")
+    public ResponseEntity<Page<OrderSummaryDTO>> getOrdersByPaymentStatus(
+            @Parameter(description = "支付状态") @PathVariable @NotNull String paymentStatus,
+            @PageableDefault(size = 20) Pageable pageable) {
         
-        log.info("根据支付状态查询订单，支付状态: {}", paymentStatus);
+        log.info("根据支付状态查询订单，支付状态: {}, 页码: {}, 大小: {}",
+                paymentStatus, pageable.getPageNumber(), pageable.getPageSize());
         
-        List<OrderDTO> orders = orderService.findByPaymentStatus(
-                com.example.order.entity.Order.PaymentStatus.valueOf(paymentStatus));
-        log.info("支付状态订单查询完成，支付状态: {}, 订单数量: {}", paymentStatus, orders.size());
+        Page<OrderSummaryDTO> orders = orderService.findByPaymentStatus(
+                com.example.order.entity.Order.PaymentStatus.valueOf(paymentStatus), pageable);
+        log.info("支付状态订单查询完成，支付状态: {}, 总记录数: {}", paymentStatus, orders.getTotalElements());
         
         return ResponseEntity.ok(orders);
     }
@@ -321,6 +473,47 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * 流式导出订单
+     * 
+     * @param format 导出格式（ndjson/csv）
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @param status 订单状态
+     * @param customerId 客户ID
+     * @param gzip 是否gzip压缩
+     * @return 导出文件流；格式或状态取值无效时返回400
+     */
+    @GetMapping("/export")
+    @Operation(summary = "导出订单", description = "按条件流式导出订单为NDJSON或CSV，可选gzip压缩，内存占用与行数无关")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @Parameter(description = "导出格式：ndjson/csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "开始日期") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "结束日期") 
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "订单状态") @RequestParam(required = false) String status,
+            @Parameter(description = "客户ID") @RequestParam(required = false) Long customerId,
+            @Parameter(description = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        log.info("导出订单，格式: {}, 范围: {} - {}, 状态: {}, 客户ID: {}", format, startDate, endDate, status, customerId);
+        
+        OrderExportService.ExportFormat exportFormat =
+                parseEnum(OrderExportService.ExportFormat.class, "format", format);
+        com.example.order.entity.Order.OrderStatus orderStatus = status == null ? null
+                : parseEnum(com.example.order.entity.Order.OrderStatus.class, "status", status);
+        String filename = "orders." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        
+        StreamingResponseBody body = out -> orderExportService.export(
+                startDate, endDate, orderStatus, customerId, exportFormat, gzip, out);
+        
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     /**
      * 检查订单编号是否存在
      * 
@@ -396,4 +589,22 @@ public class OrderController {
         
         return ResponseEntity.ok(totalAmount);
     }
-} 
\ No newline at end of file
+
+    /**
+     * 解析枚举型请求参数（不区分大小写）
+     *
+     * @param type 枚举类型
+     * @param name 参数名
+     * @param value 参数值
+     * @return 枚举值
+     * @throws CustomException 取值无效时抛出，返回400
+     */
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new CustomException("参数 " + name + " 取值无效: " + value + "，可选值: "
+                    + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+}
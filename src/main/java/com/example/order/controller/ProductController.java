@@ -1,6 +1,12 @@
 package com.example.order.controller;
 
+import com.example.order.dto.CursorPage;
+import com.example.order.dto.ProductBrowseDTO;
+import com.example.order.dto.ProductBrowseRequest;
 import com.example.order.dto.ProductDTO;
+import com.example.order.dto.ProductSearchPage;
+import com.example.order.dto.ProductSummaryDTO;
+import com.example.order.service.ProductSearchIndex;
 import com.example.order.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,6 +15,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +23,8 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.util.List;
@@ -201,6 +210,46 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * 游标分页查询产品
+     * 
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页条数
+     * @return 产品游标分页结果
+     */
+    @GetMapping("/cursor")
+    @Operation(summary = "游标分页查询产品", description = "按ID升序游标分页，不统计总记录数，适合深翻页")
+    public ResponseEntity<CursorPage<ProductDTO>> getProductsByCursor(
+            @Parameter(description = "上一页返回的游标") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页条数") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        
+        log.info("游标分页查询产品，游标: {}, 大小: {}", cursor, size);
+        
+        CursorPage<ProductDTO> products = productService.findByCursor(cursor, size);
+        log.info("产品游标查询完成，本页记录数: {}, 是否有下一页: {}", products.getSize(), products.isHasNext());
+        
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * 分页查询产品（不统计总记录数）
+     * 
+     * @param pageable 分页参数
+     * @return 产品切片
+     */
+    @GetMapping("/slice")
+    @Operation(summary = "分页查询产品（不统计总数）", description = "与分页查询相同，但不执行COUNT查询，只返回是否有下一页")
+    public ResponseEntity<Slice<ProductDTO>> getProductsSlice(
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        log.info("切片查询产品，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
+        
+        Slice<ProductDTO> products = productService.findSlice(pageable);
+        log.info("产品切片查询完成，本页记录数: {}, 是否有下一页: {}", products.getNumberOfElements(), products.hasNext());
+        
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * 搜索产品
      * 
@@ -209,22 +258,45 @@ public class ProductController {
      * @return 产品分页结果
      */
     @GetMapping("/search")
-    @Operation(summary = "搜索产品", description = "根据关键词搜索产品")
-    public ResponseEntity<Page<ProductDTO>> searchProducts(
+    @Operation(summary = "搜索产品", description = "在名称、编码、分类、描述中按关键词搜索产品，结果按相关度排序（忽略sort参数），英文与数字支持前缀匹配，"
+            + "单个前缀最多展开为" + ProductSearchIndex.MAX_PREFIX_EXPANSIONS + "个词项（保留包含产品最多的），截断时 prefixTruncated 为 true")
+    public ResponseEntity<ProductSearchPage> searchProducts(
             @Parameter(description = "搜索关键词") @RequestParam @NotNull String keyword,
             @PageableDefault(size = 20) Pageable pageable) {
         
         log.info("搜索产品，关键词: {}", keyword);
         
-        Page<ProductDTO> products = productService.searchProducts(keyword, pageable);
+        ProductSearchPage products = productService.searchProducts(keyword, pageable);
         log.info("产品搜索完成，关键词: {}, 总记录数: {}", keyword, products.getTotalElements());
         
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * 组合筛选产品
+     *
+     * @param request 筛选条件
+     * @param pageable 分页参数
+     * @return 本页产品与分面计数
+     */
+    @GetMapping("/browse")
+    @Operation(summary = "组合筛选产品", description = "按分类、状态（均可多选）、价格范围、库存范围、库存不足任意组合筛选产品，"
+            + "返回分类与状态的分面计数（每个分面忽略自身条件），结果按产品ID升序（忽略sort参数）")
+    public ResponseEntity<ProductBrowseDTO> browseProducts(
+            @Valid ProductBrowseRequest request,
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        log.debug("组合筛选产品，条件: {}", request);
+
+        ProductBrowseDTO products = productService.browseProducts(request, pageable);
+        log.debug("产品组合筛选完成，总记录数: {}", products.getTotalElements());
+
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * 根据状态查询产品
-     * 
+     *
      * @param status 产品状态
      * @return 产品列表
      */
@@ -264,16 +336,18 @@ public class ProductController {
     /**
      * 查询所有活跃产品
      * 
-     * @return 活跃产品列表
+     * @param pageable 分页参数
+     * @return 活跃产品摘要分页结果
      */
     @GetMapping("/active")
-    @Operation(summary = "查询活跃产品", description = "查询所有状态为活跃的产品")
-    public ResponseEntity<List<ProductDTO>> getActiveProducts() {
+    @Operation(summary = "查询活跃产品", description = "分页查询状态为活跃的产品摘要")
+    public ResponseEntity<Page<ProductSummaryDTO>> getActiveProducts(
+            @PageableDefault(size = 20) Pageable pageable) {
         
-        log.info("查询活跃产品");
+        log.info("查询活跃产品，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
         
-        List<ProductDTO> products = productService.findAllActiveProducts();
-        log.info("活跃产品查询完成，产品数量: {}", products.size());
+        Page<ProductSummaryDTO> products = productService.findAllActiveProducts(pageable);
+        log.info("活跃产品查询完成，总记录数: {}", products.getTotalElements());
         
         return ResponseEntity.ok(products);
     }
@@ -281,16 +355,18 @@ public class ProductController {
     /**
      * 查询库存不足的产品
      * 
-     * @return 库存不足产品列表
+     * @param pageable 分页参数
+     * @return 库存不足产品摘要分页结果
      */
     @GetMapping("/low-stock")
-    @Operation(summary = "查询库存不足产品", description = "查询库存低于最小库存的产品")
-    public ResponseEntity<List<ProductDTO>> getLowStockProducts() {
+    @Operation(summary = "查询库存不足产品", description = "分页查询库存低于最小库存的产品摘要")
+    public ResponseEntity<Page<ProductSummaryDTO>> getLowStockProducts(
+            @PageableDefault(size = 20) Pageable pageable) {
         
-        log.info("查询库存不足产品");
+        log.info("查询库存不足产品，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
         
-        List<ProductDTO> products = productService.findLowStockProducts();
-        log.info("库存不足产品查询完成，产品数量: {}", products.size());
+        Page<ProductSummaryDTO> products = productService.findLowStockProducts(pageable);
+        log.info("库存不足产品查询完成，总记录数: {}", products.getTotalElements());
         
         return ResponseEntity.ok(products);
     }
@@ -0,0 +1,63 @@
+package com.example.order.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 批量导入任务摘要
+ *
+ * 功能: 描述一次批量导入任务的进度
+ * 逻辑链: 上传读取中 -> RUNNING；上传读取完毕且所有分块处理完成 -> COMPLETED
+ * 注意事项: rows 为已读取的订单数，created + rejected 为已得出结果的订单数；任务完成后保留一段时间供查询
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+public class BulkImportJobDTO {
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    /**
+     * 任务ID
+     */
+    private String jobId;
+
+    /**
+     * 任务状态
+     */
+    private Status status;
+
+    /**
+     * 已读取的订单数
+     */
+    private long rows;
+
+    /**
+     * 创建成功的订单数
+     */
+    private long created;
+
+    /**
+     * 被拒绝的订单数
+     */
+    private long rejected;
+
+    /**
+     * 开始时间
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * 完成时间
+     */
+    private LocalDateTime completedAt;
+}
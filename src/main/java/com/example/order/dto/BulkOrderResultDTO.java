@@ -0,0 +1,82 @@
+package com.example.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * 批量导入单行结果
+ *
+ * 功能: 描述批量导入中一行订单的处理结果
+ * 逻辑链: 解析失败/校验失败/库存不足 -> REJECTED 并给出原因；分块提交成功 -> CREATED 并给出订单ID与编号
+ * 注意事项: row 为数据行序号（从1开始，不含CSV表头）；结果按分块完成顺序输出，不保证与行序一致
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResultDTO {
+
+    /**
+     * 行处理状态
+     */
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    /**
+     * 数据行序号
+     */
+    private Long row;
+
+    /**
+     * 处理状态
+     */
+    private Status status;
+
+    /**
+     * 订单ID（创建成功时）
+     */
+    private Long orderId;
+
+    /**
+     * 订单编号（创建成功时为最终编号，失败时为请求中的编号）
+     */
+    private String orderNumber;
+
+    /**
+     * 失败原因
+     */
+    private String error;
+
+    /**
+     * 创建成功结果
+     *
+     * @param order 已创建的订单
+     * @return 行结果
+     */
+    public static BulkOrderResultDTO created(OrderDTO order) {
+        BulkOrderResultDTO result = new BulkOrderResultDTO();
+        result.setStatus(Status.CREATED);
+        result.setOrderId(order.getId());
+        result.setOrderNumber(order.getOrderNumber());
+        return result;
+    }
+
+    /**
+     * 拒绝结果
+     *
+     * @param orderNumber 请求中的订单编号，可为null
+     * @param error 失败原因
+     * @return 行结果
+     */
+    public static BulkOrderResultDTO rejected(String orderNumber, String error) {
+        BulkOrderResultDTO result = new BulkOrderResultDTO();
+        result.setStatus(Status.REJECTED);
+        result.setOrderNumber(orderNumber);
+        result.setError(error);
+        return result;
+    }
+}
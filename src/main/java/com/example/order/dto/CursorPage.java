@@ -0,0 +1,56 @@
+package com.example.order.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ *
+ * 功能: 返回一页数据及获取下一页的续传游标
+ * 逻辑链: 按排序键定位到游标之后 -> 多取一条判断是否还有下一页 -> 以本页最后一条生成下一页游标
+ * 注意事项: 不返回总记录数，不执行COUNT查询；游标为不透明字符串，客户端原样回传即可
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+public class CursorPage<T> {
+
+    /**
+     * 本页数据
+     */
+    private List<T> content;
+
+    /**
+     * 本页条数
+     */
+    private int size;
+
+    /**
+     * 是否还有下一页
+     */
+    private boolean hasNext;
+
+    /**
+     * 下一页游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 创建游标分页结果
+     *
+     * @param content 本页数据
+     * @param nextCursor 下一页游标，没有下一页时为null
+     * @return 游标分页结果
+     */
+    public static <T> CursorPage<T> of(List<T> content, String nextCursor) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setContent(content);
+        page.setSize(content.size());
+        page.setHasNext(nextCursor != null);
+        page.setNextCursor(nextCursor);
+        return page;
+    }
+}
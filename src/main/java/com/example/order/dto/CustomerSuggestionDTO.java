@@ -0,0 +1,65 @@
+package com.example.order.dto;
+
+import com.example.order.entity.Customer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 客户输入建议
+ *
+ * 功能: 下单页面输入联想返回的客户摘要
+ * 逻辑链: 前缀树按输入前缀取最近下单的客户 -> 由索引中的客户快照构造 -> 列表返回
+ * 注意事项: 不查询数据库，字段来自客户索引快照；从未下单的客户 lastOrderAt 为null
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSuggestionDTO {
+
+    /**
+     * 客户ID
+     */
+    private Long id;
+
+    /**
+     * 客户编码
+     */
+    private String customerCode;
+
+    /**
+     * 客户名称
+     */
+    private String name;
+
+    /**
+     * 联系人
+     */
+    private String contactPerson;
+
+    /**
+     * 电话
+     */
+    private String phone;
+
+    /**
+     * 邮箱
+     */
+    private String email;
+
+    /**
+     * 客户状态
+     */
+    private Customer.CustomerStatus status;
+
+    /**
+     * 最近下单时间
+     */
+    private LocalDateTime lastOrderAt;
+}
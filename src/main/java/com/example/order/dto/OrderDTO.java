@@ -1,6 +1,7 @@
 package com.example.order.dto;
 
 import com.example.order.entity.Order;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import javax.validation.constraints.DecimalMin;
@@ -9,6 +10,7 @@ import javax.validation.constraints.Size;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 订单数据传输对象
@@ -30,10 +32,9 @@ public class OrderDTO {
     private Long id;
 
     /**
-     * 订单编号
+     * 订单编号（创建时可不填，由服务端生成）
      */
-    @NotNull(message = "订单编号不能为空")
-    @Size(max = 50, message = "订单编号长度不能超过50个字符")
+    @Size(max = 20, message = "订单编号长度不能超过20个字符")
     private String orderNumber;
 
     /**
@@ -115,6 +116,12 @@ public class OrderDTO {
      */
     private LocalDateTime updatedAt;
 
+    /**
+     * 订单项（仅创建订单请求使用，查询结果中不返回）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<OrderItemDTO> items;
+
     /**
      * 从实体转换为DTO
      *
@@ -0,0 +1,72 @@
+package com.example.order.dto;
+
+import com.example.order.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 订单摘要
+ *
+ * 功能: 订单列表查询的构造器投影，只包含列表展示需要的列
+ * 逻辑链: JPQL SELECT new -> 直接构造摘要对象 -> 分页返回
+ * 注意事项: 不经过实体加载和脏检查；构造器参数顺序与仓库查询中的列顺序一致，增减字段时需同步修改查询
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+
+    /**
+     * 订单ID
+     */
+    private Long id;
+
+    /**
+     * 订单编号
+     */
+    private String orderNumber;
+
+    /**
+     * 客户ID
+     */
+    private Long customerId;
+
+    /**
+     * 订单日期
+     */
+    private LocalDate orderDate;
+
+    /**
+     * 订单状态
+     */
+    private Order.OrderStatus status;
+
+    /**
+     * 最终金额
+     */
+    private BigDecimal finalAmount;
+
+    /**
+     * 货币
+     */
+    private String currency;
+
+    /**
+     * 支付状态
+     */
+    private Order.PaymentStatus paymentStatus;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdAt;
+}
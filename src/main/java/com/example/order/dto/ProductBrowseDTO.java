@@ -0,0 +1,58 @@
+package com.example.order.dto;
+
+import com.example.order.entity.Product;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 产品目录浏览结果
+ *
+ * 功能: 返回一页筛选结果及各维度的分面计数
+ * 逻辑链: 按条件筛选 -> 按产品ID升序分页 -> 统计分面计数
+ * 注意事项: 分类与状态的分面计数不应用该维度自身的条件（其余条件照常应用），
+ * 便于客户端展示切换或追加该维度取值后的结果数；lowStockCount 应用全部条件
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+public class ProductBrowseDTO {
+
+    /**
+     * 本页数据
+     */
+    private List<ProductSummaryDTO> content;
+
+    /**
+     * 页码（从0开始）
+     */
+    private int page;
+
+    /**
+     * 每页条数
+     */
+    private int size;
+
+    /**
+     * 符合条件的产品总数
+     */
+    private long totalElements;
+
+    /**
+     * 各分类的产品数，按数量降序
+     */
+    private Map<String, Long> categoryFacets;
+
+    /**
+     * 各状态的产品数
+     */
+    private Map<Product.ProductStatus, Long> statusFacets;
+
+    /**
+     * 符合条件且库存不足的产品数
+     */
+    private long lowStockCount;
+}
@@ -0,0 +1,63 @@
+package com.example.order.dto;
+
+import com.example.order.entity.Product;
+import lombok.Data;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 产品目录浏览条件
+ *
+ * 功能: 组合筛选产品目录的查询参数
+ * 逻辑链: 查询参数绑定 -> 同一维度内多个取值为"或" -> 不同维度之间为"与"
+ * 注意事项: 所有条件均可省略；价格与库存范围包含边界；最小值大于最大值时结果为空
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+public class ProductBrowseRequest {
+
+    /**
+     * 产品分类，可重复传入
+     */
+    private List<String> category;
+
+    /**
+     * 产品状态，可重复传入
+     */
+    private List<Product.ProductStatus> status;
+
+    /**
+     * 最低价格
+     */
+    @DecimalMin(value = "0.0", message = "最低价格不能为负数")
+    private BigDecimal minPrice;
+
+    /**
+     * 最高价格
+     */
+    @DecimalMin(value = "0.0", message = "最高价格不能为负数")
+    private BigDecimal maxPrice;
+
+    /**
+     * 最小库存
+     */
+    @Min(value = 0, message = "最小库存不能为负数")
+    private Integer minStock;
+
+    /**
+     * 最大库存
+     */
+    @Min(value = 0, message = "最大库存不能为负数")
+    private Integer maxStock;
+
+    /**
+     * 只看库存不足（库存不高于最小库存）的产品
+     */
+    private boolean lowStock;
+}
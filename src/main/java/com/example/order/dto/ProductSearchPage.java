@@ -0,0 +1,36 @@
+package com.example.order.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * 产品搜索结果页
+ *
+ * 功能: 在分页结果上标明英文与数字前缀展开是否被截断
+ * 注意事项: 每个前缀关键词最多展开为包含产品最多的若干个词项（ProductSearchIndex.MAX_PREFIX_EXPANSIONS），
+ * 截断时只命中少数产品的词项不参与匹配，totalElements 可能少于全部前缀命中数，客户端可提示输入更长的关键词
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+public class ProductSearchPage extends PageImpl<ProductDTO> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 是否有前缀关键词的展开词项超过上限
+     */
+    private final boolean prefixTruncated;
+
+    public ProductSearchPage(List<ProductDTO> content, Pageable pageable, long total, boolean prefixTruncated) {
+        super(content, pageable, total);
+        this.prefixTruncated = prefixTruncated;
+    }
+
+    public boolean isPrefixTruncated() {
+        return prefixTruncated;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.order.dto;
+
+import com.example.order.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 产品摘要
+ *
+ * 功能: 产品列表查询的构造器投影，只包含列表展示需要的列
+ * 逻辑链: JPQL SELECT new -> 直接构造摘要对象 -> 分页返回
+ * 注意事项: 不经过实体加载和脏检查；构造器参数顺序与仓库查询中的列顺序一致，增减字段时需同步修改查询
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDTO {
+
+    /**
+     * 产品ID
+     */
+    private Long id;
+
+    /**
+     * 产品编码
+     */
+    private String productCode;
+
+    /**
+     * 产品名称
+     */
+    private String name;
+
+    /**
+     * 产品分类
+     */
+    private String category;
+
+    /**
+     * 单价
+     */
+    private BigDecimal unitPrice;
+
+    /**
+     * 库存数量
+     */
+    private Integer stockQuantity;
+
+    /**
+     * 最小库存
+     */
+    private Integer minStock;
+
+    /**
+     * 产品状态
+     */
+    private Product.ProductStatus status;
+}
@@ -0,0 +1,59 @@
+package com.example.order.entity;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 幂等记录实体类
+ *
+ * 功能: 记录带 Idempotency-Key 的创建订单请求及其创建的订单
+ * 逻辑链: 首次请求 -> 与订单在同一事务中插入 -> 重复请求按键查到订单并返回
+ * 注意事项: idempotency_key 唯一约束保证多实例并发时只有一个请求能提交；
+ * request_hash 为请求体摘要，同一键携带不同请求体时拒绝；过期记录由定时任务清理
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_idempotency_key", columnNames = "idempotency_key")
+}, indexes = {
+    @Index(name = "idx_idempotency_created_at", columnList = "created_at")
+})
+public class IdempotencyRecord {
+
+    /**
+     * 记录ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 幂等键
+     */
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    /**
+     * 请求体摘要（SHA-256，十六进制）
+     */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /**
+     * 创建的订单ID
+     */
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    /**
+     * 创建时间
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
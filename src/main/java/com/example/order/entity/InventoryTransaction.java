@@ -2,6 +2,8 @@ package com.example.order.entity;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -31,10 +33,12 @@ import java.time.LocalDateTime;
 public class InventoryTransaction extends BaseEntity {
 
     /**
-     * 变动ID
+     * 变动ID（按号段从 sequence_blocks 分配，可批量插入）
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "inventory_transaction_id")
+    @GenericGenerator(name = "inventory_transaction_id", strategy = SequenceBlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = "increment_size", value = "500"))
     private Long id;
 
     /**
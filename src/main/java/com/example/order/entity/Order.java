@@ -2,6 +2,8 @@ package com.example.order.entity;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import javax.validation.constraints.DecimalMin;
@@ -33,15 +35,18 @@ import java.util.List;
     @Index(name = "idx_order_date", columnList = "order_date"),
     @Index(name = "idx_status", columnList = "status"),
     @Index(name = "idx_payment_status", columnList = "payment_status"),
-    @Index(name = "idx_created_by", columnList = "created_by")
+    @Index(name = "idx_created_by", columnList = "created_by"),
+    @Index(name = "idx_created_at_id", columnList = "created_at, id")
 })
 public class Order extends BaseEntity {
 
     /**
-     * 订单ID
+     * 订单ID（按号段从 sequence_blocks 分配，可批量插入）
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "order_id")
+    @GenericGenerator(name = "order_id", strategy = SequenceBlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = "increment_size", value = "50"))
     private Long id;
 
     /**
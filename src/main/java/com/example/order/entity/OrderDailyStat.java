@@ -0,0 +1,73 @@
+package com.example.order.entity;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 订单日统计实体类
+ *
+ * 功能: 按 订单日期 + 订单状态 + 支付状态 + 货币 预聚合订单数量与金额
+ * 逻辑链: 订单创建/修改/删除 -> 增量更新对应统计行 -> 统计接口按天汇总
+ * 注意事项: 只通过 OrderDailyStatRepository 的原子 upsert 与对账语句写入，不通过实体保存；
+ * 订单在统计维度间移动后可能留下数量为0的行，由每日对账清理
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+@Entity
+@Table(name = "order_daily_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_order_daily_stats",
+            columnNames = {"stat_date", "status", "payment_status", "currency"})
+})
+public class OrderDailyStat {
+
+    /**
+     * 统计行ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 订单日期
+     */
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    /**
+     * 订单状态
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Order.OrderStatus status;
+
+    /**
+     * 支付状态
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private Order.PaymentStatus paymentStatus;
+
+    /**
+     * 货币（订单未设置货币时为空字符串）
+     */
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    /**
+     * 订单数量
+     */
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    /**
+     * 最终金额合计
+     */
+    @Column(name = "final_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal finalAmount;
+}
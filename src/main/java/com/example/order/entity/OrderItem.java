@@ -2,6 +2,8 @@ package com.example.order.entity;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import javax.validation.constraints.DecimalMin;
@@ -25,15 +27,18 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "order_items", indexes = {
     @Index(name = "idx_order_id", columnList = "order_id"),
-    @Index(name = "idx_product_id", columnList = "product_id")
+    @Index(name = "idx_product_id", columnList = "product_id"),
+    @Index(name = "idx_stock_deducted_product", columnList = "stock_deducted, product_id")
 })
 public class OrderItem extends BaseEntity {
 
     /**
-     * 明细ID
+     * 明细ID（按号段从 sequence_blocks 分配，可批量插入）
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "order_item_id")
+    @GenericGenerator(name = "order_item_id", strategy = SequenceBlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = "increment_size", value = "200"))
     private Long id;
 
     /**
@@ -108,12 +113,26 @@ public class OrderItem extends BaseEntity {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
 
+    /**
+     * 库存是否已从产品表扣减
+     *
+     * 热点产品的订单项以 false 写入，由热点库存回写任务扣减产品库存后置为 true；
+     * 历史数据为 NULL，视为已扣减
+     */
+    @Column(name = "stock_deducted")
+    private Boolean stockDeducted = Boolean.TRUE;
+
     /**
      * 计算小计金额
      */
     public void calculateSubtotal() {
+        // 单价或数量尚未设置时（如逐个字段赋值过程中）跳过计算
+        if (unitPrice == null || quantity == null) {
+            return;
+        }
         BigDecimal lineTotal = unitPrice.multiply(new BigDecimal(quantity));
-        this.discountAmount = lineTotal.multiply(discountRate.divide(new BigDecimal("100")));
+        BigDecimal rate = discountRate != null ? discountRate : BigDecimal.ZERO;
+        this.discountAmount = lineTotal.multiply(rate.divide(new BigDecimal("100")));
         this.subtotal = lineTotal.subtract(discountAmount);
     }
 
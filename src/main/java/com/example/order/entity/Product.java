@@ -3,6 +3,8 @@ package com.example.order.entity;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
@@ -15,7 +17,8 @@ import java.math.BigDecimal;
  * 
  * 功能: 存储产品信息
  * 逻辑链: 产品创建 -> 信息验证 -> 数据持久化 -> 库存管理
- * 注意事项: 产品编码需要唯一性验证，价格和库存需要数值验证
+ * 注意事项: 产品编码需要唯一性验证，价格和库存需要数值验证；
+ * 使用动态更新只写入变更列，避免实体保存覆盖并发的原子库存扣减
  * 
  * @author Order Management Team
  * @version 0.1.0
@@ -24,6 +27,7 @@ import java.math.BigDecimal;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @Entity
+@DynamicUpdate
 @Table(name = "products", indexes = {
     @Index(name = "idx_product_code", columnList = "product_code"),
     @Index(name = "idx_name", columnList = "name"),
@@ -0,0 +1,37 @@
+package com.example.order.entity;
+
+import lombok.Data;
+
+import javax.persistence.*;
+
+/**
+ * 序列号段实体类
+ *
+ * 功能: 记录各序列已分配到的位置，应用实例按号段（hi/lo）批量申请订单编号和实体主键
+ * 逻辑链: 实例号段用完 -> 原子累加 next_val 申请新号段 -> 在内存中逐个发放
+ * 注意事项: 订单编号序列（order_number:日期）由 SequenceBlockRepository 的原子 upsert 写入，
+ * 主键序列（以实体表名命名）由 SequenceBlockIdGenerator 写入；
+ * 实例重启时未发放完的号段作废，编号会有间隙但不会重复
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Data
+@Entity
+@Table(name = "sequence_blocks")
+public class SequenceBlock {
+
+    /**
+     * 序列名称
+     */
+    @Id
+    @Column(name = "sequence_name", length = 64)
+    private String sequenceName;
+
+    /**
+     * 已分配出去的最大值（最近一个号段的上界，列名沿用 Hibernate 表生成器的默认命名）
+     */
+    @Column(name = "next_val", nullable = false)
+    private Long nextVal;
+}
@@ -0,0 +1,17 @@
+package com.example.order.exception;
+
+/**
+ * 幂等键请求不一致异常
+ *
+ * 同一 Idempotency-Key 携带了与首次请求不同的请求体
+ *
+ * @author Order Management System
+ * @version 1.0
+ * @since 2024-01-01
+ */
+public class IdempotencyKeyMismatchException extends CustomException {
+
+    public IdempotencyKeyMismatchException(String idempotencyKey) {
+        super(String.format("Idempotency-Key '%s' was already used with a different request", idempotencyKey));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.order.exception;
+
+/**
+ * 幂等请求处理中异常
+ *
+ * 同一 Idempotency-Key 的首个请求在等待时间内未完成
+ *
+ * @author Order Management System
+ * @version 1.0
+ * @since 2024-01-01
+ */
+public class IdempotentRequestInProgressException extends CustomException {
+
+    public IdempotentRequestInProgressException(String idempotencyKey) {
+        super(String.format("Request with Idempotency-Key '%s' is still in progress", idempotencyKey));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.order.exception;
+
+/**
+ * 无效分页游标异常
+ * 
+ * @author Order Management System
+ * @version 1.0
+ * @since 2024-01-01
+ */
+public class InvalidCursorException extends CustomException {
+    
+    public InvalidCursorException(String cursor) {
+        super(String.format("Invalid pagination cursor '%s'", cursor));
+    }
+}
@@ -3,6 +3,7 @@ package com.example.order.repository;
 import com.example.order.entity.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -119,6 +120,14 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     @Query("SELECT c FROM Customer c WHERE c.status = 'ACTIVE'")
     List<Customer> findAllActiveCustomers();
 
+    /**
+     * 查询全部激活客户的ID（批量导入校验快照）
+     * 
+     * @return 激活客户ID列表
+     */
+    @Query("SELECT c.id FROM Customer c WHERE c.status = 'ACTIVE'")
+    List<Long> findActiveIds();
+
     /**
      * 根据信用额度范围查找客户
      * 
@@ -173,4 +182,23 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
            "  ELSE '高信用额度' " +
            "END")
     List<Object[]> countByCreditLimitRange();
-} 
\ No newline at end of file
+
+    /**
+     * 游标分页查询指定ID之后的客户（按ID升序）
+     *
+     * 注意事项: 返回List不执行COUNT查询，pageable只用于限制条数
+     *
+     * @param id 上一页最后一条的ID，首页传0
+     * @param pageable 分页参数（第0页，条数为每页条数+1）
+     * @return 客户列表
+     */
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 分页查询客户，不统计总记录数
+     *
+     * @param pageable 分页参数
+     * @return 客户切片
+     */
+    Slice<Customer> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,44 @@
+package com.example.order.repository;
+
+import com.example.order.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 幂等记录数据访问层
+ *
+ * 功能: 按幂等键查询记录，清理过期记录
+ * 逻辑链: 内存缓存未命中 -> 按键查询 -> 返回已创建的订单ID
+ * 注意事项: 插入依赖 uk_idempotency_key 唯一约束判定并发重复
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    /**
+     * 根据幂等键查询记录
+     *
+     * @param idempotencyKey 幂等键
+     * @return 幂等记录
+     */
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * 删除指定时间之前创建的记录
+     *
+     * @param createdBefore 截止时间
+     * @return 删除行数
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :createdBefore")
+    int deleteByCreatedAtBefore(@Param("createdBefore") LocalDateTime createdBefore);
+}
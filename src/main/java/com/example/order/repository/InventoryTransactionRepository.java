@@ -225,13 +225,13 @@ public interface InventoryTransactionRepository extends JpaRepository<InventoryT
      * 查找最近的产品库存变动记录
      * 
      * @param productId 产品ID
-     * @param limit 限制数量
+     * @param pageable 分页参数（用于限制返回数量）
      * @return 最近的库存变动记录
      */
     @Query("SELECT it FROM InventoryTransaction it WHERE it.productId = :productId " +
            "ORDER BY it.createdAt DESC")
     List<InventoryTransaction> findRecentTransactionsByProductId(@Param("productId") Long productId, 
-                                                               @Param("limit") int limit);
+                                                               Pageable pageable);
 
     /**
      * 查找指定时间范围内的库存变动记录
@@ -0,0 +1,99 @@
+package com.example.order.repository;
+
+import com.example.order.entity.OrderDailyStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 订单日统计数据访问层
+ *
+ * 功能: 增量累加、对账和汇总查询订单日统计
+ * 逻辑链: 订单变更 -> 原子 upsert 累加差值；每日对账 -> 非锁定读聚合订单表，与统计表的差值再通过 upsert 累加
+ * 注意事项: upsert 使用 INSERT ... ON DUPLICATE KEY UPDATE，依赖 uk_order_daily_stats 唯一约束
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Repository
+public interface OrderDailyStatRepository extends JpaRepository<OrderDailyStat, Long> {
+
+    /**
+     * 原子累加统计行，不存在时插入
+     *
+     * @param statDate 订单日期
+     * @param status 订单状态
+     * @param paymentStatus 支付状态
+     * @param currency 货币
+     * @param orderCount 订单数量差值
+     * @param finalAmount 金额差值
+     * @return 受影响行数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_daily_stats " +
+                   "(stat_date, status, payment_status, currency, order_count, final_amount) " +
+                   "VALUES (:statDate, :status, :paymentStatus, :currency, :orderCount, :finalAmount) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+                   "final_amount = final_amount + VALUES(final_amount)",
+           nativeQuery = true)
+    int upsert(@Param("statDate") LocalDate statDate,
+               @Param("status") String status,
+               @Param("paymentStatus") String paymentStatus,
+               @Param("currency") String currency,
+               @Param("orderCount") long orderCount,
+               @Param("finalAmount") BigDecimal finalAmount);
+
+    /**
+     * 按统计维度聚合订单表
+     *
+     * 注意事项: 普通查询，InnoDB 下为一致性非锁定读，不阻塞订单写入
+     *
+     * @return 订单日期、状态、支付状态、货币、订单数量、金额合计
+     */
+    @Query("SELECT o.orderDate, o.status, o.paymentStatus, o.currency, COUNT(o), SUM(o.finalAmount) FROM Order o " +
+           "GROUP BY o.orderDate, o.status, o.paymentStatus, o.currency")
+    List<Object[]> aggregateOrders();
+
+    /**
+     * 查询全部统计行
+     *
+     * 注意事项: 投影查询，不受持久化上下文中已加载实体的影响
+     *
+     * @return 主键、订单日期、状态、支付状态、货币、订单数量、金额
+     */
+    @Query("SELECT s.id, s.statDate, s.status, s.paymentStatus, s.currency, s.orderCount, s.finalAmount " +
+           "FROM OrderDailyStat s")
+    List<Object[]> findAllRows();
+
+    /**
+     * 删除数量与金额均为0的统计行
+     *
+     * 注意事项: 按主键删除并再次检查数量与金额，并发累加过的行不会被删除
+     *
+     * @param ids 统计行主键
+     * @return 删除行数
+     */
+    @Modifying
+    @Query("DELETE FROM OrderDailyStat s WHERE s.id IN :ids AND s.orderCount = 0 AND s.finalAmount = 0")
+    int deleteEmptyByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 计算指定日期范围内的订单总金额
+     *
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 订单总金额，范围内没有订单时为null
+     */
+    @Query("SELECT SUM(s.finalAmount) FROM OrderDailyStat s " +
+           "WHERE s.statDate BETWEEN :startDate AND :endDate AND s.orderCount > 0")
+    BigDecimal sumFinalAmountByStatDateBetween(@Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+}
@@ -4,11 +4,15 @@ import com.example.order.entity.OrderItem;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -33,6 +37,52 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      */
     List<OrderItem> findByOrderId(Long orderId);
 
+    /**
+     * 根据订单ID查找并锁定订单明细
+     * 
+     * @param orderId 订单ID
+     * @return 订单明细列表
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.orderId = :orderId")
+    List<OrderItem> findByOrderIdForUpdate(@Param("orderId") Long orderId);
+
+    /**
+     * 查找并锁定指定产品尚未扣减库存的订单明细
+     * 
+     * @param productId 产品ID
+     * @return 订单明细列表
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OrderItem> findByProductIdAndStockDeductedFalse(Long productId);
+
+    /**
+     * 查找存在未扣减库存订单明细的产品ID
+     * 
+     * @return 产品ID列表
+     */
+    @Query("SELECT DISTINCT oi.productId FROM OrderItem oi WHERE oi.stockDeducted = false")
+    List<Long> findProductIdsWithUndeductedStock();
+
+    /**
+     * 统计指定产品尚未扣减库存的订单明细数量合计
+     * 
+     * @param productId 产品ID
+     * @return 未扣减数量合计，没有时为0
+     */
+    @Query("SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi WHERE oi.productId = :productId AND oi.stockDeducted = false")
+    long sumUndeductedQuantityByProductId(@Param("productId") Long productId);
+
+    /**
+     * 将订单明细标记为库存已扣减
+     * 
+     * @param ids 订单明细ID集合
+     * @return 更新行数
+     */
+    @Modifying
+    @Query("UPDATE OrderItem oi SET oi.stockDeducted = true WHERE oi.id IN :ids")
+    int markStockDeducted(@Param("ids") Collection<Long> ids);
+
     /**
      * 根据产品ID查找订单明细
      * 
@@ -159,26 +209,26 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     /**
      * 查找销量最高的产品
      * 
-     * @param limit 限制数量
+     * @param pageable 分页参数（用于限制返回数量）
      * @return 销量最高的产品ID和数量
      */
     @Query("SELECT oi.productId, SUM(oi.quantity) as totalQuantity " +
            "FROM OrderItem oi " +
            "GROUP BY oi.productId " +
            "ORDER BY totalQuantity DESC")
-    List<Object[]> findTopSellingProducts(@Param("limit") int limit);
+    List<Object[]> findTopSellingProducts(Pageable pageable);
 
     /**
      * 查找销售额最高的产品
      * 
-     * @param limit 限制数量
+     * @param pageable 分页参数（用于限制返回数量）
      * @return 销售额最高的产品ID和金额
      */
     @Query("SELECT oi.productId, SUM(oi.subtotal) as totalSales " +
            "FROM OrderItem oi " +
            "GROUP BY oi.productId " +
            "ORDER BY totalSales DESC")
-    List<Object[]> findTopRevenueProducts(@Param("limit") int limit);
+    List<Object[]> findTopRevenueProducts(Pageable pageable);
 
     /**
      * 根据创建时间范围查找订单明细
@@ -1,8 +1,10 @@
 package com.example.order.repository;
 
+import com.example.order.dto.OrderSummaryDTO;
 import com.example.order.entity.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,6 +12,8 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,6 +47,15 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     boolean existsByOrderNumber(String orderNumber);
 
+    /**
+     * 查询已存在的订单编号
+     * 
+     * @param orderNumbers 订单编号集合
+     * @return 其中已存在的订单编号
+     */
+    @Query("SELECT o.orderNumber FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<String> findOrderNumbersIn(@Param("orderNumbers") Collection<String> orderNumbers);
+
     /**
      * 根据客户ID查找订单
      * 
@@ -208,6 +221,23 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
                                       @Param("endDate") String endDate,
                                       Pageable pageable);
 
+    /**
+     * 查询各客户最近一次下单时间
+     *
+     * @return [客户ID, 最近下单时间] 列表
+     */
+    @Query("SELECT o.customerId, MAX(o.createdAt) FROM Order o GROUP BY o.customerId")
+    List<Object[]> findLastOrderTimeByCustomer();
+
+    /**
+     * 查询指定时间以来下过单的客户及其最近下单时间（走 idx_created_at_id 范围扫描）
+     *
+     * @param since 起始创建时间（含）
+     * @return [客户ID, 最近下单时间] 列表
+     */
+    @Query("SELECT o.customerId, MAX(o.createdAt) FROM Order o WHERE o.createdAt >= :since GROUP BY o.customerId")
+    List<Object[]> findLastOrderTimeByCustomerSince(@Param("since") LocalDateTime since);
+
     /**
      * 统计各状态订单数量
      * 
@@ -264,4 +294,84 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     @Query("SELECT o FROM Order o WHERE o.customerId = :customerId ORDER BY o.createdAt DESC")
     List<Order> findLatestOrdersByCustomerId(@Param("customerId") Long customerId);
-} 
\ No newline at end of file
+
+    /**
+     * 游标分页查询订单首页（按创建时间、ID倒序）
+     *
+     * 注意事项: 返回List不执行COUNT查询，pageable只用于限制条数
+     *
+     * @param pageable 分页参数（第0页，条数为每页条数+1）
+     * @return 订单列表
+     */
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstByCursor(Pageable pageable);
+
+    /**
+     * 游标分页查询指定位置之后的订单（按创建时间、ID倒序）
+     *
+     * @param createdAt 上一页最后一条的创建时间
+     * @param id 上一页最后一条的ID
+     * @param pageable 分页参数（第0页，条数为每页条数+1）
+     * @return 订单列表
+     */
+    @Query("SELECT o FROM Order o WHERE o.createdAt < :createdAt " +
+           "OR (o.createdAt = :createdAt AND o.id < :id) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findAfterCursor(@Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Pageable pageable);
+
+    /**
+     * 分页查询订单，不统计总记录数
+     *
+     * @param pageable 分页参数
+     * @return 订单切片
+     */
+    Slice<Order> findAllBy(Pageable pageable);
+
+    /**
+     * 根据客户ID分页查询订单摘要
+     *
+     * 注意事项: 构造器投影，只查询摘要列，不加载实体
+     *
+     * @param customerId 客户ID
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
+     */
+    @Query(value = "SELECT new com.example.order.dto.OrderSummaryDTO(o.id, o.orderNumber, o.customerId, " +
+                   "o.orderDate, o.status, o.finalAmount, o.currency, o.paymentStatus, o.createdAt) " +
+                   "FROM Order o WHERE o.customerId = :customerId",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.customerId = :customerId")
+    Page<OrderSummaryDTO> findSummaryByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    /**
+     * 根据订单状态分页查询订单摘要
+     *
+     * 注意事项: 构造器投影，只查询摘要列，不加载实体
+     *
+     * @param status 订单状态
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
+     */
+    @Query(value = "SELECT new com.example.order.dto.OrderSummaryDTO(o.id, o.orderNumber, o.customerId, " +
+                   "o.orderDate, o.status, o.finalAmount, o.currency, o.paymentStatus, o.createdAt) " +
+                   "FROM Order o WHERE o.status = :status",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.status = :status")
+    Page<OrderSummaryDTO> findSummaryByStatus(@Param("status") Order.OrderStatus status, Pageable pageable);
+
+    /**
+     * 根据支付状态分页查询订单摘要
+     *
+     * 注意事项: 构造器投影，只查询摘要列，不加载实体
+     *
+     * @param paymentStatus 支付状态
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
+     */
+    @Query(value = "SELECT new com.example.order.dto.OrderSummaryDTO(o.id, o.orderNumber, o.customerId, " +
+                   "o.orderDate, o.status, o.finalAmount, o.currency, o.paymentStatus, o.createdAt) " +
+                   "FROM Order o WHERE o.paymentStatus = :paymentStatus",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.paymentStatus = :paymentStatus")
+    Page<OrderSummaryDTO> findSummaryByPaymentStatus(@Param("paymentStatus") Order.PaymentStatus paymentStatus,
+                                                     Pageable pageable);
+}
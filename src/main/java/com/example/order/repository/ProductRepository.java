@@ -1,14 +1,18 @@
 package com.example.order.repository;
 
+import com.example.order.dto.ProductSummaryDTO;
 import com.example.order.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -128,6 +132,42 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.stockQuantity <= p.minStock")
     List<Product> findLowStockProducts();
 
+    /**
+     * 分页查询激活状态的产品摘要
+     *
+     * 注意事项: 构造器投影，只查询摘要列，不加载实体
+     *
+     * @param pageable 分页参数
+     * @return 产品摘要分页结果
+     */
+    @Query(value = "SELECT new com.example.order.dto.ProductSummaryDTO(p.id, p.productCode, p.name, " +
+                   "p.category, p.unitPrice, p.stockQuantity, p.minStock, p.status) " +
+                   "FROM Product p WHERE p.status = 'ACTIVE'",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = 'ACTIVE'")
+    Page<ProductSummaryDTO> findActiveProductSummaries(Pageable pageable);
+
+    /**
+     * 分页查询库存不足的产品摘要
+     *
+     * 注意事项: 构造器投影，只查询摘要列，不加载实体
+     *
+     * @param pageable 分页参数
+     * @return 产品摘要分页结果
+     */
+    @Query(value = "SELECT new com.example.order.dto.ProductSummaryDTO(p.id, p.productCode, p.name, " +
+                   "p.category, p.unitPrice, p.stockQuantity, p.minStock, p.status) " +
+                   "FROM Product p WHERE p.stockQuantity <= p.minStock",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.stockQuantity <= p.minStock")
+    Page<ProductSummaryDTO> findLowStockProductSummaries(Pageable pageable);
+
+    /**
+     * 统计库存不足的产品数量
+     *
+     * @return 库存不足产品数量
+     */
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.stockQuantity <= p.minStock")
+    long countLowStockProducts();
+
     /**
      * 查找缺货产品
      * 
@@ -219,4 +259,100 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     @Query("SELECT p FROM Product p WHERE p.stockQuantity <= p.minStock AND p.status = 'ACTIVE'")
     List<Product> findProductsNeedingRestock();
-} 
\ No newline at end of file
+
+    /**
+     * 原子扣减库存
+     * 
+     * 仅在库存充足时扣减，由数据库保证并发安全，无需先读后写
+     * 
+     * @param id 产品ID
+     * @param quantity 扣减数量
+     * @return 受影响行数（0 表示产品不存在或库存不足）
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decreaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * 原子增加库存
+     * 
+     * @param id 产品ID
+     * @param quantity 增加数量
+     * @return 受影响行数（0 表示产品不存在）
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.id = :id")
+    int increaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * 查询产品当前库存数量
+     * 
+     * @param id 产品ID
+     * @return 库存数量
+     */
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    /**
+     * 批量查询产品当前库存数量
+     * 
+     * @param ids 产品ID集合
+     * @return 产品ID与库存数量
+     */
+    @Query("SELECT p.id, p.stockQuantity FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findStockQuantitiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 查询全部激活产品的单价（批量导入校验快照）
+     *
+     * @return 产品ID与单价
+     */
+    @Query("SELECT p.id, p.unitPrice FROM Product p WHERE p.status = 'ACTIVE'")
+    List<Object[]> findActiveUnitPrices();
+
+    /**
+     * 游标分页查询指定ID之后的产品（按ID升序）
+     *
+     * 注意事项: 返回List不执行COUNT查询，pageable只用于限制条数
+     *
+     * @param id 上一页最后一条的ID，首页传0
+     * @param pageable 分页参数（第0页，条数为每页条数+1）
+     * @return 产品列表
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 按ID升序分批查询指定ID之后的产品摘要
+     *
+     * 注意事项: 构造器投影，只查询摘要列；pageable只用于限制条数
+     *
+     * @param afterId 上一批最后一条的ID，首批传0
+     * @param pageable 分页参数（第0页，条数为批大小）
+     * @return 产品摘要列表
+     */
+    @Query("SELECT new com.example.order.dto.ProductSummaryDTO(p.id, p.productCode, p.name, " +
+           "p.category, p.unitPrice, p.stockQuantity, p.minStock, p.status) " +
+           "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSummaryDTO> findSummariesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 按ID批量查询产品摘要
+     *
+     * @param ids 产品ID
+     * @return 产品摘要列表（已删除的产品不返回）
+     */
+    @Query("SELECT new com.example.order.dto.ProductSummaryDTO(p.id, p.productCode, p.name, " +
+           "p.category, p.unitPrice, p.stockQuantity, p.minStock, p.status) " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<ProductSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 分页查询产品，不统计总记录数
+     *
+     * @param pageable 分页参数
+     * @return 产品切片
+     */
+    Slice<Product> findAllBy(Pageable pageable);
+}
@@ -0,0 +1,46 @@
+package com.example.order.repository;
+
+import com.example.order.entity.SequenceBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 序列号段数据访问层
+ *
+ * 功能: 查询序列位置，迁移时抬高序列起点
+ * 逻辑链: upsert 取 next_val 与目标值中的较大者 -> 序列只增不减
+ * 注意事项: 号段申请由 SequenceBlockAllocator 在独立连接池上完成；
+ * next_val 表示已分配出去的最大值，与主键生成器 SequenceBlockIdGenerator 语义一致
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Repository
+public interface SequenceBlockRepository extends JpaRepository<SequenceBlock, String> {
+
+    /**
+     * 查询序列已分配出去的最大值
+     *
+     * @param sequenceName 序列名称
+     * @return 已分配的最大值
+     */
+    @Query(value = "SELECT next_val FROM sequence_blocks WHERE sequence_name = :sequenceName", nativeQuery = true)
+    long findNextVal(@Param("sequenceName") String sequenceName);
+
+    /**
+     * 将序列已分配的最大值抬高到不小于指定值（只增不减），序列不存在时创建
+     *
+     * @param sequenceName 序列名称
+     * @param minValue 已分配最大值的下限
+     * @return 受影响行数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sequence_blocks (sequence_name, next_val) VALUES (:sequenceName, :minValue) " +
+                   "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+           nativeQuery = true)
+    int raiseNextVal(@Param("sequenceName") String sequenceName, @Param("minValue") long minValue);
+}
@@ -1,7 +1,9 @@
 package com.example.order.security;
 
 import com.example.order.util.JwtUtil;
-import lombok.RequiredArgsConstructor;
+import com.example.order.util.VerifiedClaims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,20 +19,33 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT认证过滤器
  * 功能: 从HTTP请求中提取JWT令牌并进行认证
  * 逻辑链: 请求拦截 -> 令牌提取 -> 令牌验证 -> 用户认证 -> 上下文设置
- * 注意事项: 需要处理令牌无效和过期的情况
+ * 注意事项: 需要处理令牌无效和过期的情况；用户信息经 PrincipalCache 缓存，
+ * 用户变更时由 UserService 失效
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final Timer filterTimer;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService,
+                                   PrincipalCache principalCache, MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.filterTimer = Timer.builder("security.jwt.filter")
+                .description("JWT认证过滤器耗时")
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -38,18 +53,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) 
             throws ServletException, IOException {
         
+        long start = System.nanoTime();
         try {
             String jwt = extractJwtFromRequest(request);
+            // 每个请求只解析并验签一次
+            VerifiedClaims claims = StringUtils.hasText(jwt) ? jwtUtil.verify(jwt).orElse(null) : null;
             
-            if (StringUtils.hasText(jwt) && jwtUtil.isValidTokenFormat(jwt)) {
-                String username = jwtUtil.extractUsername(jwt);
+            if (claims != null) {
+                String username = claims.getUsername();
                 
                 if (StringUtils.hasText(username) && 
                     SecurityContextHolder.getContext().getAuthentication() == null) {
                     
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = principalCache.get(username, claims.getIssuedAt(),
+                            () -> userDetailsService.loadUserByUsername(username));
                     
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
+                    if (jwtUtil.validateToken(claims, userDetails)) {
                         UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities());
@@ -65,6 +84,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         } catch (Exception e) {
             log.error("JWT认证过滤器处理异常: {}", e.getMessage());
+        } finally {
+            filterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
         
         filterChain.doFilter(request, response);
@@ -0,0 +1,118 @@
+package com.example.order.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 认证主体缓存
+ *
+ * 功能: 缓存JWT认证过滤器加载的用户信息，避免每个请求都查询用户表
+ * 逻辑链: 按 用户名 + 令牌签发时间 查找 -> 未命中时加载用户并缓存 -> 用户变更时按用户名失效
+ * 注意事项: 条目在短TTL后过期，容量有上限；加载失败（用户不存在或已停用）不缓存；
+ * 失效时立即移除并在事务提交后再次移除，防止并发请求把提交前的旧数据重新放入缓存
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+public class PrincipalCache {
+
+    private final Cache<PrincipalKey, UserDetails> cache;
+
+    public PrincipalCache(@Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${app.security.principal-cache.maximum-size:10000}") long maximumSize,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principals");
+        Gauge.builder("security.principal.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("认证主体缓存命中率")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取认证主体，未命中时加载并缓存
+     *
+     * @param username 用户名
+     * @param issuedAt 令牌签发时间
+     * @param loader 用户加载方法，抛出异常时不缓存
+     * @return 用户信息
+     */
+    public UserDetails get(String username, Date issuedAt, Supplier<UserDetails> loader) {
+        return cache.get(new PrincipalKey(username, issuedAt), key -> loader.get());
+    }
+
+    /**
+     * 失效指定用户的全部缓存条目
+     *
+     * 注意事项: 在事务中调用时，提交后会再失效一次
+     *
+     * @param username 用户名
+     */
+    public void invalidate(String username) {
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        cache.asMap().keySet().removeIf(key -> key.username.equals(username));
+        log.debug("认证主体缓存已失效，用户名: {}", username);
+    }
+
+    /**
+     * 缓存键：同一用户的不同令牌分别缓存
+     */
+    private static final class PrincipalKey {
+
+        private final String username;
+        private final Long issuedAt;
+
+        private PrincipalKey(String username, Date issuedAt) {
+            this.username = username;
+            this.issuedAt = issuedAt == null ? null : issuedAt.getTime();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PrincipalKey)) {
+                return false;
+            }
+            PrincipalKey other = (PrincipalKey) o;
+            return username.equals(other.username) && Objects.equals(issuedAt, other.issuedAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(username, issuedAt);
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.order.service;
 
+import com.example.order.dto.CursorPage;
 import com.example.order.dto.CustomerDTO;
+import com.example.order.dto.CustomerSuggestionDTO;
 import com.example.order.entity.Customer;
 import com.example.order.repository.CustomerRepository;
+import com.example.order.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -32,6 +38,7 @@ import java.util.stream.Collectors;
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerSuggestIndex customerSuggestIndex;
 
     /**
      * 创建客户
@@ -58,6 +65,7 @@ public class CustomerService {
         customer.setStatus(Customer.CustomerStatus.ACTIVE);
 
         Customer savedCustomer = customerRepository.save(customer);
+        customerSuggestIndex.indexAfterCommit(savedCustomer);
         log.info("客户创建成功，客户ID: {}", savedCustomer.getId());
 
         return CustomerDTO.fromEntity(savedCustomer);
@@ -137,6 +145,7 @@ public class CustomerService {
         customer.setCreditLimit(customerDTO.getCreditLimit());
 
         Customer updatedCustomer = customerRepository.save(customer);
+        customerSuggestIndex.indexAfterCommit(updatedCustomer);
         log.info("客户信息更新成功，客户ID: {}", updatedCustomer.getId());
 
         return CustomerDTO.fromEntity(updatedCustomer);
@@ -154,6 +163,7 @@ public class CustomerService {
                 .orElseThrow(() -> new RuntimeException("客户不存在"));
 
         customerRepository.delete(customer);
+        customerSuggestIndex.removeAfterCommit(id);
         log.info("客户删除成功，客户ID: {}", id);
     }
 
@@ -169,6 +179,39 @@ public class CustomerService {
         return customerRepository.findAll(pageable).map(CustomerDTO::fromEntity);
     }
 
+    /**
+     * 游标分页查询客户（按ID升序）
+     *
+     * 注意事项: 不执行COUNT查询，深翻页耗时与首页相同
+     *
+     * @param cursor 上一页返回的游标，首页传null
+     * @param size 每页条数
+     * @return 客户游标分页结果
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerDTO> findByCursor(String cursor, int size) {
+        log.debug("游标分页查询客户，游标: {}, 大小: {}", cursor, size);
+        Long afterId = cursor == null || cursor.isEmpty() ? 0L : CursorCodec.decodeId(cursor);
+        List<Customer> rows = customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<Customer> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? CursorCodec.encode(content.get(content.size() - 1).getId()) : null;
+        return CursorPage.of(content.stream().map(CustomerDTO::fromEntity).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * 分页查询客户，不统计总记录数
+     *
+     * @param pageable 分页参数
+     * @return 客户切片
+     */
+    @Transactional(readOnly = true)
+    public Slice<CustomerDTO> findSlice(Pageable pageable) {
+        log.debug("切片查询客户，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return customerRepository.findAllBy(pageable).map(CustomerDTO::fromEntity);
+    }
+
     /**
      * 根据姓名模糊查询客户
      *
@@ -183,6 +226,20 @@ public class CustomerService {
                 .map(CustomerDTO::fromEntity);
     }
 
+    /**
+     * 客户输入联想
+     *
+     * 注意事项: 由内存前缀树直接返回，不访问数据库，因此不开启事务
+     *
+     * @param prefix 输入前缀
+     * @param limit 返回数量
+     * @return 按最近下单时间降序的客户建议
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CustomerSuggestionDTO> suggestCustomers(String prefix, int limit) {
+        return customerSuggestIndex.suggest(prefix, limit);
+    }
+
     /**
      * 根据状态查找客户
      *
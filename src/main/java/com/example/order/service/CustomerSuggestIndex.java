@@ -0,0 +1,646 @@
+package com.example.order.service;
+
+import com.example.order.dto.CustomerSuggestionDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Order;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 客户输入联想前缀树
+ *
+ * 功能: 按名称、联系人、客户编码、电话、邮箱的前缀联想客户，按最近下单时间排序
+ * 逻辑链: 启动时加载全部客户与各客户最近下单时间建立基数树 -> 客户增删改、订单创建事务提交后增量更新
+ * -> 定时全量重建客户，最近下单时间沿用内存中的值，只补查上次加载以来创建的订单
+ * -> 查询: 规范化前缀 -> 沿树下行到前缀所在节点 -> 取节点缓存的前K个客户（子树较小时直接收集）
+ * 注意事项: 基数树的边标签为压缩后的字符串，子节点按首字符有序以二分查找；只有子树键数超过K的节点缓存前K个客户，
+ * 新增键与下单只会让客户进入或上移，沿路径原地更新缓存即可；删除键时只有缓存中含该客户的节点才由子节点缓存重新合并；
+ * 多词名称的每个词也作为键（"acme trading" 可由 "trad" 命中），电话另存去掉分隔符的纯数字键；
+ * 未激活客户保留最近下单时间但不进入前缀树，重新激活后恢复排名；
+ * 只在启动时按订单表全量聚合最近下单时间，订单删除不会降低客户排名，直到应用重启
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerSuggestIndex {
+
+    /**
+     * 节点缓存的客户数，也是单次联想返回数量上限
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * 其他实例创建的订单按创建时间补查时的回看时长，覆盖创建后较晚才提交的订单
+     */
+    private static final Duration LAST_ORDER_OVERLAP = Duration.ofMinutes(5);
+
+    private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
+
+    /**
+     * 查询持读锁，增量更新与替换前缀树持写锁
+     */
+    private final RebuildableIndex<Trie> trie = new RebuildableIndex<>();
+
+    /**
+     * 下次重建补查订单的起始创建时间，为null时全量聚合（只在重建中访问，由重建串行化）
+     */
+    private LocalDateTime lastOrdersSince;
+
+    /**
+     * 启动时建立前缀树
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    /**
+     * 全量重建前缀树，补入其他实例的客户修改与订单
+     */
+    @Scheduled(fixedDelayString = "${app.search.customer-suggest.rebuild-interval-ms:600000}",
+            initialDelayString = "${app.search.customer-suggest.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Trie built = trie.rebuild(this::load);
+        log.info("客户联想前缀树构建完成，客户数: {}, 节点数: {}, 耗时: {} ms",
+                built.entries.size(), built.nodeCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 事务提交后将客户加入前缀树或更新其键
+     *
+     * 注意事项: 立即复制客户字段；不在事务中时立即生效；未激活的客户从联想结果中移除
+     *
+     * @param customer 客户
+     */
+    public void indexAfterCommit(Customer customer) {
+        Entry entry = new Entry(customer, null);
+        trie.modifyAfterCommit(index -> index.upsert(entry));
+    }
+
+    /**
+     * 事务提交后将客户移出前缀树
+     *
+     * @param customerId 客户ID
+     */
+    public void removeAfterCommit(Long customerId) {
+        trie.modifyAfterCommit(index -> index.remove(customerId));
+    }
+
+    /**
+     * 事务提交后更新客户最近下单时间
+     *
+     * @param order 新建的订单
+     */
+    public void recordOrderAfterCommit(Order order) {
+        Long customerId = order.getCustomerId();
+        LocalDateTime orderedAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        trie.modifyAfterCommit(index -> index.recordOrder(customerId, orderedAt));
+    }
+
+    /**
+     * 按前缀联想客户
+     *
+     * @param prefix 输入前缀，忽略大小写、全半角与首尾空白
+     * @param limit 返回数量，不超过 MAX_SUGGESTIONS
+     * @return 按最近下单时间降序的激活客户，从未下单的客户排在后面（按客户ID降序）
+     */
+    public List<CustomerSuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        int size = Math.min(limit, MAX_SUGGESTIONS);
+        if (key.isEmpty() || size <= 0) {
+            return Collections.emptyList();
+        }
+        trie.ensureBuilt(this::rebuild);
+        return trie.read(index -> {
+            List<CustomerSuggestionDTO> suggestions = new ArrayList<>(size);
+            for (Entry entry : index.find(key, size)) {
+                suggestions.add(entry.toSuggestion());
+            }
+            return suggestions;
+        });
+    }
+
+    private Trie load() {
+        LocalDateTime loadStartedAt = LocalDateTime.now();
+        Map<Long, LocalDateTime> lastOrders;
+        List<Object[]> orderedSince;
+        if (lastOrdersSince == null || trie.get() == null) {
+            lastOrders = new HashMap<>();
+            orderedSince = orderRepository.findLastOrderTimeByCustomer();
+        } else {
+            lastOrders = trie.read(Trie::lastOrders);
+            orderedSince = orderRepository.findLastOrderTimeByCustomerSince(lastOrdersSince);
+        }
+        for (Object[] row : orderedSince) {
+            lastOrders.merge((Long) row[0], (LocalDateTime) row[1], (a, b) -> a.isAfter(b) ? a : b);
+        }
+        Trie index = new Trie();
+        long afterId = 0L;
+        List<Customer> batch;
+        do {
+            batch = customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Customer customer : batch) {
+                index.insert(new Entry(customer, lastOrders.get(customer.getId())));
+                afterId = customer.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        index.recomputeAll(index.root);
+        lastOrdersSince = loadStartedAt.minus(LAST_ORDER_OVERLAP);
+        return index;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        // 去掉首尾空白，连续空白合并为一个空格
+        StringBuilder result = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                result.append(c);
+            } else if (result.length() > 0 && result.charAt(result.length() - 1) != ' ') {
+                result.append(' ');
+            }
+        }
+        if (result.length() > 0 && result.charAt(result.length() - 1) == ' ') {
+            result.setLength(result.length() - 1);
+        }
+        return result.toString();
+    }
+
+    /**
+     * 客户字段快照及其前缀树键
+     */
+    private static final class Entry {
+
+        /**
+         * 最近下单时间降序，从未下单的排后，再按客户ID降序
+         */
+        private static final Comparator<Entry> RANKING = Comparator
+                .comparing((Entry entry) -> entry.lastOrderAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing((a, b) -> Long.compare(b.id, a.id));
+
+        private final long id;
+        private final String customerCode;
+        private final String name;
+        private final String contactPerson;
+        private final String phone;
+        private final String email;
+        private final Customer.CustomerStatus status;
+        private final String[] keys;
+        private LocalDateTime lastOrderAt;
+
+        private Entry(Customer customer, LocalDateTime lastOrderAt) {
+            this.id = customer.getId();
+            this.customerCode = customer.getCustomerCode();
+            this.name = customer.getName();
+            this.contactPerson = customer.getContactPerson();
+            this.phone = customer.getPhone();
+            this.email = customer.getEmail();
+            this.status = customer.getStatus();
+            this.lastOrderAt = lastOrderAt;
+            Set<String> keySet = new LinkedHashSet<>();
+            addWords(keySet, name);
+            addWords(keySet, contactPerson);
+            addKey(keySet, customerCode);
+            addKey(keySet, email);
+            addKey(keySet, phone);
+            if (phone != null) {
+                StringBuilder digits = new StringBuilder(phone.length());
+                phone.chars().filter(Character::isDigit).forEach(digit -> digits.append((char) digit));
+                addKey(keySet, digits.toString());
+            }
+            this.keys = keySet.toArray(new String[0]);
+        }
+
+        private static void addWords(Set<String> keys, String text) {
+            String normalized = normalize(text);
+            for (int i = 0; i < normalized.length(); i++) {
+                if (i == 0 || normalized.charAt(i - 1) == ' ') {
+                    keys.add(normalized.substring(i));
+                }
+            }
+        }
+
+        private static void addKey(Set<String> keys, String text) {
+            String normalized = normalize(text);
+            if (!normalized.isEmpty()) {
+                keys.add(normalized);
+            }
+        }
+
+        /**
+         * 只有激活客户的键进入前缀树
+         */
+        private boolean suggestable() {
+            return status == Customer.CustomerStatus.ACTIVE;
+        }
+
+        private CustomerSuggestionDTO toSuggestion() {
+            return new CustomerSuggestionDTO(id, customerCode, name, contactPerson, phone, email, status, lastOrderAt);
+        }
+    }
+
+    /**
+     * 基数树节点
+     */
+    private static final class Node {
+
+        private static final char[] NO_CHARS = new char[0];
+        private static final Node[] NO_NODES = new Node[0];
+        private static final Entry[] NO_ENTRIES = new Entry[0];
+
+        /**
+         * 父节点到本节点的边标签为 labelSource[labelStart, labelEnd)，直接引用客户的键，不另复制字符
+         */
+        private String labelSource;
+        private int labelStart;
+        private int labelEnd;
+        private char[] firstChars = NO_CHARS;
+        private Node[] children = NO_NODES;
+
+        /**
+         * 键在本节点结束的客户
+         */
+        private Entry[] terminals = NO_ENTRIES;
+
+        /**
+         * 子树（含本节点）中的键数
+         */
+        private int count;
+
+        /**
+         * count 超过 MAX_SUGGESTIONS 时缓存的前K个客户（按 RANKING 有序、不重复），否则为null
+         */
+        private Entry[] top;
+
+        private Node(String labelSource, int labelStart, int labelEnd) {
+            this.labelSource = labelSource;
+            this.labelStart = labelStart;
+            this.labelEnd = labelEnd;
+        }
+
+        private int labelLength() {
+            return labelEnd - labelStart;
+        }
+
+        private char labelChar(int index) {
+            return labelSource.charAt(labelStart + index);
+        }
+
+        private int childIndex(char c) {
+            return Arrays.binarySearch(firstChars, c);
+        }
+
+        private void addChild(Node child) {
+            int position = -childIndex(child.labelChar(0)) - 1;
+            firstChars = insert(firstChars, position, child.labelChar(0));
+            children = insert(children, position, child);
+        }
+
+        private void removeChild(int index) {
+            char[] chars = new char[firstChars.length - 1];
+            System.arraycopy(firstChars, 0, chars, 0, index);
+            System.arraycopy(firstChars, index + 1, chars, index, chars.length - index);
+            firstChars = chars;
+            Node[] nodes = new Node[children.length - 1];
+            System.arraycopy(children, 0, nodes, 0, index);
+            System.arraycopy(children, index + 1, nodes, index, nodes.length - index);
+            children = nodes;
+        }
+
+        private static char[] insert(char[] array, int position, char value) {
+            char[] result = new char[array.length + 1];
+            System.arraycopy(array, 0, result, 0, position);
+            result[position] = value;
+            System.arraycopy(array, position, result, position + 1, array.length - position);
+            return result;
+        }
+
+        private static Node[] insert(Node[] array, int position, Node value) {
+            Node[] result = new Node[array.length + 1];
+            System.arraycopy(array, 0, result, 0, position);
+            result[position] = value;
+            System.arraycopy(array, position, result, position + 1, array.length - position);
+            return result;
+        }
+    }
+
+    /**
+     * 前缀树数据（调用方持有锁）
+     */
+    private static final class Trie {
+
+        private final Node root = new Node("", 0, 0);
+
+        /**
+         * 全部客户（含未激活客户，只记录最近下单时间）
+         */
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+        private void upsert(Entry entry) {
+            Entry existing = entries.get(entry.id);
+            if (existing != null) {
+                if (existing.lastOrderAt != null
+                        && (entry.lastOrderAt == null || existing.lastOrderAt.isAfter(entry.lastOrderAt))) {
+                    entry.lastOrderAt = existing.lastOrderAt;
+                }
+                remove(entry.id);
+            }
+            entries.put(entry.id, entry);
+            if (!entry.suggestable()) {
+                return;
+            }
+            for (String key : entry.keys) {
+                insert(key, entry, true);
+            }
+        }
+
+        /**
+         * 加载时插入客户，不维护节点缓存，全部插入后由 recomputeAll 一次计算
+         */
+        private void insert(Entry entry) {
+            entries.put(entry.id, entry);
+            if (!entry.suggestable()) {
+                return;
+            }
+            for (String key : entry.keys) {
+                insert(key, entry, false);
+            }
+        }
+
+        private void recomputeAll(Node node) {
+            for (Node child : node.children) {
+                recomputeAll(child);
+            }
+            recompute(node);
+        }
+
+        private void remove(Long customerId) {
+            Entry entry = entries.remove(customerId);
+            if (entry == null || !entry.suggestable()) {
+                return;
+            }
+            for (String key : entry.keys) {
+                delete(key, entry);
+            }
+        }
+
+        private void recordOrder(Long customerId, LocalDateTime orderedAt) {
+            Entry entry = entries.get(customerId);
+            if (entry == null || (entry.lastOrderAt != null && !orderedAt.isAfter(entry.lastOrderAt))) {
+                return;
+            }
+            entry.lastOrderAt = orderedAt;
+            if (!entry.suggestable()) {
+                return;
+            }
+            for (String key : entry.keys) {
+                for (Node node : path(key)) {
+                    if (node.top != null) {
+                        offer(node, entry);
+                    }
+                }
+            }
+        }
+
+        private Map<Long, LocalDateTime> lastOrders() {
+            Map<Long, LocalDateTime> lastOrders = new HashMap<>();
+            for (Entry entry : entries.values()) {
+                if (entry.lastOrderAt != null) {
+                    lastOrders.put(entry.id, entry.lastOrderAt);
+                }
+            }
+            return lastOrders;
+        }
+
+        private List<Entry> find(String prefix, int limit) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                int index = node.childIndex(prefix.charAt(i));
+                if (index < 0) {
+                    return Collections.emptyList();
+                }
+                Node child = node.children[index];
+                int length = Math.min(child.labelLength(), prefix.length() - i);
+                if (!child.labelSource.regionMatches(child.labelStart, prefix, i, length)) {
+                    return Collections.emptyList();
+                }
+                i += length;
+                node = child;
+            }
+            if (node.top != null) {
+                return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+            }
+            List<Entry> ranked = ranked(collect(node, new ArrayList<>()));
+            return ranked.subList(0, Math.min(limit, ranked.size()));
+        }
+
+        private void insert(String key, Entry entry, boolean maintainTops) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                int index = node.childIndex(key.charAt(i));
+                if (index < 0) {
+                    Node leaf = new Node(key, i, key.length());
+                    node.addChild(leaf);
+                    node = leaf;
+                    path.add(node);
+                    break;
+                }
+                Node child = node.children[index];
+                int common = 1;
+                while (common < child.labelLength() && i + common < key.length()
+                        && child.labelChar(common) == key.charAt(i + common)) {
+                    common++;
+                }
+                if (common < child.labelLength()) {
+                    Node middle = new Node(child.labelSource, child.labelStart, child.labelStart + common);
+                    child.labelStart += common;
+                    middle.addChild(child);
+                    middle.count = child.count;
+                    middle.top = child.top == null ? null : child.top.clone();
+                    node.children[index] = middle;
+                    child = middle;
+                }
+                i += common;
+                node = child;
+                path.add(node);
+            }
+            node.terminals = Arrays.copyOf(node.terminals, node.terminals.length + 1);
+            node.terminals[node.terminals.length - 1] = entry;
+            for (int p = path.size() - 1; p >= 0; p--) {
+                Node current = path.get(p);
+                current.count++;
+                if (!maintainTops) {
+                    continue;
+                }
+                if (current.top != null) {
+                    offer(current, entry);
+                } else {
+                    recompute(current);
+                }
+            }
+        }
+
+        private void delete(String key, Entry entry) {
+            List<Node> path = path(key);
+            Node node = path.get(path.size() - 1);
+            List<Entry> terminals = new ArrayList<>(Arrays.asList(node.terminals));
+            terminals.remove(entry);
+            node.terminals = terminals.toArray(new Entry[0]);
+            for (int p = path.size() - 1; p >= 0; p--) {
+                Node current = path.get(p);
+                current.count--;
+                if (p > 0) {
+                    Node parent = path.get(p - 1);
+                    if (current.count == 0) {
+                        parent.removeChild(parent.childIndex(current.labelChar(0)));
+                        continue;
+                    }
+                    if (current.terminals.length == 0 && current.children.length == 1) {
+                        Node child = current.children[0];
+                        current.labelSource = current.labelSource.substring(current.labelStart, current.labelEnd)
+                                + child.labelSource.substring(child.labelStart, child.labelEnd);
+                        current.labelStart = 0;
+                        current.labelEnd = current.labelSource.length();
+                        current.firstChars = child.firstChars;
+                        current.children = child.children;
+                        current.terminals = child.terminals;
+                    }
+                }
+                if (current.count <= MAX_SUGGESTIONS || Arrays.asList(current.top).contains(entry)) {
+                    recompute(current);
+                }
+            }
+        }
+
+        /**
+         * 键所在的节点路径（含根节点），调用方保证键存在
+         */
+        private List<Node> path(String key) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int i = 0;
+            while (i < key.length()) {
+                node = node.children[node.childIndex(key.charAt(i))];
+                i += node.labelLength();
+                path.add(node);
+            }
+            return path;
+        }
+
+        /**
+         * 由本节点的客户与子节点的前K个客户合并出本节点的前K个客户
+         */
+        private static void recompute(Node node) {
+            if (node.count <= MAX_SUGGESTIONS) {
+                node.top = null;
+                return;
+            }
+            List<Entry> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+            for (Node child : node.children) {
+                if (child.top != null) {
+                    candidates.addAll(Arrays.asList(child.top));
+                } else {
+                    collect(child, candidates);
+                }
+            }
+            List<Entry> ranked = ranked(candidates);
+            node.top = ranked.subList(0, Math.min(MAX_SUGGESTIONS, ranked.size())).toArray(new Entry[0]);
+        }
+
+        /**
+         * 客户加入子树或排名上升后更新节点缓存：已在缓存中则上移，否则未满时追加、已满且超过末位时替换末位
+         */
+        private static void offer(Node node, Entry entry) {
+            Entry[] top = node.top;
+            int position = Arrays.asList(top).indexOf(entry);
+            if (position < 0) {
+                if (top.length < MAX_SUGGESTIONS) {
+                    top = Arrays.copyOf(top, top.length + 1);
+                    node.top = top;
+                } else if (Entry.RANKING.compare(entry, top[top.length - 1]) >= 0) {
+                    return;
+                }
+                position = top.length - 1;
+                top[position] = entry;
+            }
+            while (position > 0 && Entry.RANKING.compare(top[position], top[position - 1]) < 0) {
+                Entry previous = top[position - 1];
+                top[position - 1] = top[position];
+                top[position] = previous;
+                position--;
+            }
+        }
+
+        private static List<Entry> collect(Node node, List<Entry> result) {
+            result.addAll(Arrays.asList(node.terminals));
+            for (Node child : node.children) {
+                collect(child, result);
+            }
+            return result;
+        }
+
+        /**
+         * 排序并去重（同一客户的多个键可能落在同一子树）
+         */
+        private static List<Entry> ranked(List<Entry> entries) {
+            entries.sort(Entry.RANKING);
+            List<Entry> distinct = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                if (distinct.isEmpty() || distinct.get(distinct.size() - 1) != entry) {
+                    distinct.add(entry);
+                }
+            }
+            return distinct;
+        }
+
+        private int nodeCount() {
+            int nodes = 0;
+            List<Node> stack = new ArrayList<>();
+            stack.add(root);
+            while (!stack.isEmpty()) {
+                Node node = stack.remove(stack.size() - 1);
+                nodes++;
+                stack.addAll(Arrays.asList(node.children));
+            }
+            return nodes;
+        }
+    }
+}
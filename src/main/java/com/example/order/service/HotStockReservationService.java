@@ -0,0 +1,303 @@
+package com.example.order.service;
+
+import com.example.order.entity.InventoryTransaction;
+import com.example.order.entity.OrderItem;
+import com.example.order.repository.InventoryTransactionRepository;
+import com.example.order.repository.OrderItemRepository;
+import com.example.order.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 热点库存预留服务
+ *
+ * 功能: 为配置的热点产品在内存中预留库存，并异步将扣减批量回写到产品表
+ * 逻辑链: 启动时回写遗留扣减并加载库存 -> 下单时内存CAS预留 -> 事务提交后标记待回写
+ *        -> 定时任务按产品汇总未扣减订单项 -> 一次条件扣减产品库存并写入库存变动记录
+ * 注意事项: 默认关闭，通过 app.inventory.hot-sku 配置开启；
+ * 未回写的扣减以 order_items.stock_deducted = false 持久化在订单事务中，宕机重启后由启动回写恢复；
+ * 内存计数器只在单个实例内有效，开启后热点产品的写流量需路由到同一实例；
+ * 产品表库存被直接修改或其他实例扣减到少于未扣减数量时，回写不再重试：订单项保持未扣减，内存库存按产品表重新加载，
+ * 计入 inventory.hotsku.writeback.conflicts 指标，待人工核对后由下次该产品下单或重启时再回写；
+ * 启动回写会写入库存变动记录，因此在 IdSequenceInitializer 同步主键序列之后初始化
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@DependsOn(IdSequenceInitializer.BEAN_NAME)
+@RequiredArgsConstructor
+public class HotStockReservationService {
+
+    /**
+     * 回写时产品表库存少于未扣减数量
+     */
+    private static final int STOCK_CONFLICT = -1;
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InventoryTransactionRepository inventoryTransactionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ProductCatalogSnapshot productCatalogSnapshot;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.inventory.hot-sku.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.inventory.hot-sku.product-ids:}")
+    private Set<Long> hotProductIds = Collections.emptySet();
+
+    @Value("${app.inventory.hot-sku.stripes:8}")
+    private int stripes;
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyProducts = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private TransactionTemplate transactionTemplate;
+    private Counter conflictCounter;
+
+    /**
+     * 启动恢复
+     *
+     * 逻辑链: 回写所有遗留的未扣减订单项 -> 从产品表加载热点产品库存（减去仍未扣减的数量）到内存计数器
+     * 注意事项: 即使未开启热点库存，也会回写上次运行遗留的未扣减订单项；单个产品回写失败只记录日志，不阻止启动
+     */
+    @PostConstruct
+    public void recover() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        conflictCounter = Counter.builder("inventory.hotsku.writeback.conflicts")
+                .description("热点库存回写时产品表库存少于未扣减数量的次数")
+                .register(meterRegistry);
+
+        Set<Long> pendingProductIds = new LinkedHashSet<>(orderItemRepository.findProductIdsWithUndeductedStock());
+        for (Long productId : pendingProductIds) {
+            try {
+                int deducted = writeBack(productId);
+                log.info("热点库存启动回写完成，产品ID: {}, 回写数量: {}", productId, deducted);
+            } catch (RuntimeException e) {
+                log.error("热点库存启动回写失败，订单项保持未扣减，产品ID: {}", productId, e);
+            }
+        }
+
+        counters.clear();
+        if (!enabled) {
+            return;
+        }
+        for (Long productId : hotProductIds) {
+            Integer stock = productRepository.findStockQuantityById(productId).orElse(null);
+            if (stock == null) {
+                log.warn("热点产品不存在，已忽略，产品ID: {}", productId);
+                continue;
+            }
+            long available = stock - orderItemRepository.sumUndeductedQuantityByProductId(productId);
+            counters.put(productId, new StripedStockCounter(stripes, Math.max(0, available)));
+            log.info("热点库存已加载，产品ID: {}, 可用库存: {}", productId, Math.max(0, available));
+        }
+    }
+
+    /**
+     * 判断产品是否由热点库存管理
+     *
+     * @param productId 产品ID
+     * @return 是否为热点产品
+     */
+    public boolean isHotProduct(Long productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * 查询热点产品的内存可用库存
+     *
+     * @param productId 产品ID
+     * @return 可用库存
+     */
+    public long getAvailableStock(Long productId) {
+        return counter(productId).available();
+    }
+
+    /**
+     * 在内存中预留库存
+     *
+     * 逻辑链: CAS扣减内存库存 -> 注册事务回调（提交后标记待回写，回滚后归还库存）
+     * 注意事项: 调用方需在同一事务内以 stock_deducted = false 写入订单项，由回写任务扣减产品表
+     *
+     * @param productId 产品ID
+     * @param quantity 预留数量
+     * @return 预留是否成功
+     */
+    public boolean tryReserve(Long productId, int quantity) {
+        StripedStockCounter counter = counter(productId);
+        if (!counter.tryAcquire(quantity)) {
+            return false;
+        }
+        onCompletion(committed -> {
+            if (committed) {
+                dirtyProducts.add(productId);
+            } else {
+                counter.release(quantity);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 事务提交后归还内存库存
+     *
+     * @param productId 产品ID
+     * @param quantity 归还数量
+     */
+    public void releaseAfterCommit(Long productId, int quantity) {
+        StripedStockCounter counter = counter(productId);
+        onCompletion(committed -> {
+            if (committed) {
+                counter.release(quantity);
+            }
+        });
+    }
+
+    /**
+     * 定时回写待回写的热点产品库存
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.hot-sku.flush-interval-ms:200}")
+    public void flushPendingStock() {
+        if (dirtyProducts.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            for (Long productId : new ArrayList<>(dirtyProducts)) {
+                dirtyProducts.remove(productId);
+                try {
+                    writeBack(productId);
+                } catch (RuntimeException e) {
+                    dirtyProducts.add(productId);
+                    log.error("热点库存回写失败，产品ID: {}", productId, e);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * 停机前回写剩余的库存扣减
+     */
+    @PreDestroy
+    public void shutdown() {
+        flushPendingStock();
+    }
+
+    /**
+     * 回写单个产品的未扣减订单项
+     *
+     * 逻辑链: 锁定未扣减订单项 -> 按订单汇总 -> 条件扣减产品库存 -> 标记已扣减 -> 写入出库记录
+     * 注意事项: 订单项行锁保证与删除订单互斥；内存预留保证本实例扣减时产品表库存足够，扣减失败说明库存被绕过本实例修改，
+     * 此时不抛出异常，订单项保持未扣减并按产品表重新加载内存库存
+     *
+     * @param productId 产品ID
+     * @return 回写的扣减数量，库存冲突时为0
+     */
+    int writeBack(Long productId) {
+        Integer deducted = transactionTemplate.execute(status -> {
+            List<OrderItem> pending = orderItemRepository.findByProductIdAndStockDeductedFalse(productId);
+            if (pending.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, Integer> orderQuantities = new LinkedHashMap<>();
+            List<Long> itemIds = new ArrayList<>(pending.size());
+            int total = 0;
+            for (OrderItem item : pending) {
+                orderQuantities.merge(item.getOrderId(), item.getQuantity(), Integer::sum);
+                itemIds.add(item.getId());
+                total += item.getQuantity();
+            }
+
+            if (productRepository.decreaseStock(productId, total) == 0) {
+                return STOCK_CONFLICT;
+            }
+            orderItemRepository.markStockDeducted(itemIds);
+
+            int beforeQuantity = productRepository.findStockQuantityById(productId).orElse(0) + total;
+            List<InventoryTransaction> transactions = new ArrayList<>(orderQuantities.size());
+            for (Map.Entry<Long, Integer> entry : orderQuantities.entrySet()) {
+                transactions.add(InventoryTransaction.createOutTransaction(productId, entry.getValue(), beforeQuantity,
+                        InventoryTransaction.ReferenceType.ORDER, entry.getKey(), "热点库存回写"));
+                beforeQuantity -= entry.getValue();
+            }
+            inventoryTransactionRepository.saveAll(transactions);
+            productCatalogSnapshot.markStaleAfterCommit(Collections.singleton(productId));
+            return total;
+        });
+        if (deducted == STOCK_CONFLICT) {
+            onStockConflict(productId);
+            return 0;
+        }
+        log.debug("热点库存回写，产品ID: {}, 扣减数量: {}", productId, deducted);
+        return deducted;
+    }
+
+    /**
+     * 产品表库存少于未扣减数量：记录指标，内存库存重新加载为产品表库存减去未扣减数量，订单项留待人工核对
+     */
+    private void onStockConflict(Long productId) {
+        conflictCounter.increment();
+        int stock = productRepository.findStockQuantityById(productId).orElse(0);
+        long pending = orderItemRepository.sumUndeductedQuantityByProductId(productId);
+        StripedStockCounter counter = counters.get(productId);
+        if (counter != null) {
+            counter.reset(stock - pending);
+        }
+        log.warn("热点库存回写冲突，产品表库存少于未扣减数量，订单项保持未扣减，需人工核对，产品ID: {}, 产品库存: {}, 未扣减数量: {}",
+                productId, stock, pending);
+    }
+
+    private StripedStockCounter counter(Long productId) {
+        StripedStockCounter counter = counters.get(productId);
+        if (counter == null) {
+            throw new IllegalArgumentException("非热点产品: " + productId);
+        }
+        return counter;
+    }
+
+    /**
+     * 注册事务完成回调；没有活动事务时立即按已提交处理
+     */
+    private void onCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
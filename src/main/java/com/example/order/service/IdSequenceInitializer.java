@@ -0,0 +1,72 @@
+package com.example.order.service;
+
+import com.example.order.repository.SequenceBlockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 主键序列初始化
+ *
+ * 功能: 订单、订单项、库存变动的主键由 IDENTITY 改为号段表分配后，保证新分配的主键大于表中已有主键
+ * 逻辑链: 启动时逐表读取 MAX(id) -> 将 sequence_blocks 中同名序列的 next_val 抬高到 MAX(id)（只增不减）
+ * 注意事项: 在应用接收请求前执行，可重复执行；已有主键保持不变。
+ * 启动阶段即写入这些表的 Bean（HotStockReservationService、InventoryLedgerService）通过 @DependsOn 排在其后初始化，
+ * 新增此类 Bean 时同样需要声明；
+ * 切换期间旧版本实例仍按自增列写入时主键可能冲突，需全部实例停机切换，或先执行 docs/database/schema.md 中的迁移SQL并预留余量；
+ * 绕过 Hibernate 直接写入这些表后需再次调用 synchronize()
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component(IdSequenceInitializer.BEAN_NAME)
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    /**
+     * Bean 名称，供启动时写入的 Bean 在 @DependsOn 中引用
+     */
+    public static final String BEAN_NAME = "idSequenceInitializer";
+
+    /**
+     * 使用号段表主键的实体表，序列名与表名相同
+     */
+    public static final List<String> TABLES = Collections.unmodifiableList(
+            Arrays.asList("orders", "order_items", "inventory_transactions"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceBlockRepository sequenceBlockRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 启动时同步主键序列
+     */
+    @PostConstruct
+    public void init() {
+        synchronize();
+    }
+
+    /**
+     * 将各主键序列抬高到对应表已有最大主键之后
+     */
+    public void synchronize() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (String table : TABLES) {
+            transactionTemplate.executeWithoutResult(status -> {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                sequenceBlockRepository.raiseNextVal(table, maxId);
+                log.debug("主键序列已同步，表: {}, 最大主键: {}", table, maxId);
+            });
+        }
+    }
+}
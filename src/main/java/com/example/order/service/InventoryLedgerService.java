@@ -0,0 +1,304 @@
+package com.example.order.service;
+
+import com.example.order.entity.InventoryTransaction;
+import com.example.order.repository.InventoryTransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 库存变动流水服务
+ *
+ * 功能: 异步批量写入库存变动记录（inventory_transactions）
+ * 逻辑链: 库存变更事务提交 -> 记录进入有界队列 -> 后台线程批量取出 -> 单事务批量写入
+ * 注意事项: 只有已提交的库存变更才会入队；队列满时调用方等待，超时后由调用方同步写入（背压）；
+ * 写入失败的批次按指数退避重试，仍失败则逐条写入，只放弃无法写入的记录并计入 inventory.ledger.failed；
+ * 停机时写完队列中剩余记录；在 IdSequenceInitializer 同步主键序列之后启动
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@DependsOn(IdSequenceInitializer.BEAN_NAME)
+@RequiredArgsConstructor
+public class InventoryLedgerService {
+
+    /**
+     * 重试间隔上限
+     */
+    private static final long MAX_RETRY_BACKOFF_MS = 5000;
+
+    private final InventoryTransactionRepository inventoryTransactionRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.inventory.ledger.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.inventory.ledger.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.inventory.ledger.offer-timeout-ms:1000}")
+    private long offerTimeoutMs;
+
+    @Value("${app.inventory.ledger.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${app.inventory.ledger.retry-backoff-ms:100}")
+    private long retryBackoffMs = 100;
+
+    private BlockingQueue<InventoryTransaction> queue;
+    private final AtomicLong pending = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private TransactionTemplate transactionTemplate;
+    private Thread writer;
+    private volatile boolean running;
+
+    private Timer flushTimer;
+    private Counter writtenCounter;
+    private Counter failedCounter;
+    private Counter retryCounter;
+    private Counter backpressureCounter;
+
+    /**
+     * 初始化队列、监控指标并启动后台写入线程
+     */
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Gauge.builder("inventory.ledger.queue.depth", queue, BlockingQueue::size)
+                .description("待写入的库存变动记录数")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("inventory.ledger.flush")
+                .description("库存变动记录批量写入耗时")
+                .register(meterRegistry);
+        writtenCounter = Counter.builder("inventory.ledger.written")
+                .description("已写入的库存变动记录数")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("inventory.ledger.failed")
+                .description("重试后仍无法写入而放弃的库存变动记录数")
+                .register(meterRegistry);
+        retryCounter = Counter.builder("inventory.ledger.retries")
+                .description("库存变动记录批量写入失败后的重试次数")
+                .register(meterRegistry);
+        backpressureCounter = Counter.builder("inventory.ledger.backpressure")
+                .description("队列已满由调用方同步写入的次数")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::drainLoop, "inventory-ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 记录库存变动
+     *
+     * 注意事项: 在事务中调用时于提交后入队，回滚则丢弃
+     *
+     * @param transactions 库存变动记录
+     */
+    public void record(Collection<InventoryTransaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        List<InventoryTransaction> entries = new ArrayList<>(transactions);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entries);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(entries);
+            }
+        });
+    }
+
+    /**
+     * 写入队列中的全部记录，并等待后台线程正在写入的批次完成
+     */
+    public void flush() {
+        while (pending.get() > 0) {
+            if (!writeNextBatch() && pending.get() > 0) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * 停止后台线程并写入剩余记录
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        log.info("库存变动记录写入线程已停止");
+    }
+
+    private void enqueue(List<InventoryTransaction> entries) {
+        pending.addAndGet(entries.size());
+        for (InventoryTransaction entry : entries) {
+            try {
+                while (!queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    // 队列持续已满：调用方协助写入一批，降低入队速度
+                    backpressureCounter.increment();
+                    writeNextBatch();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeDirectly(entry);
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                InventoryTransaction first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                writeLock.lock();
+                try {
+                    List<InventoryTransaction> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                } finally {
+                    writeLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.error("库存变动记录写入失败", e);
+            }
+        }
+    }
+
+    /**
+     * 取出并写入一批记录
+     *
+     * @return 是否写入了记录
+     */
+    private boolean writeNextBatch() {
+        writeLock.lock();
+        try {
+            List<InventoryTransaction> batch = new ArrayList<>(batchSize);
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                return false;
+            }
+            write(batch);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeDirectly(InventoryTransaction entry) {
+        writeLock.lock();
+        try {
+            List<InventoryTransaction> batch = new ArrayList<>(1);
+            batch.add(entry);
+            write(batch);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 单事务写入一批记录
+     *
+     * 逻辑链: 整批写入，失败按指数退避重试 -> 仍失败则逐条写入 -> 单条写入失败的记录放弃并计数
+     * 注意事项: 重试期间持有写入锁，数据库不可用时队列积压并通过背压减慢调用方；
+     * 放弃的记录以错误日志输出完整内容，便于人工补录
+     */
+    private void write(List<InventoryTransaction> batch) {
+        long start = System.nanoTime();
+        try {
+            if (saveWithRetry(batch)) {
+                return;
+            }
+            for (InventoryTransaction entry : batch) {
+                List<InventoryTransaction> single = Collections.singletonList(entry);
+                if (batch.size() == 1 || !save(single)) {
+                    failedCounter.increment();
+                    log.error("库存变动记录写入失败，已放弃: {}", entry);
+                }
+            }
+        } finally {
+            pending.addAndGet(-batch.size());
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean saveWithRetry(List<InventoryTransaction> batch) {
+        long backoff = retryBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            if (save(batch)) {
+                return true;
+            }
+            if (attempt >= maxAttempts) {
+                return false;
+            }
+            retryCounter.increment();
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                // 停机时被中断：保留中断标记，剩余重试不再等待
+                Thread.currentThread().interrupt();
+            }
+            backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MS);
+        }
+    }
+
+    private boolean save(List<InventoryTransaction> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> inventoryTransactionRepository.saveAll(batch));
+            writtenCounter.increment(batch.size());
+            return true;
+        } catch (RuntimeException e) {
+            // 事务已回滚：清除本次分配的主键，重试时重新分配
+            batch.forEach(entry -> entry.setId(null));
+            log.warn("库存变动记录写入失败，记录数: {}", batch.size(), e);
+            return false;
+        }
+    }
+}
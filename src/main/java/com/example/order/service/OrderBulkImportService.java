@@ -0,0 +1,760 @@
+package com.example.order.service;
+
+import com.example.order.dto.BulkImportJobDTO;
+import com.example.order.dto.BulkOrderResultDTO;
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.exception.ResourceNotFoundException;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 订单批量导入服务
+ *
+ * 功能: 以NDJSON或CSV流式读取大批量订单，按分块在有界线程池中并行创建，并逐行输出处理结果
+ * 逻辑链: 加载激活产品单价与激活客户快照 -> 逐行解析并按快照校验（失败行直接拒绝）
+ * -> 攒满 chunk-size 个订单提交给工作线程 -> 每个分块一个事务调用 OrderService.createOrders
+ * -> 分块失败时逐单重试 -> 结果追加到任务，供结果流读取
+ * 注意事项: 线程池队列满时由上传线程自己处理分块（背压），读取速度不会超过写入速度太多；
+ * 快照只用于提前拒绝明显无效的行，库存以分块事务内读取的为准；
+ * 任务保存在本实例内存中，完成后保留 retention-minutes 分钟，重启后丢失
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBulkImportService {
+
+    private final OrderService orderService;
+    private final ProductRepository productRepository;
+    private final CustomerRepository customerRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.bulk-import.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${app.bulk-import.workers:4}")
+    private int workers;
+
+    @Value("${app.bulk-import.queue-capacity:8}")
+    private int queueCapacity;
+
+    @Value("${app.bulk-import.max-rows:100000}")
+    private int maxRows;
+
+    @Value("${app.bulk-import.retention-minutes:60}")
+    private long retentionMinutes;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 导入格式
+     */
+    public enum ImportFormat {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        ImportFormat(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * 按请求的 Content-Type 选择导入格式
+         *
+         * @param contentType 请求的 Content-Type，可带 charset 等参数
+         * @return 导入格式
+         */
+        public static ImportFormat fromContentType(String contentType) {
+            String mediaType = contentType == null ? "" : contentType.split(";")[0].trim();
+            for (ImportFormat format : values()) {
+                if (format.contentType.equalsIgnoreCase(mediaType)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("不支持的导入格式: " + contentType);
+        }
+    }
+
+    /**
+     * 启动分块处理线程池
+     *
+     * 注意事项: 队列满时由提交线程自己处理分块（背压）；线程池停止后拒绝提交，由 submit 将分块结束为失败
+     */
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-import-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, pool) -> {
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("批量导入线程池已停止");
+                    }
+                    runnable.run();
+                });
+    }
+
+    /**
+     * 停止线程池，等待已提交的分块处理完成
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("批量导入线程池未能在30秒内结束，剩余分块: {}", executor.getQueue().size());
+        }
+    }
+
+    /**
+     * 导入订单
+     *
+     * 逻辑链: 创建任务 -> 加载快照 -> 逐个读取订单并校验 -> 按分块提交 -> 读取结束后提交剩余订单
+     * 注意事项: 方法在请求体读取完毕后返回，此时部分分块可能仍在处理；不关闭调用方传入的输入流
+     *
+     * @param in 请求体
+     * @param format 导入格式
+     * @return 任务摘要
+     */
+    public BulkImportJobDTO importOrders(InputStream in, ImportFormat format) throws IOException {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+        log.info("开始批量导入订单，任务ID: {}, 格式: {}", job.id, format);
+
+        Snapshot snapshot = loadSnapshot();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 8192);
+        OrderReader orderReader = format == ImportFormat.CSV ? new CsvOrderReader(reader) : new NdjsonOrderReader(reader);
+        List<ParsedOrder> chunk = new ArrayList<>(chunkSize);
+        try {
+            ParsedOrder parsed;
+            while ((parsed = orderReader.next()) != null) {
+                if (job.rowRead() > maxRows) {
+                    job.addResults(Collections.singletonList(rejected(parsed.row, null,
+                            "超过单次导入最大订单数 " + maxRows + "，后续数据未处理")));
+                    break;
+                }
+                String error = parsed.error != null ? parsed.error : validate(parsed.order, snapshot);
+                if (error != null) {
+                    job.addResults(Collections.singletonList(rejected(parsed.row, parsed.order.getOrderNumber(), error)));
+                    continue;
+                }
+                chunk.add(parsed);
+                if (chunk.size() >= chunkSize) {
+                    submit(job, chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(job, chunk);
+            }
+        } finally {
+            job.uploadCompleted();
+        }
+        log.info("批量导入订单读取完成，任务ID: {}, 订单数: {}", job.id, job.toDTO().getRows());
+        return job.toDTO();
+    }
+
+    /**
+     * 查询任务摘要
+     *
+     * @param jobId 任务ID
+     * @return 任务摘要
+     */
+    public BulkImportJobDTO getJob(String jobId) {
+        return findJob(jobId).toDTO();
+    }
+
+    /**
+     * 以NDJSON逐行写出任务结果
+     *
+     * 逻辑链: 写出已有结果 -> 等待新的结果 -> 任务完成且结果全部写出后返回
+     * 注意事项: 任务未完成时阻塞等待；不关闭调用方传入的输出流
+     *
+     * @param jobId 任务ID
+     * @param out 输出流
+     * @return 写出的结果行数
+     */
+    public long writeResults(String jobId, OutputStream out) throws IOException {
+        ImportJob job = findJob(jobId);
+        int written = 0;
+        while (true) {
+            List<BulkOrderResultDTO> results;
+            try {
+                results = job.awaitResults(written);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("等待批量导入结果时被中断", e);
+            }
+            if (results.isEmpty()) {
+                return written;
+            }
+            for (BulkOrderResultDTO result : results) {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+            written += results.size();
+        }
+    }
+
+    /**
+     * 清理已完成且超过保留时间的任务
+     */
+    @Scheduled(fixedDelayString = "${app.bulk-import.cleanup-interval-ms:300000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(retentionMinutes);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.isCompletedBefore(threshold));
+        if (jobs.size() < before) {
+            log.debug("已清理过期批量导入任务: {}", before - jobs.size());
+        }
+    }
+
+    private ImportJob findJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("批量导入任务", "jobId", jobId);
+        }
+        return job;
+    }
+
+    /**
+     * 加载激活产品的单价与激活客户ID
+     */
+    private Snapshot loadSnapshot() {
+        Map<Long, BigDecimal> unitPrices = new HashMap<>();
+        for (Object[] row : productRepository.findActiveUnitPrices()) {
+            unitPrices.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        return new Snapshot(unitPrices, new HashSet<>(customerRepository.findActiveIds()));
+    }
+
+    /**
+     * 按Bean Validation约束与快照校验订单，未填写单价的订单项取产品当前单价
+     *
+     * @return 拒绝原因，通过时为null
+     */
+    private String validate(OrderDTO order, Snapshot snapshot) {
+        Set<ConstraintViolation<OrderDTO>> violations = validator.validate(order);
+        if (!violations.isEmpty()) {
+            return joinMessages(violations);
+        }
+        if (!snapshot.customerIds.contains(order.getCustomerId())) {
+            return "客户不存在或未激活: " + order.getCustomerId();
+        }
+        if (order.getItems() == null || order.getItems().isEmpty()) {
+            return "订单项不能为空";
+        }
+        for (OrderItemDTO item : order.getItems()) {
+            if (item.getProductId() != null) {
+                if (!snapshot.unitPrices.containsKey(item.getProductId())) {
+                    return "产品不存在或未激活: " + item.getProductId();
+                }
+                if (item.getUnitPrice() == null) {
+                    item.setUnitPrice(snapshot.unitPrices.get(item.getProductId()));
+                }
+            }
+            // 订单ID在创建时才产生，不参与校验
+            Set<ConstraintViolation<OrderItemDTO>> itemViolations = validator.validate(item).stream()
+                    .filter(v -> !"orderId".equals(v.getPropertyPath().toString()))
+                    .collect(Collectors.toSet());
+            if (!itemViolations.isEmpty()) {
+                return joinMessages(itemViolations);
+            }
+        }
+        return null;
+    }
+
+    private static String joinMessages(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+
+    private void submit(ImportJob job, List<ParsedOrder> chunk) {
+        job.chunkSubmitted();
+        try {
+            executor.execute(() -> {
+                try {
+                    job.addResults(processChunk(chunk));
+                } catch (RuntimeException e) {
+                    log.error("批量导入分块处理失败，任务ID: {}", job.id, e);
+                    job.addResults(rejectChunk(chunk, "处理失败: " + e.getMessage()));
+                } finally {
+                    job.chunkCompleted();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 停机期间线程池不再接收分块：逐行返回失败并结束计数，否则读取结果的请求会一直等待
+            log.warn("批量导入线程池已停止，分块未处理，任务ID: {}, 订单数: {}", job.id, chunk.size());
+            job.addResults(rejectChunk(chunk, "服务正在停止，未处理，请重新提交"));
+            job.chunkCompleted();
+        }
+    }
+
+    private static List<BulkOrderResultDTO> rejectChunk(List<ParsedOrder> chunk, String error) {
+        List<BulkOrderResultDTO> results = new ArrayList<>(chunk.size());
+        for (ParsedOrder parsed : chunk) {
+            results.add(rejected(parsed.row, parsed.order.getOrderNumber(), error));
+        }
+        return results;
+    }
+
+    /**
+     * 在一个事务中创建分块内的订单，失败时逐单重试
+     */
+    private List<BulkOrderResultDTO> processChunk(List<ParsedOrder> chunk) {
+        List<OrderDTO> orders = chunk.stream().map(parsed -> parsed.order).collect(Collectors.toList());
+        List<BulkOrderResultDTO> results;
+        try {
+            results = orderService.createOrders(orders);
+        } catch (RuntimeException e) {
+            log.warn("批量创建订单失败，改为逐单创建，订单数: {}, 原因: {}", orders.size(), e.getMessage());
+            results = new ArrayList<>(orders.size());
+            for (OrderDTO order : orders) {
+                try {
+                    results.add(BulkOrderResultDTO.created(orderService.createOrder(order, order.getItems())));
+                } catch (RuntimeException ex) {
+                    results.add(BulkOrderResultDTO.rejected(order.getOrderNumber(), ex.getMessage()));
+                }
+            }
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            results.get(i).setRow(chunk.get(i).row);
+        }
+        return results;
+    }
+
+    private static BulkOrderResultDTO rejected(long row, String orderNumber, String error) {
+        BulkOrderResultDTO result = BulkOrderResultDTO.rejected(orderNumber, error);
+        result.setRow(row);
+        return result;
+    }
+
+    /**
+     * 产品单价与客户快照
+     */
+    private static final class Snapshot {
+
+        private final Map<Long, BigDecimal> unitPrices;
+        private final Set<Long> customerIds;
+
+        private Snapshot(Map<Long, BigDecimal> unitPrices, Set<Long> customerIds) {
+            this.unitPrices = unitPrices;
+            this.customerIds = customerIds;
+        }
+    }
+
+    /**
+     * 解析出的一个订单
+     */
+    private static final class ParsedOrder {
+
+        private final long row;
+        private final OrderDTO order;
+        private String error;
+
+        private ParsedOrder(long row, OrderDTO order, String error) {
+            this.row = row;
+            this.order = order;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 批量导入任务
+     *
+     * 注意事项: 所有状态在任务锁下读写，结果流通过条件变量等待新结果；
+     * 使用 ReentrantLock 而非 synchronized/wait，虚拟线程等待结果时不会钉住载体线程
+     */
+    private static final class ImportJob {
+
+        private final String id;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final List<BulkOrderResultDTO> results = new ArrayList<>();
+        private long rows;
+        private long created;
+        private long rejected;
+        private int pendingChunks;
+        private boolean uploadCompleted;
+        private LocalDateTime completedAt;
+
+        private ImportJob(String id) {
+            this.id = id;
+        }
+
+        long rowRead() {
+            lock.lock();
+            try {
+                return ++rows;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void chunkSubmitted() {
+            lock.lock();
+            try {
+                pendingChunks++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void addResults(Collection<BulkOrderResultDTO> chunkResults) {
+            lock.lock();
+            try {
+                for (BulkOrderResultDTO result : chunkResults) {
+                    if (result.getStatus() == BulkOrderResultDTO.Status.CREATED) {
+                        created++;
+                    } else {
+                        rejected++;
+                    }
+                }
+                results.addAll(chunkResults);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void chunkCompleted() {
+            lock.lock();
+            try {
+                pendingChunks--;
+                checkCompleted();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void uploadCompleted() {
+            lock.lock();
+            try {
+                uploadCompleted = true;
+                checkCompleted();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean isCompletedBefore(LocalDateTime threshold) {
+            lock.lock();
+            try {
+                return completedAt != null && completedAt.isBefore(threshold);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 等待第 from 行之后的结果
+         *
+         * @return 新的结果，任务完成且没有更多结果时为空列表
+         */
+        List<BulkOrderResultDTO> awaitResults(int from) throws InterruptedException {
+            lock.lock();
+            try {
+                while (results.size() <= from && completedAt == null) {
+                    changed.await();
+                }
+                return new ArrayList<>(results.subList(Math.min(from, results.size()), results.size()));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        BulkImportJobDTO toDTO() {
+            lock.lock();
+            try {
+                BulkImportJobDTO dto = new BulkImportJobDTO();
+                dto.setJobId(id);
+                dto.setStatus(completedAt == null
+                        ? BulkImportJobDTO.Status.RUNNING : BulkImportJobDTO.Status.COMPLETED);
+                dto.setRows(rows);
+                dto.setCreated(created);
+                dto.setRejected(rejected);
+                dto.setStartedAt(startedAt);
+                dto.setCompletedAt(completedAt);
+                return dto;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void checkCompleted() {
+            if (uploadCompleted && pendingChunks == 0 && completedAt == null) {
+                completedAt = LocalDateTime.now();
+                changed.signalAll();
+            }
+        }
+    }
+
+    /**
+     * 订单读取器
+     */
+    private interface OrderReader {
+
+        /**
+         * 读取下一个订单
+         *
+         * @return 订单，读取结束时为null
+         */
+        ParsedOrder next() throws IOException;
+    }
+
+    /**
+     * NDJSON，每行一个订单（与创建订单接口的请求体相同），行号从1开始，空行不计
+     */
+    private final class NdjsonOrderReader implements OrderReader {
+
+        private final BufferedReader reader;
+        private long row;
+
+        private NdjsonOrderReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedOrder next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                row++;
+                try {
+                    return new ParsedOrder(row, objectMapper.readValue(line, OrderDTO.class), null);
+                } catch (JsonProcessingException e) {
+                    return new ParsedOrder(row, new OrderDTO(), "格式错误: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV，首行为表头，每行一个订单项
+     *
+     * 注意事项: 连续多行的 ref 列（为空时取 orderNumber 列）相同时合并为一个订单，订单级字段取首行；
+     * 两列都为空的行单独成为一个订单；行号为订单首行的数据行序号（不含表头）
+     */
+    private static final class CsvOrderReader implements OrderReader {
+
+        private final Reader reader;
+        private Map<String, Integer> columns;
+        private long row;
+        private ParsedOrder current;
+        private String currentKey;
+
+        private CsvOrderReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedOrder next() throws IOException {
+            if (columns == null && !readHeader()) {
+                return null;
+            }
+            List<String> record;
+            while ((record = readRecord()) != null) {
+                if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                    continue;
+                }
+                row++;
+                String key = field(record, "ref");
+                if (key == null) {
+                    key = field(record, "orderNumber");
+                }
+                if (current != null && key != null && key.equals(currentKey)) {
+                    addItem(current, record);
+                    continue;
+                }
+                ParsedOrder completed = current;
+                current = newOrder(record);
+                currentKey = key;
+                if (completed != null) {
+                    return completed;
+                }
+            }
+            ParsedOrder completed = current;
+            current = null;
+            return completed;
+        }
+
+        private boolean readHeader() throws IOException {
+            List<String> header = readRecord();
+            if (header == null) {
+                return false;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim();
+                if (i == 0 && name.startsWith("\uFEFF")) {
+                    name = name.substring(1);
+                }
+                columns.put(name, i);
+            }
+            return true;
+        }
+
+        private ParsedOrder newOrder(List<String> record) {
+            OrderDTO order = new OrderDTO();
+            order.setItems(new ArrayList<>());
+            ParsedOrder parsed = new ParsedOrder(row, order, null);
+            try {
+                order.setOrderNumber(field(record, "orderNumber"));
+                order.setCustomerId(parseLong(field(record, "customerId")));
+                order.setOrderDate(parseDate(field(record, "orderDate")));
+                order.setDeliveryDate(parseDate(field(record, "deliveryDate")));
+                order.setDiscountAmount(parseDecimal(field(record, "discountAmount")));
+                order.setTaxAmount(parseDecimal(field(record, "taxAmount")));
+                order.setPaymentMethod(field(record, "paymentMethod"));
+                order.setNotes(field(record, "notes"));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                parsed.error = "第" + row + "行格式错误: " + e.getMessage();
+                return parsed;
+            }
+            addItem(parsed, record);
+            return parsed;
+        }
+
+        private void addItem(ParsedOrder parsed, List<String> record) {
+            if (parsed.error != null) {
+                return;
+            }
+            OrderItemDTO item = new OrderItemDTO();
+            try {
+                item.setProductId(parseLong(field(record, "productId")));
+                String quantity = field(record, "quantity");
+                item.setQuantity(quantity == null ? null : Integer.valueOf(quantity));
+                item.setUnitPrice(parseDecimal(field(record, "unitPrice")));
+                item.setDiscountRate(parseDecimal(field(record, "discountRate")));
+            } catch (NumberFormatException e) {
+                parsed.error = "第" + row + "行格式错误: " + e.getMessage();
+                return;
+            }
+            parsed.order.getItems().add(item);
+        }
+
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static Long parseLong(String value) {
+            return value == null ? null : Long.valueOf(value);
+        }
+
+        private static LocalDate parseDate(String value) {
+            return value == null ? null : LocalDate.parse(value);
+        }
+
+        private static BigDecimal parseDecimal(String value) {
+            return value == null ? null : new BigDecimal(value);
+        }
+
+        /**
+         * 读取一条记录，支持引号内的逗号、换行与成对引号
+         *
+         * @return 字段列表，读取结束时为null
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        break;
+                    }
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next != '"') {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    }
+                    field.append((char) c);
+                } else {
+                    if (c == -1 || c == '\n') {
+                        break;
+                    }
+                    if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else if (c == '"' && field.length() == 0) {
+                        quoted = true;
+                    } else if (c != '\r') {
+                        field.append((char) c);
+                    }
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
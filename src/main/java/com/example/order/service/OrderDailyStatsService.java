@@ -0,0 +1,277 @@
+package com.example.order.service;
+
+import com.example.order.entity.Order;
+import com.example.order.repository.OrderDailyStatRepository;
+import com.example.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * 订单日统计服务
+ *
+ * 功能: 维护 order_daily_stats 预聚合表，为订单统计接口提供按天汇总的数据
+ * 逻辑链: 订单创建/修改/删除 -> 在同一事务内按 订单日期 + 状态 + 支付状态 + 货币 累加差值 -> 统计查询只扫描统计表
+ * 注意事项: 增量更新与订单变更同事务提交，统计结果与订单表一致；
+ * 每日定时任务按订单表对账（不锁订单表），修正偏差并清理已无订单的统计行；绕过 OrderService 直接修改订单表后需手动调用 rebuild
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class OrderDailyStatsService {
+
+    /**
+     * 统计键的固定加锁顺序，订单在两个统计行之间移动时避免死锁
+     */
+    private static final Comparator<Snapshot> KEY_ORDER = Comparator
+            .comparing((Snapshot s) -> s.statDate)
+            .thenComparing(s -> s.status)
+            .thenComparing(s -> s.paymentStatus)
+            .thenComparing(s -> s.currency);
+
+    /**
+     * 对账写入每个事务处理的统计行数
+     */
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    private final OrderDailyStatRepository orderDailyStatRepository;
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 对账读取：可重复读，两次查询看到同一快照
+     */
+    private TransactionTemplate snapshotTemplate;
+
+    /**
+     * 对账写入：每批一个短事务
+     */
+    private TransactionTemplate writeTemplate;
+
+    /**
+     * 初始化对账事务
+     */
+    @PostConstruct
+    public void init() {
+        snapshotTemplate = new TransactionTemplate(transactionManager);
+        snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        writeTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 记录订单在修改前的统计维度
+     *
+     * @param order 订单
+     * @return 统计快照
+     */
+    public Snapshot snapshot(Order order) {
+        return new Snapshot(order);
+    }
+
+    /**
+     * 记录新建订单
+     *
+     * @param order 已保存的订单
+     */
+    public void recordCreated(Order order) {
+        apply(new Snapshot(order), 1);
+    }
+
+    /**
+     * 记录一批新建订单
+     *
+     * 注意事项: 按统计维度汇总后每个统计行只累加一次，按固定顺序加锁
+     *
+     * @param orders 已保存的订单
+     */
+    public void recordCreated(Collection<Order> orders) {
+        Map<Snapshot, Long> counts = new TreeMap<>(KEY_ORDER);
+        Map<Snapshot, BigDecimal> amounts = new TreeMap<>(KEY_ORDER);
+        for (Order order : orders) {
+            Snapshot key = new Snapshot(order);
+            counts.merge(key, 1L, Long::sum);
+            amounts.merge(key, key.finalAmount, BigDecimal::add);
+        }
+        for (Map.Entry<Snapshot, Long> entry : counts.entrySet()) {
+            upsert(entry.getKey(), entry.getValue(), amounts.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * 记录订单修改
+     *
+     * 逻辑链: 统计维度不变时只累加金额差值；维度变化时从旧统计行减去、向新统计行加上
+     *
+     * @param before 修改前快照
+     * @param after 修改后的订单
+     */
+    public void recordChanged(Snapshot before, Order after) {
+        Snapshot current = new Snapshot(after);
+        if (before.sameKey(current)) {
+            BigDecimal delta = current.finalAmount.subtract(before.finalAmount);
+            if (delta.signum() != 0) {
+                upsert(current, 0, delta);
+            }
+            return;
+        }
+        if (KEY_ORDER.compare(before, current) < 0) {
+            apply(before, -1);
+            apply(current, 1);
+        } else {
+            apply(current, 1);
+            apply(before, -1);
+        }
+    }
+
+    /**
+     * 记录订单删除
+     *
+     * @param order 被删除的订单
+     */
+    public void recordDeleted(Order order) {
+        apply(new Snapshot(order), -1);
+    }
+
+    /**
+     * 计算指定日期范围的订单总金额
+     *
+     * @param startDate 开始日期
+     * @param endDate 结束日期
+     * @return 订单总金额，范围内没有订单时为null
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal sumFinalAmountByOrderDateBetween(LocalDate startDate, LocalDate endDate) {
+        return orderDailyStatRepository.sumFinalAmountByStatDateBetween(startDate, endDate);
+    }
+
+    /**
+     * 按订单表对账统计表
+     *
+     * 逻辑链: 同一一致性快照内非锁定读聚合订单表、读取统计表 -> 计算各统计行差值
+     * -> 按固定顺序分批 upsert 累加差值 -> 删除已无订单的统计行（按主键，数量与金额仍为0才删除）
+     * 注意事项: 不锁订单表，对账期间订单写入照常进行；增量更新与差值都是原子累加，可交换顺序，
+     * 快照之后提交的增量更新不会被覆盖；快照内统计表与订单表一致时差值为0，只修正此前的偏差；默认每天凌晨执行
+     */
+    @Scheduled(cron = "${app.stats.rebuild-cron:0 30 2 * * *}")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Snapshot, Long> counts = new TreeMap<>(KEY_ORDER);
+        Map<Snapshot, BigDecimal> amounts = new TreeMap<>(KEY_ORDER);
+        Map<Snapshot, Long> statIds = new TreeMap<>(KEY_ORDER);
+        snapshotTemplate.executeWithoutResult(status -> {
+            for (Object[] row : orderDailyStatRepository.aggregateOrders()) {
+                Snapshot key = new Snapshot((LocalDate) row[0], (Order.OrderStatus) row[1],
+                        (Order.PaymentStatus) row[2], (String) row[3], (BigDecimal) row[5]);
+                counts.merge(key, (Long) row[4], Long::sum);
+                amounts.merge(key, key.finalAmount, BigDecimal::add);
+            }
+            for (Object[] row : orderDailyStatRepository.findAllRows()) {
+                Snapshot key = new Snapshot((LocalDate) row[1], (Order.OrderStatus) row[2],
+                        (Order.PaymentStatus) row[3], (String) row[4], (BigDecimal) row[6]);
+                if (!counts.containsKey(key)) {
+                    statIds.put(key, (Long) row[0]);
+                }
+                counts.merge(key, -(Long) row[5], Long::sum);
+                amounts.merge(key, key.finalAmount.negate(), BigDecimal::add);
+            }
+        });
+
+        List<Snapshot> corrections = counts.keySet().stream()
+                .filter(key -> counts.get(key) != 0 || amounts.get(key).signum() != 0)
+                .collect(Collectors.toList());
+        for (int from = 0; from < corrections.size(); from += REBUILD_BATCH_SIZE) {
+            List<Snapshot> batch = corrections.subList(from, Math.min(from + REBUILD_BATCH_SIZE, corrections.size()));
+            writeTemplate.executeWithoutResult(status ->
+                    batch.forEach(key -> upsert(key, counts.get(key), amounts.get(key))));
+        }
+        List<Long> emptyIds = new ArrayList<>(statIds.values());
+        int deleted = 0;
+        for (int from = 0; from < emptyIds.size(); from += REBUILD_BATCH_SIZE) {
+            List<Long> batch = emptyIds.subList(from, Math.min(from + REBUILD_BATCH_SIZE, emptyIds.size()));
+            Integer rows = writeTemplate.execute(status -> orderDailyStatRepository.deleteEmptyByIdIn(batch));
+            deleted += rows == null ? 0 : rows;
+        }
+        if (!corrections.isEmpty()) {
+            log.warn("订单日统计与订单表不一致，已修正 {} 个统计行", corrections.size());
+        }
+        log.info("订单日统计对账完成，修正: {}, 删除空行: {}, 耗时: {}ms",
+                corrections.size(), deleted, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 启动时统计表为空而订单表有数据（首次上线或统计表被清空）则立即重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (orderDailyStatRepository.count() == 0 && orderRepository.count() > 0) {
+            log.info("订单日统计为空，开始按订单表重建");
+            rebuild();
+        }
+    }
+
+    private void apply(Snapshot key, int count) {
+        upsert(key, count, key.finalAmount.multiply(BigDecimal.valueOf(count)));
+    }
+
+    private void upsert(Snapshot key, long count, BigDecimal amount) {
+        orderDailyStatRepository.upsert(key.statDate, key.status.name(), key.paymentStatus.name(),
+                key.currency, count, amount);
+    }
+
+    /**
+     * 订单在统计表中的维度与金额
+     */
+    public static final class Snapshot {
+
+        private final LocalDate statDate;
+        private final Order.OrderStatus status;
+        private final Order.PaymentStatus paymentStatus;
+        private final String currency;
+        private final BigDecimal finalAmount;
+
+        private Snapshot(Order order) {
+            this(order.getOrderDate(), order.getStatus(), order.getPaymentStatus(), order.getCurrency(),
+                    order.getFinalAmount());
+        }
+
+        private Snapshot(LocalDate statDate, Order.OrderStatus status, Order.PaymentStatus paymentStatus,
+                         String currency, BigDecimal finalAmount) {
+            this.statDate = statDate;
+            this.status = status;
+            this.paymentStatus = paymentStatus;
+            this.currency = currency == null ? "" : currency;
+            this.finalAmount = finalAmount == null ? BigDecimal.ZERO : finalAmount;
+        }
+
+        private boolean sameKey(Snapshot other) {
+            return statDate.equals(other.statDate) && status == other.status
+                    && paymentStatus == other.paymentStatus && Objects.equals(currency, other.currency);
+        }
+    }
+}
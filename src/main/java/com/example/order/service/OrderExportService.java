@@ -0,0 +1,322 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderDTO;
+import com.example.order.entity.Order;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 订单导出服务
+ *
+ * 功能: 按日期范围、状态、客户导出订单，以NDJSON或CSV格式流式写出
+ * 逻辑链: 只读事务 -> 流式读取结果集 -> 每行转换后立即写入输出流 -> 可选gzip压缩
+ * 注意事项: 不经过持久化上下文，内存占用与导出行数无关；
+ * MySQL 只对导出语句开启逐行流式读取（fetchSize = Integer.MIN_VALUE），连接串不开启全局 useCursorFetch，
+ * 其他查询仍一次读取结果；其他数据库按 app.export.fetch-size 逐批读取
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private static final String SELECT_COLUMNS = "SELECT id, order_number, customer_id, order_date, delivery_date, "
+            + "status, total_amount, discount_amount, tax_amount, final_amount, currency, payment_status, "
+            + "payment_method, notes, created_at, updated_at FROM orders";
+
+    private static final String[] CSV_HEADER = {"id", "orderNumber", "customerId", "orderDate", "deliveryDate",
+            "status", "totalAmount", "discountAmount", "taxAmount", "finalAmount", "currency", "paymentStatus",
+            "paymentMethod", "notes", "createdAt", "updatedAt"};
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    /**
+     * 导出格式
+     */
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * 导出订单
+     *
+     * 逻辑链: 拼接过滤条件 -> 只读事务内游标查询 -> 逐行写出 -> 刷新并结束压缩流
+     * 注意事项: 不关闭调用方传入的输出流；写出失败时抛出异常，已写出的内容不会回滚
+     *
+     * @param startDate 订单日期起（含），可为null
+     * @param endDate 订单日期止（含），可为null
+     * @param status 订单状态，可为null
+     * @param customerId 客户ID，可为null
+     * @param format 导出格式
+     * @param gzip 是否gzip压缩
+     * @param out 输出流
+     * @return 导出行数
+     */
+    public long export(LocalDate startDate, LocalDate endDate, Order.OrderStatus status, Long customerId,
+                       ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        log.info("开始导出订单，范围: {} - {}, 状态: {}, 客户ID: {}, 格式: {}, 压缩: {}",
+                startDate, endDate, status, customerId, format, gzip);
+        long start = System.currentTimeMillis();
+
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (startDate != null) {
+            sql.append(" AND order_date >= ?");
+            args.add(Date.valueOf(startDate));
+        }
+        if (endDate != null) {
+            sql.append(" AND order_date <= ?");
+            args.add(Date.valueOf(endDate));
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+        if (customerId != null) {
+            sql.append(" AND customer_id = ?");
+            args.add(customerId);
+        }
+        sql.append(" ORDER BY id");
+
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(new NonClosingOutputStream(out), 8192) : null;
+        OutputStream target = gzip ? gzipOut : new NonClosingOutputStream(out);
+        RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(target) : new NdjsonRowWriter(target);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        PreparedStatementCreator statement = con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(isMySql(con) ? Integer.MIN_VALUE : fetchSize);
+            new ArgumentPreparedStatementSetter(args.toArray()).setValues(ps);
+            return ps;
+        };
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        long[] count = new long[1];
+        try {
+            transactionTemplate.executeWithoutResult(tx ->
+                    jdbcTemplate.query(statement, (RowCallbackHandler) rs -> {
+                        try {
+                            writer.write(mapRow(rs));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        count[0]++;
+                    }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        out.flush();
+
+        log.info("订单导出完成，行数: {}, 耗时: {}ms", count[0], System.currentTimeMillis() - start);
+        return count[0];
+    }
+
+    /**
+     * MySQL/MariaDB 驱动只有 fetchSize 为 Integer.MIN_VALUE 时才逐行流式读取，否则一次读取全部结果
+     */
+    private static boolean isMySql(Connection con) throws SQLException {
+        String product = con.getMetaData().getDatabaseProductName();
+        return product != null && (product.contains("MySQL") || product.contains("MariaDB"));
+    }
+
+    private OrderDTO mapRow(ResultSet rs) throws SQLException {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setOrderNumber(rs.getString("order_number"));
+        dto.setCustomerId(rs.getLong("customer_id"));
+        dto.setOrderDate(toLocalDate(rs.getDate("order_date")));
+        dto.setDeliveryDate(toLocalDate(rs.getDate("delivery_date")));
+        String status = rs.getString("status");
+        dto.setStatus(status == null ? null : Order.OrderStatus.valueOf(status));
+        dto.setTotalAmount(rs.getBigDecimal("total_amount"));
+        dto.setDiscountAmount(rs.getBigDecimal("discount_amount"));
+        dto.setTaxAmount(rs.getBigDecimal("tax_amount"));
+        dto.setFinalAmount(rs.getBigDecimal("final_amount"));
+        dto.setCurrency(rs.getString("currency"));
+        String paymentStatus = rs.getString("payment_status");
+        dto.setPaymentStatus(paymentStatus == null ? null : Order.PaymentStatus.valueOf(paymentStatus));
+        dto.setPaymentMethod(rs.getString("payment_method"));
+        dto.setNotes(rs.getString("notes"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        dto.setCreatedAt(createdAt == null ? null : createdAt.toLocalDateTime());
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        dto.setUpdatedAt(updatedAt == null ? null : updatedAt.toLocalDateTime());
+        return dto;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toLocalDate();
+    }
+
+    private interface RowWriter {
+
+        void write(OrderDTO order) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * 每行一个JSON对象，以换行分隔
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final OutputStream out;
+        private final SequenceWriter sequenceWriter;
+        private boolean written;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.out = out;
+            this.sequenceWriter = objectMapper.writerFor(OrderDTO.class)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+        }
+
+        @Override
+        public void write(OrderDTO order) throws IOException {
+            sequenceWriter.write(order);
+            written = true;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            sequenceWriter.close();
+            if (written) {
+                // 分隔符只写在两行之间，补上最后一行的换行
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 CSV，首行为表头
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+            writeLine((Object[]) CSV_HEADER);
+        }
+
+        @Override
+        public void write(OrderDTO o) throws IOException {
+            writeLine(o.getId(), o.getOrderNumber(), o.getCustomerId(), o.getOrderDate(), o.getDeliveryDate(),
+                    o.getStatus(), o.getTotalAmount(), o.getDiscountAmount(), o.getTaxAmount(), o.getFinalAmount(),
+                    o.getCurrency(), o.getPaymentStatus(), o.getPaymentMethod(), o.getNotes(),
+                    o.getCreatedAt(), o.getUpdatedAt());
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i] instanceof Enum ? ((Enum<?>) values[i]).name() : values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * 防止写出器关闭调用方的输出流
+     */
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
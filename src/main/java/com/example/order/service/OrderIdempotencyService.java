@@ -0,0 +1,295 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.IdempotencyRecord;
+import com.example.order.exception.CustomException;
+import com.example.order.exception.IdempotencyKeyMismatchException;
+import com.example.order.exception.IdempotentRequestInProgressException;
+import com.example.order.exception.ResourceNotFoundException;
+import com.example.order.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 订单创建幂等服务
+ *
+ * 功能: 按 Idempotency-Key 去重创建订单请求，重复请求返回首次请求创建的订单
+ * 逻辑链: 内存缓存命中 -> 直接返回；同键请求处理中 -> 等待其完成后返回同一结果；
+ * 否则查询 idempotency_keys -> 已存在则返回对应订单 -> 不存在则创建订单并在同一事务中插入幂等记录
+ * 注意事项: 同一实例内的并发重复请求只执行一次，其余请求等待首个请求（超时返回409）；
+ * 多实例并发时由唯一约束判定，失败方事务回滚后返回胜出方的订单（任何失败都先重新查询幂等记录，存在则重放）；
+ * 首个请求失败时等待中的重复请求得到同一异常，失败结果不缓存，之后的重试会重新执行；
+ * 从数据库恢复的结果返回订单当前状态
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderIdempotencyService {
+
+    /**
+     * 幂等键最大长度
+     */
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${app.idempotency.cache-size:10000}")
+    private long cacheSize;
+
+    @Value("${app.idempotency.in-flight-timeout-ms:30000}")
+    private long inFlightTimeoutMs;
+
+    private final ConcurrentMap<String, CompletableFuture<CompletedRequest>> inFlight = new ConcurrentHashMap<>();
+    private Cache<String, CompletedRequest> completed;
+    private TransactionTemplate transactionTemplate;
+
+    private Counter executedCounter;
+    private Counter replayedCounter;
+    private Counter joinedCounter;
+
+    /**
+     * 初始化缓存与监控指标
+     */
+    @PostConstruct
+    public void init() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retentionHours, TimeUnit.HOURS)
+                .build();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executedCounter = requestCounter("executed");
+        replayedCounter = requestCounter("replayed");
+        joinedCounter = requestCounter("joined");
+    }
+
+    /**
+     * 幂等创建订单
+     *
+     * @param idempotencyKey 幂等键
+     * @param orderDTO 订单DTO
+     * @param orderItems 订单项列表
+     * @return 创建结果（是否为重放）
+     */
+    public IdempotentResult createOrder(String idempotencyKey, OrderDTO orderDTO, List<OrderItemDTO> orderItems) {
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new CustomException("Idempotency-Key 长度需在1到" + MAX_KEY_LENGTH + "个字符之间");
+        }
+        String requestHash = requestHash(orderDTO, orderItems);
+
+        CompletedRequest done = completed.getIfPresent(idempotencyKey);
+        if (done != null) {
+            return replay(idempotencyKey, requestHash, done, replayedCounter);
+        }
+
+        CompletableFuture<CompletedRequest> mine = new CompletableFuture<>();
+        CompletableFuture<CompletedRequest> running = inFlight.putIfAbsent(idempotencyKey, mine);
+        if (running != null) {
+            return replay(idempotencyKey, requestHash, await(idempotencyKey, running), joinedCounter);
+        }
+        try {
+            // 取得处理权前，上一个同键请求可能刚好完成
+            done = completed.getIfPresent(idempotencyKey);
+            if (done == null) {
+                done = loadPersisted(idempotencyKey).orElse(null);
+            }
+            IdempotentResult result;
+            if (done != null) {
+                result = replay(idempotencyKey, requestHash, done, replayedCounter);
+            } else {
+                done = execute(idempotencyKey, requestHash, orderDTO, orderItems);
+                result = done.executed
+                        ? new IdempotentResult(done.order, false)
+                        : replay(idempotencyKey, requestHash, done, replayedCounter);
+            }
+            completed.put(idempotencyKey, done);
+            mine.complete(done);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, mine);
+        }
+    }
+
+    /**
+     * 清理过期幂等记录
+     */
+    @Scheduled(cron = "${app.idempotency.cleanup-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteByCreatedAtBefore(LocalDateTime.now().minusHours(retentionHours)));
+        log.info("清理过期幂等记录完成，删除 {} 条", deleted);
+    }
+
+    private CompletedRequest execute(String idempotencyKey, String requestHash,
+                                     OrderDTO orderDTO, List<OrderItemDTO> orderItems) {
+        try {
+            CompletedRequest done = transactionTemplate.execute(status -> {
+                OrderDTO created = orderService.createOrder(orderDTO, orderItems);
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setIdempotencyKey(idempotencyKey);
+                record.setRequestHash(requestHash);
+                record.setOrderId(created.getId());
+                record.setCreatedAt(LocalDateTime.now());
+                idempotencyRecordRepository.saveAndFlush(record);
+                return new CompletedRequest(requestHash, created, true);
+            });
+            executedCounter.increment();
+            return done;
+        } catch (RuntimeException e) {
+            // 失败原因不只唯一键冲突：其他实例持有同一键时也可能是锁等待超时或死锁，提交结果未知时可能已写入；
+            // 重新查询幂等记录，已存在则按已完成请求重放，否则抛出原异常
+            Optional<CompletedRequest> persisted;
+            try {
+                persisted = loadPersisted(idempotencyKey);
+            } catch (RuntimeException lookupFailure) {
+                e.addSuppressed(lookupFailure);
+                throw e;
+            }
+            return persisted.orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<CompletedRequest> loadPersisted(String idempotencyKey) {
+        return idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey)
+                .map(record -> new CompletedRequest(record.getRequestHash(),
+                        orderService.findById(record.getOrderId()).orElseThrow(() ->
+                                new ResourceNotFoundException("Order", "id", record.getOrderId())),
+                        false));
+    }
+
+    private CompletedRequest await(String idempotencyKey, CompletableFuture<CompletedRequest> running) {
+        try {
+            return running.get(inFlightTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException(idempotencyKey);
+        }
+    }
+
+    private static IdempotentResult replay(String idempotencyKey, String requestHash,
+                                           CompletedRequest done, Counter counter) {
+        if (!done.requestHash.equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(idempotencyKey);
+        }
+        counter.increment();
+        log.debug("幂等请求重放，幂等键: {}, 订单ID: {}", idempotencyKey, done.order.getId());
+        return new IdempotentResult(done.order, true);
+    }
+
+    private String requestHash(OrderDTO orderDTO, List<OrderItemDTO> orderItems) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(objectMapper.writeValueAsBytes(orderDTO));
+            digest.update(objectMapper.writeValueAsBytes(orderItems));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("计算请求摘要失败", e);
+        }
+    }
+
+    private Counter requestCounter(String result) {
+        return Counter.builder("orders.idempotency.requests")
+                .description("带幂等键的创建订单请求数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 已完成的幂等请求
+     */
+    private static final class CompletedRequest {
+
+        private final String requestHash;
+        private final OrderDTO order;
+        private final boolean executed;
+
+        private CompletedRequest(String requestHash, OrderDTO order, boolean executed) {
+            this.requestHash = requestHash;
+            this.order = order;
+            this.executed = executed;
+        }
+    }
+
+    /**
+     * 幂等创建结果
+     */
+    public static final class IdempotentResult {
+
+        private final OrderDTO order;
+        private final boolean replayed;
+
+        IdempotentResult(OrderDTO order, boolean replayed) {
+            this.order = order;
+            this.replayed = replayed;
+        }
+
+        /**
+         * 获取订单
+         *
+         * @return 订单DTO
+         */
+        public OrderDTO getOrder() {
+            return order;
+        }
+
+        /**
+         * 是否为重放的结果
+         *
+         * @return 重复请求返回已有结果时为true
+         */
+        public boolean isReplayed() {
+            return replayed;
+        }
+    }
+}
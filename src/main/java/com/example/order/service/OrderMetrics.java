@@ -0,0 +1,91 @@
+package com.example.order.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 订单业务指标
+ *
+ * 功能: 记录订单创建数量、每单订单项数量分布和库存不足拒单次数
+ * 逻辑链: 订单服务调用 -> 事务提交后计数（创建）/ 立即计数（拒单） -> /actuator/prometheus 导出
+ * 注意事项: 创建订单在事务提交后才计数，回滚的订单不计入；
+ * 库存不足按预留方式打标签（hot 为热点产品内存预留，db 为数据库条件扣减）
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private Counter createdCounter;
+    private DistributionSummary itemsPerOrder;
+    private Counter hotStockRejections;
+    private Counter dbStockRejections;
+
+    /**
+     * 初始化监控指标
+     */
+    @PostConstruct
+    public void init() {
+        createdCounter = Counter.builder("orders.created")
+                .description("创建成功的订单数")
+                .register(meterRegistry);
+        itemsPerOrder = DistributionSummary.builder("orders.items")
+                .description("每个订单的订单项数量")
+                .baseUnit("items")
+                .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100)
+                .register(meterRegistry);
+        hotStockRejections = stockRejectionCounter("hot");
+        dbStockRejections = stockRejectionCounter("db");
+    }
+
+    /**
+     * 事务提交后记录订单创建
+     *
+     * @param itemCount 订单项数量
+     */
+    public void recordCreatedAfterCommit(int itemCount) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordCreated(itemCount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordCreated(itemCount);
+            }
+        });
+    }
+
+    /**
+     * 记录库存不足拒单
+     *
+     * @param hotProduct 是否热点产品
+     */
+    public void recordStockRejection(boolean hotProduct) {
+        (hotProduct ? hotStockRejections : dbStockRejections).increment();
+    }
+
+    private void recordCreated(int itemCount) {
+        createdCounter.increment();
+        itemsPerOrder.record(itemCount);
+    }
+
+    private Counter stockRejectionCounter(String reservation) {
+        return Counter.builder("orders.stock.rejections")
+                .description("因库存不足被拒绝的订单数")
+                .tag("reservation", reservation)
+                .register(meterRegistry);
+    }
+}
@@ -1,24 +1,47 @@
 package com.example.order.service;
 
+import com.example.order.dto.BulkOrderResultDTO;
+import com.example.order.dto.CursorPage;
 import com.example.order.dto.OrderDTO;
 import com.example.order.dto.OrderItemDTO;
+import com.example.order.dto.OrderSummaryDTO;
+import com.example.order.entity.InventoryTransaction;
 import com.example.order.entity.Order;
 import com.example.order.entity.OrderItem;
 import com.example.order.entity.Product;
+import com.example.order.exception.CustomException;
+import com.example.order.exception.InsufficientStockException;
+import com.example.order.exception.InvalidCursorException;
 import com.example.order.repository.OrderItemRepository;
 import com.example.order.repository.OrderRepository;
 import com.example.order.repository.ProductRepository;
+import com.example.order.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -38,75 +61,403 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderService {
 
+    private static final String RESERVED_ORDER_NUMBER = "订单编号格式 ORD + 17位数字 保留给系统生成，请使用其他编号或不指定";
+
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
     private final ProductRepository productRepository;
+    private final HotStockReservationService hotStockReservationService;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final OrderDailyStatsService orderDailyStatsService;
+    private final OrderStatusCounters orderStatusCounters;
+    private final OrderMetrics orderMetrics;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final CustomerSuggestIndex customerSuggestIndex;
+    private final ProductCatalogSnapshot productCatalogSnapshot;
 
     /**
      * 创建订单
      *
+     * 逻辑链: 批量加载产品 -> 原子扣减库存 -> 计算金额 -> 保存订单 -> 批量写入订单项
+     * 注意事项: 所有涉及的产品通过一次 findAllById 加载到本次请求的 Map 中；
+     * 库存通过条件 UPDATE 原子扣减（按产品ID升序以避免死锁），任一产品扣减失败则整个事务回滚；
+     * 热点产品改为内存预留，订单项以未扣减状态写入，由 HotStockReservationService 异步回写产品库存；
+     * 其余产品的出库记录在事务提交后交给 InventoryLedgerService 异步写入；
+     * 未指定订单编号时由 OrderNumberGenerator 生成，不再查询编号是否已存在；
+     * 客户端指定的编号不得使用生成器格式（ORD + 17位数字），否则之后生成的编号可能与其冲突
+     *
      * @param orderDTO 订单DTO
      * @param orderItems 订单项列表
      * @return 创建的订单DTO
      */
     public OrderDTO createOrder(OrderDTO orderDTO, List<OrderItemDTO> orderItems) {
-        log.info("开始创建订单，订单编号: {}", orderDTO.getOrderNumber());
-
-        // 验证订单编号唯一性
-        if (orderRepository.existsByOrderNumber(orderDTO.getOrderNumber())) {
-            throw new RuntimeException("订单编号已存在");
+        // 生成订单编号；客户端指定的编号需验证唯一性
+        String orderNumber = orderDTO.getOrderNumber();
+        if (orderNumber == null || orderNumber.isEmpty()) {
+            orderNumber = orderNumberGenerator.next();
+        } else {
+            checkClientOrderNumber(orderNumber);
+            if (orderRepository.existsByOrderNumber(orderNumber)) {
+                throw new RuntimeException("订单编号已存在");
+            }
         }
+        log.info("开始创建订单，订单编号: {}, 订单项数量: {}", orderNumber, orderItems.size());
+
+        // 一次性加载所有涉及的产品
+        Map<Long, Product> products = loadProducts(orderItems);
 
-        // 验证库存
+        // 扣减库存（同一产品出现在多个订单项时按总数量扣减）
+        Map<Long, Integer> requiredQuantities = new TreeMap<>();
         for (OrderItemDTO item : orderItems) {
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new RuntimeException("产品不存在"));
-            
-            if (product.getStockQuantity() < item.getQuantity()) {
-                throw new RuntimeException("产品库存不足: " + product.getName());
+            requiredQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        Map<Long, Integer> deductedQuantities = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : requiredQuantities.entrySet()) {
+            Long productId = entry.getKey();
+            boolean reserved;
+            boolean hot = hotStockReservationService.isHotProduct(productId);
+            if (hot) {
+                reserved = hotStockReservationService.tryReserve(productId, entry.getValue());
+            } else {
+                reserved = productRepository.decreaseStock(productId, entry.getValue()) > 0;
+                deductedQuantities.put(productId, entry.getValue());
+            }
+            if (!reserved) {
+                orderMetrics.recordStockRejection(hot);
+                throw new InsufficientStockException(products.get(productId).getName(), entry.getValue(),
+                        currentStock(productId, hot));
+            }
+        }
+
+        // 构建订单项并计算金额，保存订单（金额在插入前计算完成，只写一次）
+        List<OrderItem> items = buildItems(orderItems);
+        Order savedOrder = orderRepository.save(buildOrder(orderDTO, orderNumber, items));
+
+        // 批量保存订单项
+        for (OrderItem item : items) {
+            item.setOrderId(savedOrder.getId());
+        }
+        orderItemRepository.saveAll(items);
+
+        inventoryLedgerService.record(toLedgerEntries(deductedQuantities, true, savedOrder.getId()));
+        orderDailyStatsService.recordCreated(savedOrder);
+        orderStatusCounters.recordAfterCommit(null, null, savedOrder.getStatus(), savedOrder.getPaymentStatus());
+        orderMetrics.recordCreatedAfterCommit(items.size());
+        customerSuggestIndex.recordOrderAfterCommit(savedOrder);
+        productCatalogSnapshot.markStaleAfterCommit(deductedQuantities.keySet());
+
+        log.info("订单创建成功，订单ID: {}", savedOrder.getId());
+        return OrderDTO.fromEntity(savedOrder);
+    }
+
+    /**
+     * 批量创建订单（批量导入的一个分块）
+     *
+     * 逻辑链: 一次查询校验客户端订单编号 -> 一次加载分块涉及的产品 -> 按行序在内存中分配库存，不足的行拒绝
+     * -> 每个产品按分块汇总数量只扣减一次 -> 批量写入订单与订单项 -> 出库记录与日统计按分块汇总写入
+     * 注意事项: 整个分块在同一事务中提交；热点产品按行在内存中预留，被拒绝的行在提交后归还；
+     * 产品库存在加载后被并发修改导致汇总扣减失败时抛出 IllegalStateException，整个分块回滚，由调用方逐单重试
+     *
+     * @param orders 订单DTO列表（订单项放在 items 字段中）
+     * @return 与输入顺序一致的每行结果（行序号由调用方填写）
+     */
+    public List<BulkOrderResultDTO> createOrders(List<OrderDTO> orders) {
+        log.info("开始批量创建订单，订单数量: {}", orders.size());
+        BulkOrderResultDTO[] results = new BulkOrderResultDTO[orders.size()];
+
+        // 客户端指定的订单编号一次查询已存在的，分块内重复的只保留第一行
+        Set<String> requestedNumbers = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (OrderDTO orderDTO : orders) {
+            if (orderDTO.getOrderNumber() != null && !orderDTO.getOrderNumber().isEmpty()) {
+                requestedNumbers.add(orderDTO.getOrderNumber());
+            }
+            for (OrderItemDTO item : orderDTO.getItems()) {
+                productIds.add(item.getProductId());
+            }
+        }
+        Set<String> takenNumbers = requestedNumbers.isEmpty() ? new HashSet<>()
+                : new HashSet<>(orderRepository.findOrderNumbersIn(requestedNumbers));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // 按行序分配库存：非热点产品以加载时的库存为上限，热点产品在内存中预留
+        Map<Long, Integer> available = new HashMap<>();
+        for (Product product : products.values()) {
+            available.put(product.getId(), product.getStockQuantity());
+        }
+        Map<Long, Integer> chunkDeductions = new TreeMap<>();
+        List<Integer> accepted = new ArrayList<>(orders.size());
+        List<Map<Long, Integer>> acceptedDeductions = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            OrderDTO orderDTO = orders.get(i);
+            String orderNumber = orderDTO.getOrderNumber();
+            boolean clientNumber = orderNumber != null && !orderNumber.isEmpty();
+            if (clientNumber && OrderNumberGenerator.isGeneratedFormat(orderNumber)) {
+                results[i] = BulkOrderResultDTO.rejected(orderNumber, RESERVED_ORDER_NUMBER);
+                continue;
+            }
+            if (clientNumber && !takenNumbers.add(orderNumber)) {
+                results[i] = BulkOrderResultDTO.rejected(orderNumber, "订单编号已存在");
+                continue;
+            }
+            String error = allocateStock(orderDTO.getItems(), products, available, chunkDeductions,
+                    acceptedDeductions);
+            if (error != null) {
+                if (clientNumber) {
+                    takenNumbers.remove(orderNumber);
+                }
+                results[i] = BulkOrderResultDTO.rejected(orderNumber, error);
+                continue;
+            }
+            accepted.add(i);
+        }
+
+        // 每个产品按分块汇总只扣减一次（按产品ID升序以避免死锁）
+        for (Map.Entry<Long, Integer> entry : chunkDeductions.entrySet()) {
+            if (productRepository.decreaseStock(entry.getKey(), entry.getValue()) == 0) {
+                throw new IllegalStateException("产品库存已被并发修改: " + entry.getKey());
+            }
+        }
+
+        // 批量写入订单与订单项（主键由号段分配，JDBC批量插入）
+        List<Order> savedOrders = new ArrayList<>(accepted.size());
+        List<List<OrderItem>> orderItems = new ArrayList<>(accepted.size());
+        for (int index : accepted) {
+            OrderDTO orderDTO = orders.get(index);
+            String orderNumber = orderDTO.getOrderNumber();
+            if (orderNumber == null || orderNumber.isEmpty()) {
+                orderNumber = orderNumberGenerator.next();
             }
+            List<OrderItem> items = buildItems(orderDTO.getItems());
+            savedOrders.add(buildOrder(orderDTO, orderNumber, items));
+            orderItems.add(items);
         }
+        orderRepository.saveAll(savedOrders);
+        List<OrderItem> allItems = new ArrayList<>();
+        for (int k = 0; k < savedOrders.size(); k++) {
+            for (OrderItem item : orderItems.get(k)) {
+                item.setOrderId(savedOrders.get(k).getId());
+                allItems.add(item);
+            }
+        }
+        orderItemRepository.saveAll(allItems);
+
+        inventoryLedgerService.record(toChunkLedgerEntries(chunkDeductions, savedOrders, acceptedDeductions));
+        orderDailyStatsService.recordCreated(savedOrders);
+        productCatalogSnapshot.markStaleAfterCommit(chunkDeductions.keySet());
+        for (int k = 0; k < savedOrders.size(); k++) {
+            orderStatusCounters.recordAfterCommit(null, null,
+                    savedOrders.get(k).getStatus(), savedOrders.get(k).getPaymentStatus());
+            orderMetrics.recordCreatedAfterCommit(orderItems.get(k).size());
+            customerSuggestIndex.recordOrderAfterCommit(savedOrders.get(k));
+            results[accepted.get(k)] = BulkOrderResultDTO.created(OrderDTO.fromEntity(savedOrders.get(k)));
+        }
+
+        log.info("批量创建订单完成，成功: {}, 拒绝: {}", savedOrders.size(), orders.size() - savedOrders.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 扣减失败时的当前可用库存：热点产品取内存库存（产品表库存尚含未回写的扣减），其余重新读取产品表
+     */
+    private int currentStock(Long productId, boolean hot) {
+        if (hot) {
+            return (int) hotStockReservationService.getAvailableStock(productId);
+        }
+        return productRepository.findStockQuantityById(productId).orElse(0);
+    }
+
+    /**
+     * 为一个订单分配库存
+     *
+     * 逻辑链: 汇总订单内各产品数量 -> 非热点产品与剩余库存比较 -> 热点产品在内存中预留 -> 全部满足才扣减剩余库存
+     * 注意事项: 任一产品不满足时归还本订单已预留的热点库存，返回失败原因；成功时本订单的非热点扣减追加到 acceptedDeductions
+     *
+     * @return 失败原因，成功时为null
+     */
+    private String allocateStock(List<OrderItemDTO> items, Map<Long, Product> products, Map<Long, Integer> available,
+                                 Map<Long, Integer> chunkDeductions, List<Map<Long, Integer>> acceptedDeductions) {
+        Map<Long, Integer> required = new TreeMap<>();
+        for (OrderItemDTO item : items) {
+            required.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : required.entrySet()) {
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                return "产品不存在: " + entry.getKey();
+            }
+            if (!hotStockReservationService.isHotProduct(product.getId())
+                    && available.get(product.getId()) < entry.getValue()) {
+                orderMetrics.recordStockRejection(false);
+                return new InsufficientStockException(product.getName(), entry.getValue(),
+                        available.get(product.getId())).getMessage();
+            }
+        }
+
+        Map<Long, Integer> reserved = new TreeMap<>();
+        Map<Long, Integer> deductions = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : required.entrySet()) {
+            Long productId = entry.getKey();
+            if (!hotStockReservationService.isHotProduct(productId)) {
+                deductions.put(productId, entry.getValue());
+                continue;
+            }
+            if (!hotStockReservationService.tryReserve(productId, entry.getValue())) {
+                orderMetrics.recordStockRejection(true);
+                reserved.forEach(hotStockReservationService::releaseAfterCommit);
+                Product product = products.get(productId);
+                return new InsufficientStockException(product.getName(), entry.getValue(),
+                        (int) hotStockReservationService.getAvailableStock(productId)).getMessage();
+            }
+            reserved.put(productId, entry.getValue());
+        }
+
+        for (Map.Entry<Long, Integer> entry : deductions.entrySet()) {
+            available.merge(entry.getKey(), -entry.getValue(), Integer::sum);
+            chunkDeductions.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        acceptedDeductions.add(deductions);
+        return null;
+    }
+
+    /**
+     * 根据分块扣减后的库存生成每个订单的出库记录
+     *
+     * 注意事项: 产品行已被本事务的库存更新锁定，读到的即为分块扣减后的库存；按订单顺序倒推每笔出库前后的库存
+     *
+     * @param chunkDeductions 产品ID到分块汇总扣减数量的映射
+     * @param orders 已保存的订单
+     * @param deductions 与订单一一对应的非热点产品扣减数量
+     * @return 库存变动记录列表
+     */
+    private List<InventoryTransaction> toChunkLedgerEntries(Map<Long, Integer> chunkDeductions, List<Order> orders,
+                                                            List<Map<Long, Integer>> deductions) {
+        if (chunkDeductions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Integer> stock = new HashMap<>();
+        for (Object[] row : productRepository.findStockQuantitiesByIdIn(chunkDeductions.keySet())) {
+            Long productId = (Long) row[0];
+            stock.put(productId, (Integer) row[1] + chunkDeductions.get(productId));
+        }
+        List<InventoryTransaction> entries = new ArrayList<>();
+        for (int k = 0; k < orders.size(); k++) {
+            for (Map.Entry<Long, Integer> entry : deductions.get(k).entrySet()) {
+                int before = stock.get(entry.getKey());
+                entries.add(InventoryTransaction.createOutTransaction(entry.getKey(), entry.getValue(), before,
+                        InventoryTransaction.ReferenceType.ORDER, orders.get(k).getId(), "批量导入订单出库"));
+                stock.put(entry.getKey(), before - entry.getValue());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 构建订单项并计算折扣与小计
+     *
+     * @param orderItems 订单项DTO列表
+     * @return 订单项实体列表
+     */
+    private List<OrderItem> buildItems(List<OrderItemDTO> orderItems) {
+        List<OrderItem> items = new ArrayList<>(orderItems.size());
+        for (OrderItemDTO itemDTO : orderItems) {
+            OrderItem item = itemDTO.toEntity();
+            item.setStockDeducted(!hotStockReservationService.isHotProduct(item.getProductId()));
+            calculateSubtotal(item);
+            items.add(item);
+        }
+        return items;
+    }
 
-        // 保存订单
+    /**
+     * 拒绝占用生成器格式的客户端订单编号
+     *
+     * @param orderNumber 客户端指定的订单编号
+     */
+    private void checkClientOrderNumber(String orderNumber) {
+        if (OrderNumberGenerator.isGeneratedFormat(orderNumber)) {
+            throw new CustomException(RESERVED_ORDER_NUMBER);
+        }
+    }
+
+    /**
+     * 构建待保存的新订单
+     *
+     * 注意事项: 状态、支付状态、货币取默认值，总金额为订单项小计之和
+     *
+     * @param orderDTO 订单DTO
+     * @param orderNumber 订单编号
+     * @param items 已计算小计的订单项
+     * @return 订单实体
+     */
+    private Order buildOrder(OrderDTO orderDTO, String orderNumber, List<OrderItem> items) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            totalAmount = totalAmount.add(item.getSubtotal());
+        }
         Order order = orderDTO.toEntity();
+        order.setOrderNumber(orderNumber);
         order.setStatus(Order.OrderStatus.PENDING);
         order.setPaymentStatus(Order.PaymentStatus.UNPAID);
         order.setCurrency("CNY");
+        if (order.getDiscountAmount() == null) {
+            order.setDiscountAmount(BigDecimal.ZERO);
+        }
+        if (order.getTaxAmount() == null) {
+            order.setTaxAmount(BigDecimal.ZERO);
+        }
+        order.setTotalAmount(totalAmount);
+        order.calculateFinalAmount();
+        return order;
+    }
 
-        Order savedOrder = orderRepository.save(order);
+    /**
+     * 批量加载订单项涉及的产品
+     *
+     * @param orderItems 订单项列表
+     * @return 产品ID到产品实体的映射
+     */
+    private Map<Long, Product> loadProducts(List<OrderItemDTO> orderItems) {
+        Set<Long> productIds = orderItems.stream()
+                .map(OrderItemDTO::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        // 保存订单项并计算金额
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        for (OrderItemDTO itemDTO : orderItems) {
-            OrderItem item = itemDTO.toEntity();
-            item.setOrderId(savedOrder.getId());
-            
-            // 计算小计
-            BigDecimal subtotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-            if (item.getDiscountRate() != null && item.getDiscountRate().compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal discountAmount = subtotal.multiply(item.getDiscountRate()).divide(BigDecimal.valueOf(100));
-                item.setDiscountAmount(discountAmount);
-                subtotal = subtotal.subtract(discountAmount);
-            }
-            item.setSubtotal(subtotal);
-            totalAmount = totalAmount.add(subtotal);
-            
-            orderItemRepository.save(item);
-            
-            // 减少库存
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new RuntimeException("产品不存在"));
-            product.setStockQuantity(product.getStockQuantity() - item.getQuantity());
-            productRepository.save(product);
-        }
-
-        // 更新订单金额
-        savedOrder.setTotalAmount(totalAmount);
-        savedOrder.setFinalAmount(totalAmount.subtract(savedOrder.getDiscountAmount()).add(savedOrder.getTaxAmount()));
-        orderRepository.save(savedOrder);
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
 
-        log.info("订单创建成功，订单ID: {}", savedOrder.getId());
-        return OrderDTO.fromEntity(savedOrder);
+        if (products.size() != productIds.size()) {
+            throw new RuntimeException("产品不存在");
+        }
+        return products;
+    }
+
+    /**
+     * 根据本事务内已修改的产品库存生成订单出入库记录
+     *
+     * 注意事项: 产品行已被本事务的库存更新锁定，读到的即为变动后的库存
+     *
+     * @param quantities 产品ID到变动数量的映射
+     * @param outbound 是否为出库
+     * @param orderId 订单ID
+     * @return 库存变动记录列表
+     */
+    private List<InventoryTransaction> toLedgerEntries(Map<Long, Integer> quantities, boolean outbound, Long orderId) {
+        if (quantities.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<InventoryTransaction> entries = new ArrayList<>(quantities.size());
+        for (Object[] row : productRepository.findStockQuantitiesByIdIn(quantities.keySet())) {
+            Long productId = (Long) row[0];
+            int afterQuantity = (Integer) row[1];
+            int quantity = quantities.get(productId);
+            entries.add(outbound
+                    ? InventoryTransaction.createOutTransaction(productId, quantity, afterQuantity + quantity,
+                            InventoryTransaction.ReferenceType.ORDER, orderId, "订单出库")
+                    : InventoryTransaction.createInTransaction(productId, quantity, afterQuantity - quantity,
+                            InventoryTransaction.ReferenceType.ORDER, orderId, "删除订单退回库存"));
+        }
+        return entries;
     }
 
     /**
@@ -146,14 +497,20 @@ public class OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("订单不存在"));
 
-        // 检查订单编号唯一性（排除当前订单）
-        if (!order.getOrderNumber().equals(orderDTO.getOrderNumber()) &&
-            orderRepository.existsByOrderNumber(orderDTO.getOrderNumber())) {
-            throw new RuntimeException("订单编号已存在");
+        // 检查订单编号唯一性（排除当前订单；未指定时保留原编号）
+        String orderNumber = orderDTO.getOrderNumber() != null ? orderDTO.getOrderNumber() : order.getOrderNumber();
+        if (!order.getOrderNumber().equals(orderNumber)) {
+            checkClientOrderNumber(orderNumber);
+            if (orderRepository.existsByOrderNumber(orderNumber)) {
+                throw new RuntimeException("订单编号已存在");
+            }
         }
+        OrderDailyStatsService.Snapshot before = orderDailyStatsService.snapshot(order);
+        Order.OrderStatus oldStatus = order.getStatus();
+        Order.PaymentStatus oldPaymentStatus = order.getPaymentStatus();
 
         // 更新订单信息
-        order.setOrderNumber(orderDTO.getOrderNumber());
+        order.setOrderNumber(orderNumber);
         order.setCustomerId(orderDTO.getCustomerId());
         order.setOrderDate(orderDTO.getOrderDate());
         order.setDeliveryDate(orderDTO.getDeliveryDate());
@@ -168,6 +525,9 @@ public class OrderService {
         order.setFinalAmount(order.getTotalAmount().subtract(order.getDiscountAmount()).add(order.getTaxAmount()));
 
         Order updatedOrder = orderRepository.save(order);
+        orderDailyStatsService.recordChanged(before, updatedOrder);
+        orderStatusCounters.recordAfterCommit(oldStatus, oldPaymentStatus,
+                updatedOrder.getStatus(), updatedOrder.getPaymentStatus());
         log.info("订单信息更新成功，订单ID: {}", updatedOrder.getId());
 
         return OrderDTO.fromEntity(updatedOrder);
@@ -191,8 +551,14 @@ public class OrderService {
             throw new RuntimeException("无效的状态转换");
         }
 
+        OrderDailyStatsService.Snapshot before = orderDailyStatsService.snapshot(order);
+        Order.OrderStatus oldStatus = order.getStatus();
+        Order.PaymentStatus oldPaymentStatus = order.getPaymentStatus();
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
+        orderDailyStatsService.recordChanged(before, updatedOrder);
+        orderStatusCounters.recordAfterCommit(oldStatus, oldPaymentStatus,
+                updatedOrder.getStatus(), updatedOrder.getPaymentStatus());
         log.info("订单状态更新成功，订单ID: {}, 状态: {}", updatedOrder.getId(), status);
 
         return OrderDTO.fromEntity(updatedOrder);
@@ -211,8 +577,14 @@ public class OrderService {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("订单不存在"));
 
+        OrderDailyStatsService.Snapshot before = orderDailyStatsService.snapshot(order);
+        Order.OrderStatus oldStatus = order.getStatus();
+        Order.PaymentStatus oldPaymentStatus = order.getPaymentStatus();
         order.setPaymentStatus(paymentStatus);
         Order updatedOrder = orderRepository.save(order);
+        orderDailyStatsService.recordChanged(before, updatedOrder);
+        orderStatusCounters.recordAfterCommit(oldStatus, oldPaymentStatus,
+                updatedOrder.getStatus(), updatedOrder.getPaymentStatus());
         log.info("支付状态更新成功，订单ID: {}, 支付状态: {}", updatedOrder.getId(), paymentStatus);
 
         return OrderDTO.fromEntity(updatedOrder);
@@ -234,20 +606,36 @@ public class OrderService {
             throw new RuntimeException("只能删除待处理状态的订单");
         }
 
-        // 恢复库存
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(id);
-        for (OrderItem item : orderItems) {
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new RuntimeException("产品不存在"));
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-            productRepository.save(product);
+        // 恢复库存（按产品汇总后原子增加）
+        // 锁定订单项以与热点库存回写互斥；尚未回写的订单项只需归还内存库存
+        Map<Long, Integer> returnedQuantities = new TreeMap<>();
+        Map<Long, Integer> deductedQuantities = new TreeMap<>();
+        for (OrderItem item : orderItemRepository.findByOrderIdForUpdate(id)) {
+            returnedQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            if (!Boolean.FALSE.equals(item.getStockDeducted())) {
+                deductedQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
         }
+        for (Map.Entry<Long, Integer> entry : deductedQuantities.entrySet()) {
+            if (productRepository.increaseStock(entry.getKey(), entry.getValue()) == 0) {
+                throw new RuntimeException("产品不存在");
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : returnedQuantities.entrySet()) {
+            if (hotStockReservationService.isHotProduct(entry.getKey())) {
+                hotStockReservationService.releaseAfterCommit(entry.getKey(), entry.getValue());
+            }
+        }
+        inventoryLedgerService.record(toLedgerEntries(deductedQuantities, false, id));
+        productCatalogSnapshot.markStaleAfterCommit(deductedQuantities.keySet());
 
         // 删除订单项
         orderItemRepository.deleteByOrderId(id);
 
         // 删除订单
         orderRepository.delete(order);
+        orderDailyStatsService.recordDeleted(order);
+        orderStatusCounters.recordAfterCommit(order.getStatus(), order.getPaymentStatus(), null, null);
         log.info("订单删除成功，订单ID: {}", id);
     }
 
@@ -264,45 +652,100 @@ public class OrderService {
     }
 
     /**
-     * 根据客户ID查找订单
+     * 游标分页查询订单（按创建时间、ID倒序）
+     *
+     * 逻辑链: 解码游标 -> 按 (created_at, id) 定位并多取一条 -> 以本页最后一条生成下一页游标
+     * 注意事项: 不执行COUNT查询，深翻页耗时与首页相同
+     *
+     * @param cursor 上一页返回的游标，首页传null
+     * @param size 每页条数
+     * @return 订单游标分页结果
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDTO> findByCursor(String cursor, int size) {
+        log.debug("游标分页查询订单，游标: {}, 大小: {}", cursor, size);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Order> orders;
+        if (cursor == null || cursor.isEmpty()) {
+            orders = orderRepository.findFirstByCursor(limit);
+        } else {
+            String[] position = CursorCodec.decode(cursor, 2);
+            try {
+                orders = orderRepository.findAfterCursor(
+                        LocalDateTime.parse(position[0]), Long.valueOf(position[1]), limit);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidCursorException(cursor);
+            }
+        }
+
+        boolean hasNext = orders.size() > size;
+        List<Order> content = hasNext ? orders.subList(0, size) : orders;
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt(), last.getId());
+        }
+        return CursorPage.of(content.stream().map(OrderDTO::fromEntity).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * 分页查询订单，不统计总记录数
+     *
+     * @param pageable 分页参数
+     * @return 订单切片
+     */
+    @Transactional(readOnly = true)
+    public Slice<OrderDTO> findSlice(Pageable pageable) {
+        log.debug("切片查询订单，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return orderRepository.findAllBy(pageable).map(OrderDTO::fromEntity);
+    }
+
+    /**
+     * 根据客户ID分页查询订单摘要
+     *
+     * 注意事项: 构造器投影只查询摘要列，不加载订单实体
      *
      * @param customerId 客户ID
-     * @return 订单列表
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
      */
     @Transactional(readOnly = true)
-    public List<OrderDTO> findByCustomerId(Long customerId) {
-        log.debug("根据客户ID查找订单，客户ID: {}", customerId);
-        return orderRepository.findByCustomerId(customerId).stream()
-                .map(OrderDTO::fromEntity)
-                .collect(Collectors.toList());
+    public Page<OrderSummaryDTO> findByCustomerId(Long customerId, Pageable pageable) {
+        log.debug("根据客户ID查找订单，客户ID: {}, 页码: {}, 大小: {}",
+                customerId, pageable.getPageNumber(), pageable.getPageSize());
+        return orderRepository.findSummaryByCustomerId(customerId, pageable);
     }
 
     /**
-     * 根据状态查找订单
+     * 根据状态分页查询订单摘要
+     *
+     * 注意事项: 构造器投影只查询摘要列，不加载订单实体
      *
      * @param status 订单状态
-     * @return 订单列表
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
      */
     @Transactional(readOnly = true)
-    public List<OrderDTO> findByStatus(Order.OrderStatus status) {
-        log.debug("根据状态查找订单，状态: {}", status);
-        return orderRepository.findByStatus(status).stream()
-                .map(OrderDTO::fromEntity)
-                .collect(Collectors.toList());
+    public Page<OrderSummaryDTO> findByStatus(Order.OrderStatus status, Pageable pageable) {
+        log.debug("根据状态查找订单，状态: {}, 页码: {}, 大小: {}",
+                status, pageable.getPageNumber(), pageable.getPageSize());
+        return orderRepository.findSummaryByStatus(status, pageable);
     }
 
     /**
-     * 根据支付状态查找订单
+     * 根据支付状态分页查询订单摘要
+     *
+     * 注意事项: 构造器投影只查询摘要列，不加载订单实体
      *
      * @param paymentStatus 支付状态
-     * @return 订单列表
+     * @param pageable 分页参数
+     * @return 订单摘要分页结果
      */
     @Transactional(readOnly = true)
-    public List<OrderDTO> findByPaymentStatus(Order.PaymentStatus paymentStatus) {
-        log.debug("根据支付状态查找订单，支付状态: {}", paymentStatus);
-        return orderRepository.findByPaymentStatus(paymentStatus).stream()
-                .map(OrderDTO::fromEntity)
-                .collect(Collectors.toList());
+    public Page<OrderSummaryDTO> findByPaymentStatus(Order.PaymentStatus paymentStatus, Pageable pageable) {
+        log.debug("根据支付状态查找订单，支付状态: {}, 页码: {}, 大小: {}",
+                paymentStatus, pageable.getPageNumber(), pageable.getPageSize());
+        return orderRepository.findSummaryByPaymentStatus(paymentStatus, pageable);
     }
 
     /**
@@ -334,23 +777,27 @@ public class OrderService {
     /**
      * 统计各状态订单数量
      *
+     * 注意事项: 读取内存计数器，不访问数据库
+     *
      * @return 状态统计结果
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Object[]> countByStatus() {
         log.debug("统计各状态订单数量");
-        return orderRepository.countByStatus();
+        return orderStatusCounters.countByStatus();
     }
 
     /**
      * 统计各支付状态订单数量
      *
+     * 注意事项: 读取内存计数器，不访问数据库
+     *
      * @return 支付状态统计结果
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<Object[]> countByPaymentStatus() {
         log.debug("统计各支付状态订单数量");
-        return orderRepository.countByPaymentStatus();
+        return orderStatusCounters.countByPaymentStatus();
     }
 
     /**
@@ -363,7 +810,29 @@ public class OrderService {
     @Transactional(readOnly = true)
     public BigDecimal sumFinalAmountByOrderDateBetween(LocalDate startDate, LocalDate endDate) {
         log.debug("计算指定日期范围的订单总金额，范围: {} - {}", startDate, endDate);
-        return orderRepository.sumFinalAmountByOrderDateBetween(startDate, endDate);
+        return orderDailyStatsService.sumFinalAmountByOrderDateBetween(startDate, endDate);
+    }
+
+    /**
+     * 计算订单项折扣金额与小计
+     *
+     * 逻辑链: 单价 × 数量 -> 按折扣率计算折扣金额 -> 小计 = 金额 - 折扣金额
+     * 注意事项: 结果写回订单项的 discountAmount 与 subtotal
+     *
+     * @param item 订单项
+     * @return 小计
+     */
+    static BigDecimal calculateSubtotal(OrderItem item) {
+        BigDecimal subtotal = item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+        if (item.getDiscountRate() != null && item.getDiscountRate().compareTo(BigDecimal.ZERO) > 0) {
+            BigDecimal discountAmount = subtotal.multiply(item.getDiscountRate()).divide(BigDecimal.valueOf(100));
+            item.setDiscountAmount(discountAmount);
+            subtotal = subtotal.subtract(discountAmount);
+        } else {
+            item.setDiscountAmount(BigDecimal.ZERO);
+        }
+        item.setSubtotal(subtotal);
+        return subtotal;
     }
 
     /**
@@ -373,7 +842,7 @@ public class OrderService {
      * @param newStatus 新状态
      * @return 是否合法
      */
-    private boolean isValidStatusTransition(Order.OrderStatus currentStatus, Order.OrderStatus newStatus) {
+    static boolean isValidStatusTransition(Order.OrderStatus currentStatus, Order.OrderStatus newStatus) {
         switch (currentStatus) {
             case PENDING:
                 return newStatus == Order.OrderStatus.CONFIRMED || newStatus == Order.OrderStatus.CANCELLED;
@@ -0,0 +1,241 @@
+package com.example.order.service;
+
+import com.example.order.entity.Order;
+import com.example.order.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 订单状态内存计数器
+ *
+ * 功能: 在内存中维护各订单状态、各支付状态的订单数量，状态统计接口直接读取
+ * 逻辑链: 启动时按订单表统计初始化 -> 订单变更事务提交后增减计数 -> 定时与数据库对账修正漂移
+ * 注意事项: 只统计本实例提交的变更，多实例部署或绕过 OrderService 修改订单时由对账修正；
+ * 对账时差值连续两次相同才修正，避免把尚未执行提交回调的在途变更误判为漂移
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusCounters {
+
+    private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Counts<Order.OrderStatus> statusCounts = new Counts<>(Order.OrderStatus.class);
+    private final Counts<Order.PaymentStatus> paymentStatusCounts = new Counts<>(Order.PaymentStatus.class);
+    private volatile boolean seeded;
+
+    /**
+     * 初始化与对账互斥（持锁期间查询数据库，不使用 synchronized 以免虚拟线程钉住载体线程）
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Counter correctionCounter;
+
+    /**
+     * 初始化监控指标
+     */
+    @PostConstruct
+    public void init() {
+        correctionCounter = Counter.builder("orders.status.counters.corrections")
+                .description("订单状态内存计数器对账修正次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 按订单表统计初始化计数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        lock.lock();
+        try {
+            statusCounts.reset(orderRepository.countByStatus());
+            paymentStatusCounts.reset(orderRepository.countByPaymentStatus());
+            seeded = true;
+        } finally {
+            lock.unlock();
+        }
+        log.info("订单状态计数器初始化完成");
+    }
+
+    /**
+     * 事务提交后记录订单状态变化
+     *
+     * 注意事项: 新建订单的旧状态、删除订单的新状态传null；不在事务中时立即生效
+     *
+     * @param oldStatus 变更前订单状态
+     * @param oldPaymentStatus 变更前支付状态
+     * @param newStatus 变更后订单状态
+     * @param newPaymentStatus 变更后支付状态
+     */
+    public void recordAfterCommit(Order.OrderStatus oldStatus, Order.PaymentStatus oldPaymentStatus,
+                                  Order.OrderStatus newStatus, Order.PaymentStatus newPaymentStatus) {
+        if (oldStatus == newStatus && oldPaymentStatus == newPaymentStatus) {
+            return;
+        }
+        Runnable apply = () -> {
+            statusCounts.move(oldStatus, newStatus);
+            paymentStatusCounts.move(oldPaymentStatus, newPaymentStatus);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    /**
+     * 各订单状态的订单数量
+     *
+     * @return 状态统计结果（只包含数量大于0的状态）
+     */
+    public List<Object[]> countByStatus() {
+        ensureSeeded();
+        return statusCounts.snapshot();
+    }
+
+    /**
+     * 各支付状态的订单数量
+     *
+     * @return 支付状态统计结果（只包含数量大于0的状态）
+     */
+    public List<Object[]> countByPaymentStatus() {
+        ensureSeeded();
+        return paymentStatusCounts.snapshot();
+    }
+
+    /**
+     * 定时与订单表对账
+     */
+    @Scheduled(fixedDelayString = "${app.stats.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.stats.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!seeded) {
+            return;
+        }
+        int corrected;
+        lock.lock();
+        try {
+            corrected = statusCounts.reconcile(orderRepository.countByStatus())
+                    + paymentStatusCounts.reconcile(orderRepository.countByPaymentStatus());
+        } finally {
+            lock.unlock();
+        }
+        if (corrected > 0) {
+            correctionCounter.increment(corrected);
+            log.warn("订单状态计数器与数据库不一致，已修正 {} 项", corrected);
+        }
+    }
+
+    private void ensureSeeded() {
+        if (!seeded) {
+            seed();
+        }
+    }
+
+    /**
+     * 单个枚举维度的计数
+     */
+    private static final class Counts<E extends Enum<E>> {
+
+        private final Class<E> type;
+        private final Map<E, LongAdder> counts;
+        private Map<E, Long> lastDrift;
+
+        private Counts(Class<E> type) {
+            this.type = type;
+            this.counts = new EnumMap<>(type);
+            for (E key : type.getEnumConstants()) {
+                counts.put(key, new LongAdder());
+            }
+            this.lastDrift = new EnumMap<>(type);
+        }
+
+        private void move(E from, E to) {
+            if (from == to) {
+                return;
+            }
+            if (from != null) {
+                counts.get(from).decrement();
+            }
+            if (to != null) {
+                counts.get(to).increment();
+            }
+        }
+
+        private void reset(List<Object[]> rows) {
+            Map<E, Long> actual = toMap(rows);
+            for (Map.Entry<E, LongAdder> entry : counts.entrySet()) {
+                entry.getValue().reset();
+                entry.getValue().add(actual.getOrDefault(entry.getKey(), 0L));
+            }
+            lastDrift = new EnumMap<>(type);
+        }
+
+        private List<Object[]> snapshot() {
+            List<Object[]> rows = new ArrayList<>(counts.size());
+            for (Map.Entry<E, LongAdder> entry : counts.entrySet()) {
+                long count = entry.getValue().sum();
+                if (count > 0) {
+                    rows.add(new Object[]{entry.getKey(), count});
+                }
+            }
+            return rows;
+        }
+
+        private int reconcile(List<Object[]> rows) {
+            Map<E, Long> actual = toMap(rows);
+            Map<E, Long> drift = new EnumMap<>(type);
+            int corrected = 0;
+            for (Map.Entry<E, LongAdder> entry : counts.entrySet()) {
+                long diff = actual.getOrDefault(entry.getKey(), 0L) - entry.getValue().sum();
+                if (diff == 0) {
+                    continue;
+                }
+                if (Long.valueOf(diff).equals(lastDrift.get(entry.getKey()))) {
+                    entry.getValue().add(diff);
+                    corrected++;
+                } else {
+                    drift.put(entry.getKey(), diff);
+                }
+            }
+            lastDrift = drift;
+            return corrected;
+        }
+
+        private Map<E, Long> toMap(List<Object[]> rows) {
+            Map<E, Long> map = new EnumMap<>(type);
+            for (Object[] row : rows) {
+                if (row[0] != null) {
+                    map.put(type.cast(row[0]), ((Number) row[1]).longValue());
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,534 @@
+package com.example.order.service;
+
+import com.example.order.dto.ProductBrowseDTO;
+import com.example.order.dto.ProductBrowseRequest;
+import com.example.order.dto.ProductSummaryDTO;
+import com.example.order.entity.Product;
+import com.example.order.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 产品目录列式快照
+ *
+ * 功能: 在内存快照上按分类、状态、价格范围、库存范围、库存不足组合筛选产品并统计分面计数
+ * 逻辑链: 启动时分批加载产品摘要建立快照 -> 产品增删改事务提交后写时复制生成新快照
+ * -> 订单扣减/归还等原子库存更新只标记产品过期，定时批量重新加载过期产品后生成一次新快照 -> 定时全量重建
+ * -> 查询: 分类、状态取预建位图，价格、库存扫描基本类型列生成位图 -> 位图求交得到结果与分面计数
+ * 注意事项: 快照不可变，查询只读取 volatile 引用、不加锁；快照修改串行执行，每次复制全部列（O(产品数)），
+ * 因此高频的库存变化按 app.catalog.snapshot.refresh-interval-ms 合并为一次复制；
+ * 库存为数据库中的库存，热点产品尚未回写的预留不计入；价格按分存储
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductCatalogSnapshot {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    /**
+     * 快照不可变，修改串行生成新快照，查询不需要加锁
+     */
+    private final RebuildableIndex<Snapshot> snapshot = new RebuildableIndex<>();
+    private final Set<Long> staleProductIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 启动时建立快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    /**
+     * 全量重建快照，修正遗漏的库存变化（如其他实例的修改）
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.rebuild-interval-ms:600000}",
+            initialDelayString = "${app.catalog.snapshot.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Snapshot built = snapshot.rebuild(this::load);
+        log.info("产品目录快照构建完成，产品数: {}, 分类数: {}, 耗时: {} ms",
+                built.ids.length, built.categories.length, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 重新加载库存已变化的产品
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.snapshot.refresh-interval-ms:1000}")
+    public void refreshStale() {
+        if (staleProductIds.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(staleProductIds);
+        staleProductIds.removeAll(productIds);
+        Map<Long, ProductSummaryDTO> changes = new HashMap<>();
+        for (Long productId : productIds) {
+            changes.put(productId, null);
+        }
+        for (ProductSummaryDTO row : productRepository.findSummariesByIdIn(productIds)) {
+            changes.put(row.getId(), row);
+        }
+        apply(changes);
+        log.debug("产品目录快照刷新，产品数: {}", productIds.size());
+    }
+
+    /**
+     * 事务提交后将产品写入快照
+     *
+     * 注意事项: 立即复制产品的摘要字段；不在事务中时立即生效
+     *
+     * @param product 产品
+     */
+    public void updateAfterCommit(Product product) {
+        ProductSummaryDTO row = new ProductSummaryDTO(product.getId(), product.getProductCode(), product.getName(),
+                product.getCategory(), product.getUnitPrice(), product.getStockQuantity(), product.getMinStock(),
+                product.getStatus());
+        RebuildableIndex.afterCommit(() -> apply(Collections.singletonMap(row.getId(), row)));
+    }
+
+    /**
+     * 事务提交后将产品移出快照
+     *
+     * @param productId 产品ID
+     */
+    public void removeAfterCommit(Long productId) {
+        RebuildableIndex.afterCommit(() -> apply(Collections.singletonMap(productId, null)));
+    }
+
+    /**
+     * 事务提交后标记产品库存已变化，由 refreshStale 批量重新加载
+     *
+     * @param productIds 产品ID
+     */
+    public void markStaleAfterCommit(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<Long> copy = new ArrayList<>(productIds);
+        RebuildableIndex.afterCommit(() -> staleProductIds.addAll(copy));
+    }
+
+    /**
+     * 组合筛选产品并统计分面计数
+     *
+     * @param request 筛选条件
+     * @param pageable 分页参数，结果按产品ID升序，忽略排序参数
+     * @return 本页产品与分面计数
+     */
+    public ProductBrowseDTO browse(ProductBrowseRequest request, Pageable pageable) {
+        snapshot.ensureBuilt(this::rebuild);
+        return snapshot.get().browse(request, pageable);
+    }
+
+    private Snapshot load() {
+        List<ProductSummaryDTO> rows = new ArrayList<>();
+        long afterId = 0L;
+        List<ProductSummaryDTO> batch;
+        do {
+            batch = productRepository.findSummariesAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            rows.addAll(batch);
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        Builder builder = new Builder(rows.size());
+        rows.forEach(builder::add);
+        return builder.build();
+    }
+
+    private void apply(Map<Long, ProductSummaryDTO> changes) {
+        snapshot.replace(current -> current.with(changes));
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        return price.setScale(2, roundingMode).unscaledValue().longValue();
+    }
+
+    /**
+     * 不可变快照：每个产品一行，按产品ID升序，各列为基本类型数组，分类以字典序号存储
+     */
+    private static final class Snapshot {
+
+        private static final Product.ProductStatus[] STATUSES = Product.ProductStatus.values();
+
+        private final long[] ids;
+        private final String[] codes;
+        private final String[] names;
+        private final int[] categoryOrdinals;
+        private final long[] priceCents;
+        private final int[] stock;
+        private final int[] minStock;
+        private final byte[] statusOrdinals;
+
+        /**
+         * 分类字典（升序），categoryOrdinals 中 -1 表示无分类
+         */
+        private final String[] categories;
+        private final BitSet[] categoryBitmaps;
+        private final BitSet[] statusBitmaps;
+        private final BitSet lowStock;
+
+        private Snapshot(Builder builder) {
+            int size = builder.size;
+            this.ids = Arrays.copyOf(builder.ids, size);
+            this.codes = Arrays.copyOf(builder.codes, size);
+            this.names = Arrays.copyOf(builder.names, size);
+            this.priceCents = Arrays.copyOf(builder.priceCents, size);
+            this.stock = Arrays.copyOf(builder.stock, size);
+            this.minStock = Arrays.copyOf(builder.minStock, size);
+            this.statusOrdinals = Arrays.copyOf(builder.statusOrdinals, size);
+
+            TreeSet<String> distinct = new TreeSet<>();
+            for (int row = 0; row < size; row++) {
+                if (builder.categoryNames[row] != null) {
+                    distinct.add(builder.categoryNames[row]);
+                }
+            }
+            this.categories = distinct.toArray(new String[0]);
+            this.categoryOrdinals = new int[size];
+            this.categoryBitmaps = new BitSet[categories.length];
+            for (int i = 0; i < categories.length; i++) {
+                categoryBitmaps[i] = new BitSet(size);
+            }
+            this.statusBitmaps = new BitSet[STATUSES.length];
+            for (int i = 0; i < STATUSES.length; i++) {
+                statusBitmaps[i] = new BitSet(size);
+            }
+            this.lowStock = new BitSet(size);
+            for (int row = 0; row < size; row++) {
+                String category = builder.categoryNames[row];
+                categoryOrdinals[row] = category == null ? -1 : Arrays.binarySearch(categories, category);
+                if (category != null) {
+                    categoryBitmaps[categoryOrdinals[row]].set(row);
+                }
+                statusBitmaps[statusOrdinals[row]].set(row);
+                if (stock[row] <= minStock[row]) {
+                    lowStock.set(row);
+                }
+            }
+        }
+
+        /**
+         * 复制列与位图，供逐行修改后发布
+         */
+        private Snapshot(Snapshot source) {
+            this.ids = source.ids;
+            this.codes = source.codes.clone();
+            this.names = source.names.clone();
+            this.categoryOrdinals = source.categoryOrdinals.clone();
+            this.priceCents = source.priceCents.clone();
+            this.stock = source.stock.clone();
+            this.minStock = source.minStock.clone();
+            this.statusOrdinals = source.statusOrdinals.clone();
+            this.categories = source.categories;
+            this.categoryBitmaps = new BitSet[categories.length];
+            for (int i = 0; i < categories.length; i++) {
+                categoryBitmaps[i] = (BitSet) source.categoryBitmaps[i].clone();
+            }
+            this.statusBitmaps = new BitSet[STATUSES.length];
+            for (int i = 0; i < STATUSES.length; i++) {
+                statusBitmaps[i] = (BitSet) source.statusBitmaps[i].clone();
+            }
+            this.lowStock = (BitSet) source.lowStock.clone();
+        }
+
+        /**
+         * 写时复制：应用修改（值为null表示删除）后返回新快照，本快照不变
+         *
+         * 注意事项: 只修改已有产品且分类已在字典中时（如库存刷新）复制后逐行修改；
+         * 否则重新排列各行并重建字典与位图。变空的分类保留在字典中直到下次重建，分面计数不返回0
+         */
+        private Snapshot with(Map<Long, ProductSummaryDTO> changes) {
+            int[] rows = new int[changes.size()];
+            int changed = 0;
+            for (Map.Entry<Long, ProductSummaryDTO> change : changes.entrySet()) {
+                ProductSummaryDTO value = change.getValue();
+                int row = Arrays.binarySearch(ids, change.getKey());
+                if (row < 0 || value == null
+                        || value.getCategory() != null && Arrays.binarySearch(categories, value.getCategory()) < 0) {
+                    return rebuiltWith(changes);
+                }
+                rows[changed++] = row;
+            }
+            Snapshot patched = new Snapshot(this);
+            changed = 0;
+            for (ProductSummaryDTO value : changes.values()) {
+                patched.set(rows[changed++], value);
+            }
+            return patched;
+        }
+
+        private void set(int row, ProductSummaryDTO value) {
+            if (categoryOrdinals[row] >= 0) {
+                categoryBitmaps[categoryOrdinals[row]].clear(row);
+            }
+            statusBitmaps[statusOrdinals[row]].clear(row);
+            codes[row] = value.getProductCode();
+            names[row] = value.getName();
+            categoryOrdinals[row] = value.getCategory() == null
+                    ? -1 : Arrays.binarySearch(categories, value.getCategory());
+            priceCents[row] = toCents(value.getUnitPrice(), RoundingMode.HALF_UP);
+            stock[row] = value.getStockQuantity();
+            minStock[row] = value.getMinStock();
+            statusOrdinals[row] = (byte) value.getStatus().ordinal();
+            if (categoryOrdinals[row] >= 0) {
+                categoryBitmaps[categoryOrdinals[row]].set(row);
+            }
+            statusBitmaps[statusOrdinals[row]].set(row);
+            lowStock.set(row, stock[row] <= minStock[row]);
+        }
+
+        private Snapshot rebuiltWith(Map<Long, ProductSummaryDTO> changes) {
+            TreeMap<Long, ProductSummaryDTO> sorted = new TreeMap<>(changes);
+            Builder builder = new Builder(ids.length + sorted.size());
+            int row = 0;
+            for (Map.Entry<Long, ProductSummaryDTO> change : sorted.entrySet()) {
+                long id = change.getKey();
+                while (row < ids.length && ids[row] < id) {
+                    builder.copy(this, row++);
+                }
+                if (row < ids.length && ids[row] == id) {
+                    row++;
+                }
+                if (change.getValue() != null) {
+                    builder.add(change.getValue());
+                }
+            }
+            while (row < ids.length) {
+                builder.copy(this, row++);
+            }
+            return builder.build();
+        }
+
+        private ProductBrowseDTO browse(ProductBrowseRequest request, Pageable pageable) {
+            int size = ids.length;
+
+            // 价格、库存与库存不足条件的交集（分面计数也应用这些条件）
+            BitSet common = new BitSet(size);
+            common.set(0, size);
+            if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+                long min = request.getMinPrice() == null ? Long.MIN_VALUE
+                        : toCents(request.getMinPrice(), RoundingMode.CEILING);
+                long max = request.getMaxPrice() == null ? Long.MAX_VALUE
+                        : toCents(request.getMaxPrice(), RoundingMode.FLOOR);
+                BitSet matches = new BitSet(size);
+                for (int row = 0; row < size; row++) {
+                    if (priceCents[row] >= min && priceCents[row] <= max) {
+                        matches.set(row);
+                    }
+                }
+                common.and(matches);
+            }
+            if (request.getMinStock() != null || request.getMaxStock() != null) {
+                int min = request.getMinStock() == null ? Integer.MIN_VALUE : request.getMinStock();
+                int max = request.getMaxStock() == null ? Integer.MAX_VALUE : request.getMaxStock();
+                BitSet matches = new BitSet(size);
+                for (int row = 0; row < size; row++) {
+                    if (stock[row] >= min && stock[row] <= max) {
+                        matches.set(row);
+                    }
+                }
+                common.and(matches);
+            }
+            if (request.isLowStock()) {
+                common.and(lowStock);
+            }
+
+            BitSet categoryFilter = categoryFilter(request.getCategory());
+            BitSet statusFilter = statusFilter(request.getStatus());
+
+            // 分类分面：应用状态条件，按分类列计数
+            BitSet forCategories = intersect(common, statusFilter);
+            long[] categoryCounts = new long[categories.length];
+            for (int row = forCategories.nextSetBit(0); row >= 0; row = forCategories.nextSetBit(row + 1)) {
+                if (categoryOrdinals[row] >= 0) {
+                    categoryCounts[categoryOrdinals[row]]++;
+                }
+            }
+            Map<String, Long> categoryFacets = new LinkedHashMap<>();
+            Integer[] byCount = new Integer[categories.length];
+            for (int i = 0; i < byCount.length; i++) {
+                byCount[i] = i;
+            }
+            Arrays.sort(byCount, (a, b) -> Long.compare(categoryCounts[b], categoryCounts[a]));
+            for (int ordinal : byCount) {
+                if (categoryCounts[ordinal] > 0) {
+                    categoryFacets.put(categories[ordinal], categoryCounts[ordinal]);
+                }
+            }
+
+            // 状态分面：应用分类条件，与各状态位图求交计数
+            BitSet forStatuses = intersect(common, categoryFilter);
+            Map<Product.ProductStatus, Long> statusFacets = new EnumMap<>(Product.ProductStatus.class);
+            for (Product.ProductStatus status : STATUSES) {
+                BitSet matches = (BitSet) statusBitmaps[status.ordinal()].clone();
+                matches.and(forStatuses);
+                statusFacets.put(status, (long) matches.cardinality());
+            }
+
+            BitSet result = intersect(forCategories, categoryFilter);
+            BitSet lowStockResult = (BitSet) result.clone();
+            lowStockResult.and(lowStock);
+
+            List<ProductSummaryDTO> content = new ArrayList<>();
+            if (pageable.isPaged()) {
+                long skip = pageable.getOffset();
+                for (int row = result.nextSetBit(0); row >= 0 && content.size() < pageable.getPageSize();
+                     row = result.nextSetBit(row + 1)) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        content.add(row(row));
+                    }
+                }
+            } else {
+                for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+                    content.add(row(row));
+                }
+            }
+
+            ProductBrowseDTO browse = new ProductBrowseDTO();
+            browse.setContent(content);
+            browse.setPage(pageable.isPaged() ? pageable.getPageNumber() : 0);
+            browse.setSize(pageable.isPaged() ? pageable.getPageSize() : content.size());
+            browse.setTotalElements(result.cardinality());
+            browse.setCategoryFacets(categoryFacets);
+            browse.setStatusFacets(statusFacets);
+            browse.setLowStockCount(lowStockResult.cardinality());
+            return browse;
+        }
+
+        /**
+         * 所选分类位图的并集，未选分类时为null（不限）
+         */
+        private BitSet categoryFilter(List<String> selected) {
+            if (selected == null || selected.isEmpty()) {
+                return null;
+            }
+            BitSet filter = new BitSet(ids.length);
+            for (String category : selected) {
+                int ordinal = category == null ? -1 : Arrays.binarySearch(categories, category);
+                if (ordinal >= 0) {
+                    filter.or(categoryBitmaps[ordinal]);
+                }
+            }
+            return filter;
+        }
+
+        /**
+         * 所选状态位图的并集，未选状态时为null（不限）
+         */
+        private BitSet statusFilter(List<Product.ProductStatus> selected) {
+            if (selected == null || selected.isEmpty()) {
+                return null;
+            }
+            BitSet filter = new BitSet(ids.length);
+            for (Product.ProductStatus status : selected) {
+                if (status != null) {
+                    filter.or(statusBitmaps[status.ordinal()]);
+                }
+            }
+            return filter;
+        }
+
+        private static BitSet intersect(BitSet base, BitSet filter) {
+            BitSet result = (BitSet) base.clone();
+            if (filter != null) {
+                result.and(filter);
+            }
+            return result;
+        }
+
+        private ProductSummaryDTO row(int row) {
+            return new ProductSummaryDTO(ids[row], codes[row], names[row],
+                    categoryOrdinals[row] < 0 ? null : categories[categoryOrdinals[row]],
+                    BigDecimal.valueOf(priceCents[row], 2), stock[row], minStock[row], STATUSES[statusOrdinals[row]]);
+        }
+    }
+
+    /**
+     * 按产品ID升序逐行追加，构造新快照
+     */
+    private static final class Builder {
+
+        private final long[] ids;
+        private final String[] codes;
+        private final String[] names;
+        private final String[] categoryNames;
+        private final long[] priceCents;
+        private final int[] stock;
+        private final int[] minStock;
+        private final byte[] statusOrdinals;
+        private int size;
+
+        private Builder(int capacity) {
+            ids = new long[capacity];
+            codes = new String[capacity];
+            names = new String[capacity];
+            categoryNames = new String[capacity];
+            priceCents = new long[capacity];
+            stock = new int[capacity];
+            minStock = new int[capacity];
+            statusOrdinals = new byte[capacity];
+        }
+
+        private void add(ProductSummaryDTO row) {
+            ids[size] = row.getId();
+            codes[size] = row.getProductCode();
+            names[size] = row.getName();
+            categoryNames[size] = row.getCategory();
+            priceCents[size] = toCents(row.getUnitPrice(), RoundingMode.HALF_UP);
+            stock[size] = row.getStockQuantity();
+            minStock[size] = row.getMinStock();
+            statusOrdinals[size] = (byte) row.getStatus().ordinal();
+            size++;
+        }
+
+        private void copy(Snapshot snapshot, int row) {
+            ids[size] = snapshot.ids[row];
+            codes[size] = snapshot.codes[row];
+            names[size] = snapshot.names[row];
+            categoryNames[size] = snapshot.categoryOrdinals[row] < 0
+                    ? null : snapshot.categories[snapshot.categoryOrdinals[row]];
+            priceCents[size] = snapshot.priceCents[row];
+            stock[size] = snapshot.stock[row];
+            minStock[size] = snapshot.minStock[row];
+            statusOrdinals[size] = snapshot.statusOrdinals[row];
+            size++;
+        }
+
+        private Snapshot build() {
+            return new Snapshot(this);
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.example.order.service;
+
+import com.example.order.entity.Product;
+import com.example.order.repository.ProductRepository;
+import com.example.order.util.SearchTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * 产品搜索内存倒排索引
+ *
+ * 功能: 在名称、编码、分类、描述上检索产品，按 BM25F 相关度排序，字母数字词元支持前缀匹配
+ * 逻辑链: 启动时分批加载全部产品建立索引 -> 产品增删改事务提交后增量更新 -> 定时全量重建并压缩
+ * -> 查询: 切分查询词元 -> 前缀展开（取文档数最多的 MAX_PREFIX_EXPANSIONS 个词项）
+ * -> 以倒排表最短的词元为候选集，其余词元在有序倒排表中二分查找（所有词元都须命中）
+ * -> 有界堆取前 offset + limit 个结果
+ * 注意事项: 倒排表为按文档序号递增的 int 数组，各字段词频打包在一个 int 中；产品更新时旧文档只在位图中标记删除、
+ * 以新序号追加，重建时才回收；查询耗时取决于命中的倒排表长度而不是产品总数；
+ * 前缀展开超过上限时只命中少数产品的词项被舍弃，结果与命中总数可能偏少，由 Hits.isPrefixTruncated 标明；
+ * 只感知本实例经 ProductService 提交的变更，其他实例或绕过服务的修改在下次重建（app.search.product-index.rebuild-interval-ms）后可见
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    /**
+     * 单个前缀词元最多展开的词项数（含完整词项），超出时保留文档数最多的词项
+     */
+    public static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private static final int NAME = 0;
+    private static final int PRODUCT_CODE = 1;
+    private static final int CATEGORY = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int FIELD_COUNT = 4;
+
+    /**
+     * 字段权重，下标依次为 名称、编码、分类、描述
+     */
+    private static final float[] FIELD_WEIGHTS = {3.0f, 2.0f, 1.5f, 1.0f};
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    /**
+     * 前缀展开出的词项得分折扣，完整命中的词项排在前面
+     */
+    private static final float PREFIX_WEIGHT = 0.8f;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    /**
+     * 查询持读锁，增量更新与替换索引持写锁
+     */
+    private final RebuildableIndex<IndexData> index = new RebuildableIndex<>();
+
+    /**
+     * 启动时建立索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    /**
+     * 全量重建索引，回收已删除文档占用的空间
+     */
+    @Scheduled(fixedDelayString = "${app.search.product-index.rebuild-interval-ms:600000}",
+            initialDelayString = "${app.search.product-index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        IndexData built = index.rebuild(this::load);
+        log.info("产品搜索索引构建完成，产品数: {}, 词项数: {}, 耗时: {} ms",
+                built.ordinals.size(), built.terms.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 事务提交后将产品加入索引或更新索引
+     *
+     * 注意事项: 立即复制产品的检索字段；不在事务中时立即生效
+     *
+     * @param product 产品
+     */
+    public void indexAfterCommit(Product product) {
+        Document document = new Document(product);
+        index.modifyAfterCommit(data -> data.upsert(document));
+    }
+
+    /**
+     * 事务提交后将产品移出索引
+     *
+     * @param productId 产品ID
+     */
+    public void removeAfterCommit(Long productId) {
+        index.modifyAfterCommit(data -> data.remove(productId));
+    }
+
+    /**
+     * 检索产品
+     *
+     * @param query 查询文本
+     * @param offset 跳过的结果数
+     * @param limit 返回的最大结果数
+     * @return 按相关度降序的产品ID与命中总数；查询没有可检索的词元时为空结果
+     */
+    public Hits search(String query, long offset, int limit) {
+        List<SearchTokenizer.QueryTerm> queryTerms = SearchTokenizer.queryTerms(query);
+        if (queryTerms.isEmpty()) {
+            return Hits.EMPTY;
+        }
+        index.ensureBuilt(this::rebuild);
+        return index.read(data -> data.search(queryTerms, offset, limit));
+    }
+
+    private IndexData load() {
+        IndexData loaded = new IndexData();
+        long afterId = 0L;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Product product : batch) {
+                loaded.upsert(new Document(product));
+                afterId = product.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        return loaded;
+    }
+
+    /**
+     * 检索结果
+     */
+    public static final class Hits {
+
+        static final Hits EMPTY = new Hits(Collections.emptyList(), 0);
+
+        private final List<Long> productIds;
+        private final long total;
+        private final boolean prefixTruncated;
+
+        Hits(List<Long> productIds, long total) {
+            this(productIds, total, false);
+        }
+
+        Hits(List<Long> productIds, long total, boolean prefixTruncated) {
+            this.productIds = productIds;
+            this.total = total;
+            this.prefixTruncated = prefixTruncated;
+        }
+
+        /**
+         * @return 当前页的产品ID，按相关度降序
+         */
+        public List<Long> getProductIds() {
+            return productIds;
+        }
+
+        /**
+         * @return 命中的产品总数，前缀展开被截断时不含被舍弃词项命中的产品
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * @return 是否有前缀词元的展开词项超过 MAX_PREFIX_EXPANSIONS
+         */
+        public boolean isPrefixTruncated() {
+            return prefixTruncated;
+        }
+    }
+
+    /**
+     * 产品检索字段快照
+     */
+    private static final class Document {
+
+        private final long productId;
+        private final String[] fields = new String[FIELD_COUNT];
+
+        private Document(Product product) {
+            this.productId = product.getId();
+            fields[NAME] = product.getName();
+            fields[PRODUCT_CODE] = product.getProductCode();
+            fields[CATEGORY] = product.getCategory();
+            fields[DESCRIPTION] = product.getDescription();
+        }
+    }
+
+    /**
+     * 词项倒排表：文档序号递增，词频按字段每8位打包（单字段词频上限255）
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        private void add(int doc, int packedFreqs) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = packedFreqs;
+            size++;
+        }
+    }
+
+    /**
+     * 查询词元展开后的一个词项及其权重（前缀折扣 × IDF）
+     */
+    private static final class Expansion {
+
+        private final Postings postings;
+        private final float weight;
+
+        private Expansion(Postings postings, float weight) {
+            this.postings = postings;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 命中文档，得分相同时产品ID小的排在前面
+     */
+    private static final class ScoredDoc {
+
+        private static final Comparator<ScoredDoc> WORST_FIRST = Comparator.<ScoredDoc>comparingDouble(hit -> hit.score)
+                .thenComparing((a, b) -> Long.compare(b.productId, a.productId));
+
+        private final float score;
+        private final long productId;
+
+        private ScoredDoc(float score, long productId) {
+            this.score = score;
+            this.productId = productId;
+        }
+    }
+
+    /**
+     * 索引数据（调用方持有锁）
+     */
+    private static final class IndexData {
+
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final long[] fieldLengthSums = new long[FIELD_COUNT];
+        private long[] productIds = new long[1024];
+        private int[] fieldLengths = new int[1024 * FIELD_COUNT];
+        private int docCount;
+
+        private void upsert(Document document) {
+            remove(document.productId);
+            int doc = docCount++;
+            if (doc == productIds.length) {
+                productIds = Arrays.copyOf(productIds, doc * 2);
+                fieldLengths = Arrays.copyOf(fieldLengths, doc * 2 * FIELD_COUNT);
+            }
+            productIds[doc] = document.productId;
+
+            Map<String, int[]> termFreqs = new HashMap<>();
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                List<String> tokens = SearchTokenizer.indexTokens(document.fields[field]);
+                fieldLengths[doc * FIELD_COUNT + field] = tokens.size();
+                fieldLengthSums[field] += tokens.size();
+                for (String token : tokens) {
+                    termFreqs.computeIfAbsent(token, key -> new int[FIELD_COUNT])[field]++;
+                }
+            }
+            termFreqs.forEach((term, freqs) -> {
+                int packed = 0;
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    packed |= Math.min(freqs[field], 0xFF) << (8 * field);
+                }
+                terms.computeIfAbsent(term, key -> new Postings()).add(doc, packed);
+            });
+            live.set(doc);
+            ordinals.put(document.productId, doc);
+        }
+
+        private void remove(long productId) {
+            Integer doc = ordinals.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            live.clear(doc);
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                fieldLengthSums[field] -= fieldLengths[doc * FIELD_COUNT + field];
+            }
+        }
+
+        private Hits search(List<SearchTokenizer.QueryTerm> queryTerms, long offset, int limit) {
+            int liveCount = ordinals.size();
+            if (liveCount == 0) {
+                return Hits.EMPTY;
+            }
+            float[] avgLengths = new float[FIELD_COUNT];
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                avgLengths[field] = Math.max(1f, (float) fieldLengthSums[field] / liveCount);
+            }
+
+            List<Expansion[]> expansions = new ArrayList<>(queryTerms.size());
+            int driver = 0;
+            long driverSize = Long.MAX_VALUE;
+            boolean[] truncated = new boolean[1];
+            for (SearchTokenizer.QueryTerm queryTerm : queryTerms) {
+                Expansion[] expanded = expand(queryTerm, liveCount, truncated);
+                if (expanded.length == 0) {
+                    return Hits.EMPTY;
+                }
+                long size = 0;
+                for (Expansion expansion : expanded) {
+                    size += expansion.postings.size;
+                }
+                if (size < driverSize) {
+                    driver = expansions.size();
+                    driverSize = size;
+                }
+                expansions.add(expanded);
+            }
+
+            int keep = (int) Math.min(Integer.MAX_VALUE, offset + limit);
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(ScoredDoc.WORST_FIRST);
+            long total = 0;
+            for (int doc : candidates(expansions.get(driver))) {
+                if (!live.get(doc)) {
+                    continue;
+                }
+                float score = score(doc, expansions, avgLengths);
+                if (score < 0) {
+                    continue;
+                }
+                total++;
+                ScoredDoc hit = new ScoredDoc(score, productIds[doc]);
+                if (top.size() < keep) {
+                    top.add(hit);
+                } else if (keep > 0 && ScoredDoc.WORST_FIRST.compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            List<Long> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(top.poll().productId);
+            }
+            Collections.reverse(ranked);
+            List<Long> page = offset >= ranked.size()
+                    ? Collections.emptyList() : ranked.subList((int) offset, ranked.size());
+            return new Hits(new ArrayList<>(page), total, truncated[0]);
+        }
+
+        /**
+         * 完整词项加上前缀展开出的词项；展开超过上限时按倒排表长度保留最长的，并置 truncated[0]
+         */
+        private Expansion[] expand(SearchTokenizer.QueryTerm queryTerm, int liveCount, boolean[] truncated) {
+            List<Expansion> expanded = new ArrayList<>();
+            Postings exact = terms.get(queryTerm.getText());
+            if (exact != null) {
+                expanded.add(new Expansion(exact, idf(exact, liveCount)));
+            }
+            if (queryTerm.isPrefix()) {
+                NavigableMap<String, Postings> prefixed = terms.subMap(
+                        queryTerm.getText(), false, queryTerm.getText() + Character.MAX_VALUE, false);
+                int capacity = MAX_PREFIX_EXPANSIONS - expanded.size();
+                PriorityQueue<Postings> longest = new PriorityQueue<>(Comparator.comparingInt(p -> p.size));
+                for (Postings postings : prefixed.values()) {
+                    if (longest.size() < capacity) {
+                        longest.add(postings);
+                    } else if (postings.size > longest.peek().size) {
+                        longest.poll();
+                        longest.add(postings);
+                        truncated[0] = true;
+                    } else {
+                        truncated[0] = true;
+                    }
+                }
+                for (Postings postings : longest) {
+                    expanded.add(new Expansion(postings, PREFIX_WEIGHT * idf(postings, liveCount)));
+                }
+            }
+            return expanded.toArray(new Expansion[0]);
+        }
+
+        private static float idf(Postings postings, int liveCount) {
+            int df = Math.min(postings.size, liveCount);
+            return (float) Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+        }
+
+        /**
+         * 候选文档：驱动词元各展开词项倒排表的并集（有序、去重）
+         */
+        private static int[] candidates(Expansion[] expanded) {
+            int length = 0;
+            for (Expansion expansion : expanded) {
+                length += expansion.postings.size;
+            }
+            int[] docs = new int[length];
+            int position = 0;
+            for (Expansion expansion : expanded) {
+                System.arraycopy(expansion.postings.docs, 0, docs, position, expansion.postings.size);
+                position += expansion.postings.size;
+            }
+            if (expanded.length == 1) {
+                return docs;
+            }
+            Arrays.sort(docs);
+            int distinct = 0;
+            for (int i = 0; i < docs.length; i++) {
+                if (i == 0 || docs[i] != docs[i - 1]) {
+                    docs[distinct++] = docs[i];
+                }
+            }
+            return Arrays.copyOf(docs, distinct);
+        }
+
+        /**
+         * 各查询词元取展开词项中的最高分相加，有词元未命中时返回 -1
+         */
+        private float score(int doc, List<Expansion[]> expansions, float[] avgLengths) {
+            float score = 0;
+            for (Expansion[] expanded : expansions) {
+                float best = -1;
+                for (Expansion expansion : expanded) {
+                    Postings postings = expansion.postings;
+                    int index = Arrays.binarySearch(postings.docs, 0, postings.size, doc);
+                    if (index >= 0) {
+                        best = Math.max(best, expansion.weight * saturate(doc, postings.freqs[index], avgLengths));
+                    }
+                }
+                if (best < 0) {
+                    return -1;
+                }
+                score += best;
+            }
+            return score;
+        }
+
+        /**
+         * BM25F：各字段词频按字段长度归一化并加权求和后做饱和
+         */
+        private float saturate(int doc, int packedFreqs, float[] avgLengths) {
+            float tf = 0;
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                int freq = (packedFreqs >>> (8 * field)) & 0xFF;
+                if (freq > 0) {
+                    float norm = 1 - B + B * fieldLengths[doc * FIELD_COUNT + field] / avgLengths[field];
+                    tf += FIELD_WEIGHTS[field] * freq / norm;
+                }
+            }
+            return tf * (K1 + 1) / (tf + K1);
+        }
+    }
+}
@@ -1,18 +1,37 @@
 package com.example.order.service;
 
+import com.example.order.config.CacheConfig;
+import com.example.order.dto.CursorPage;
+import com.example.order.dto.ProductBrowseDTO;
+import com.example.order.dto.ProductBrowseRequest;
 import com.example.order.dto.ProductDTO;
+import com.example.order.dto.ProductSearchPage;
+import com.example.order.dto.ProductSummaryDTO;
+import com.example.order.entity.InventoryTransaction;
 import com.example.order.entity.Product;
+import com.example.order.exception.InsufficientStockException;
 import com.example.order.repository.ProductRepository;
+import com.example.order.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -33,6 +52,11 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final HotStockReservationService hotStockReservationService;
+    private final InventoryLedgerService inventoryLedgerService;
+    private final CacheManager cacheManager;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCatalogSnapshot productCatalogSnapshot;
 
     /**
      * 创建产品
@@ -58,6 +82,8 @@ public class ProductService {
         product.setStatus(Product.ProductStatus.ACTIVE);
 
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.indexAfterCommit(savedProduct);
+        productCatalogSnapshot.updateAfterCommit(savedProduct);
         log.info("产品创建成功，产品ID: {}", savedProduct.getId());
 
         return ProductDTO.fromEntity(savedProduct);
@@ -66,10 +92,13 @@ public class ProductService {
     /**
      * 根据ID查找产品
      *
+     * 注意事项: 结果缓存在 products 缓存中；订单引起的库存变化不主动失效，缓存中的库存数量最多滞后 app.cache.ttl
+     *
      * @param id 产品ID
      * @return 产品DTO
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id", unless = "#result == null")
     public Optional<ProductDTO> findById(Long id) {
         log.debug("查找产品，产品ID: {}", id);
         return productRepository.findById(id).map(ProductDTO::fromEntity);
@@ -82,6 +111,7 @@ public class ProductService {
      * @return 产品DTO
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_CODE, key = "#productCode", unless = "#result == null")
     public Optional<ProductDTO> findByProductCode(String productCode) {
         log.debug("根据产品编码查找产品，产品编码: {}", productCode);
         return productRepository.findByProductCode(productCode).map(ProductDTO::fromEntity);
@@ -94,6 +124,7 @@ public class ProductService {
      * @return 产品DTO
      */
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_NAME, key = "#name", unless = "#result == null")
     public Optional<ProductDTO> findByName(String name) {
         log.debug("根据产品名称查找产品，产品名称: {}", name);
         return productRepository.findByName(name).map(ProductDTO::fromEntity);
@@ -124,6 +155,9 @@ public class ProductService {
             throw new RuntimeException("产品名称已存在");
         }
 
+        // 按修改前的ID、编码和名称失效缓存
+        evictProductCaches(id, product.getProductCode(), product.getName());
+
         // 更新产品信息
         product.setProductCode(productDTO.getProductCode());
         product.setName(productDTO.getName());
@@ -131,15 +165,31 @@ public class ProductService {
         product.setCategory(productDTO.getCategory());
         product.setUnitPrice(productDTO.getUnitPrice());
         product.setCostPrice(productDTO.getCostPrice());
-        product.setStockQuantity(productDTO.getStockQuantity());
+        // 热点产品的库存由内存计数器管理，按差值走库存调整，避免覆盖未回写的扣减
+        int stockDelta = 0;
+        if (hotStockReservationService.isHotProduct(id)) {
+            stockDelta = productDTO.getStockQuantity() - product.getStockQuantity();
+        } else if (!product.getStockQuantity().equals(productDTO.getStockQuantity())) {
+            inventoryLedgerService.record(Collections.singletonList(InventoryTransaction.createAdjustmentTransaction(
+                    id, productDTO.getStockQuantity() - product.getStockQuantity(), product.getStockQuantity(),
+                    "更新产品信息调整库存")));
+            product.setStockQuantity(productDTO.getStockQuantity());
+        }
         product.setMinStock(productDTO.getMinStock());
         product.setUnit(productDTO.getUnit());
         product.setStatus(productDTO.getStatus());
 
         Product updatedProduct = productRepository.save(product);
+        productSearchIndex.indexAfterCommit(updatedProduct);
+        productCatalogSnapshot.updateAfterCommit(updatedProduct);
+        ProductDTO result = ProductDTO.fromEntity(updatedProduct);
+        if (stockDelta != 0) {
+            updateStock(id, stockDelta);
+            result.setStockQuantity(product.getStockQuantity() + stockDelta);
+        }
         log.info("产品信息更新成功，产品ID: {}", updatedProduct.getId());
 
-        return ProductDTO.fromEntity(updatedProduct);
+        return result;
     }
 
     /**
@@ -154,6 +204,9 @@ public class ProductService {
                 .orElseThrow(() -> new RuntimeException("产品不存在"));
 
         productRepository.delete(product);
+        productSearchIndex.removeAfterCommit(id);
+        productCatalogSnapshot.removeAfterCommit(id);
+        evictProductCaches(id, product.getProductCode(), product.getName());
         log.info("产品删除成功，产品ID: {}", id);
     }
 
@@ -169,17 +222,79 @@ public class ProductService {
         return productRepository.findAll(pageable).map(ProductDTO::fromEntity);
     }
 
+    /**
+     * 游标分页查询产品（按ID升序）
+     *
+     * 注意事项: 不执行COUNT查询，深翻页耗时与首页相同
+     *
+     * @param cursor 上一页返回的游标，首页传null
+     * @param size 每页条数
+     * @return 产品游标分页结果
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDTO> findByCursor(String cursor, int size) {
+        log.debug("游标分页查询产品，游标: {}, 大小: {}", cursor, size);
+        Long afterId = cursor == null || cursor.isEmpty() ? 0L : CursorCodec.decodeId(cursor);
+        List<Product> rows = productRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<Product> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? CursorCodec.encode(content.get(content.size() - 1).getId()) : null;
+        return CursorPage.of(content.stream().map(ProductDTO::fromEntity).collect(Collectors.toList()), nextCursor);
+    }
+
+    /**
+     * 分页查询产品，不统计总记录数
+     *
+     * @param pageable 分页参数
+     * @return 产品切片
+     */
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> findSlice(Pageable pageable) {
+        log.debug("切片查询产品，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return productRepository.findAllBy(pageable).map(ProductDTO::fromEntity);
+    }
+
     /**
      * 搜索产品
      *
+     * 注意事项: 通过内存倒排索引在名称、编码、分类、描述中检索，结果按相关度排序，忽略分页参数中的排序；
+     * 关键词没有可检索的词元（如只有标点）时返回空结果；前缀展开被截断时结果标明 prefixTruncated
+     *
      * @param keyword 搜索关键词
      * @param pageable 分页参数
      * @return 产品分页结果
      */
     @Transactional(readOnly = true)
-    public Page<ProductDTO> searchProducts(String keyword, Pageable pageable) {
+    public ProductSearchPage searchProducts(String keyword, Pageable pageable) {
         log.debug("搜索产品，关键词: {}", keyword);
-        return productRepository.findByNameContainingIgnoreCase(keyword, pageable).map(ProductDTO::fromEntity);
+        ProductSearchIndex.Hits hits = pageable.isPaged()
+                ? productSearchIndex.search(keyword, pageable.getOffset(), pageable.getPageSize())
+                : productSearchIndex.search(keyword, 0, Integer.MAX_VALUE);
+        Map<Long, Product> products = productRepository.findAllById(hits.getProductIds()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<ProductDTO> content = hits.getProductIds().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(ProductDTO::fromEntity)
+                .collect(Collectors.toList());
+        return new ProductSearchPage(content, pageable, hits.getTotal(), hits.isPrefixTruncated());
+    }
+
+    /**
+     * 组合筛选产品并返回分面计数
+     *
+     * 注意事项: 在内存列式快照上筛选，不访问数据库；库存变化在事务提交后约1秒内反映；
+     * 结果按产品ID升序，忽略分页参数中的排序
+     *
+     * @param request 筛选条件
+     * @param pageable 分页参数
+     * @return 本页产品与分面计数
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductBrowseDTO browseProducts(ProductBrowseRequest request, Pageable pageable) {
+        log.debug("筛选产品，条件: {}", request);
+        return productCatalogSnapshot.browse(request, pageable);
     }
 
     /**
@@ -211,29 +326,31 @@ public class ProductService {
     }
 
     /**
-     * 查找所有激活状态的产品
+     * 分页查询激活状态的产品摘要
      *
-     * @return 激活产品列表
+     * 注意事项: 构造器投影只查询摘要列，不加载产品实体
+     *
+     * @param pageable 分页参数
+     * @return 产品摘要分页结果
      */
     @Transactional(readOnly = true)
-    public List<ProductDTO> findAllActiveProducts() {
-        log.debug("查找所有激活状态的产品");
-        return productRepository.findAllActiveProducts().stream()
-                .map(ProductDTO::fromEntity)
-                .collect(Collectors.toList());
+    public Page<ProductSummaryDTO> findAllActiveProducts(Pageable pageable) {
+        log.debug("查找所有激活状态的产品，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return productRepository.findActiveProductSummaries(pageable);
     }
 
     /**
-     * 查找库存不足的产品
+     * 分页查询库存不足的产品摘要
+     *
+     * 注意事项: 构造器投影只查询摘要列，不加载产品实体
      *
-     * @return 库存不足产品列表
+     * @param pageable 分页参数
+     * @return 产品摘要分页结果
      */
     @Transactional(readOnly = true)
-    public List<ProductDTO> findLowStockProducts() {
-        log.debug("查找库存不足的产品");
-        return productRepository.findLowStockProducts().stream()
-                .map(ProductDTO::fromEntity)
-                .collect(Collectors.toList());
+    public Page<ProductSummaryDTO> findLowStockProducts(Pageable pageable) {
+        log.debug("查找库存不足的产品，页码: {}, 大小: {}", pageable.getPageNumber(), pageable.getPageSize());
+        return productRepository.findLowStockProductSummaries(pageable);
     }
 
     /**
@@ -342,7 +459,7 @@ public class ProductService {
     @Transactional(readOnly = true)
     public long countLowStockProducts() {
         log.debug("统计库存不足的产品数量");
-        return productRepository.findLowStockProducts().size();
+        return productRepository.countLowStockProducts();
     }
 
     /**
@@ -361,6 +478,10 @@ public class ProductService {
     /**
      * 更新产品库存
      *
+     * 注意事项: 通过条件 UPDATE 原子修改库存，减少库存时若库存不足则不修改并抛出异常；
+     * 热点产品同时同步内存库存：减少前先在内存预留，增加在事务提交后归还；
+     * 调整记录在事务提交后异步写入库存变动表，产品缓存在事务提交后失效
+     *
      * @param id 产品ID
      * @param quantity 库存变化量（正数为增加，负数为减少）
      */
@@ -370,13 +491,51 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("产品不存在"));
 
-        int newStock = product.getStockQuantity() + quantity;
-        if (newStock < 0) {
-            throw new RuntimeException("库存不足，无法减少");
+        boolean hot = hotStockReservationService.isHotProduct(id);
+        int updated;
+        if (quantity < 0) {
+            updated = hot && !hotStockReservationService.tryReserve(id, -quantity)
+                    ? 0
+                    : productRepository.decreaseStock(id, -quantity);
+        } else {
+            updated = productRepository.increaseStock(id, quantity);
+            if (hot && updated > 0 && quantity > 0) {
+                hotStockReservationService.releaseAfterCommit(id, quantity);
+            }
+        }
+
+        if (updated == 0) {
+            throw new InsufficientStockException(product.getName(), -quantity, hot
+                    ? (int) hotStockReservationService.getAvailableStock(id)
+                    : productRepository.findStockQuantityById(id).orElse(product.getStockQuantity()));
         }
 
-        product.setStockQuantity(newStock);
-        productRepository.save(product);
-        log.info("产品库存更新成功，产品ID: {}, 新库存: {}", id, newStock);
+        productRepository.findStockQuantityById(id).ifPresent(afterQuantity ->
+                inventoryLedgerService.record(Collections.singletonList(InventoryTransaction.createAdjustmentTransaction(
+                        id, quantity, afterQuantity - quantity, "库存调整"))));
+        evictProductCaches(id, product.getProductCode(), product.getName());
+        productCatalogSnapshot.markStaleAfterCommit(Collections.singleton(id));
+
+        log.info("产品库存更新成功，产品ID: {}, 变化量: {}", id, quantity);
+    }
+
+    /**
+     * 失效单个产品的缓存条目
+     *
+     * @param id 产品ID
+     * @param productCode 产品编码
+     * @param name 产品名称
+     */
+    private void evictProductCaches(Long id, String productCode, String name) {
+        evict(CacheConfig.PRODUCTS, id);
+        evict(CacheConfig.PRODUCTS_BY_CODE, productCode);
+        evict(CacheConfig.PRODUCTS_BY_NAME, name);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
     }
-} 
\ No newline at end of file
+}
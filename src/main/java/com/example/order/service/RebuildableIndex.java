@@ -0,0 +1,162 @@
+package com.example.order.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 可定时全量重建、事务提交后增量更新的内存索引容器
+ *
+ * 功能: 持有当前索引数据，串行化全量重建与增量更新，供产品搜索索引、客户联想前缀树、产品目录快照共用
+ * 逻辑链: 重建: 登记补放列表 -> 不持锁加载新数据 -> 持写锁补放加载期间提交的更新并替换 -> 增量更新: 事务提交后
+ * 持写锁作用于当前数据，重建进行中时同时登记到补放列表
+ * 注意事项: 加载在写锁之外执行，查询与增量更新不会被重建阻塞；新数据从数据库读取的时刻早于加载期间提交的更新，
+ * 因此补放后不会丢失更新；可变数据用 modify 原地修改并用 read 持读锁查询，不可变数据用 replace 生成新数据并用 get 无锁查询
+ *
+ * @param <T> 索引数据类型
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+final class RebuildableIndex<T> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile T data;
+
+    /**
+     * 重建期间提交的更新，新数据建好后补放（写锁保护）
+     */
+    private List<UnaryOperator<T>> pendingDuringRebuild;
+
+    /**
+     * 加载新数据并替换当前数据
+     *
+     * @param loader 加载新数据，抛出异常时保留当前数据
+     * @return 替换后的数据
+     */
+    T rebuild(Supplier<T> loader) {
+        rebuildLock.lock();
+        try {
+            setPending(new ArrayList<>());
+            T built = null;
+            try {
+                built = loader.get();
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    if (built != null) {
+                        for (UnaryOperator<T> update : pendingDuringRebuild) {
+                            built = update.apply(built);
+                        }
+                        data = built;
+                    }
+                    pendingDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            return built;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 尚未建立时（启动事件之前的请求）同步执行一次重建
+     *
+     * @param rebuild 调用方的重建方法
+     */
+    void ensureBuilt(Runnable rebuild) {
+        if (data != null) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            if (data == null) {
+                rebuild.run();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * @return 当前数据，尚未建立时为null
+     */
+    T get() {
+        return data;
+    }
+
+    /**
+     * 持读锁查询当前数据，调用方须先 ensureBuilt
+     */
+    <R> R read(Function<T, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(data);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 事务提交后原地修改当前数据；不在事务中时立即生效
+     */
+    void modifyAfterCommit(Consumer<T> update) {
+        afterCommit(() -> replace(current -> {
+            update.accept(current);
+            return current;
+        }));
+    }
+
+    /**
+     * 以 update 的返回值替换当前数据
+     */
+    void replace(UnaryOperator<T> update) {
+        lock.writeLock().lock();
+        try {
+            if (data != null) {
+                data = update.apply(data);
+            }
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 在当前事务提交后执行；不在事务中时立即执行
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void setPending(List<UnaryOperator<T>> pending) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.order.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+
+/**
+ * 序列号段分配器
+ *
+ * 功能: 为主键生成器 SequenceBlockIdGenerator 与订单编号生成器 OrderNumberGenerator 申请号段
+ * 逻辑链: upsert 累加 next_val -> 同一事务读取累加后的值 -> 提交 -> 得到号段 (next_val - 号段大小, next_val]
+ * 注意事项: 使用独立的小连接池（app.sequence.pool-size）。订单事务持有主连接池的连接时等待号段，
+ * 若号段申请也从主连接池取连接，高并发下连接被等待者占满会相互等待直到超时；
+ * 连接池按需创建，仅在第一次申请号段时建立连接；
+ * 通过 Hibernate 配置项 SETTING 传递给主键生成器
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+@Component
+public class SequenceBlockAllocator implements HibernatePropertiesCustomizer {
+
+    /**
+     * Hibernate 配置项名称，主键生成器从中取得分配器
+     */
+    public static final String SETTING = "com.example.order.sequence-block-allocator";
+
+    private static final String ADVANCE_SQL = "INSERT INTO sequence_blocks (sequence_name, next_val) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE next_val = next_val + VALUES(next_val)";
+    private static final String SELECT_SQL = "SELECT next_val FROM sequence_blocks WHERE sequence_name = ?";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SequenceBlockAllocator(DataSourceProperties dataSourceProperties,
+                                  @Value("${app.sequence.pool-size:2}") int poolSize) {
+        dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("sequence-pool");
+        dataSource.setMaximumPoolSize(poolSize);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(SETTING, this);
+    }
+
+    /**
+     * 申请号段，序列不存在时创建
+     *
+     * @param sequenceName 序列名称
+     * @param blockSize 号段大小
+     * @return 号段末尾，即累加后已分配出去的最大值
+     */
+    public long advance(String sequenceName, int blockSize) {
+        Long end = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(ADVANCE_SQL, sequenceName, blockSize);
+            return jdbcTemplate.queryForObject(SELECT_SQL, Long.class, sequenceName);
+        });
+        if (end == null) {
+            throw new IllegalStateException("序列号段申请失败: " + sequenceName);
+        }
+        return end;
+    }
+
+    /**
+     * 关闭号段连接池
+     */
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.order.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分段库存计数器
+ *
+ * 功能: 在内存中以无锁方式扣减和归还单个热点产品的可用库存
+ * 逻辑链: 线程选择所属分段 -> CAS扣减 -> 本段不足时依次尝试其他分段 -> 仍不足时加锁跨段汇集
+ * 注意事项: 各分段之和即为可用库存，任何时刻都不会小于0；
+ * 分段按缓存行间隔存放以避免伪共享，跨段汇集只在库存接近耗尽时发生
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+final class StripedStockCounter {
+
+    /**
+     * 相邻分段之间间隔的long数量（64字节缓存行）
+     */
+    private static final int PADDING = 8;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+    private final ReentrantLock gatherLock = new ReentrantLock();
+
+    StripedStockCounter(int stripes, long initial) {
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicLongArray(this.stripes * PADDING);
+        reset(initial);
+    }
+
+    /**
+     * 尝试扣减库存
+     *
+     * @param quantity 扣减数量
+     * @return 扣减是否成功
+     */
+    boolean tryAcquire(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("扣减数量必须大于0");
+        }
+        int home = homeStripe();
+        for (int i = 0; i < stripes; i++) {
+            if (tryAcquireFrom((home + i) % stripes, quantity)) {
+                return true;
+            }
+        }
+        return gather(quantity, home);
+    }
+
+    /**
+     * 归还库存
+     *
+     * @param quantity 归还数量
+     */
+    void release(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("归还数量必须大于0");
+        }
+        cells.addAndGet(homeStripe() * PADDING, quantity);
+    }
+
+    /**
+     * 当前可用库存（各分段之和，并发修改时为近似值）
+     *
+     * @return 可用库存
+     */
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    /**
+     * 重置可用库存并平均分配到各分段
+     *
+     * @param total 可用库存
+     */
+    void reset(long total) {
+        long value = Math.max(0, total);
+        long share = value / stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, i == 0 ? share + value % stripes : share);
+        }
+    }
+
+    private boolean tryAcquireFrom(int stripe, int quantity) {
+        int index = stripe * PADDING;
+        long current;
+        do {
+            current = cells.get(index);
+            if (current < quantity) {
+                return false;
+            }
+        } while (!cells.compareAndSet(index, current, current - quantity));
+        return true;
+    }
+
+    /**
+     * 库存分散在多个分段时，加锁后逐段汇集到所需数量；汇集失败则全部归还
+     */
+    private boolean gather(int quantity, int home) {
+        gatherLock.lock();
+        try {
+            long collected = 0;
+            boolean progressed = true;
+            while (collected < quantity && progressed) {
+                progressed = false;
+                for (int i = 0; i < stripes && collected < quantity; i++) {
+                    int index = ((home + i) % stripes) * PADDING;
+                    long current = cells.get(index);
+                    long take = Math.min(current, quantity - collected);
+                    if (take > 0) {
+                        // CAS失败说明该分段刚被修改，下一轮重试
+                        if (cells.compareAndSet(index, current, current - take)) {
+                            collected += take;
+                        }
+                        progressed = true;
+                    }
+                }
+            }
+            if (collected < quantity) {
+                if (collected > 0) {
+                    cells.addAndGet(home * PADDING, collected);
+                }
+                return false;
+            }
+            return true;
+        } finally {
+            gatherLock.unlock();
+        }
+    }
+
+    private int homeStripe() {
+        return stripes == 1 ? 0 : ThreadLocalRandom.current().nextInt(stripes);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.order.service;
 import com.example.order.dto.UserDTO;
 import com.example.order.entity.User;
 import com.example.order.repository.UserRepository;
+import com.example.order.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -35,6 +36,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     /**
      * 创建用户
@@ -128,6 +130,9 @@ public class UserService {
             throw new RuntimeException("邮箱已存在");
         }
         
+        // 角色、状态或用户名变化后，已缓存的认证主体立即失效
+        principalCache.invalidate(user.getUsername());
+
         // 更新用户信息
         user.setUsername(userDTO.getUsername());
         user.setEmail(userDTO.getEmail());
@@ -154,6 +159,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("用户不存在"));
         
         userRepository.delete(user);
+        principalCache.invalidate(user.getUsername());
         log.info("用户删除成功，用户ID: {}", id);
     }
 
@@ -0,0 +1,69 @@
+package com.example.order.util;
+
+import com.example.order.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 分页游标编解码工具
+ * 功能: 将排序键（如 创建时间 + ID）编码为不透明的URL安全字符串，并在下一次请求时解码
+ * 逻辑链: 排序键值 -> 以 | 拼接 -> Base64 URL编码；解码时校验段数，格式错误抛出 InvalidCursorException
+ * 注意事项: 游标只是位置信息，不做签名；排序键值中不能包含 | 字符
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * 编码游标
+     * @param values 排序键值
+     * @return 游标
+     */
+    public static String encode(Object... values) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(values[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor 游标
+     * @param parts 排序键个数
+     * @return 排序键值
+     */
+    public static String[] decode(String cursor, int parts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] values = raw.split("\\|", -1);
+            if (values.length != parts) {
+                throw new InvalidCursorException(cursor);
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * 解码只含ID的游标
+     * @param cursor 游标
+     * @return ID
+     */
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.valueOf(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
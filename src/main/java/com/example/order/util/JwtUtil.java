@@ -7,17 +7,20 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 /**
  * JWT工具类
  * 功能: JWT令牌的生成、验证和解析
  * 逻辑链: 密钥生成 -> 令牌生成 -> 令牌验证 -> 信息提取
- * 注意事项: 需要配置安全的密钥和过期时间
+ * 注意事项: 需要配置安全的密钥和过期时间；签名密钥与解析器在启动时创建一次并复用（线程安全），
+ * 请求内应通过 verify 解析一次后复用 VerifiedClaims，避免重复验签
  */
 @Slf4j
 @Component
@@ -32,6 +35,20 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration}")
     private Long refreshExpiration;
 
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    /**
+     * 创建签名密钥和令牌解析器
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     /**
      * 生成访问令牌
      * @param userDetails 用户详情
@@ -78,16 +95,34 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     /**
-     * 获取签名密钥
-     * @return 签名密钥
+     * 解析并验证令牌（验签与过期检查各一次）
+     * @param token JWT令牌
+     * @return 已验证的声明，令牌无效或已过期时为空
+     */
+    public Optional<VerifiedClaims> verify(String token) {
+        try {
+            return Optional.of(new VerifiedClaims(extractAllClaims(token)));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("令牌无效: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 验证已解析的令牌是否属于指定用户且未过期
+     * @param claims 已验证的声明
+     * @param userDetails 用户详情
+     * @return 是否有效
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public boolean validateToken(VerifiedClaims claims, UserDetails userDetails) {
+        return claims.getUsername() != null
+                && claims.getUsername().equals(userDetails.getUsername())
+                && !claims.isExpired();
     }
 
     /**
@@ -125,25 +160,7 @@ public class JwtUtil {
      * @return 所有声明
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * 检查令牌是否过期
-     * @param token JWT令牌
-     * @return 是否过期
-     */
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            log.warn("令牌过期检查失败: {}", e.getMessage());
-            return true;
-        }
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -153,13 +170,9 @@ public class JwtUtil {
      * @return 是否有效
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (JwtException | IllegalArgumentException e) {
-            log.warn("令牌验证失败: {}", e.getMessage());
-            return false;
-        }
+        return verify(token)
+                .map(claims -> validateToken(claims, userDetails))
+                .orElse(false);
     }
 
     /**
@@ -168,16 +181,7 @@ public class JwtUtil {
      * @return 是否格式正确
      */
     public Boolean isValidTokenFormat(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.warn("令牌格式无效: {}", e.getMessage());
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     /**
@@ -186,13 +190,8 @@ public class JwtUtil {
      * @return 剩余时间（毫秒）
      */
     public Long getTokenRemainingTime(String token) {
-        try {
-            Date expiration = extractExpiration(token);
-            Date now = new Date();
-            return Math.max(0, expiration.getTime() - now.getTime());
-        } catch (Exception e) {
-            log.warn("获取令牌剩余时间失败: {}", e.getMessage());
-            return 0L;
-        }
+        return verify(token)
+                .map(VerifiedClaims::getRemainingTime)
+                .orElse(0L);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,316 @@
+package com.example.order.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离路由数据源
+ *
+ * 功能: 只读事务的连接从只读副本获取，写事务及事务外的访问使用主库
+ * 逻辑链: 延迟获取物理连接 -> 第一条语句执行时按事务只读标记选择数据源
+ * -> 只读: 用户刚提交过写事务则走主库，否则轮询可用且延迟未超限的副本，均不可用时走主库
+ * -> 写: 使用主库，事务提交后记录当前用户的写入时间
+ * 注意事项: JpaTransactionManager 在设置事务只读标记之前就会获取连接，因此必须延迟到第一条语句才路由；
+ * 副本状态由 checkReplicas() 定期刷新，首次检查前不使用副本；副本获取连接失败时立即标记不可用并切换到主库；
+ * 读己之写按认证用户名区分，未认证的请求与后台任务不保证读到自己刚写入的数据
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    /**
+     * 路由计数器名称，标签 target 为连接池名称，reason 为路由原因
+     */
+    public static final String ROUTING_METRIC = "datasource.routing";
+
+    private final Router router;
+
+    /**
+     * 创建路由数据源
+     *
+     * @param primary 主库
+     * @param replicas 只读副本，键为副本名称
+     * @param options 路由参数
+     * @param meterRegistry 指标注册表
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Options options,
+                                      MeterRegistry meterRegistry) {
+        this.router = new Router(primary, replicas, options, meterRegistry);
+        setTargetDataSource(router);
+    }
+
+    /**
+     * 检查副本连通性与复制延迟，并清理过期的写入记录
+     */
+    public void checkReplicas() {
+        router.checkReplicas();
+    }
+
+    /**
+     * 当前可用于读路由的副本名称
+     *
+     * @return 副本名称
+     */
+    public List<String> getAvailableReplicas() {
+        List<String> names = new ArrayList<>();
+        for (Replica replica : router.replicas) {
+            if (replica.available) {
+                names.add(replica.name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 关闭主库与副本连接池
+     */
+    @Override
+    public void close() throws IOException {
+        closeIfCloseable(router.primary);
+        for (Replica replica : router.replicas) {
+            closeIfCloseable(replica.dataSource);
+        }
+    }
+
+    private static void closeIfCloseable(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable) {
+            ((Closeable) dataSource).close();
+        }
+    }
+
+    /**
+     * 路由参数
+     */
+    public static final class Options {
+
+        private final long maxLagMillis;
+        private final long readYourWritesMillis;
+        private final String lagQuery;
+        private final int validationTimeoutSeconds;
+
+        /**
+         * @param maxLagMillis 副本允许的最大复制延迟（毫秒）
+         * @param readYourWritesMillis 用户写事务提交后其只读事务走主库的时长（毫秒），0为关闭
+         * @param lagQuery 查询复制延迟秒数的SQL，为空时不检查延迟
+         * @param validationTimeoutSeconds 连通性检查超时（秒）
+         */
+        public Options(long maxLagMillis, long readYourWritesMillis, String lagQuery, int validationTimeoutSeconds) {
+            this.maxLagMillis = maxLagMillis;
+            this.readYourWritesMillis = readYourWritesMillis;
+            this.lagQuery = StringUtils.hasText(lagQuery) ? lagQuery : null;
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+        }
+    }
+
+    /**
+     * 只读副本及其最近一次检查的状态
+     */
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter reads;
+        private volatile boolean available;
+
+        private Replica(String name, DataSource dataSource, Counter reads) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+    }
+
+    /**
+     * 按事务类型选择物理数据源
+     */
+    private static final class Router extends AbstractDataSource {
+
+        private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+        private final DataSource primary;
+        private final List<Replica> replicas;
+        private final Options options;
+        private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+        private final AtomicInteger nextReplica = new AtomicInteger();
+        private final Counter primaryWrites;
+        private final Counter readYourWrites;
+        private final Counter replicaUnavailable;
+
+        private Router(DataSource primary, Map<String, DataSource> replicas, Options options,
+                       MeterRegistry meterRegistry) {
+            this.primary = primary;
+            this.options = options;
+            List<Replica> list = new ArrayList<>();
+            replicas.forEach((name, dataSource) ->
+                    list.add(new Replica(name, dataSource, counter(meterRegistry, name, "replica"))));
+            this.replicas = Collections.unmodifiableList(list);
+            this.primaryWrites = counter(meterRegistry, "primary", "write");
+            this.readYourWrites = counter(meterRegistry, "primary", "read_your_writes");
+            this.replicaUnavailable = counter(meterRegistry, "primary", "replica_unavailable");
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String target, String reason) {
+            return Counter.builder(ROUTING_METRIC)
+                    .description("按数据源与原因统计的连接获取次数")
+                    .tag("target", target)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                trackWrite();
+                primaryWrites.increment();
+                return primary.getConnection();
+            }
+            String user = currentUser();
+            if (user != null && wroteRecently(user)) {
+                readYourWrites.increment();
+                return primary.getConnection();
+            }
+            int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(replicas.size(), 1));
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.available) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replica.reads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    markUnavailable(replica, "获取连接失败: " + e.getMessage());
+                }
+            }
+            replicaUnavailable.increment();
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("读写分离数据源不支持指定用户名和密码");
+        }
+
+        private void trackWrite() {
+            if (options.readYourWritesMillis <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+            String user = currentUser();
+            if (user == null) {
+                return;
+            }
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastWrites.put(user, System.nanoTime());
+                }
+            });
+        }
+
+        private boolean wroteRecently(String user) {
+            Long writtenAt = lastWrites.get(user);
+            return writtenAt != null
+                    && System.nanoTime() - writtenAt < TimeUnit.MILLISECONDS.toNanos(options.readYourWritesMillis);
+        }
+
+        private static String currentUser() {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()
+                    || authentication instanceof AnonymousAuthenticationToken) {
+                return null;
+            }
+            return authentication.getName();
+        }
+
+        private void checkReplicas() {
+            for (Replica replica : replicas) {
+                try (Connection connection = replica.dataSource.getConnection()) {
+                    if (!connection.isValid(options.validationTimeoutSeconds)) {
+                        markUnavailable(replica, "连通性检查失败");
+                        continue;
+                    }
+                    if (options.lagQuery != null) {
+                        Long lagSeconds = queryLagSeconds(connection);
+                        if (lagSeconds == null) {
+                            markUnavailable(replica, "复制未运行");
+                            continue;
+                        }
+                        if (TimeUnit.SECONDS.toMillis(lagSeconds) > options.maxLagMillis) {
+                            markUnavailable(replica, "复制延迟 " + lagSeconds + " 秒");
+                            continue;
+                        }
+                    }
+                    if (!replica.available) {
+                        replica.available = true;
+                        log.info("只读副本加入读路由: {}", replica.name);
+                    }
+                } catch (SQLException e) {
+                    markUnavailable(replica, e.getMessage());
+                }
+            }
+            long expiredBefore = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(options.readYourWritesMillis);
+            lastWrites.values().removeIf(writtenAt -> writtenAt - expiredBefore < 0);
+        }
+
+        /**
+         * 查询复制延迟，优先读取 SHOW REPLICA STATUS 的延迟列，否则取第一列
+         */
+        private Long queryLagSeconds(Connection connection) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(options.lagQuery)) {
+                if (!rs.next()) {
+                    return null;
+                }
+                ResultSetMetaData metaData = rs.getMetaData();
+                int column = 1;
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    for (String lagColumn : LAG_COLUMNS) {
+                        if (lagColumn.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                            column = i;
+                        }
+                    }
+                }
+                long lag = rs.getLong(column);
+                return rs.wasNull() ? null : lag;
+            }
+        }
+
+        private void markUnavailable(Replica replica, String reason) {
+            if (replica.available) {
+                replica.available = false;
+                log.warn("只读副本暂停读路由: {}，原因: {}", replica.name, reason);
+            } else {
+                log.debug("只读副本不可用: {}，原因: {}", replica.name, reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.order.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 搜索分词工具
+ *
+ * 功能: 为内存倒排索引切分索引词元与查询词元，中日韩文字按 n-gram 切分
+ * 逻辑链: NFKC规范化并转小写 -> 按字符类别切分为 字母数字串 / 中日韩字符串
+ * -> 字母数字串整体作为一个词元，字母与数字交界处另拆出子词（iphone15 -> iphone15、iphone、15）
+ * -> 中日韩字符串索引单字与相邻二字，查询时长度大于1取二字、长度为1取单字
+ * 注意事项: 查询中的字母数字词元按前缀匹配，中日韩词元精确匹配（二字切分已等价于子串匹配）；
+ * 超过 MAX_TOKEN_LENGTH 的字母数字串截断
+ */
+public final class SearchTokenizer {
+
+    /**
+     * 字母数字词元最大长度
+     */
+    public static final int MAX_TOKEN_LENGTH = 32;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 切分索引词元（保留重复，用于统计词频）
+     *
+     * @param text 文本，可为null
+     * @return 词元列表
+     */
+    public static List<String> indexTokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (Run run : runs(text)) {
+            if (run.cjk) {
+                int[] chars = run.text.codePoints().toArray();
+                for (int i = 0; i < chars.length; i++) {
+                    tokens.add(new String(chars, i, 1));
+                    if (i + 1 < chars.length) {
+                        tokens.add(new String(chars, i, 2));
+                    }
+                }
+            } else {
+                tokens.add(run.text);
+                List<String> parts = letterDigitParts(run.text);
+                if (parts.size() > 1) {
+                    tokens.addAll(parts);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 切分查询词元（去重）
+     *
+     * @param text 查询文本，可为null
+     * @return 查询词元
+     */
+    public static List<QueryTerm> queryTerms(String text) {
+        Map<String, Boolean> terms = new LinkedHashMap<>();
+        for (Run run : runs(text)) {
+            if (!run.cjk) {
+                terms.put(run.text, true);
+                continue;
+            }
+            int[] chars = run.text.codePoints().toArray();
+            if (chars.length == 1) {
+                terms.putIfAbsent(run.text, false);
+            }
+            for (int i = 0; i + 1 < chars.length; i++) {
+                terms.putIfAbsent(new String(chars, i, 2), false);
+            }
+        }
+        List<QueryTerm> result = new ArrayList<>(terms.size());
+        terms.forEach((term, prefix) -> result.add(new QueryTerm(term, prefix)));
+        return result;
+    }
+
+    private static List<Run> runs(String text) {
+        List<Run> runs = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return runs;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder current = new StringBuilder();
+        boolean currentCjk = false;
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            boolean cjk = isCjk(codePoint);
+            if (!cjk && !Character.isLetterOrDigit(codePoint)) {
+                flush(runs, current, currentCjk);
+                continue;
+            }
+            if (current.length() > 0 && cjk != currentCjk) {
+                flush(runs, current, currentCjk);
+            }
+            currentCjk = cjk;
+            current.appendCodePoint(codePoint);
+        }
+        flush(runs, current, currentCjk);
+        return runs;
+    }
+
+    private static void flush(List<Run> runs, StringBuilder current, boolean cjk) {
+        if (current.length() == 0) {
+            return;
+        }
+        String text = current.toString();
+        if (!cjk && text.length() > MAX_TOKEN_LENGTH) {
+            text = text.substring(0, MAX_TOKEN_LENGTH);
+        }
+        runs.add(new Run(text, cjk));
+        current.setLength(0);
+    }
+
+    private static List<String> letterDigitParts(String word) {
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i < word.length(); i++) {
+            if (Character.isDigit(word.charAt(i)) != Character.isDigit(word.charAt(i - 1))) {
+                parts.add(word.substring(start, i));
+                start = i;
+            }
+        }
+        parts.add(word.substring(start));
+        return parts;
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * 查询词元
+     */
+    public static final class QueryTerm {
+
+        private final String text;
+        private final boolean prefix;
+
+        QueryTerm(String text, boolean prefix) {
+            this.text = text;
+            this.prefix = prefix;
+        }
+
+        /**
+         * @return 词元文本
+         */
+        public String getText() {
+            return text;
+        }
+
+        /**
+         * @return 是否按前缀匹配
+         */
+        public boolean isPrefix() {
+            return prefix;
+        }
+    }
+
+    private static final class Run {
+
+        private final String text;
+        private final boolean cjk;
+
+        private Run(String text, boolean cjk) {
+            this.text = text;
+            this.cjk = cjk;
+        }
+    }
+}
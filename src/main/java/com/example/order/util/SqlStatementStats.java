@@ -0,0 +1,93 @@
+package com.example.order.util;
+
+/**
+ * 请求级SQL统计
+ *
+ * 功能: 记录当前线程（一次HTTP请求）执行的JDBC语句数、JDBC耗时和Hibernate生成的语句数
+ * 逻辑链: 请求过滤器 start() -> 数据源代理/StatementInspector 累加 -> 过滤器读取并 stop()
+ * 注意事项: 只统计请求线程，异步线程（库存流水写入、流式导出）中的SQL不计入；
+ * 未 start() 的线程上记录调用直接忽略
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statementCount;
+    private long jdbcNanos;
+    private int hibernateStatementCount;
+
+    private SqlStatementStats() {
+    }
+
+    /**
+     * 在当前线程开始统计
+     *
+     * @return 统计对象
+     */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * 结束当前线程的统计
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 记录一次JDBC语句执行
+     *
+     * @param nanos 执行耗时（纳秒）
+     */
+    public static void recordExecution(long nanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statementCount++;
+            stats.jdbcNanos += nanos;
+        }
+    }
+
+    /**
+     * 记录一条Hibernate生成的语句
+     */
+    public static void recordHibernateStatement() {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.hibernateStatementCount++;
+        }
+    }
+
+    /**
+     * 获取JDBC语句执行次数（批量执行计一次）
+     *
+     * @return 执行次数
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * 获取JDBC语句累计执行耗时（毫秒）
+     *
+     * @return 耗时
+     */
+    public long getJdbcTimeMillis() {
+        return jdbcNanos / 1_000_000;
+    }
+
+    /**
+     * 获取Hibernate生成（准备）的语句数
+     *
+     * @return 语句数
+     */
+    public int getHibernateStatementCount() {
+        return hibernateStatementCount;
+    }
+}
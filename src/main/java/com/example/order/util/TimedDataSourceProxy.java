@@ -0,0 +1,179 @@
+package com.example.order.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JDBC计时数据源代理
+ *
+ * 功能: 统计每条语句的执行耗时并累加到 SqlStatementStats，超过阈值的语句连同绑定参数记录WARN日志
+ * 逻辑链: DataSource.getConnection -> Connection 代理 -> Statement/PreparedStatement 代理 -> execute* 计时
+ * 注意事项: 只计 execute* 调用本身的耗时，不含遍历 ResultSet 的时间；批量执行（executeBatch）计一次；
+ * 绑定参数仅在启用慢SQL日志时记录，过长的参数值会被截断
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+@Slf4j
+public final class TimedDataSourceProxy {
+
+    private static final int MAX_BIND_VALUE_LENGTH = 100;
+
+    private TimedDataSourceProxy() {
+    }
+
+    /**
+     * 包装数据源
+     *
+     * @param target 原数据源
+     * @param slowQueryThresholdMillis 慢SQL阈值（毫秒），小于等于0时不记录慢SQL
+     * @return 代理数据源
+     */
+    public static DataSource wrap(DataSource target, long slowQueryThresholdMillis) {
+        long thresholdNanos = slowQueryThresholdMillis > 0 ? slowQueryThresholdMillis * 1_000_000 : -1;
+        return (DataSource) Proxy.newProxyInstance(TimedDataSourceProxy.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                    Object result = invoke(proxy, target, method, args);
+                    return result instanceof Connection
+                            ? proxy(Connection.class, new ConnectionHandler((Connection) result, thresholdNanos))
+                            : result;
+                });
+    }
+
+    private static Object invoke(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        // 代理对象按自身身份比较，事务同步以数据源/连接为键查找资源
+        if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TimedDataSourceProxy.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * 连接代理：包装创建的语句
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final long thresholdNanos;
+
+        private ConnectionHandler(Connection target, long thresholdNanos) {
+            this.target = target;
+            this.thresholdNanos = thresholdNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TimedDataSourceProxy.invoke(proxy, target, method, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return proxy(method.getReturnType(), new StatementHandler((Statement) result, sql, thresholdNanos));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 语句代理：execute* 计时，记录绑定参数
+     */
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final long thresholdNanos;
+        private final Map<Integer, Object> binds;
+        private int batchSize;
+
+        private StatementHandler(Statement target, String preparedSql, long thresholdNanos) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.thresholdNanos = thresholdNanos;
+            this.binds = thresholdNanos > 0 && preparedSql != null ? new TreeMap<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                recordBind(name, args);
+                return TimedDataSourceProxy.invoke(proxy, target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return TimedDataSourceProxy.invoke(proxy, target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                SqlStatementStats.recordExecution(elapsed);
+                if (thresholdNanos > 0 && elapsed >= thresholdNanos) {
+                    logSlowQuery(name, args, elapsed);
+                }
+                if ("executeBatch".equals(name)) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private void recordBind(String name, Object[] args) {
+            if ("addBatch".equals(name)) {
+                batchSize++;
+            } else if ("clearBatch".equals(name)) {
+                batchSize = 0;
+            }
+            if (binds == null) {
+                return;
+            }
+            if ("clearParameters".equals(name)) {
+                binds.clear();
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                binds.put((Integer) args[0], "setNull".equals(name) ? "NULL" : describe(args[1]));
+            }
+        }
+
+        private void logSlowQuery(String method, Object[] args, long elapsedNanos) {
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 ? String.valueOf(args[0]) : "";
+            long millis = elapsedNanos / 1_000_000;
+            if ("executeBatch".equals(method)) {
+                log.warn("慢SQL {} ms（批量 {} 条，最后一组参数 {}）: {}", millis, batchSize, binds, sql);
+            } else {
+                log.warn("慢SQL {} ms（参数 {}）: {}", millis, binds, sql);
+            }
+        }
+
+        private static Object describe(Object value) {
+            if (value == null || value instanceof Number || value instanceof Boolean) {
+                return value;
+            }
+            if (value instanceof CharSequence || value instanceof Date
+                    || value instanceof Temporal) {
+                String text = value.toString();
+                return "'" + (text.length() > MAX_BIND_VALUE_LENGTH
+                        ? text.substring(0, MAX_BIND_VALUE_LENGTH) + "..." : text) + "'";
+            }
+            return "<" + value.getClass().getSimpleName() + ">";
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.order.util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * 已验证的JWT声明
+ * 功能: 保存一次签名验证后得到的令牌信息，供同一请求内重复读取
+ * 逻辑链: JwtUtil.verify 解析并验签 -> 复制所需声明 -> 调用方直接读取，不再重复解析
+ * 注意事项: 不可变对象，可跨线程共享；只能由 JwtUtil 创建，持有即表示签名已验证
+ */
+public final class VerifiedClaims {
+
+    private final String username;
+    private final Date issuedAt;
+    private final Date expiration;
+
+    VerifiedClaims(Claims claims) {
+        this.username = claims.getSubject();
+        this.issuedAt = copy(claims.getIssuedAt());
+        this.expiration = copy(claims.getExpiration());
+    }
+
+    /**
+     * 获取用户名（subject）
+     * @return 用户名
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * 获取签发时间
+     * @return 签发时间，未设置时为null
+     */
+    public Date getIssuedAt() {
+        return copy(issuedAt);
+    }
+
+    /**
+     * 获取过期时间
+     * @return 过期时间，未设置时为null
+     */
+    public Date getExpiration() {
+        return copy(expiration);
+    }
+
+    /**
+     * 检查令牌是否已过期
+     * @return 是否过期
+     */
+    public boolean isExpired() {
+        return expiration != null && expiration.getTime() < System.currentTimeMillis();
+    }
+
+    /**
+     * 获取令牌剩余有效时间（毫秒）
+     * @return 剩余时间（毫秒），未设置过期时间时为 Long.MAX_VALUE
+     */
+    public long getRemainingTime() {
+        if (expiration == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, expiration.getTime() - System.currentTimeMillis());
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.order.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * JMH基准启动器
+ *
+ * 功能: 在JUnit测试中运行单个基准类，并以JSON格式输出结果
+ * 逻辑链: 按类名匹配基准方法 -> 结果写入 ${jmh.result.dir}/{类名}.json -> 不同版本的结果文件可直接对比
+ * 注意事项: 预热、测量轮数和fork数以基准类上的注解为准；结果目录默认为 target/jmh-results
+ *
+ * @author Order Management Team
+ * @version 0.1.0
+ * @since 2024-01-01
+ */
+public final class JmhRunner {
+
+    private static final String RESULT_DIR = System.getProperty("jmh.result.dir", "target/jmh-results");
+
+    private JmhRunner() {
+    }
+
+    /**
+     * 运行基准类中的全部基准方法
+     *
+     * @param benchmarkClass 基准类
+     * @throws RunnerException 基准运行失败
+     */
+    public static void run(Class<?> benchmarkClass) throws RunnerException {
+        File resultDir = new File(RESULT_DIR);
+        if (!resultDir.isDirectory() && !resultDir.mkdirs()) {
+            throw new IllegalStateException("无法创建基准结果目录: " + resultDir.getAbsolutePath());
+        }
+        new Runner(new OptionsBuilder()
+                .include("^" + benchmarkClass.getName().replace(".", "\\.") + "\\.")
+                .resultFormat(ResultFormatType.JSON)
+                .result(new File(resultDir, benchmarkClass.getSimpleName() + ".json").getAbsolutePath())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.order.config;
+
+import com.example.order.entity.Customer;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.util.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写分离配置测试
+ *
+ * 以两个H2内存库分别充当主库与只读副本（副本只复制表结构、不复制数据），
+ * 验证只读事务路由到副本、读己之写、副本延迟超限或复制停止时回退主库
+ */
+@DataJpaTest(properties = {
+        "app.read-replicas.enabled=true",
+        "app.read-replicas.lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.read-replicas.replicas[0].name=replica-1",
+        "app.read-replicas.replicas[0].url=" + ReadReplicaConfigTest.REPLICA_URL,
+        "app.read-replicas.replicas[0].username=sa"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ReadReplicaConfig.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaConfigTest {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:order_replica;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("DROP ALL OBJECTS");
+        JdbcTemplate primary = new JdbcTemplate(dataSource);
+        for (String statement : primary.queryForList("SCRIPT NODATA TABLE customers", String.class)) {
+            if (!statement.startsWith("--")) {
+                replica.execute(statement);
+            }
+        }
+        replica.execute("CREATE TABLE replica_lag (lag_seconds BIGINT)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        routing.checkReplicas();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testReadOnlyTransaction_RoutedToReplica() {
+        // Given 写入只落在主库
+        Customer saved = customerRepository.save(newCustomer("CUST-RR-1", "读写分离客户"));
+        double replicaReads = routingCount("replica-1", "replica");
+
+        // When / Then 只读事务读副本，读写事务读主库
+        assertEquals(Collections.singletonList("replica-1"), routing.getAvailableReplicas());
+        assertFalse(customerRepository.findById(saved.getId()).isPresent());
+        assertEquals(0, customerRepository.count());
+        Boolean foundInWriteTransaction = new TransactionTemplate(transactionManager).execute(
+                status -> customerRepository.findById(saved.getId()).isPresent());
+        assertEquals(Boolean.TRUE, foundInWriteTransaction);
+        assertEquals(replicaReads + 2, routingCount("replica-1", "replica"));
+    }
+
+    @Test
+    void testReadYourWrites_OnlyForWritingUser() {
+        // Given
+        authenticate("alice");
+        Customer saved = customerRepository.save(newCustomer("CUST-RR-2", "读写分离客户"));
+
+        // When / Then 写入者在窗口内读主库，其他用户仍读副本
+        assertTrue(customerRepository.findById(saved.getId()).isPresent());
+        authenticate("bob");
+        assertFalse(customerRepository.findById(saved.getId()).isPresent());
+    }
+
+    @Test
+    void testLaggingOrStoppedReplica_FallsBackToPrimary() {
+        // Given
+        Customer saved = customerRepository.save(newCustomer("CUST-RR-3", "读写分离客户"));
+
+        // When 延迟超过 max-lag-ms（默认5秒）
+        replica.update("UPDATE replica_lag SET lag_seconds = 10");
+        routing.checkReplicas();
+
+        // Then
+        assertTrue(routing.getAvailableReplicas().isEmpty());
+        assertTrue(customerRepository.findById(saved.getId()).isPresent());
+
+        // When 延迟恢复
+        replica.update("UPDATE replica_lag SET lag_seconds = 1");
+        routing.checkReplicas();
+
+        // Then
+        assertFalse(customerRepository.findById(saved.getId()).isPresent());
+
+        // When 复制停止（延迟为NULL）
+        replica.update("UPDATE replica_lag SET lag_seconds = NULL");
+        routing.checkReplicas();
+
+        // Then
+        assertTrue(customerRepository.findById(saved.getId()).isPresent());
+    }
+
+    private double routingCount(String target, String reason) {
+        return meterRegistry.get(ReadWriteRoutingDataSource.ROUTING_METRIC)
+                .tags("target", target, "reason", reason).counter().count();
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.NO_AUTHORITIES));
+    }
+}
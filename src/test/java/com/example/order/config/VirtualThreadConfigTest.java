@@ -0,0 +1,43 @@
+package com.example.order.config;
+
+import com.example.order.util.VirtualThreads;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 虚拟线程配置测试
+ *
+ * 验证默认不启用；开启后在JDK 21+上异步任务运行在虚拟线程，在不支持的JDK上启动失败
+ */
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    void testDisabledByDefault() {
+        contextRunner.run(context -> assertFalse(context.containsBean("virtualThreadRequestExecutor")));
+    }
+
+    @Test
+    void testEnabled() {
+        contextRunner.withPropertyValues("app.virtual-threads.enabled=true").run(context -> {
+            if (!VirtualThreads.isSupported()) {
+                assertNotNull(context.getStartupFailure());
+                return;
+            }
+            AsyncTaskExecutor executor = context.getBean("applicationTaskExecutor", AsyncTaskExecutor.class);
+            CompletableFuture<String> threadName = new CompletableFuture<>();
+            executor.execute(() -> threadName.complete(Thread.currentThread().getName()));
+            assertTrue(threadName.get(5, TimeUnit.SECONDS).startsWith("task-vt-"));
+            assertNotNull(context.getBean(ThreadPoolTaskScheduler.class));
+        });
+    }
+}
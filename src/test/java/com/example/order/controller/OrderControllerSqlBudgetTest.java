@@ -0,0 +1,163 @@
+package com.example.order.controller;
+
+import com.example.order.config.SqlInstrumentationConfig;
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Product;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.ProductRepository;
+import com.example.order.service.OrderDataCleaner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 订单接口SQL语句预算测试
+ *
+ * 开启请求级SQL统计，通过 X-SQL-Count 响应头断言各接口执行的JDBC语句数不超过预算，
+ * 防止 N+1 查询等回退
+ */
+@SpringBootTest(properties = {
+        "app.sql-instrumentation.enabled=true",
+        "app.sql-instrumentation.response-headers=true"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "USER")
+@Import(OrderDataCleaner.class)
+class OrderControllerSqlBudgetTest {
+
+    private static final int ITEM_COUNT = 10;
+
+    /**
+     * 创建订单：订单编号校验、批量加载产品、逐个条件扣减库存、订单插入、
+     * 订单项批量插入、批量读取变动后库存、日统计累加，
+     * 另加号段用完时为订单和订单项各申请一次主键号段（读取并累加 sequence_blocks）
+     */
+    private static final int CREATE_ORDER_BUDGET = ITEM_COUNT + 10;
+
+    /**
+     * 查询订单详情：订单与订单项
+     */
+    private static final int GET_ORDER_BUDGET = 2;
+
+    /**
+     * 按状态分页查询订单摘要：数据查询与计数查询
+     */
+    private static final int ORDERS_BY_STATUS_BUDGET = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Customer customer;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(newCustomer("CUST-SQL", "预算客户"));
+
+        products = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            products.add(productRepository.save(newProduct("SQL-" + i, "预算产品" + i, "10.00", 100)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDataCleaner.deleteAll();
+    }
+
+    @Test
+    void testCreateOrder_WithinStatementBudget() throws Exception {
+        // When
+        MvcResult result = createOrder("SQL-001");
+
+        // Then
+        assertWithinBudget(result, CREATE_ORDER_BUDGET);
+        assertNotNull(result.getResponse().getHeader(SqlInstrumentationConfig.JDBC_TIME_HEADER));
+        assertNotNull(result.getResponse().getHeader(SqlInstrumentationConfig.HIBERNATE_STATEMENTS_HEADER));
+    }
+
+    @Test
+    void testGetOrderById_WithinStatementBudget() throws Exception {
+        // Given
+        Long orderId = objectMapper.readValue(createOrder("SQL-002").getResponse().getContentAsString(),
+                OrderDTO.class).getId();
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/orders/" + orderId))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertWithinBudget(result, GET_ORDER_BUDGET);
+    }
+
+    @Test
+    void testGetOrdersByStatus_WithinStatementBudget() throws Exception {
+        // Given
+        createOrder("SQL-003");
+        createOrder("SQL-004");
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/v1/orders/status/PENDING").param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertWithinBudget(result, ORDERS_BY_STATUS_BUDGET);
+    }
+
+    private MvcResult createOrder(String orderNumber) throws Exception {
+        OrderDTO order = newOrderDTO(customer.getId(), orderNumber);
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (Product product : products) {
+            items.add(newItem(product, 1));
+        }
+        order.setItems(items);
+        return mockMvc.perform(post("/api/v1/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(order)))
+                .andExpect(status().isCreated())
+                .andReturn();
+    }
+
+    private static void assertWithinBudget(MvcResult result, int budget) {
+        String header = result.getResponse().getHeader(SqlInstrumentationConfig.STATEMENT_COUNT_HEADER);
+        assertNotNull(header, "缺少 " + SqlInstrumentationConfig.STATEMENT_COUNT_HEADER + " 响应头");
+        int statements = Integer.parseInt(header);
+        assertTrue(statements > 0, "未统计到SQL语句");
+        assertTrue(statements <= budget, String.format("%s %s 执行了 %d 条SQL语句，超出预算 %d",
+                result.getRequest().getMethod(), result.getRequest().getRequestURI(), statements, budget));
+    }
+}
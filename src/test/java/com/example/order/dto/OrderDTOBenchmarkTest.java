@@ -0,0 +1,75 @@
+package com.example.order.dto;
+
+import com.example.order.benchmark.JmhRunner;
+import com.example.order.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单DTO转换基准
+ *
+ * 测量列表、详情接口每条订单都会执行的 OrderDTO.fromEntity 与写入时的 toEntity
+ * 默认跳过，运行方式: mvn test -Pbenchmark -Dtest=OrderDTOBenchmarkTest
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDTOBenchmarkTest {
+
+    private Order order;
+    private OrderDTO dto;
+
+    @Setup
+    public void setUp() {
+        order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD20240101001");
+        order.setCustomerId(1L);
+        order.setOrderDate(LocalDate.of(2024, 1, 1));
+        order.setStatus(Order.OrderStatus.CONFIRMED);
+        order.setTotalAmount(new BigDecimal("11998.00"));
+        order.setDiscountAmount(new BigDecimal("100.00"));
+        order.setTaxAmount(new BigDecimal("50.00"));
+        order.setFinalAmount(new BigDecimal("11948.00"));
+        order.setPaymentStatus(Order.PaymentStatus.PAID);
+        order.setPaymentMethod("ALIPAY");
+        order.setNotes("基准订单");
+        order.setCreatedAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        order.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 11, 0));
+        dto = OrderDTO.fromEntity(order);
+    }
+
+    @Benchmark
+    public OrderDTO fromEntity() {
+        return OrderDTO.fromEntity(order);
+    }
+
+    @Benchmark
+    public Order toEntity() {
+        return dto.toEntity();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        JmhRunner.run(OrderDTOBenchmarkTest.class);
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.order.loadtest;
+
+import com.example.order.util.VirtualThreads;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 固定到达速率的压测负载生成器
+ *
+ * 按设定速率计划每个请求的发出时刻，按权重随机选择操作并提交到工作线程池执行（开放模型）；
+ * 延迟从计划发出时刻开始计算，服务端变慢导致的排队时间计入延迟，避免协调遗漏（coordinated omission）；
+ * 预热期内的请求照常发出但不计入统计
+ */
+final class LoadGenerator {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+    private boolean virtualThreads;
+
+    /**
+     * 压测操作，返回HTTP状态码
+     */
+    interface Call {
+
+        int execute() throws Exception;
+    }
+
+    /**
+     * 添加操作
+     *
+     * @param name 统计名称（通常为 方法 + 路径）
+     * @param weight 权重
+     * @param call 操作
+     * @return 当前负载生成器
+     */
+    LoadGenerator operation(String name, int weight, Call call) {
+        if (weight > 0) {
+            operations.add(new Operation(name, weight, call));
+            totalWeight += weight;
+        }
+        return this;
+    }
+
+    /**
+     * 工作线程使用虚拟线程（需JDK 21+）
+     *
+     * 注意事项: 工作线程数仍固定为 threads，每个线程持有一条长连接；
+     * 数千并发连接时避免压测端平台线程本身成为瓶颈
+     *
+     * @param enabled 是否使用虚拟线程
+     * @return 当前负载生成器
+     */
+    LoadGenerator virtualThreads(boolean enabled) {
+        this.virtualThreads = enabled;
+        return this;
+    }
+
+    /**
+     * 执行压测
+     *
+     * @param ratePerSecond 每秒发出的请求数
+     * @param warmupSeconds 预热时长（秒）
+     * @param durationSeconds 统计时长（秒）
+     * @param threads 工作线程数（同时在途请求上限）
+     * @return 压测报告
+     */
+    Report run(double ratePerSecond, int warmupSeconds, int durationSeconds, int threads) throws InterruptedException {
+        if (operations.isEmpty()) {
+            throw new IllegalStateException("没有可执行的压测操作");
+        }
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (Operation operation : operations) {
+            stats.put(operation.name, new EndpointStats());
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, virtualThreads
+                ? VirtualThreads.threadFactory("load-worker-")
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "load-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick();
+            EndpointStats endpoint = intended >= measureStart ? stats.get(operation.name) : null;
+            workers.execute(() -> execute(operation, endpoint, intended));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(5, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+            throw new IllegalStateException("压测请求未能在5分钟内完成");
+        }
+
+        Map<String, EndpointResult> results = new LinkedHashMap<>();
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            results.put(entry.getKey(), entry.getValue().result(durationSeconds));
+        }
+        return new Report(ratePerSecond, durationSeconds, results);
+    }
+
+    private Operation pick() {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            value -= operation.weight;
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static void execute(Operation operation, EndpointStats endpoint, long intended) {
+        String error = null;
+        try {
+            int status = operation.call.execute();
+            if (status < 200 || status >= 300) {
+                error = "HTTP " + status;
+            }
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName();
+        }
+        if (endpoint != null) {
+            endpoint.record(Math.min(System.nanoTime() - intended, MAX_LATENCY_NANOS), error);
+        }
+    }
+
+    private static final class Operation {
+
+        private final String name;
+        private final int weight;
+        private final Call call;
+
+        private Operation(String name, int weight, Call call) {
+            this.name = name;
+            this.weight = weight;
+            this.call = call;
+        }
+    }
+
+    private static final class EndpointStats {
+
+        private final Recorder recorder = new Recorder(MAX_LATENCY_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> errorsByType = new ConcurrentHashMap<>();
+
+        private void record(long latencyNanos, String error) {
+            recorder.recordValue(latencyNanos);
+            if (error != null) {
+                errors.increment();
+                errorsByType.computeIfAbsent(error, key -> new LongAdder()).increment();
+            }
+        }
+
+        private EndpointResult result(int durationSeconds) {
+            Histogram histogram = recorder.getIntervalHistogram();
+            Map<String, Long> errorTypes = new LinkedHashMap<>();
+            errorsByType.forEach((type, count) -> errorTypes.put(type, count.sum()));
+            return new EndpointResult(histogram.getTotalCount(), errors.sum(), errorTypes,
+                    (double) histogram.getTotalCount() / durationSeconds,
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMaxValue());
+        }
+    }
+
+    /**
+     * 单个操作的统计结果（延迟单位纳秒）
+     */
+    static final class EndpointResult {
+
+        final long count;
+        final long errors;
+        final Map<String, Long> errorTypes;
+        final double throughput;
+        final long p50;
+        final long p99;
+        final long p999;
+        final long max;
+
+        private EndpointResult(long count, long errors, Map<String, Long> errorTypes, double throughput,
+                               long p50, long p99, long p999, long max) {
+            this.count = count;
+            this.errors = errors;
+            this.errorTypes = Collections.unmodifiableMap(errorTypes);
+            this.throughput = throughput;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+    }
+
+    /**
+     * 压测报告
+     */
+    static final class Report {
+
+        final double ratePerSecond;
+        final int durationSeconds;
+        final Map<String, EndpointResult> endpoints;
+
+        private Report(double ratePerSecond, int durationSeconds, Map<String, EndpointResult> endpoints) {
+            this.ratePerSecond = ratePerSecond;
+            this.durationSeconds = durationSeconds;
+            this.endpoints = Collections.unmodifiableMap(endpoints);
+        }
+
+        long totalErrors() {
+            return endpoints.values().stream().mapToLong(result -> result.errors).sum();
+        }
+
+        /**
+         * 格式化为文本表格
+         *
+         * @return 报告文本
+         */
+        String format() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format(Locale.ROOT, "目标速率: %.1f req/s, 统计时长: %d s%n",
+                    ratePerSecond, durationSeconds));
+            text.append(String.format(Locale.ROOT, "%-45s %8s %7s %10s %9s %9s %9s %9s%n",
+                    "endpoint", "count", "errors", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)"));
+            long count = 0;
+            double throughput = 0;
+            for (Map.Entry<String, EndpointResult> entry : endpoints.entrySet()) {
+                EndpointResult r = entry.getValue();
+                text.append(String.format(Locale.ROOT, "%-45s %8d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        entry.getKey(), r.count, r.errors, r.throughput,
+                        millis(r.p50), millis(r.p99), millis(r.p999), millis(r.max)));
+                count += r.count;
+                throughput += r.throughput;
+            }
+            text.append(String.format(Locale.ROOT, "%-45s %8d %7d %10.1f%n",
+                    "TOTAL", count, totalErrors(), throughput));
+            endpoints.forEach((name, r) -> r.errorTypes.forEach((type, n) ->
+                    text.append(String.format(Locale.ROOT, "  %s -> %s x %d%n", name, type, n))));
+            return text.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.order.loadtest;
+
+import com.example.order.entity.Order;
+import com.example.order.entity.User;
+import com.example.order.repository.UserRepository;
+import com.example.order.service.IdSequenceInitializer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 压测数据初始化
+ *
+ * 用户通过仓库保存（密码需BCrypt编码）；客户、产品、订单及订单项按数量用 INSERT ... SELECT FROM SYSTEM_RANGE
+ * 在H2中批量生成，数据量较大时也只需几次SQL。订单状态按 待确认/已确认/处理中/已发货/已送达 轮流分布。
+ * 订单和订单项主键由号段表分配，批量生成时显式指定主键，写入后同步主键序列
+ */
+final class LoadTestDataSeeder {
+
+    static final String PASSWORD = "loadtest123";
+    static final long INITIAL_STOCK = 1_000_000L;
+
+    /**
+     * 1..? 的数字序列，列名为 n（测试库开启了 DATABASE_TO_LOWER，SYSTEM_RANGE 的列名需加引号引用）
+     */
+    private static final String NUMBERS = "(SELECT \"X\" AS n FROM SYSTEM_RANGE(1, ?)) r";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final IdSequenceInitializer idSequenceInitializer;
+
+    LoadTestDataSeeder(JdbcTemplate jdbcTemplate, UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       IdSequenceInitializer idSequenceInitializer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.idSequenceInitializer = idSequenceInitializer;
+    }
+
+    /**
+     * 初始化压测数据
+     *
+     * @param users 用户数
+     * @param customers 客户数
+     * @param products 产品数
+     * @param orders 订单数
+     * @return 初始化结果
+     */
+    SeededData seed(int users, int customers, int products, int orders) {
+        List<String> usernames = new ArrayList<>(users);
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        for (int i = 1; i <= users; i++) {
+            User user = new User();
+            user.setUsername("loaduser" + i);
+            user.setEmail("loaduser" + i + "@loadtest.local");
+            user.setPassword(encodedPassword);
+            user.setFullName("压测用户" + i);
+            user.setRole(User.UserRole.USER);
+            userRepository.save(user);
+            usernames.add(user.getUsername());
+        }
+
+        jdbcTemplate.update("INSERT INTO customers (customer_code, name, email, status, credit_limit, "
+                + "created_at, updated_at) SELECT CONCAT('LC', n), CONCAT('压测客户', n), "
+                + "CONCAT('lc', n, '@loadtest.local'), 'ACTIVE', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+                + "FROM " + NUMBERS, customers);
+        jdbcTemplate.update("INSERT INTO products (product_code, name, category, unit_price, cost_price, "
+                + "stock_quantity, min_stock, unit, status, created_at, updated_at) "
+                + "SELECT CONCAT('LP', n), CONCAT('压测产品', n), CONCAT('分类', MOD(n, 10)), "
+                + "10 + MOD(n, 90), 5, ?, 10, '个', 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+                + "FROM " + NUMBERS, INITIAL_STOCK, products);
+
+        long firstCustomerId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM customers WHERE customer_code LIKE 'LC%'", Long.class);
+        long firstProductId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM products WHERE product_code LIKE 'LP%'", Long.class);
+
+        if (orders > 0) {
+            jdbcTemplate.update("INSERT INTO orders (id, order_number, customer_id, order_date, status, total_amount, "
+                    + "discount_amount, tax_amount, final_amount, currency, payment_status, created_at, updated_at) "
+                    + "SELECT (SELECT COALESCE(MAX(id), 0) FROM orders) + n, CONCAT('LS', n), ? + MOD(n, ?), DATEADD('DAY', -MOD(n, 90), CURRENT_DATE), "
+                    + "CASE MOD(n, 5) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'CONFIRMED' WHEN 2 THEN 'PROCESSING' "
+                    + "WHEN 3 THEN 'SHIPPED' ELSE 'DELIVERED' END, 10 + MOD(n, 90), 0, 0, 10 + MOD(n, 90), 'CNY', "
+                    + "CASE MOD(n, 5) WHEN 0 THEN 'UNPAID' ELSE 'PAID' END, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+                    + "FROM " + NUMBERS, firstCustomerId, customers, orders);
+            jdbcTemplate.update("INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, discount_rate, "
+                    + "discount_amount, subtotal, stock_deducted, created_at, updated_at) "
+                    + "SELECT (SELECT COALESCE(MAX(id), 0) FROM order_items) + o.id, o.id, ? + MOD(o.id, ?), 1, o.total_amount, 0, 0, o.total_amount, TRUE, "
+                    + "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM orders o WHERE o.order_number LIKE 'LS%'",
+                    firstProductId, products);
+            idSequenceInitializer.synchronize();
+        }
+
+        List<OpenOrder> openOrders = jdbcTemplate.query(
+                "SELECT id, status FROM orders WHERE order_number LIKE 'LS%' AND status <> 'DELIVERED'",
+                (rs, rowNum) -> new OpenOrder(rs.getLong("id"), Order.OrderStatus.valueOf(rs.getString("status"))));
+        List<BigDecimal> prices = jdbcTemplate.queryForList(
+                "SELECT unit_price FROM products WHERE product_code LIKE 'LP%' ORDER BY id", BigDecimal.class);
+        return new SeededData(usernames, firstCustomerId, customers, firstProductId, prices, openOrders);
+    }
+
+    /**
+     * 初始化结果
+     */
+    static final class SeededData {
+
+        final List<String> usernames;
+        final long firstCustomerId;
+        final int customerCount;
+        final long firstProductId;
+        final List<BigDecimal> productPrices;
+        final List<OpenOrder> openOrders;
+
+        private SeededData(List<String> usernames, long firstCustomerId, int customerCount,
+                           long firstProductId, List<BigDecimal> productPrices, List<OpenOrder> openOrders) {
+            this.usernames = usernames;
+            this.firstCustomerId = firstCustomerId;
+            this.customerCount = customerCount;
+            this.firstProductId = firstProductId;
+            this.productPrices = productPrices;
+            this.openOrders = openOrders;
+        }
+    }
+
+    /**
+     * 未完结的订单，用于驱动状态流转
+     */
+    static final class OpenOrder {
+
+        final long id;
+        final Order.OrderStatus status;
+
+        OpenOrder(long id, Order.OrderStatus status) {
+            this.id = id;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.order.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 压测用HTTP/1.1客户端
+ *
+ * 每个压测线程持有一条长连接，服务端返回 Connection: close 或连接失效时重连；
+ * 支持 Content-Length 与 chunked 响应，以及 HttpURLConnection 不支持的 PATCH 方法
+ */
+final class LoadTestHttpClient {
+
+    private static final int TIMEOUT_MILLIS = 60_000;
+
+    private final String host;
+    private final int port;
+    private final String contextPath;
+    private final ThreadLocal<Connection> connections = new ThreadLocal<>();
+
+    LoadTestHttpClient(String host, int port, String contextPath) {
+        this.host = host;
+        this.port = port;
+        this.contextPath = contextPath;
+    }
+
+    /**
+     * 发送请求
+     *
+     * @param method 请求方法
+     * @param path 应用内路径（含查询参数，不含 context-path）
+     * @param token 访问令牌，可为null
+     * @param jsonBody JSON请求体，可为null
+     * @return 响应
+     */
+    Response send(String method, String path, String token, String jsonBody) throws IOException {
+        StringBuilder head = new StringBuilder(256)
+                .append(method).append(' ').append(contextPath).append(path).append(" HTTP/1.1\r\n")
+                .append("Host: ").append(host).append(':').append(port).append("\r\n")
+                .append("Accept: application/json\r\n");
+        if (token != null) {
+            head.append("Authorization: Bearer ").append(token).append("\r\n");
+        }
+        byte[] body = jsonBody == null ? new byte[0] : jsonBody.getBytes(StandardCharsets.UTF_8);
+        if (jsonBody != null) {
+            head.append("Content-Type: application/json\r\n");
+        }
+        head.append("Content-Length: ").append(body.length).append("\r\n\r\n");
+        byte[] request = head.toString().getBytes(StandardCharsets.US_ASCII);
+
+        Connection connection = connections.get();
+        if (connection != null) {
+            try {
+                return exchange(connection, request, body);
+            } catch (SocketTimeoutException e) {
+                // 请求可能已被处理，超时不重试
+                throw e;
+            } catch (IOException e) {
+                // 复用的连接可能已被服务端关闭，重连后重试一次
+                closeQuietly(connection);
+            }
+        }
+        return exchange(open(), request, body);
+    }
+
+    private Connection open() throws IOException {
+        Socket socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(TIMEOUT_MILLIS);
+        socket.connect(new InetSocketAddress(host, port), TIMEOUT_MILLIS);
+        Connection connection = new Connection(socket);
+        connections.set(connection);
+        return connection;
+    }
+
+    private Response exchange(Connection connection, byte[] request, byte[] body) throws IOException {
+        try {
+            connection.out.write(request);
+            connection.out.write(body);
+            connection.out.flush();
+            Response response = readResponse(connection.in);
+            if (response.close) {
+                closeQuietly(connection);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+    }
+
+    private Response readResponse(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        int status = Integer.parseInt(statusLine.substring(9, 12));
+        long contentLength = -1;
+        boolean chunked = false;
+        boolean close = false;
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if ("content-length".equals(name)) {
+                contentLength = Long.parseLong(value);
+            } else if ("transfer-encoding".equals(name)) {
+                chunked = value.toLowerCase(Locale.ROOT).contains("chunked");
+            } else if ("connection".equals(name)) {
+                close = "close".equalsIgnoreCase(value);
+            }
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        if (chunked) {
+            long size;
+            while ((size = Long.parseLong(stripExtensions(readLine(in)), 16)) > 0) {
+                copy(in, body, size);
+                readLine(in);
+            }
+            while (!readLine(in).isEmpty()) {
+                // 跳过trailer
+            }
+        } else if (contentLength > 0) {
+            copy(in, body, contentLength);
+        } else if (contentLength < 0 && status != 204 && status != 304) {
+            // 无长度信息时响应体以连接关闭结束
+            copy(in, body, Long.MAX_VALUE);
+            close = true;
+        }
+        return new Response(status, new String(body.toByteArray(), StandardCharsets.UTF_8), close);
+    }
+
+    private static String stripExtensions(String chunkHeader) {
+        int semicolon = chunkHeader.indexOf(';');
+        return (semicolon >= 0 ? chunkHeader.substring(0, semicolon) : chunkHeader).trim();
+    }
+
+    private static void copy(InputStream in, OutputStream out, long length) throws IOException {
+        byte[] buffer = new byte[8192];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read < 0) {
+                if (length == Long.MAX_VALUE) {
+                    return;
+                }
+                throw new EOFException("响应体不完整");
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException("连接已关闭");
+            }
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return line.toString();
+    }
+
+    private void closeQuietly(Connection connection) {
+        connections.remove();
+        try {
+            connection.socket.close();
+        } catch (IOException ignored) {
+            // 连接已不可用
+        }
+    }
+
+    /**
+     * HTTP响应
+     */
+    static final class Response {
+
+        final int status;
+        final String body;
+        private final boolean close;
+
+        private Response(int status, String body, boolean close) {
+            this.status = status;
+            this.body = body;
+            this.close = close;
+        }
+    }
+
+    private static final class Connection {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream(), 8192);
+            this.out = socket.getOutputStream();
+        }
+    }
+}
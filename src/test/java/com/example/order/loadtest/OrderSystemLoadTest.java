@@ -0,0 +1,235 @@
+package com.example.order.loadtest;
+
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Order;
+import com.example.order.repository.UserRepository;
+import com.example.order.service.IdSequenceInitializer;
+import com.example.order.service.OrderDailyStatsService;
+import com.example.order.service.OrderStatusCounters;
+import com.example.order.util.VirtualThreads;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 订单系统HTTP压测
+ *
+ * 以随机端口启动完整应用（H2内存库），按配置数量初始化用户、客户、产品和订单后，
+ * 以固定到达速率混合发起 登录、浏览产品、创建订单、订单状态流转、统计查询 请求，
+ * 输出各接口的请求数、错误数、吞吐量及 p50/p99/p999 延迟，报告同时写入 target/loadtest-results
+ *
+ * 默认跳过，运行方式: mvn test -Ploadtest
+ * 可通过 -Dloadtest.xxx 调整：users/customers/products/orders（初始数据量）、rate（每秒请求数）、
+ * warmup-seconds、duration-seconds、threads（并发连接数）、max-connections（Tomcat最大连接数）、
+ * client-virtual-threads（压测端使用虚拟线程，JDK 21+ 默认开启），以及 weight.login/browse-list/browse-detail/
+ * create/transition/stats-status/stats-amount（各操作权重）
+ * 服务端线程模式对比（同一JDK 21+，报告按模式分别写入 OrderSystemLoadTest-platform.txt / -virtual.txt）:
+ * mvn test -Ploadtest -Dloadtest.threads=10000 -Dloadtest.rate=5000
+ * mvn test -Ploadtest,virtual-threads -Dloadtest.threads=10000 -Dloadtest.rate=5000
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.com.example.order=WARN",
+                "server.tomcat.max-connections=${loadtest.max-connections:20000}",
+                "server.tomcat.accept-count=${loadtest.max-connections:20000}"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class OrderSystemLoadTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    @Value("${app.virtual-threads.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int tomcatMaxThreads;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private IdSequenceInitializer idSequenceInitializer;
+
+    @Autowired
+    private OrderDailyStatsService orderDailyStatsService;
+
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void runLoadTest() throws Exception {
+        // Given
+        int users = intProperty("users", 20);
+        int customers = intProperty("customers", 1000);
+        int products = intProperty("products", 500);
+        int orders = intProperty("orders", 10000);
+        LoadTestDataSeeder.SeededData data = new LoadTestDataSeeder(jdbcTemplate, userRepository, passwordEncoder,
+                idSequenceInitializer)
+                .seed(users, customers, products, orders);
+        orderDailyStatsService.rebuild();
+        orderStatusCounters.seed();
+
+        LoadTestHttpClient client = new LoadTestHttpClient("localhost", port, contextPath);
+        AtomicReferenceArray<String> tokens = new AtomicReferenceArray<>(data.usernames.size());
+        for (int i = 0; i < data.usernames.size(); i++) {
+            tokens.set(i, login(client, data.usernames.get(i)));
+        }
+        Queue<LoadTestDataSeeder.OpenOrder> openOrders = new ConcurrentLinkedQueue<>(data.openOrders);
+
+        int threads = intProperty("threads", 64);
+        boolean clientVirtualThreads = Boolean.parseBoolean(System.getProperty("loadtest.client-virtual-threads",
+                String.valueOf(VirtualThreads.isSupported())));
+        LoadGenerator generator = new LoadGenerator()
+                .virtualThreads(clientVirtualThreads)
+                .operation("POST /api/v1/auth/login", intProperty("weight.login", 5), () -> {
+                    int user = ThreadLocalRandom.current().nextInt(tokens.length());
+                    tokens.set(user, login(client, data.usernames.get(user)));
+                    return 200;
+                })
+                .operation("GET /api/v1/products/active", intProperty("weight.browse-list", 25), () ->
+                        client.send("GET", "/api/v1/products/active?size=" + PAGE_SIZE + "&page="
+                                + ThreadLocalRandom.current().nextInt(Math.max(1, products / PAGE_SIZE)),
+                                randomToken(tokens), null).status)
+                .operation("GET /api/v1/products/{id}", intProperty("weight.browse-detail", 15), () ->
+                        client.send("GET", "/api/v1/products/"
+                                + (data.firstProductId + ThreadLocalRandom.current().nextInt(products)),
+                                randomToken(tokens), null).status)
+                .operation("POST /api/v1/orders", intProperty("weight.create", 25), () ->
+                        createOrder(client, randomToken(tokens), data, openOrders))
+                .operation("PATCH /api/v1/orders/{id}/status", intProperty("weight.transition", 15), () ->
+                        advanceStatus(client, randomToken(tokens), openOrders))
+                .operation("GET /api/v1/orders/statistics/status", intProperty("weight.stats-status", 10), () ->
+                        client.send("GET", "/api/v1/orders/statistics/status", randomToken(tokens), null).status)
+                .operation("GET /api/v1/orders/statistics/amount", intProperty("weight.stats-amount", 5), () ->
+                        client.send("GET", "/api/v1/orders/statistics/amount?startDate="
+                                + LocalDate.now().minusDays(30) + "&endDate=" + LocalDate.now(),
+                                randomToken(tokens), null).status);
+
+        // When
+        LoadGenerator.Report report = generator.run(doubleProperty("rate", 50),
+                intProperty("warmup-seconds", 10), intProperty("duration-seconds", 30), threads);
+
+        // Then
+        String serverMode = virtualThreads ? "虚拟线程" : "平台线程（threads.max=" + tomcatMaxThreads + "）";
+        String text = String.format("初始数据: users=%d, customers=%d, products=%d, orders=%d%n",
+                users, customers, products, orders)
+                + String.format("服务端: %s, 并发连接: %d, 压测端: %s, JDK: %s%n", serverMode, threads,
+                clientVirtualThreads ? "虚拟线程" : "平台线程", System.getProperty("java.version"))
+                + report.format();
+        System.out.println(text);
+        Path resultDir = Paths.get(System.getProperty("loadtest.result.dir", "target/loadtest-results"));
+        Files.createDirectories(resultDir);
+        Files.write(resultDir.resolve(OrderSystemLoadTest.class.getSimpleName()
+                        + (virtualThreads ? "-virtual" : "-platform") + ".txt"),
+                text.getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, report.totalErrors(), text);
+    }
+
+    private String login(LoadTestHttpClient client, String username) throws Exception {
+        Map<String, String> request = new HashMap<>();
+        request.put("username", username);
+        request.put("password", LoadTestDataSeeder.PASSWORD);
+        LoadTestHttpClient.Response response = client.send("POST", "/api/v1/auth/login", null,
+                objectMapper.writeValueAsString(request));
+        if (response.status != 200) {
+            throw new IllegalStateException("登录失败: HTTP " + response.status);
+        }
+        return objectMapper.readTree(response.body).get("accessToken").asText();
+    }
+
+    private int createOrder(LoadTestHttpClient client, String token, LoadTestDataSeeder.SeededData data,
+                            Queue<LoadTestDataSeeder.OpenOrder> openOrders) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OrderDTO order = new OrderDTO();
+        order.setCustomerId(data.firstCustomerId + random.nextInt(data.customerCount));
+        order.setOrderDate(LocalDate.now());
+        List<OrderItemDTO> items = new ArrayList<>();
+        int itemCount = 1 + random.nextInt(3);
+        for (int i = 0; i < itemCount; i++) {
+            int product = random.nextInt(data.productPrices.size());
+            OrderItemDTO item = new OrderItemDTO();
+            item.setProductId(data.firstProductId + product);
+            item.setQuantity(1 + random.nextInt(3));
+            item.setUnitPrice(data.productPrices.get(product));
+            item.setDiscountRate(BigDecimal.ZERO);
+            items.add(item);
+        }
+        order.setItems(items);
+
+        LoadTestHttpClient.Response response = client.send("POST", "/api/v1/orders", token,
+                objectMapper.writeValueAsString(order));
+        if (response.status == 201) {
+            JsonNode created = objectMapper.readTree(response.body);
+            openOrders.add(new LoadTestDataSeeder.OpenOrder(created.get("id").asLong(), Order.OrderStatus.PENDING));
+        }
+        return response.status;
+    }
+
+    private int advanceStatus(LoadTestHttpClient client, String token,
+                              Queue<LoadTestDataSeeder.OpenOrder> openOrders) throws Exception {
+        LoadTestDataSeeder.OpenOrder order = openOrders.poll();
+        if (order == null) {
+            throw new IllegalStateException("没有可流转状态的订单");
+        }
+        Order.OrderStatus next = Order.OrderStatus.values()[order.status.ordinal() + 1];
+        LoadTestHttpClient.Response response = client.send("PATCH",
+                "/api/v1/orders/" + order.id + "/status?status=" + next.name(), token, null);
+        if (response.status == 200 && next != Order.OrderStatus.DELIVERED) {
+            openOrders.add(new LoadTestDataSeeder.OpenOrder(order.id, next));
+        }
+        return response.status;
+    }
+
+    private static String randomToken(AtomicReferenceArray<String> tokens) {
+        return tokens.get(ThreadLocalRandom.current().nextInt(tokens.length()));
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger("loadtest." + name, defaultValue);
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.order.security;
+
+import com.example.order.benchmark.JmhRunner;
+import com.example.order.util.JwtUtil;
+import com.example.order.util.VerifiedClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT认证CPU开销基准
+ *
+ * 对比每个请求的令牌处理开销：
+ * legacyPerRequest 复现原过滤器调用序列（4次解析验签，每次重建密钥与解析器），
+ * verifyOncePerRequest 为一次 verify + 基于已验证声明的校验；generateAccessToken 为登录时的令牌签发
+ * 默认跳过，运行方式: mvn test -Pbenchmark -Dtest=JwtAuthenticationBenchmarkTest
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmarkTest {
+
+    private static final String SECRET =
+            "benchmarkSecretKeyForJwtAuthentication2024-benchmarkSecretKeyForJwtAuthentication2024";
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86400000L);
+        jwtUtil.init();
+        userDetails = User.withUsername("benchmark").password("password").roles("USER").build();
+        token = jwtUtil.generateAccessToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean legacyPerRequest() {
+        // isValidTokenFormat
+        legacyParse(token);
+        // extractUsername
+        String username = legacyParse(token).getSubject();
+        // validateToken: extractUsername + isTokenExpired
+        boolean sameUser = legacyParse(token).getSubject().equals(userDetails.getUsername());
+        boolean expired = legacyParse(token).getExpiration().before(new Date());
+        return username != null && sameUser && !expired;
+    }
+
+    @Benchmark
+    public boolean verifyOncePerRequest() {
+        VerifiedClaims claims = jwtUtil.verify(token).orElseThrow(IllegalStateException::new);
+        return jwtUtil.validateToken(claims, userDetails);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtUtil.generateAccessToken(userDetails);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        JmhRunner.run(JwtAuthenticationBenchmarkTest.class);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
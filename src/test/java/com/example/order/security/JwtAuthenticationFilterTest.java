@@ -0,0 +1,147 @@
+package com.example.order.security;
+
+import com.example.order.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * JWT认证过滤器测试
+ *
+ * 验证令牌验签、认证主体缓存的命中、按签发时间区分与用户变更失效
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET =
+            "testSecretKeyForJwtAuthenticationFilterTest2024-testSecretKeyForJwtAuthenticationFilterTest2024";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private JwtUtil jwtUtil;
+    private MeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 86400000L);
+        jwtUtil.init();
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(60, 100, meterRegistry);
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, principalCache, meterRegistry);
+        userDetails = User.withUsername("testuser").password("password").roles("USER").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDoFilter_RepeatedRequests_LoadsUserOnce() throws Exception {
+        // Given
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        String token = jwtUtil.generateAccessToken(userDetails);
+
+        // When
+        assertTrue(authenticate(token));
+        assertTrue(authenticate(token));
+        assertTrue(authenticate(token));
+
+        // Then
+        verify(userDetailsService, times(1)).loadUserByUsername("testuser");
+        assertEquals(2.0 / 3, meterRegistry.get("security.principal.cache.hit.ratio").gauge().value(), 0.001);
+        assertEquals(3, meterRegistry.get("security.jwt.filter").timer().count());
+    }
+
+    @Test
+    void testDoFilter_NewToken_LoadsUserAgain() throws Exception {
+        // Given
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        long now = System.currentTimeMillis();
+        assertTrue(authenticate(token(now - 60000L, now + 3600000L)));
+
+        // When
+        assertTrue(authenticate(token(now - 1000L, now + 3600000L)));
+
+        // Then
+        verify(userDetailsService, times(2)).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void testDoFilter_AfterInvalidate_DisabledUserRejected() throws Exception {
+        // Given
+        when(userDetailsService.loadUserByUsername("testuser"))
+                .thenReturn(userDetails)
+                .thenThrow(new UsernameNotFoundException("用户账户已被禁用: testuser"));
+        String token = jwtUtil.generateAccessToken(userDetails);
+        assertTrue(authenticate(token));
+
+        // When
+        principalCache.invalidate("testuser");
+
+        // Then
+        assertFalse(authenticate(token));
+        assertFalse(authenticate(token));
+        verify(userDetailsService, times(3)).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void testDoFilter_ExpiredOrTamperedToken_NotAuthenticated() throws Exception {
+        // Given
+        long now = System.currentTimeMillis();
+        String expired = token(now - 7200000L, now - 3600000L);
+        String tampered = jwtUtil.generateAccessToken(userDetails) + "x";
+
+        // When & Then
+        assertFalse(authenticate(expired));
+        assertFalse(authenticate(tampered));
+        verifyNoInteractions(userDetailsService);
+        assertFalse(jwtUtil.verify(expired).isPresent());
+    }
+
+    private String token(long issuedAt, long expiresAt) {
+        return Jwts.builder()
+                .setSubject("testuser")
+                .setIssuedAt(new Date(issuedAt))
+                .setExpiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    private boolean authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication() != null;
+    }
+}
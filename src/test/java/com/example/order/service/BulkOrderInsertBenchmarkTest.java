@@ -0,0 +1,147 @@
+package com.example.order.service;
+
+import com.example.order.OrderManagementApplication;
+import com.example.order.benchmark.JmhRunner;
+import com.example.order.entity.Order;
+import com.example.order.entity.OrderItem;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.OrderItemRepository;
+import com.example.order.repository.OrderRepository;
+import com.example.order.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.order.service.OrderFixtures.*;
+
+/**
+ * 批量写入订单基准
+ *
+ * 在H2（MySQL兼容模式）上启动完整的应用上下文，每次调用在一个事务中写入 ORDERS_PER_INVOCATION 个订单，
+ * 每个订单 itemCount 个订单项，结果为每秒写入的订单数。
+ * batchSize=1 时每行一次JDBC往返，与主键使用 IDENTITY 时（Hibernate 无法批量插入）的写入方式相同；
+ * batchSize=50 为号段主键下的JDBC批量插入。内存库没有网络往返，实际MySQL上的差距更大
+ * 默认跳过，运行方式: mvn test -Pbenchmark -Dtest=BulkOrderInsertBenchmarkTest
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkOrderInsertBenchmarkTest {
+
+    private static final int ORDERS_PER_INVOCATION = 20;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"10"})
+    private int itemCount;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private OrderItemRepository orderItemRepository;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private Long customerId;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.main.banner-mode=off", "logging.level.com.example.order=WARN",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize)
+                .run();
+        orderRepository = context.getBean(OrderRepository.class);
+        orderItemRepository = context.getBean(OrderItemRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        customerId = context.getBean(CustomerRepository.class).save(newCustomer("CUST-BULK", "批量写入客户")).getId();
+        productId = context.getBean(ProductRepository.class).save(newProduct("BULK", "批量写入产品", "9.90", 0)).getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearOrders() {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS_PER_INVOCATION)
+    public int insertOrders() {
+        return transactionTemplate.execute(status -> {
+            int rows = 0;
+            for (int i = 0; i < ORDERS_PER_INVOCATION; i++) {
+                Order order = orderRepository.save(newOrder());
+                List<OrderItem> items = new ArrayList<>(itemCount);
+                for (int j = 0; j < itemCount; j++) {
+                    items.add(newItem(order.getId()));
+                }
+                rows += 1 + orderItemRepository.saveAll(items).size();
+            }
+            return rows;
+        });
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        JmhRunner.run(BulkOrderInsertBenchmarkTest.class);
+    }
+
+    private Order newOrder() {
+        Order order = new Order();
+        order.setOrderNumber("BULK" + sequence.incrementAndGet());
+        order.setCustomerId(customerId);
+        order.setOrderDate(LocalDate.now());
+        order.setTotalAmount(new BigDecimal("99.00"));
+        order.setFinalAmount(new BigDecimal("99.00"));
+        return order;
+    }
+
+    private OrderItem newItem(Long orderId) {
+        OrderItem item = new OrderItem();
+        item.setOrderId(orderId);
+        item.setProductId(productId);
+        item.setQuantity(1);
+        item.setUnitPrice(new BigDecimal("9.90"));
+        item.setSubtotal(new BigDecimal("9.90"));
+        return item;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.order.service;
+
+import com.example.order.OrderManagementApplication;
+import com.example.order.benchmark.JmhRunner;
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Product;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.example.order.service.OrderFixtures.*;
+
+/**
+ * 创建订单端到端基准
+ *
+ * 在H2（MySQL兼容模式）上启动完整的应用上下文，测量 OrderService.createOrder 一次调用的耗时，
+ * 包括订单编号校验、批量加载产品、条件扣减库存、金额计算、订单与订单项写入及订单统计更新
+ * 默认跳过，运行方式: mvn test -Pbenchmark -Dtest=CreateOrderBenchmarkTest
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreateOrderBenchmarkTest {
+
+    @Param({"1", "10"})
+    private int itemCount;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Long customerId;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(OrderManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.main.banner-mode=off", "logging.level.com.example.order=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+
+        customerId = context.getBean(CustomerRepository.class).save(newCustomer("CUST-JMH", "基准客户")).getId();
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        productIds = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Product product = newProduct("JMH" + i, "基准产品" + i, "9.90", Integer.MAX_VALUE / 2);
+            productIds.add(productRepository.save(product).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDTO createOrder() {
+        OrderDTO orderDTO = newOrderDTO(customerId, "JMH" + sequence.incrementAndGet());
+        List<OrderItemDTO> items = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            items.add(newItem(productId, 1, new BigDecimal("9.90")));
+        }
+        return orderService.createOrder(orderDTO, items);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        JmhRunner.run(CreateOrderBenchmarkTest.class);
+    }
+}
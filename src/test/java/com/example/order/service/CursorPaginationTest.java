@@ -0,0 +1,153 @@
+package com.example.order.service;
+
+import com.example.order.dto.CursorPage;
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.ProductDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Order;
+import com.example.order.exception.InvalidCursorException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 游标分页测试
+ *
+ * 基于H2验证游标分页的顺序、同一创建时间下的翻页完整性，以及游标/切片分页不执行COUNT查询
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+class CursorPaginationTest {
+
+    private static final int ORDER_COUNT = 25;
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = entityManager.persist(newCustomer("CUST-CURSOR", "游标客户"));
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = new Order();
+            order.setOrderNumber("ORD-CURSOR-" + i);
+            order.setCustomerId(customer.getId());
+            order.setOrderDate(LocalDate.of(2024, 1, 1));
+            order.setTotalAmount(new BigDecimal("100.00"));
+            order.setFinalAmount(new BigDecimal("100.00"));
+            entityManager.persist(order);
+
+            entityManager.persist(newProduct("CUR" + i, "游标产品" + i, "10.00", 10));
+        }
+        entityManager.flush();
+
+        // 每3个订单共用一个创建时间，验证相同时间下按ID继续翻页
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE orders SET created_at = DATEADD('SECOND', id / 3, CAST(?1 AS TIMESTAMP))")
+                .setParameter(1, BASE_TIME)
+                .executeUpdate();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testOrderCursor_WalkAllPages_NewestFirstWithoutGapsOrCount() {
+        // When
+        List<OrderDTO> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<OrderDTO> page = orderService.findByCursor(cursor, 4);
+            all.addAll(page.getContent());
+            cursor = page.getNextCursor();
+            pages++;
+            assertEquals(page.isHasNext(), cursor != null);
+        } while (cursor != null);
+
+        // Then
+        assertEquals(ORDER_COUNT, all.size());
+        assertEquals(7, pages);
+        assertEquals(pages, statistics.getPrepareStatementCount());
+        for (int i = 1; i < all.size(); i++) {
+            OrderDTO previous = all.get(i - 1);
+            OrderDTO current = all.get(i);
+            int byTime = previous.getCreatedAt().compareTo(current.getCreatedAt());
+            assertTrue(byTime > 0 || (byTime == 0 && previous.getId() > current.getId()),
+                    "订单顺序错误: " + previous.getId() + " -> " + current.getId());
+        }
+    }
+
+    @Test
+    void testProductCursor_WalkAllPages_AscendingById() {
+        // When
+        List<ProductDTO> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ProductDTO> page = productService.findByCursor(cursor, 10);
+            all.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(ORDER_COUNT, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getId() < all.get(i).getId());
+        }
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindSlice_NoCountQuery() {
+        // When
+        Slice<OrderDTO> first = orderService.findSlice(PageRequest.of(0, 10));
+        Slice<OrderDTO> last = orderService.findSlice(PageRequest.of(2, 10));
+
+        // Then
+        assertTrue(first.hasNext());
+        assertEquals(10, first.getNumberOfElements());
+        assertFalse(last.hasNext());
+        assertEquals(5, last.getNumberOfElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindByCursor_InvalidCursor_ThrowsException() {
+        assertThrows(InvalidCursorException.class, () -> orderService.findByCursor("not-a-cursor", 10));
+        assertThrows(InvalidCursorException.class, () -> productService.findByCursor("@@@", 10));
+    }
+}
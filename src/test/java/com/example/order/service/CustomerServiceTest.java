@@ -28,6 +28,9 @@ class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private CustomerSuggestIndex customerSuggestIndex;
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -72,6 +75,7 @@ class CustomerServiceTest {
         assertEquals("张三", result.getName());
         assertEquals("zhangsan@test.com", result.getEmail());
         assertEquals(Customer.CustomerStatus.ACTIVE, result.getStatus());
+        verify(customerSuggestIndex).indexAfterCommit(testCustomer);
     }
 
     @Test
@@ -192,6 +196,7 @@ class CustomerServiceTest {
             customerService.deleteCustomer(1L);
         });
         verify(customerRepository, times(1)).delete(testCustomer);
+        verify(customerSuggestIndex).removeAfterCommit(1L);
     }
 
     @Test
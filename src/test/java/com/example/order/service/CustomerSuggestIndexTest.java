@@ -0,0 +1,286 @@
+package com.example.order.service;
+
+import com.example.order.dto.CustomerSuggestionDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Order;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 客户输入联想前缀树测试
+ */
+@ExtendWith(MockitoExtension.class)
+class CustomerSuggestIndexTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    private CustomerSuggestIndex customerSuggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        customerSuggestIndex = new CustomerSuggestIndex(customerRepository, orderRepository);
+    }
+
+    @Test
+    void testSuggest_MatchesAllFieldsByPrefix() {
+        // Given
+        build(Arrays.asList(
+                customer(1L, "CUST001", "Acme Trading Co", "王五", "138-0000-1111", "sales@acme.com"),
+                customer(2L, "CUST002", "张三贸易", "李四", "13900002222", "zhang@example.com")),
+                Collections.emptyList());
+
+        // When / Then
+        assertEquals(ids(1L), suggestIds("ACME"));
+        assertEquals(ids(1L), suggestIds("trad"));
+        assertEquals(ids(2L), suggestIds("张三"));
+        assertEquals(ids(2L), suggestIds("李"));
+        assertEquals(ids(2L, 1L), suggestIds("cust00"));
+        assertEquals(ids(1L), suggestIds("13800001"));
+        assertEquals(ids(1L), suggestIds("138-0000"));
+        assertEquals(ids(2L), suggestIds("zhang@"));
+        assertTrue(suggestIds("acme x").isEmpty());
+        assertTrue(suggestIds("   ").isEmpty());
+    }
+
+    @Test
+    void testSuggest_RankedByRecentOrders() {
+        // Given 客户3最近下单，客户2下单较早，客户1从未下单
+        build(Arrays.asList(
+                customer(1L, "C1", "华东一号", null, null, null),
+                customer(2L, "C2", "华东二号", null, null, null),
+                customer(3L, "C3", "华东三号", null, null, null)),
+                Arrays.asList(lastOrder(2L, 1), lastOrder(3L, 2)));
+
+        // When / Then
+        List<CustomerSuggestionDTO> suggestions = customerSuggestIndex.suggest("华东", 10);
+        assertEquals(ids(3L, 2L, 1L), idsOf(suggestions));
+        assertEquals(BASE_TIME.plusHours(2), suggestions.get(0).getLastOrderAt());
+        assertNull(suggestions.get(2).getLastOrderAt());
+        assertEquals(ids(3L), suggestIds("华东", 1));
+
+        // When 客户1下单
+        customerSuggestIndex.recordOrderAfterCommit(order(1L, 3));
+
+        // Then
+        assertEquals(ids(1L, 3L, 2L), suggestIds("华东"));
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        // Given
+        build(Arrays.asList(
+                customer(1L, "C1", "Alpha", null, null, null),
+                customer(2L, "C2", "Alpine", null, null, null)),
+                Collections.singletonList(lastOrder(1L, 1)));
+
+        // When 新增、改名（保留最近下单时间）、删除
+        customerSuggestIndex.indexAfterCommit(customer(3L, "C3", "Alps", null, null, null));
+        customerSuggestIndex.indexAfterCommit(customer(1L, "C1", "Beta", null, null, null));
+        customerSuggestIndex.removeAfterCommit(2L);
+
+        // Then
+        assertEquals(ids(3L), suggestIds("alp"));
+        assertEquals(ids(1L), suggestIds("be"));
+        assertEquals(BASE_TIME.plusHours(1), customerSuggestIndex.suggest("beta", 1).get(0).getLastOrderAt());
+        assertTrue(suggestIds("alpine").isEmpty());
+    }
+
+    @Test
+    void testInactiveCustomers_ExcludedAndKeepLastOrder() {
+        // Given 客户2未激活
+        Customer inactive = customer(2L, "C2", "Delta Two", null, null, null);
+        inactive.setStatus(Customer.CustomerStatus.INACTIVE);
+        build(Arrays.asList(customer(1L, "C1", "Delta One", null, null, null), inactive),
+                Collections.singletonList(lastOrder(2L, 5)));
+
+        // When / Then
+        assertEquals(ids(1L), suggestIds("delta"));
+
+        // When 重新激活
+        customerSuggestIndex.indexAfterCommit(customer(2L, "C2", "Delta Two", null, null, null));
+
+        // Then 恢复最近下单时间
+        assertEquals(ids(2L, 1L), suggestIds("delta"));
+        assertEquals(BASE_TIME.plusHours(5), customerSuggestIndex.suggest("delta", 1).get(0).getLastOrderAt());
+
+        // When 再次停用
+        Customer deactivated = customer(2L, "C2", "Delta Two", null, null, null);
+        deactivated.setStatus(Customer.CustomerStatus.INACTIVE);
+        customerSuggestIndex.indexAfterCommit(deactivated);
+
+        // Then
+        assertEquals(ids(1L), suggestIds("delta"));
+    }
+
+    @Test
+    void testRebuild_KeepsLastOrdersWithoutFullAggregation() {
+        // Given 启动时全量聚合，之后本实例下单
+        List<Customer> customers = Arrays.asList(
+                customer(1L, "C1", "Echo One", null, null, null),
+                customer(2L, "C2", "Echo Two", null, null, null),
+                customer(3L, "C3", "Echo Three", null, null, null));
+        build(customers, Collections.singletonList(lastOrder(1L, 1)));
+        customerSuggestIndex.recordOrderAfterCommit(order(2L, 2));
+        when(orderRepository.findLastOrderTimeByCustomerSince(any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(lastOrder(3L, 3)));
+
+        // When 定时重建，客户3由其他实例下单
+        customerSuggestIndex.rebuild();
+
+        // Then 只补查增量订单
+        assertEquals(ids(3L, 2L, 1L), suggestIds("echo"));
+        verify(orderRepository, times(1)).findLastOrderTimeByCustomer();
+        verify(orderRepository).findLastOrderTimeByCustomerSince(any(LocalDateTime.class));
+    }
+
+    @Test
+    void testRandomUpdates_MatchBruteForce() {
+        // Given 键共享大量前缀，节点缓存与节点拆分、合并都会被触发
+        Random random = new Random(42);
+        Map<Long, Customer> customers = new HashMap<>();
+        Map<Long, LocalDateTime> lastOrders = new HashMap<>();
+        for (long id = 1; id <= 300; id++) {
+            customers.put(id, randomCustomer(random, id));
+        }
+        build(new ArrayList<>(customers.values()), Collections.emptyList());
+
+        for (int step = 0; step < 2000; step++) {
+            long id = 1 + random.nextInt(360);
+            int action = random.nextInt(10);
+            if (action < 5) {
+                Order order = order(id, step);
+                customerSuggestIndex.recordOrderAfterCommit(order);
+                if (customers.containsKey(id)) {
+                    lastOrders.put(id, order.getCreatedAt());
+                }
+            } else if (action < 8) {
+                Customer customer = randomCustomer(random, id);
+                customers.put(id, customer);
+                customerSuggestIndex.indexAfterCommit(customer);
+            } else {
+                customers.remove(id);
+                lastOrders.remove(id);
+                customerSuggestIndex.removeAfterCommit(id);
+            }
+
+            if (step % 20 == 0) {
+                for (String prefix : Arrays.asList("a", "ab", "abc", "b", "ba", "c", "cust-1", "13")) {
+                    assertEquals(bruteForce(customers, lastOrders, prefix), suggestIds(prefix),
+                            "step " + step + ", prefix " + prefix);
+                }
+            }
+        }
+    }
+
+    private void build(List<Customer> customers, List<Object[]> lastOrders) {
+        customers.sort(Comparator.comparing(Customer::getId));
+        when(orderRepository.findLastOrderTimeByCustomer()).thenReturn(lastOrders);
+        when(customerRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenReturn(customers);
+        customerSuggestIndex.build();
+    }
+
+    private List<Long> suggestIds(String prefix) {
+        return suggestIds(prefix, CustomerSuggestIndex.MAX_SUGGESTIONS);
+    }
+
+    private List<Long> suggestIds(String prefix, int limit) {
+        return idsOf(customerSuggestIndex.suggest(prefix, limit));
+    }
+
+    private static List<Long> idsOf(List<CustomerSuggestionDTO> suggestions) {
+        return suggestions.stream().map(CustomerSuggestionDTO::getId).collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(Long... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<Long> bruteForce(Map<Long, Customer> customers, Map<Long, LocalDateTime> lastOrders,
+                                         String prefix) {
+        return customers.values().stream()
+                .filter(customer -> matches(customer, prefix))
+                .sorted(Comparator.comparing((Customer customer) -> lastOrders.get(customer.getId()),
+                                Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Customer::getId, Comparator.reverseOrder()))
+                .limit(CustomerSuggestIndex.MAX_SUGGESTIONS)
+                .map(Customer::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean matches(Customer customer, String prefix) {
+        List<String> keys = new ArrayList<>(Arrays.asList(customer.getName().split(" ")));
+        keys.add(customer.getCustomerCode().toLowerCase(Locale.ROOT));
+        keys.add(customer.getPhone());
+        return keys.stream().anyMatch(key -> key.startsWith(prefix));
+    }
+
+    private static Customer randomCustomer(Random random, long id) {
+        String alphabet = "abc";
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(2);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            int length = 1 + random.nextInt(5);
+            for (int i = 0; i < length; i++) {
+                name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+        }
+        return customer(id, "CUST-" + id, name.toString(), null, "13" + random.nextInt(1000), null);
+    }
+
+    private static Customer customer(Long id, String code, String name, String contactPerson, String phone,
+                                     String email) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setCustomerCode(code);
+        customer.setName(name);
+        customer.setContactPerson(contactPerson);
+        customer.setPhone(phone);
+        customer.setEmail(email);
+        return customer;
+    }
+
+    private static Object[] lastOrder(Long customerId, int hours) {
+        return new Object[]{customerId, BASE_TIME.plusHours(hours)};
+    }
+
+    private static Order order(Long customerId, int hours) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setCreatedAt(BASE_TIME.plusHours(hours));
+        return order;
+    }
+}
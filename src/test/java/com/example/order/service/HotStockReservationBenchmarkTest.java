@@ -0,0 +1,133 @@
+package com.example.order.service;
+
+import com.example.order.entity.Customer;
+import com.example.order.entity.Product;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.OrderItemRepository;
+import com.example.order.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 热点库存下单吞吐基准
+ *
+ * 对比单个热点产品在条件 UPDATE 扣减与内存预留两种模式下的下单吞吐（订单/秒）
+ * 默认跳过，运行方式: mvn test -Pbenchmark -Dtest=HotStockReservationBenchmarkTest
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotStockReservationBenchmarkTest {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int ORDERS_PER_THREAD = 100;
+    private static final int WARMUP_ORDERS_PER_THREAD = 20;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private HotStockReservationService hotStockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Product product;
+    private Customer customer;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(newProduct("BENCH001", "基准产品", "9.90", Integer.MAX_VALUE / 2));
+
+        customer = customerRepository.save(newCustomer("CUST-BENCH", "基准客户"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(hotStockReservationService, "enabled", false);
+        hotStockReservationService.recover();
+        orderDataCleaner.deleteAll();
+    }
+
+    @Test
+    void benchmarkSingleHotSku() throws Exception {
+        runOrders(WARMUP_ORDERS_PER_THREAD);
+        double conditionalUpdate = runOrders(ORDERS_PER_THREAD);
+
+        ReflectionTestUtils.setField(hotStockReservationService, "enabled", true);
+        ReflectionTestUtils.setField(hotStockReservationService, "hotProductIds",
+                new HashSet<>(Collections.singletonList(product.getId())));
+        hotStockReservationService.recover();
+        runOrders(WARMUP_ORDERS_PER_THREAD);
+        double hotReservation = runOrders(ORDERS_PER_THREAD);
+        hotStockReservationService.flushPendingStock();
+
+        System.out.printf("单热点产品下单吞吐（%d 线程）: 条件UPDATE扣减 %.0f 单/秒, 内存预留 %.0f 单/秒%n",
+                THREAD_COUNT, conditionalUpdate, hotReservation);
+        assertTrue(orderItemRepository.findProductIdsWithUndeductedStock().isEmpty());
+    }
+
+    private double runOrders(int ordersPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        orderService.createOrder(newOrderDTO(customer.getId(), "BENCH-" + sequence.incrementAndGet()),
+                                Collections.singletonList(newItem(product, 1)));
+                    }
+                    return null;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(300, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+            return THREAD_COUNT * ordersPerThread / seconds;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
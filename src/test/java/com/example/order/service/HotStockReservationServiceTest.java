@@ -0,0 +1,291 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.InventoryTransaction;
+import com.example.order.entity.Product;
+import com.example.order.exception.InsufficientStockException;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.InventoryTransactionRepository;
+import com.example.order.repository.OrderItemRepository;
+import com.example.order.repository.OrderRepository;
+import com.example.order.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 热点库存预留服务测试
+ *
+ * 验证热点产品内存预留不超卖、异步回写产品库存与库存变动记录、以及重启后的恢复回写
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HotStockReservationServiceTest {
+
+    private static final int INITIAL_STOCK = 100;
+
+    @Autowired
+    private HotStockReservationService hotStockReservationService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Product hotProduct;
+    private Product normalProduct;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        hotProduct = productRepository.save(newProduct("HOT001", "热点产品", "9.90", INITIAL_STOCK));
+        normalProduct = productRepository.save(newProduct("NORMAL001", "普通产品", "9.90", 1));
+
+        customer = customerRepository.save(newCustomer("CUST-HOT", "热点客户"));
+
+        enableHotProducts(hotStockReservationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDataCleaner.deleteAll();
+        ReflectionTestUtils.setField(hotStockReservationService, "enabled", false);
+        hotStockReservationService.recover();
+    }
+
+    @Test
+    void testCreateOrder_ConcurrentHotSku_NeverOversellsAndWritesBack() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger sequence = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < 16; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 20; i++) {
+                        try {
+                            orderService.createOrder(
+                                    newOrderDTO(customer.getId(), "HOT-" + sequence.incrementAndGet()),
+                                    Collections.singletonList(newItem(hotProduct, 3)));
+                            succeeded.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            // 库存耗尽
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(INITIAL_STOCK / 3, succeeded.get());
+        assertEquals(INITIAL_STOCK % 3, hotStockReservationService.getAvailableStock(hotProduct.getId()));
+        // 回写前产品表库存未变
+        assertEquals(INITIAL_STOCK, stockOf(hotProduct));
+
+        hotStockReservationService.flushPendingStock();
+
+        assertEquals(INITIAL_STOCK % 3, stockOf(hotProduct));
+        assertTrue(orderItemRepository.findProductIdsWithUndeductedStock().isEmpty());
+        List<InventoryTransaction> transactions = inventoryTransactionRepository.findByProductId(hotProduct.getId());
+        assertEquals(succeeded.get(), transactions.size());
+        for (InventoryTransaction transaction : transactions) {
+            assertEquals(InventoryTransaction.TransactionType.OUT, transaction.getTransactionType());
+            assertEquals(transaction.getBeforeQuantity() - 3, transaction.getAfterQuantity().intValue());
+        }
+    }
+
+    @Test
+    void testCreateOrder_RollbackReleasesReservation() {
+        List<OrderItemDTO> items = Arrays.asList(newItem(hotProduct, 10), newItem(normalProduct, 2));
+
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(newOrderDTO(customer.getId(), "HOT-ROLLBACK"), items));
+
+        assertEquals(INITIAL_STOCK, hotStockReservationService.getAvailableStock(hotProduct.getId()));
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void testCreateOrder_HotSkuRejection_ReportsMemoryStock() {
+        // Given 内存剩余2件，产品表尚未回写仍为100件
+        orderService.createOrder(newOrderDTO(customer.getId(), "HOT-REPORT-1"),
+                Collections.singletonList(newItem(hotProduct, INITIAL_STOCK - 2)));
+
+        // When
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(newOrderDTO(customer.getId(), "HOT-REPORT-2"),
+                        Collections.singletonList(newItem(hotProduct, 5))));
+
+        // Then
+        assertTrue(e.getMessage().endsWith("Requested: 5, Available: 2"), e.getMessage());
+        assertEquals(INITIAL_STOCK, stockOf(hotProduct));
+    }
+
+    @Test
+    void testDeleteOrder_BeforeWriteBack_ReleasesMemoryOnly() {
+        OrderDTO order = orderService.createOrder(newOrderDTO(customer.getId(), "HOT-DELETE"),
+                Collections.singletonList(newItem(hotProduct, 5)));
+        assertEquals(INITIAL_STOCK - 5, hotStockReservationService.getAvailableStock(hotProduct.getId()));
+
+        orderService.deleteOrder(order.getId());
+        hotStockReservationService.flushPendingStock();
+
+        assertEquals(INITIAL_STOCK, hotStockReservationService.getAvailableStock(hotProduct.getId()));
+        assertEquals(INITIAL_STOCK, stockOf(hotProduct));
+        assertTrue(inventoryTransactionRepository.findByProductId(hotProduct.getId()).isEmpty());
+    }
+
+    @Test
+    void testDeleteOrder_AfterWriteBack_ReturnsStock() {
+        OrderDTO order = orderService.createOrder(newOrderDTO(customer.getId(), "HOT-DELETE-2"),
+                Collections.singletonList(newItem(hotProduct, 5)));
+        hotStockReservationService.flushPendingStock();
+        assertEquals(INITIAL_STOCK - 5, stockOf(hotProduct));
+
+        orderService.deleteOrder(order.getId());
+
+        assertEquals(INITIAL_STOCK, hotStockReservationService.getAvailableStock(hotProduct.getId()));
+        assertEquals(INITIAL_STOCK, stockOf(hotProduct));
+    }
+
+    @Test
+    void testUpdateStock_HotSku_KeepsCounterInSync() {
+        productService.updateStock(hotProduct.getId(), -30);
+        productService.updateStock(hotProduct.getId(), 10);
+
+        assertEquals(INITIAL_STOCK - 20, hotStockReservationService.getAvailableStock(hotProduct.getId()));
+        assertEquals(INITIAL_STOCK - 20, stockOf(hotProduct));
+        assertThrows(InsufficientStockException.class,
+                () -> productService.updateStock(hotProduct.getId(), -(INITIAL_STOCK - 19)));
+        assertEquals(INITIAL_STOCK - 20, hotStockReservationService.getAvailableStock(hotProduct.getId()));
+    }
+
+    @Test
+    void testRecover_AppliesUndeductedItemsAfterRestart() {
+        orderService.createOrder(newOrderDTO(customer.getId(), "HOT-CRASH-1"),
+                Collections.singletonList(newItem(hotProduct, 4)));
+        orderService.createOrder(newOrderDTO(customer.getId(), "HOT-CRASH-2"),
+                Collections.singletonList(newItem(hotProduct, 6)));
+        assertEquals(INITIAL_STOCK, stockOf(hotProduct));
+
+        // 模拟未回写即宕机：新实例启动时从数据库恢复
+        HotStockReservationService restarted = new HotStockReservationService(
+                productRepository, orderItemRepository, inventoryTransactionRepository, transactionManager,
+                productCatalogSnapshot, meterRegistry);
+        enableHotProducts(restarted);
+
+        assertEquals(INITIAL_STOCK - 10, stockOf(hotProduct));
+        assertEquals(INITIAL_STOCK - 10, restarted.getAvailableStock(hotProduct.getId()));
+        assertEquals(2, inventoryTransactionRepository.findByProductId(hotProduct.getId()).size());
+        assertTrue(orderItemRepository.findProductIdsWithUndeductedStock().isEmpty());
+    }
+
+    @Test
+    void testWriteBack_StockChangedOutsideService_StopsRetryingAndReloadsCounter() {
+        // Given 订单预留5件后，产品表库存被直接改为2
+        orderService.createOrder(newOrderDTO(customer.getId(), "HOT-CONFLICT"),
+                Collections.singletonList(newItem(hotProduct, 5)));
+        new TransactionTemplate(transactionManager).execute(
+                status -> productRepository.decreaseStock(hotProduct.getId(), INITIAL_STOCK - 2));
+        double conflicts = meterRegistry.counter("inventory.hotsku.writeback.conflicts").count();
+
+        // When
+        hotStockReservationService.flushPendingStock();
+        hotStockReservationService.flushPendingStock();
+
+        // Then 只冲突一次，订单项保持未扣减，内存库存按产品表重新加载
+        assertEquals(conflicts + 1, meterRegistry.counter("inventory.hotsku.writeback.conflicts").count());
+        assertEquals(2, stockOf(hotProduct));
+        assertEquals(Collections.singletonList(hotProduct.getId()), orderItemRepository.findProductIdsWithUndeductedStock());
+        assertEquals(0, hotStockReservationService.getAvailableStock(hotProduct.getId()));
+
+        // When 重启时同样冲突
+        HotStockReservationService restarted = new HotStockReservationService(
+                productRepository, orderItemRepository, inventoryTransactionRepository, transactionManager,
+                productCatalogSnapshot, meterRegistry);
+        enableHotProducts(restarted);
+
+        // Then 启动不失败
+        assertEquals(0, restarted.getAvailableStock(hotProduct.getId()));
+        assertEquals(2, stockOf(hotProduct));
+    }
+
+    private void enableHotProducts(HotStockReservationService service) {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "stripes", 4);
+        ReflectionTestUtils.setField(service, "hotProductIds", new HashSet<>(Collections.singletonList(hotProduct.getId())));
+        service.recover();
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).get().getStockQuantity();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.order.service;
+
+import com.example.order.entity.Customer;
+import com.example.order.entity.Order;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.OrderRepository;
+import com.example.order.repository.SequenceBlockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 主键序列初始化测试
+ *
+ * 基于H2验证号段表主键从已有最大主键之后继续分配，且序列只增不减
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({IdSequenceInitializer.class, SequenceBlockAllocator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdSequenceInitializerTest {
+
+    private static final long EXISTING_ID = 5000L;
+
+    @Autowired
+    private IdSequenceInitializer idSequenceInitializer;
+
+    @Autowired
+    private SequenceBlockRepository sequenceBlockRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testSynchronize_ContinuesAfterExistingIds() {
+        // Given 迁移前按自增列写入的订单
+        Customer customer = customerRepository.save(newCustomer("CUST-SEQ", "序列客户"));
+        jdbcTemplate.update("INSERT INTO orders (id, order_number, customer_id, order_date, status, total_amount, "
+                + "final_amount, payment_status, created_at, updated_at) VALUES (?, 'SEQ-OLD', ?, CURRENT_DATE, "
+                + "'PENDING', 10, 10, 'UNPAID', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", EXISTING_ID, customer.getId());
+
+        // When
+        idSequenceInitializer.synchronize();
+        Order order = new Order();
+        order.setOrderNumber("SEQ-NEW");
+        order.setCustomerId(customer.getId());
+        order.setOrderDate(LocalDate.now());
+        order.setTotalAmount(BigDecimal.TEN);
+        order.setFinalAmount(BigDecimal.TEN);
+        Order saved = orderRepository.save(order);
+
+        // Then
+        assertEquals(EXISTING_ID + 1, saved.getId());
+    }
+
+    @Test
+    void testSynchronize_NeverLowersSequence() {
+        // Given 序列已超过表中最大主键（号段已分配但未用完）
+        jdbcTemplate.update("UPDATE sequence_blocks SET next_val = ? WHERE sequence_name = 'order_items'", EXISTING_ID);
+
+        // When
+        idSequenceInitializer.synchronize();
+
+        // Then
+        assertEquals(EXISTING_ID, sequenceBlockRepository.findNextVal("order_items"));
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.InventoryTransaction;
+import com.example.order.entity.Product;
+import com.example.order.exception.InsufficientStockException;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.InventoryTransactionRepository;
+import com.example.order.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 库存变动流水服务测试
+ *
+ * 验证库存变更提交后异步写入变动记录、回滚不写入、队列满时的背压以及停机写完剩余记录
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryLedgerServiceTest {
+
+    @Autowired
+    private InventoryLedgerService inventoryLedgerService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Product apple;
+    private Product pear;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        apple = productRepository.save(newProduct("APPLE", "苹果", "5.00", 50));
+        pear = productRepository.save(newProduct("PEAR", "梨", "5.00", 5));
+
+        customer = customerRepository.save(newCustomer("CUST-LEDGER", "流水客户"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDataCleaner.deleteAll();
+    }
+
+    @Test
+    void testCreateOrder_WritesOutTransactions() {
+        OrderDTO order = orderService.createOrder(newOrderDTO(customer.getId(), "LEDGER-001"),
+                Arrays.asList(newItem(apple, 3), newItem(pear, 2), newItem(apple, 1)));
+
+        inventoryLedgerService.flush();
+
+        List<InventoryTransaction> appleEntries = inventoryTransactionRepository.findByProductId(apple.getId());
+        assertEquals(1, appleEntries.size());
+        InventoryTransaction entry = appleEntries.get(0);
+        assertEquals(InventoryTransaction.TransactionType.OUT, entry.getTransactionType());
+        assertEquals(InventoryTransaction.ReferenceType.ORDER, entry.getReferenceType());
+        assertEquals(order.getId(), entry.getReferenceId());
+        assertEquals(4, entry.getQuantity().intValue());
+        assertEquals(50, entry.getBeforeQuantity().intValue());
+        assertEquals(46, entry.getAfterQuantity().intValue());
+        assertEquals(1, inventoryTransactionRepository.findByProductId(pear.getId()).size());
+    }
+
+    @Test
+    void testDeleteOrder_WritesInTransactions() {
+        OrderDTO order = orderService.createOrder(newOrderDTO(customer.getId(), "LEDGER-002"),
+                Collections.singletonList(newItem(apple, 10)));
+
+        orderService.deleteOrder(order.getId());
+        inventoryLedgerService.flush();
+
+        List<InventoryTransaction> entries = inventoryTransactionRepository.findByProductId(apple.getId());
+        assertEquals(2, entries.size());
+        InventoryTransaction returned = entries.stream()
+                .filter(e -> e.getTransactionType() == InventoryTransaction.TransactionType.IN)
+                .findFirst().get();
+        assertEquals(40, returned.getBeforeQuantity().intValue());
+        assertEquals(50, returned.getAfterQuantity().intValue());
+    }
+
+    @Test
+    void testCreateOrder_Rollback_WritesNothing() {
+        List<OrderItemDTO> items = Arrays.asList(newItem(apple, 3), newItem(pear, 6));
+
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(newOrderDTO(customer.getId(), "LEDGER-003"), items));
+        inventoryLedgerService.flush();
+
+        assertEquals(0, inventoryTransactionRepository.count());
+    }
+
+    @Test
+    void testUpdateStock_WritesAdjustment() {
+        productService.updateStock(apple.getId(), -20);
+        inventoryLedgerService.flush();
+
+        InventoryTransaction entry = inventoryTransactionRepository.findByProductId(apple.getId()).get(0);
+        assertEquals(InventoryTransaction.TransactionType.ADJUSTMENT, entry.getTransactionType());
+        assertEquals(20, entry.getQuantity().intValue());
+        assertEquals(50, entry.getBeforeQuantity().intValue());
+        assertEquals(30, entry.getAfterQuantity().intValue());
+    }
+
+    @Test
+    void testRecord_FullQueue_AppliesBackpressureAndStopFlushes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InventoryLedgerService ledger = new InventoryLedgerService(
+                inventoryTransactionRepository, transactionManager, registry);
+        ReflectionTestUtils.setField(ledger, "queueCapacity", 2);
+        ReflectionTestUtils.setField(ledger, "batchSize", 2);
+        ReflectionTestUtils.setField(ledger, "offerTimeoutMs", 1L);
+        ledger.start();
+
+        List<InventoryTransaction> entries = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            entries.add(InventoryTransaction.createAdjustmentTransaction(apple.getId(), 1, 50 + i, "背压测试"));
+        }
+        ledger.record(entries);
+        ledger.stop();
+
+        assertEquals(50, inventoryTransactionRepository.count());
+        assertEquals(50, registry.get("inventory.ledger.written").counter().count());
+        assertEquals(0, registry.get("inventory.ledger.queue.depth").gauge().value());
+        assertTrue(registry.get("inventory.ledger.flush").timer().count() > 0);
+    }
+
+    @Test
+    void testWrite_TransientFailure_RetriesBatch() {
+        // Given 前两次写入失败（如数据库短暂不可用）
+        InventoryTransactionRepository flaky = mock(InventoryTransactionRepository.class);
+        doThrow(new QueryTimeoutException("模拟写入超时"))
+                .doThrow(new QueryTimeoutException("模拟写入超时"))
+                .doAnswer(invocation -> inventoryTransactionRepository.saveAll(invocation.getArgument(0)))
+                .when(flaky).saveAll(anyList());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InventoryLedgerService ledger = newLedger(flaky, registry);
+
+        // When
+        ledger.record(Arrays.asList(
+                InventoryTransaction.createAdjustmentTransaction(apple.getId(), 1, 50, "重试测试"),
+                InventoryTransaction.createAdjustmentTransaction(apple.getId(), 1, 51, "重试测试")));
+        ledger.stop();
+
+        // Then
+        assertEquals(2, inventoryTransactionRepository.count());
+        assertEquals(2, registry.get("inventory.ledger.written").counter().count());
+        assertEquals(2, registry.get("inventory.ledger.retries").counter().count());
+        assertEquals(0, registry.get("inventory.ledger.failed").counter().count());
+    }
+
+    @Test
+    void testWrite_UnwritableRecord_DropsOnlyThatRecord() {
+        // Given 一条缺少产品ID的记录违反非空约束，整批写入总是失败
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InventoryLedgerService ledger = newLedger(inventoryTransactionRepository, registry);
+        InventoryTransaction invalid = InventoryTransaction.createAdjustmentTransaction(apple.getId(), 1, 50, "无效记录");
+        invalid.setProductId(null);
+
+        // When
+        ledger.record(Arrays.asList(
+                InventoryTransaction.createAdjustmentTransaction(apple.getId(), 1, 50, "有效记录"),
+                invalid,
+                InventoryTransaction.createAdjustmentTransaction(apple.getId(), 1, 51, "有效记录")));
+        ledger.stop();
+
+        // Then
+        assertEquals(2, inventoryTransactionRepository.count());
+        assertEquals(2, registry.get("inventory.ledger.written").counter().count());
+        assertEquals(1, registry.get("inventory.ledger.failed").counter().count());
+        assertEquals(0, registry.get("inventory.ledger.queue.depth").gauge().value());
+    }
+
+    @Test
+    void testMetricsRegistered() {
+        assertNotNull(meterRegistry.find("inventory.ledger.queue.depth").gauge());
+        assertNotNull(meterRegistry.find("inventory.ledger.flush").timer());
+        assertNotNull(meterRegistry.find("inventory.ledger.failed").counter());
+    }
+
+    private InventoryLedgerService newLedger(InventoryTransactionRepository repository, SimpleMeterRegistry registry) {
+        InventoryLedgerService ledger = new InventoryLedgerService(repository, transactionManager, registry);
+        ReflectionTestUtils.setField(ledger, "queueCapacity", 10);
+        ReflectionTestUtils.setField(ledger, "batchSize", 10);
+        ReflectionTestUtils.setField(ledger, "offerTimeoutMs", 1L);
+        ReflectionTestUtils.setField(ledger, "maxAttempts", 3);
+        ReflectionTestUtils.setField(ledger, "retryBackoffMs", 1L);
+        ledger.start();
+        return ledger;
+    }
+}
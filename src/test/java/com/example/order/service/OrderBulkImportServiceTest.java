@@ -0,0 +1,223 @@
+package com.example.order.service;
+
+import com.example.order.dto.BulkImportJobDTO;
+import com.example.order.dto.BulkOrderResultDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Order;
+import com.example.order.entity.Product;
+import com.example.order.exception.ResourceNotFoundException;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.InventoryTransactionRepository;
+import com.example.order.repository.OrderItemRepository;
+import com.example.order.repository.OrderRepository;
+import com.example.order.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单批量导入服务测试
+ *
+ * 基于H2验证NDJSON/CSV导入按分块创建订单、无效行逐行拒绝、分块内按产品汇总扣减库存
+ */
+@DataJpaTest(properties = {"app.bulk-import.chunk-size=5", "app.bulk-import.workers=2",
+        "app.bulk-import.queue-capacity=1"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ServiceTestConfiguration.class, OrderBulkImportService.class, JacksonAutoConfiguration.class,
+        ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderBulkImportServiceTest {
+
+    @Autowired
+    private OrderBulkImportService orderBulkImportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private InventoryLedgerService inventoryLedgerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(newCustomer("CUST-BULK", "导入客户"));
+        product = productRepository.save(newProduct("BULK", "导入产品", "10.00", 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDataCleaner.deleteAll();
+    }
+
+    @Test
+    void testImportNdjson_MultipleChunks() throws Exception {
+        // Given 12个有效订单（3个分块），另有格式错误、客户不存在、产品不存在各一行
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            body.append(orderLine("BULK-" + i, customer.getId(), product.getId(), 2)).append('\n');
+            if (i == 3) {
+                body.append("{not json}\n\n");
+            }
+        }
+        body.append(orderLine("BULK-X", 999999L, product.getId(), 1)).append('\n');
+        body.append(orderLine("BULK-Y", customer.getId(), 999999L, 1)).append('\n');
+
+        // When
+        BulkImportJobDTO job = orderBulkImportService.importOrders(
+                new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)),
+                OrderBulkImportService.ImportFormat.NDJSON);
+        List<BulkOrderResultDTO> results = readResults(job.getJobId());
+
+        // Then
+        assertEquals(15, job.getRows());
+        assertEquals(15, results.size());
+        assertEquals(5, results.get(4).getRow());
+        assertEquals(BulkOrderResultDTO.Status.REJECTED, results.get(4).getStatus());
+        assertTrue(results.get(4).getError().startsWith("格式错误"));
+        assertEquals("客户不存在或未激活: 999999", results.get(13).getError());
+        assertEquals("产品不存在或未激活: 999999", results.get(14).getError());
+        assertEquals(12, results.stream().filter(r -> r.getStatus() == BulkOrderResultDTO.Status.CREATED).count());
+
+        BulkImportJobDTO completed = orderBulkImportService.getJob(job.getJobId());
+        assertEquals(BulkImportJobDTO.Status.COMPLETED, completed.getStatus());
+        assertEquals(12, completed.getCreated());
+        assertEquals(3, completed.getRejected());
+        assertEquals(76, productRepository.findById(product.getId()).get().getStockQuantity());
+        Order order = orderRepository.findByOrderNumber("BULK-0").get();
+        assertEquals(0, new BigDecimal("20").compareTo(order.getTotalAmount()));
+        inventoryLedgerService.flush();
+        assertEquals(12, inventoryTransactionRepository.count());
+    }
+
+    @Test
+    void testImportCsv_GroupsRowsAndRejectsInsufficientStock() throws Exception {
+        // Given ref 相同的连续行合并为一个订单；第三个订单超出剩余库存
+        Long customerId = customer.getId();
+        Long productId = product.getId();
+        String body = "ref,customerId,orderDate,productId,quantity,unitPrice,notes\r\n"
+                + "A," + customerId + "," + LocalDate.now() + "," + productId + ",30,12.50,\"加急, 周末送达\"\r\n"
+                + "A,,," + productId + ",10,,\r\n"
+                + "B," + customerId + "," + LocalDate.now() + "," + productId + ",50,,\r\n"
+                + "C," + customerId + "," + LocalDate.now() + "," + productId + ",20,,\r\n"
+                + "D," + customerId + ",not-a-date," + productId + ",1,,\r\n";
+
+        // When
+        BulkImportJobDTO job = orderBulkImportService.importOrders(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                OrderBulkImportService.ImportFormat.CSV);
+        List<BulkOrderResultDTO> results = readResults(job.getJobId());
+
+        // Then
+        assertEquals(4, results.size());
+        assertEquals(BulkOrderResultDTO.Status.CREATED, results.get(0).getStatus());
+        assertEquals(1, results.get(0).getRow());
+        assertEquals(BulkOrderResultDTO.Status.CREATED, results.get(1).getStatus());
+        assertEquals(3, results.get(1).getRow());
+        assertEquals(BulkOrderResultDTO.Status.REJECTED, results.get(2).getStatus());
+        assertEquals(4, results.get(2).getRow());
+        assertEquals(BulkOrderResultDTO.Status.REJECTED, results.get(3).getStatus());
+        assertTrue(results.get(3).getError().startsWith("第5行格式错误"));
+
+        Order first = orderRepository.findById(results.get(0).getOrderId()).get();
+        assertEquals("加急, 周末送达", first.getNotes());
+        assertEquals(0, new BigDecimal("475").compareTo(first.getTotalAmount()));
+        assertEquals(2, orderItemRepository.findByOrderId(first.getId()).size());
+        assertEquals(10, productRepository.findById(productId).get().getStockQuantity());
+    }
+
+    @Test
+    void testImport_AfterShutdown_RejectsChunksAndCompletes() throws Exception {
+        // Given 线程池已停止（应用停机中）
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            body.append(orderLine("BULK-S" + i, customer.getId(), product.getId(), 1)).append('\n');
+        }
+        orderBulkImportService.stop();
+        try {
+            // When
+            BulkImportJobDTO job = orderBulkImportService.importOrders(
+                    new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)),
+                    OrderBulkImportService.ImportFormat.NDJSON);
+            List<BulkOrderResultDTO> results = readResults(job.getJobId());
+
+            // Then 每行都有失败结果，任务正常结束，不会创建订单
+            assertEquals(7, results.size());
+            assertTrue(results.stream().allMatch(r -> r.getStatus() == BulkOrderResultDTO.Status.REJECTED));
+            assertEquals("服务正在停止，未处理，请重新提交", results.get(0).getError());
+            BulkImportJobDTO completed = orderBulkImportService.getJob(job.getJobId());
+            assertEquals(BulkImportJobDTO.Status.COMPLETED, completed.getStatus());
+            assertEquals(7, completed.getRejected());
+            assertEquals(0, orderRepository.count());
+        } finally {
+            orderBulkImportService.start();
+        }
+    }
+
+    @Test
+    void testGetJob_Unknown() {
+        assertThrows(ResourceNotFoundException.class, () -> orderBulkImportService.getJob("missing"));
+    }
+
+    private String orderLine(String orderNumber, Long customerId, Long productId, int quantity) {
+        return "{\"orderNumber\":\"" + orderNumber + "\",\"customerId\":" + customerId
+                + ",\"orderDate\":\"" + LocalDate.now() + "\",\"items\":[{\"productId\":" + productId
+                + ",\"quantity\":" + quantity + "}]}";
+    }
+
+    /**
+     * 读取结果流（阻塞到任务完成），按行号排序
+     */
+    private List<BulkOrderResultDTO> readResults(String jobId) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderBulkImportService.writeResults(jobId, out);
+        List<BulkOrderResultDTO> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+            results.add(objectMapper.readValue(line, BulkOrderResultDTO.class));
+        }
+        results.sort(Comparator.comparing(BulkOrderResultDTO::getRow));
+        return results;
+    }
+}
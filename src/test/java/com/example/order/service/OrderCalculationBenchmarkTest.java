@@ -0,0 +1,96 @@
+package com.example.order.service;
+
+import com.example.order.benchmark.JmhRunner;
+import com.example.order.entity.Order;
+import com.example.order.entity.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 订单计算基准
+ *
+ * 测量创建订单时的订单项金额计算（BigDecimal 乘法、折扣、汇总与最终金额）以及状态转换校验
+ * 默认跳过，运行方式: mvn test -Pbenchmark -Dtest=OrderCalculationBenchmarkTest
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderCalculationBenchmarkTest {
+
+    private final Order.OrderStatus[] statuses = Order.OrderStatus.values();
+
+    /**
+     * 订单项数量参数化的订单项集合
+     */
+    @State(Scope.Benchmark)
+    public static class Items {
+
+        @Param({"1", "10", "100"})
+        private int itemCount;
+
+        private List<OrderItem> items;
+
+        @Setup
+        public void setUp() {
+            items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                OrderItem item = new OrderItem();
+                item.setProductId((long) i);
+                item.setQuantity(1 + i % 5);
+                item.setUnitPrice(new BigDecimal("19.90").add(BigDecimal.valueOf(i)));
+                // 一半订单项带折扣
+                item.setDiscountRate(i % 2 == 0 ? new BigDecimal("12.5") : null);
+                items.add(item);
+            }
+        }
+    }
+
+    @Benchmark
+    public BigDecimal orderAmounts(Items state) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItem item : state.items) {
+            totalAmount = totalAmount.add(OrderService.calculateSubtotal(item));
+        }
+        Order order = new Order();
+        order.setTotalAmount(totalAmount);
+        order.setDiscountAmount(BigDecimal.ZERO);
+        order.setTaxAmount(BigDecimal.ZERO);
+        order.calculateFinalAmount();
+        return order.getFinalAmount();
+    }
+
+    @Benchmark
+    public void statusTransitions(Blackhole blackhole) {
+        for (Order.OrderStatus from : statuses) {
+            for (Order.OrderStatus to : statuses) {
+                blackhole.consume(OrderService.isValidStatusTransition(from, to));
+            }
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void runBenchmark() throws Exception {
+        JmhRunner.run(OrderCalculationBenchmarkTest.class);
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderDTO;
+import com.example.order.entity.Order;
+import com.example.order.entity.OrderDailyStat;
+import com.example.order.repository.OrderDailyStatRepository;
+import com.example.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单日统计测试
+ *
+ * 基于H2对订单执行创建、改状态、改支付状态、改日期与金额、删除，
+ * 验证增量维护的统计表与按订单表全量重新聚合的结果一致
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+class OrderDailyStatsServiceTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2024, 3, 2);
+    private static final BigDecimal PRICE = new BigDecimal("10.00");
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderDailyStatsService orderDailyStatsService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderDailyStatRepository orderDailyStatRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long customerId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        customerId = entityManager.persist(newCustomer("CUST-STATS", "统计客户")).getId();
+        productId = entityManager.persist(newProduct("STATS", "统计产品", "10.00", 1000)).getId();
+        entityManager.flush();
+    }
+
+    @Test
+    void testIncrementalRollup_MatchesFullRecompute() {
+        // Given
+        List<OrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            orders.add(orderService.createOrder(newOrderDTO(customerId, "ORD-STATS-" + i, i < 4 ? DAY_1 : DAY_2),
+                    Collections.singletonList(newItem(productId, i + 1, PRICE))));
+        }
+
+        // When
+        orderService.updateOrderStatus(orders.get(0).getId(), Order.OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(orders.get(0).getId(), Order.OrderStatus.PROCESSING);
+        orderService.updateOrderStatus(orders.get(1).getId(), Order.OrderStatus.CANCELLED);
+        orderService.updatePaymentStatus(orders.get(2).getId(), Order.PaymentStatus.PAID);
+        OrderDTO moved = orderService.findById(orders.get(3).getId()).get();
+        moved.setOrderDate(DAY_2);
+        moved.setDiscountAmount(new BigDecimal("5.00"));
+        moved.setTaxAmount(new BigDecimal("1.50"));
+        orderService.updateOrder(moved.getId(), moved);
+        orderService.deleteOrder(orders.get(4).getId());
+        entityManager.flush();
+
+        // Then
+        assertStatsMatchOrders();
+        assertEquals(3L, statCounts(OrderDailyStat::getStatus).get(Order.OrderStatus.PENDING));
+        assertEquals(new BigDecimal("96.50"), orderService.sumFinalAmountByOrderDateBetween(DAY_2, DAY_2));
+        assertNull(orderService.sumFinalAmountByOrderDateBetween(DAY_1.minusDays(7), DAY_1.minusDays(1)));
+    }
+
+    @Test
+    void testRebuild_DropsEmptyRowsAndKeepsTotals() {
+        // Given
+        OrderDTO order = orderService.createOrder(newOrderDTO(customerId, "ORD-STATS-R", DAY_1),
+                Collections.singletonList(newItem(productId, 3, PRICE)));
+        orderService.updateOrderStatus(order.getId(), Order.OrderStatus.CONFIRMED);
+        entityManager.flush();
+        Set<String> incremental = nonEmptyRows();
+        assertEquals(2, orderDailyStatRepository.count());
+
+        // When
+        orderDailyStatsService.rebuild();
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, orderDailyStatRepository.count());
+        assertEquals(incremental, nonEmptyRows());
+        assertStatsMatchOrders();
+    }
+
+    @Test
+    void testRebuild_CorrectsDrift() {
+        // Given 统计行多计，另有一个没有订单的统计行
+        orderService.createOrder(newOrderDTO(customerId, "ORD-STATS-D", DAY_1),
+                Collections.singletonList(newItem(productId, 2, PRICE)));
+        entityManager.flush();
+        Set<String> incremental = nonEmptyRows();
+        OrderDailyStat stat = orderDailyStatRepository.findAll().get(0);
+        orderDailyStatRepository.upsert(stat.getStatDate(), stat.getStatus().name(), stat.getPaymentStatus().name(),
+                stat.getCurrency(), 3, new BigDecimal("7.00"));
+        orderDailyStatRepository.upsert(DAY_2, Order.OrderStatus.CANCELLED.name(), Order.PaymentStatus.UNPAID.name(),
+                stat.getCurrency(), 1, BigDecimal.ONE);
+        entityManager.clear();
+
+        // When
+        orderDailyStatsService.rebuild();
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, orderDailyStatRepository.count());
+        assertEquals(incremental, nonEmptyRows());
+        assertStatsMatchOrders();
+    }
+
+    private void assertStatsMatchOrders() {
+        assertEquals(toMap(orderRepository.countByStatus()), statCounts(OrderDailyStat::getStatus));
+        assertEquals(toMap(orderRepository.countByPaymentStatus()), statCounts(OrderDailyStat::getPaymentStatus));
+        assertSameAmount(DAY_1, DAY_1);
+        assertSameAmount(DAY_2, DAY_2);
+        assertSameAmount(DAY_1, DAY_2);
+    }
+
+    private void assertSameAmount(LocalDate startDate, LocalDate endDate) {
+        BigDecimal expected = orderRepository.sumFinalAmountByOrderDateBetween(startDate, endDate);
+        BigDecimal actual = orderService.sumFinalAmountByOrderDateBetween(startDate, endDate);
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertEquals(0, expected.compareTo(actual), startDate + " - " + endDate);
+        }
+    }
+
+    private Set<String> nonEmptyRows() {
+        return orderDailyStatRepository.findAll().stream()
+                .filter(s -> s.getOrderCount() > 0)
+                .map(this::describe)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private String describe(OrderDailyStat stat) {
+        return stat.getStatDate() + "|" + stat.getStatus() + "|" + stat.getPaymentStatus() + "|"
+                + stat.getCurrency() + "|" + stat.getOrderCount() + "|" + stat.getFinalAmount().stripTrailingZeros();
+    }
+
+    /**
+     * 按维度汇总统计表的订单数，只保留数量大于0的维度
+     */
+    private Map<Object, Long> statCounts(Function<OrderDailyStat, Object> dimension) {
+        Map<Object, Long> counts = new HashMap<>();
+        for (OrderDailyStat stat : orderDailyStatRepository.findAll()) {
+            counts.merge(dimension.apply(stat), stat.getOrderCount(), Long::sum);
+        }
+        counts.values().removeIf(count -> count == 0);
+        return counts;
+    }
+
+    private static Map<Object, Long> toMap(List<Object[]> rows) {
+        Map<Object, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put(row[0], ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+}
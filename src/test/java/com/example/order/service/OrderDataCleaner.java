@@ -0,0 +1,57 @@
+package com.example.order.service;
+
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.IdempotencyRecordRepository;
+import com.example.order.repository.InventoryTransactionRepository;
+import com.example.order.repository.OrderDailyStatRepository;
+import com.example.order.repository.OrderItemRepository;
+import com.example.order.repository.OrderRepository;
+import com.example.order.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+
+/**
+ * 订单测试数据清理
+ *
+ * 不回滚事务的订单相关测试在 @AfterEach 中调用 deleteAll，先写出库存流水缓冲，再按外键依赖顺序清空
+ * 幂等记录、库存流水、订单项、订单、日统计、产品与客户；@DataJpaTest 通过 ServiceTestConfiguration 导入，
+ * 其他测试需自行 @Import
+ */
+@TestComponent
+public class OrderDataCleaner {
+
+    @Autowired
+    private InventoryLedgerService inventoryLedgerService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private InventoryTransactionRepository inventoryTransactionRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderDailyStatRepository orderDailyStatRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    public void deleteAll() {
+        inventoryLedgerService.flush();
+        idempotencyRecordRepository.deleteAllInBatch();
+        inventoryTransactionRepository.deleteAllInBatch();
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        orderDailyStatRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+    }
+}
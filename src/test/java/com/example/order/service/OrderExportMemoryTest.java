@@ -0,0 +1,120 @@
+package com.example.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单导出内存测试
+ *
+ * 在 -Xmx64m 的子进程中从H2文件库导出100万行订单，验证导出内存占用与行数无关
+ * （一次性加载100万个OrderDTO需要数百MB堆内存）
+ */
+class OrderExportMemoryTest {
+
+    private static final int ROW_COUNT = 1_000_000;
+    private static final String MAX_HEAP = "-Xmx64m";
+
+    @Test
+    void testExport_1MRows_SmallHeap(@TempDir Path tempDir) throws Exception {
+        // Given
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add(MAX_HEAP);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(OrderExportMemoryTest.class.getName());
+        command.add(tempDir.resolve("export").toAbsolutePath().toString());
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        // When
+        StringBuilder output = new StringBuilder();
+        String result = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+                if (line.startsWith("rows=")) {
+                    result = line;
+                }
+            }
+        }
+        assertTrue(process.waitFor(5, TimeUnit.MINUTES), "导出超时");
+
+        // Then
+        assertEquals(0, process.exitValue(), output.toString());
+        assertEquals("rows=" + ROW_COUNT + ", lines=" + ROW_COUNT, result, output.toString());
+    }
+
+    /**
+     * 子进程入口：建库、写入测试数据并导出到只计数的输出流
+     *
+     * @param args H2文件库路径
+     */
+    public static void main(String[] args) throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:" + args[0] + ";MODE=MySQL", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, order_number VARCHAR(50), "
+                + "customer_id BIGINT, order_date DATE, delivery_date DATE, status VARCHAR(20), "
+                + "total_amount DECIMAL(12,2), discount_amount DECIMAL(12,2), tax_amount DECIMAL(12,2), "
+                + "final_amount DECIMAL(12,2), currency VARCHAR(3), payment_status VARCHAR(20), "
+                + "payment_method VARCHAR(50), notes VARCHAR(1000), created_at TIMESTAMP, updated_at TIMESTAMP)");
+        int chunk = 100_000;
+        for (int from = 1; from <= ROW_COUNT; from += chunk) {
+            jdbcTemplate.update("INSERT INTO orders SELECT x, CONCAT('ORD-', x), MOD(x, 1000) + 1, "
+                    + "DATEADD('DAY', MOD(x, 365), DATE '2024-01-01'), NULL, 'PENDING', 100.00, 0.00, 0.00, 100.00, "
+                    + "'CNY', 'UNPAID', NULL, '批量导出测试订单', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP "
+                    + "FROM SYSTEM_RANGE(?, ?)", from, Math.min(from + chunk - 1, ROW_COUNT));
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        OrderExportService service = new OrderExportService(
+                dataSource, new DataSourceTransactionManager(dataSource), objectMapper);
+
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        long rows = service.export(null, null, null, null, OrderExportService.ExportFormat.NDJSON, false, out);
+        System.out.println("rows=" + rows + ", lines=" + out.lines);
+    }
+
+    private static final class LineCountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
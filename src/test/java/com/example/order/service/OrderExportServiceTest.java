@@ -0,0 +1,138 @@
+package com.example.order.service;
+
+import com.example.order.entity.Customer;
+import com.example.order.entity.Order;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单导出服务测试
+ *
+ * 基于H2验证NDJSON/CSV输出格式、过滤条件和gzip压缩
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderExportService.class, SequenceBlockAllocator.class, JacksonAutoConfiguration.class})
+class OrderExportServiceTest {
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = entityManager.persist(newCustomer("CUST-EXPORT", "导出客户"));
+
+        persistOrder("ORD-EXP-1", LocalDate.of(2024, 1, 10), Order.OrderStatus.PENDING, "普通备注");
+        persistOrder("ORD-EXP-2", LocalDate.of(2024, 2, 10), Order.OrderStatus.SHIPPED, "含逗号,引号\"和\n换行");
+        persistOrder("ORD-EXP-3", LocalDate.of(2024, 3, 10), Order.OrderStatus.PENDING, null);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testExport_Ndjson_OneObjectPerLine() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = orderExportService.export(null, null, null, null,
+                OrderExportService.ExportFormat.NDJSON, false, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8.name()).split("\n");
+        assertEquals(3, rows);
+        assertEquals(3, lines.length);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals("ORD-EXP-2", second.get("orderNumber").asText());
+        assertEquals("2024-02-10", second.get("orderDate").asText());
+        assertEquals("SHIPPED", second.get("status").asText());
+        assertEquals(0, new BigDecimal("100.00").compareTo(second.get("finalAmount").decimalValue()));
+        assertEquals("含逗号,引号\"和\n换行", second.get("notes").asText());
+    }
+
+    @Test
+    void testExport_CsvWithFilters_EscapesFields() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = orderExportService.export(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 28),
+                null, customer.getId(), OrderExportService.ExportFormat.CSV, false, out);
+
+        // Then
+        String csv = out.toString(StandardCharsets.UTF_8.name());
+        assertEquals(1, rows);
+        assertTrue(csv.startsWith("id,orderNumber,customerId,orderDate,"));
+        assertTrue(csv.contains(",ORD-EXP-2," + customer.getId() + ",2024-02-10,,SHIPPED,"));
+        assertTrue(csv.contains(",\"含逗号,引号\"\"和\n换行\","));
+        assertFalse(csv.contains("ORD-EXP-1"));
+    }
+
+    @Test
+    void testExport_GzipByStatus() throws Exception {
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = orderExportService.export(null, null, Order.OrderStatus.PENDING, null,
+                OrderExportService.ExportFormat.NDJSON, true, out);
+
+        // Then
+        assertEquals(2, rows);
+        String text = gunzip(out.toByteArray());
+        assertTrue(text.contains("ORD-EXP-1"));
+        assertTrue(text.contains("ORD-EXP-3"));
+        assertFalse(text.contains("ORD-EXP-2"));
+        assertTrue(text.endsWith("\n"));
+    }
+
+    private void persistOrder(String orderNumber, LocalDate orderDate, Order.OrderStatus status, String notes) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setCustomerId(customer.getId());
+        order.setOrderDate(orderDate);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setFinalAmount(new BigDecimal("100.00"));
+        order.setNotes(notes);
+        entityManager.persist(order);
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (Reader reader = new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[1024];
+            int read;
+            while ((read = reader.read(buffer)) > 0) {
+                text.append(buffer, 0, read);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 订单测试数据工厂
+ *
+ * 创建订单相关测试共用的客户、产品、订单DTO与订单项DTO，只设置必填字段，由调用方持久化；
+ * 控制器等其他包的测试也可静态导入
+ */
+public final class OrderFixtures {
+
+    private OrderFixtures() {
+    }
+
+    public static Customer newCustomer(String code, String name) {
+        Customer customer = new Customer();
+        customer.setCustomerCode(code);
+        customer.setName(name);
+        return customer;
+    }
+
+    public static Product newProduct(String code, String name, String unitPrice, int stock) {
+        Product product = new Product();
+        product.setProductCode(code);
+        product.setName(name);
+        product.setUnitPrice(new BigDecimal(unitPrice));
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    public static OrderDTO newOrderDTO(Long customerId, String orderNumber) {
+        return newOrderDTO(customerId, orderNumber, LocalDate.now());
+    }
+
+    public static OrderDTO newOrderDTO(Long customerId, String orderNumber, LocalDate orderDate) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setOrderNumber(orderNumber);
+        orderDTO.setCustomerId(customerId);
+        orderDTO.setOrderDate(orderDate);
+        return orderDTO;
+    }
+
+    public static OrderItemDTO newItem(Product product, int quantity) {
+        return newItem(product.getId(), quantity, product.getUnitPrice());
+    }
+
+    public static OrderItemDTO newItem(Long productId, int quantity, BigDecimal unitPrice) {
+        OrderItemDTO item = new OrderItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setUnitPrice(unitPrice);
+        return item;
+    }
+}
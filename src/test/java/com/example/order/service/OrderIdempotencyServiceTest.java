@@ -0,0 +1,229 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Product;
+import com.example.order.exception.IdempotencyKeyMismatchException;
+import com.example.order.exception.InsufficientStockException;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.IdempotencyRecordRepository;
+import com.example.order.repository.OrderRepository;
+import com.example.order.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 订单创建幂等服务测试
+ *
+ * 基于H2验证重复请求返回同一订单、并发重复请求只创建一次、请求体不一致时拒绝
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ServiceTestConfiguration.class, OrderIdempotencyService.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdempotencyServiceTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(newCustomer("CUST-IDEM", "幂等客户"));
+
+        product = productRepository.save(newProduct("IDEM", "幂等产品", "10.00", 100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        completedCache().invalidateAll();
+        orderDataCleaner.deleteAll();
+    }
+
+    @Test
+    void testCreateOrder_SameKey_ReplaysFirstOrder() {
+        // When
+        OrderIdempotencyService.IdempotentResult first =
+                orderIdempotencyService.createOrder("key-1", newOrderDTO(customer.getId(), "IDEM-001"), items(2));
+        OrderIdempotencyService.IdempotentResult second =
+                orderIdempotencyService.createOrder("key-1", newOrderDTO(customer.getId(), "IDEM-001"), items(2));
+
+        // Then
+        assertFalse(first.isReplayed());
+        assertTrue(second.isReplayed());
+        assertEquals(first.getOrder().getId(), second.getOrder().getId());
+        assertEquals(1, orderRepository.count());
+        assertEquals(1, idempotencyRecordRepository.count());
+        assertEquals(98, productRepository.findById(product.getId()).get().getStockQuantity());
+    }
+
+    @Test
+    void testCreateOrder_ConcurrentDuplicates_CreateOnce() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OrderIdempotencyService.IdempotentResult>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return orderIdempotencyService.createOrder("key-concurrent",
+                        newOrderDTO(customer.getId(), "IDEM-002"), items(1));
+            }));
+        }
+
+        // When
+        start.countDown();
+        Set<Long> orderIds = new HashSet<>();
+        int executed = 0;
+        for (Future<OrderIdempotencyService.IdempotentResult> future : futures) {
+            OrderIdempotencyService.IdempotentResult result = future.get(30, TimeUnit.SECONDS);
+            orderIds.add(result.getOrder().getId());
+            if (!result.isReplayed()) {
+                executed++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, orderIds.size());
+        assertEquals(1, executed);
+        assertEquals(1, orderRepository.count());
+        assertEquals(99, productRepository.findById(product.getId()).get().getStockQuantity());
+    }
+
+    @Test
+    void testCreateOrder_SameKeyDifferentRequest_Rejected() {
+        // Given
+        orderIdempotencyService.createOrder("key-2", newOrderDTO(customer.getId(), "IDEM-003"), items(1));
+
+        // When & Then
+        assertThrows(IdempotencyKeyMismatchException.class, () ->
+                orderIdempotencyService.createOrder("key-2", newOrderDTO(customer.getId(), "IDEM-003"), items(3)));
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void testCreateOrder_CacheMiss_ReplaysFromTable() {
+        // Given
+        OrderIdempotencyService.IdempotentResult first =
+                orderIdempotencyService.createOrder("key-3", newOrderDTO(customer.getId(), "IDEM-004"), items(1));
+        completedCache().invalidateAll();
+
+        // When
+        OrderIdempotencyService.IdempotentResult second =
+                orderIdempotencyService.createOrder("key-3", newOrderDTO(customer.getId(), "IDEM-004"), items(1));
+
+        // Then
+        assertTrue(second.isReplayed());
+        assertEquals(first.getOrder().getId(), second.getOrder().getId());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void testCreateOrder_FailedRequest_NotCached() {
+        // Given
+        assertThrows(InsufficientStockException.class, () ->
+                orderIdempotencyService.createOrder("key-4", newOrderDTO(customer.getId(), "IDEM-005"), items(200)));
+        assertEquals(0, idempotencyRecordRepository.count());
+        product.setStockQuantity(300);
+        productRepository.save(product);
+
+        // When
+        OrderIdempotencyService.IdempotentResult retry =
+                orderIdempotencyService.createOrder("key-4", newOrderDTO(customer.getId(), "IDEM-005"), items(200));
+
+        // Then
+        assertFalse(retry.isReplayed());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void testCreateOrder_LockTimeoutAfterOtherInstanceCommitted_ReplaysPersisted() {
+        // Given 另一实例已用同一键提交；本实例查询时尚未看到，插入幂等记录时锁等待超时（不是唯一键冲突）
+        OrderIdempotencyService.IdempotentResult winner =
+                orderIdempotencyService.createOrder("key-5", newOrderDTO(customer.getId(), null), items(1));
+        completedCache().invalidateAll();
+        IdempotencyRecordRepository racing = mock(IdempotencyRecordRepository.class,
+                delegatesTo(idempotencyRecordRepository));
+        doReturn(Optional.empty())
+                .doAnswer(invocation -> idempotencyRecordRepository.findByIdempotencyKey(invocation.getArgument(0)))
+                .when(racing).findByIdempotencyKey("key-5");
+        doThrow(new CannotAcquireLockException("模拟锁等待超时")).when(racing).saveAndFlush(any());
+        ReflectionTestUtils.setField(orderIdempotencyService, "idempotencyRecordRepository", racing);
+
+        // When
+        OrderIdempotencyService.IdempotentResult result;
+        try {
+            result = orderIdempotencyService.createOrder("key-5", newOrderDTO(customer.getId(), null), items(1));
+        } finally {
+            ReflectionTestUtils.setField(orderIdempotencyService, "idempotencyRecordRepository",
+                    idempotencyRecordRepository);
+        }
+
+        // Then 返回胜出方的订单，本次创建的订单随事务回滚
+        assertTrue(result.isReplayed());
+        assertEquals(winner.getOrder().getId(), result.getOrder().getId());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, ?> completedCache() {
+        return (Cache<String, ?>) ReflectionTestUtils.getField(orderIdempotencyService, "completed");
+    }
+
+    private List<OrderItemDTO> items(int quantity) {
+        return Collections.singletonList(newItem(product, quantity));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.order.service;
+
+import com.example.order.repository.SequenceBlockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单编号生成器测试
+ *
+ * 基于H2验证编号格式、号段批量申请以及多实例、多线程下的唯一性
+ */
+@DataJpaTest(properties = "app.order-number.block-size=10")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({OrderNumberGenerator.class, SequenceBlockAllocator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderNumberGeneratorTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    private SequenceBlockRepository sequenceBlockRepository;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @AfterEach
+    void tearDown() {
+        sequenceBlockRepository.deleteAll();
+        ReflectionTestUtils.setField(orderNumberGenerator, "blockDate", null);
+    }
+
+    @Test
+    void testNext_DatePrefixedAndMonotonic() {
+        // When
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            numbers.add(orderNumberGenerator.next());
+        }
+
+        // Then
+        String prefix = OrderNumberGenerator.PREFIX + DateTimeFormatter.BASIC_ISO_DATE.format(LocalDate.now());
+        assertEquals(prefix + "000000001", numbers.get(0));
+        for (int i = 1; i < numbers.size(); i++) {
+            assertEquals(20, numbers.get(i).length());
+            assertTrue(numbers.get(i).startsWith(prefix));
+            assertTrue(numbers.get(i).compareTo(numbers.get(i - 1)) > 0);
+        }
+        // 25 个编号只申请了 3 个号段
+        assertEquals(3 * BLOCK_SIZE, sequenceBlockRepository.findNextVal(
+                "order_number:" + DateTimeFormatter.BASIC_ISO_DATE.format(LocalDate.now())));
+    }
+
+    @Test
+    void testNext_MultipleInstances_Unique() throws Exception {
+        // Given
+        SequenceBlockAllocator otherAllocator = new SequenceBlockAllocator(dataSourceProperties, 2);
+        OrderNumberGenerator otherNode = new OrderNumberGenerator(otherAllocator);
+        ReflectionTestUtils.setField(otherNode, "blockSize", BLOCK_SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            OrderNumberGenerator generator = i % 2 == 0 ? orderNumberGenerator : otherNode;
+            futures.add(executor.submit((Callable<List<String>>) () -> {
+                List<String> numbers = new ArrayList<>();
+                for (int j = 0; j < 50; j++) {
+                    numbers.add(generator.next());
+                }
+                return numbers;
+            }));
+        }
+
+        // When
+        Set<String> numbers = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            numbers.addAll(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        otherAllocator.close();
+
+        // Then
+        assertEquals(200, numbers.size());
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.order.service;
+
+import com.example.order.dto.BulkOrderResultDTO;
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.OrderItem;
+import com.example.order.entity.Product;
+import com.example.order.exception.CustomException;
+import com.example.order.exception.InsufficientStockException;
+import com.example.order.repository.OrderItemRepository;
+import com.example.order.repository.ProductRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单服务JPA测试
+ *
+ * 基于H2验证订单创建的SQL语句数量与数据一致性
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+class OrderServiceJpaTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Customer customer;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        customer = entityManager.persist(newCustomer("CUST001", "批量客户"));
+
+        products = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            products.add(entityManager.persist(newProduct("P" + i, "产品" + i, "10.00", 50)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testCreateOrder_100Items_StatementCount() {
+        // Given
+        OrderDTO orderDTO = newOrderDTO(customer.getId(), "ORD-BATCH-001");
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (Product product : products) {
+            items.add(newItem(product.getId(), 2, new BigDecimal("10.00")));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        OrderDTO result = orderService.createOrder(orderDTO, items);
+        entityManager.flush();
+
+        // Then
+        // 1 次订单编号校验 + 1 次批量加载产品 + 100 次条件扣减库存 + 1 次订单插入
+        // + 1 条订单项批量插入（号段主键，JDBC批量执行）+ 1 次批量读取变动后库存（出库记录）+ 1 次订单日统计累加
+        assertEquals(ITEM_COUNT, statistics.getEntityLoadCount());
+        assertEquals(3, statistics.getQueryExecutionCount());
+        assertEquals(106, statistics.getPrepareStatementCount());
+        assertEquals(ITEM_COUNT + 1, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+
+        assertEquals(new BigDecimal("2000.00"), result.getTotalAmount());
+        assertEquals(new BigDecimal("2000.00"), result.getFinalAmount());
+        entityManager.clear();
+        assertEquals(ITEM_COUNT, orderItemRepository.findByOrderId(result.getId()).size());
+        assertEquals(48, productRepository.findById(products.get(0).getId()).get().getStockQuantity());
+    }
+
+    @Test
+    void testCreateOrder_WithoutOrderNumber_GeneratesNumber() {
+        // Given
+        OrderDTO orderDTO = newOrderDTO(customer.getId(), null);
+        List<OrderItemDTO> items = new ArrayList<>();
+        items.add(newItem(products.get(0).getId(), 1, new BigDecimal("10.00")));
+
+        // When
+        OrderDTO first = orderService.createOrder(orderDTO, items);
+        OrderDTO second = orderService.createOrder(newOrderDTO(customer.getId(), null), items);
+
+        // Then
+        String prefix = OrderNumberGenerator.PREFIX + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
+        assertEquals(20, first.getOrderNumber().length());
+        assertTrue(first.getOrderNumber().startsWith(prefix));
+        assertTrue(second.getOrderNumber().compareTo(first.getOrderNumber()) > 0);
+        entityManager.flush();
+        entityManager.clear();
+        assertTrue(orderService.findByOrderNumber(first.getOrderNumber()).isPresent());
+    }
+
+    @Test
+    void testCreateOrder_GeneratedFormatNumber_Rejected() {
+        // Given 客户端编号占用生成器格式
+        List<OrderItemDTO> items = new ArrayList<>();
+        items.add(newItem(products.get(0).getId(), 1, new BigDecimal("10.00")));
+        String reserved = OrderNumberGenerator.PREFIX + LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE)
+                + "000000001";
+
+        // When & Then
+        assertThrows(CustomException.class,
+                () -> orderService.createOrder(newOrderDTO(customer.getId(), reserved), items));
+        List<BulkOrderResultDTO> results = orderService.createOrders(
+                Collections.singletonList(newBulkOrder(reserved, 1)));
+        assertEquals(BulkOrderResultDTO.Status.REJECTED, results.get(0).getStatus());
+        assertNotNull(orderService.createOrder(newOrderDTO(customer.getId(), "ORD2024010100001"), items).getId());
+    }
+
+    @Test
+    void testCreateOrder_DuplicateProductLines_AggregatesStock() {
+        // Given
+        Long productId = products.get(0).getId();
+        List<OrderItemDTO> items = new ArrayList<>();
+        items.add(newItem(productId, 30, new BigDecimal("10.00")));
+        items.add(newItem(productId, 30, new BigDecimal("10.00")));
+
+        // When & Then
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.createOrder(newOrderDTO(customer.getId(), "ORD-BATCH-002"), items));
+        entityManager.clear();
+        assertEquals(50, productRepository.findById(productId).get().getStockQuantity());
+    }
+
+    @Test
+    void testCreateOrder_DiscountedItem() {
+        // Given
+        OrderItemDTO item = newItem(products.get(0).getId(), 10, new BigDecimal("10.00"));
+        item.setDiscountRate(new BigDecimal("10"));
+        List<OrderItemDTO> items = new ArrayList<>();
+        items.add(item);
+
+        // When
+        OrderDTO result = orderService.createOrder(newOrderDTO(customer.getId(), "ORD-BATCH-003"), items);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertEquals(0, new BigDecimal("90").compareTo(result.getTotalAmount()));
+        OrderItem saved = orderItemRepository.findByOrderId(result.getId()).get(0);
+        assertEquals(0, new BigDecimal("10").compareTo(saved.getDiscountAmount()));
+        assertEquals(0, new BigDecimal("90").compareTo(saved.getSubtotal()));
+    }
+
+    @Test
+    void testCreateOrders_AggregatesStockPerProduct() {
+        // Given 20个订单各买2个产品，第21个订单超出剩余库存，第22个订单编号与第1个重复
+        List<OrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            orders.add(newBulkOrder(String.format("ORD-BULK-%03d", i), 2));
+        }
+        orders.add(newBulkOrder("ORD-BULK-020", 20));
+        orders.add(newBulkOrder("ORD-BULK-000", 1));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        List<BulkOrderResultDTO> results = orderService.createOrders(orders);
+        entityManager.flush();
+
+        // Then
+        // 1 次订单编号批量校验 + 1 次批量加载产品 + 2 次按产品汇总扣减库存 + 1 条订单批量插入
+        // + 1 条订单项批量插入 + 1 次批量读取变动后库存（出库记录）+ 1 次订单日统计累加
+        assertEquals(8, statistics.getPrepareStatementCount());
+        assertEquals(22, results.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(BulkOrderResultDTO.Status.CREATED, results.get(i).getStatus());
+            assertEquals(String.format("ORD-BULK-%03d", i), results.get(i).getOrderNumber());
+        }
+        assertEquals(BulkOrderResultDTO.Status.REJECTED, results.get(20).getStatus());
+        assertEquals(BulkOrderResultDTO.Status.REJECTED, results.get(21).getStatus());
+        assertEquals("订单编号已存在", results.get(21).getError());
+        entityManager.clear();
+        assertEquals(10, productRepository.findById(products.get(0).getId()).get().getStockQuantity());
+        assertEquals(10, productRepository.findById(products.get(1).getId()).get().getStockQuantity());
+        assertEquals(2, orderItemRepository.findByOrderId(results.get(19).getOrderId()).size());
+    }
+
+    private OrderDTO newBulkOrder(String orderNumber, int quantity) {
+        OrderDTO orderDTO = newOrderDTO(customer.getId(), orderNumber);
+        List<OrderItemDTO> items = new ArrayList<>();
+        items.add(newItem(products.get(0).getId(), quantity, new BigDecimal("10.00")));
+        items.add(newItem(products.get(1).getId(), quantity, new BigDecimal("10.00")));
+        orderDTO.setItems(items);
+        return orderDTO;
+    }
+}
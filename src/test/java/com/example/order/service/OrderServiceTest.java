@@ -49,6 +49,30 @@ class OrderServiceTest {
     @Mock
     private OrderItemRepository orderItemRepository;
 
+    @Mock
+    private HotStockReservationService hotStockReservationService;
+
+    @Mock
+    private InventoryLedgerService inventoryLedgerService;
+
+    @Mock
+    private OrderDailyStatsService orderDailyStatsService;
+
+    @Mock
+    private OrderStatusCounters orderStatusCounters;
+
+    @Mock
+    private OrderMetrics orderMetrics;
+
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Mock
+    private CustomerSuggestIndex customerSuggestIndex;
+
+    @Mock
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -160,7 +184,7 @@ class OrderServiceTest {
     void testDeleteOrder_Success() {
         // Given
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
-        when(orderItemRepository.findByOrderId(1L)).thenReturn(new ArrayList<>());
+        when(orderItemRepository.findByOrderIdForUpdate(1L)).thenReturn(new ArrayList<>());
         doNothing().when(orderItemRepository).deleteByOrderId(1L);
         doNothing().when(orderRepository).delete(testOrder);
 
@@ -0,0 +1,165 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderDTO;
+import com.example.order.dto.OrderItemDTO;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Order;
+import com.example.order.entity.Product;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.OrderRepository;
+import com.example.order.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 订单状态内存计数器测试
+ *
+ * 验证订单变更提交后计数与数据库一致、回滚不计数，以及绕过服务修改订单后的对账修正
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusCountersTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderStatusCounters orderStatusCounters;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Customer customer;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(newCustomer("CUST-COUNTER", "计数客户"));
+
+        product = productRepository.save(newProduct("COUNTER", "计数产品", "10.00", 100));
+
+        orderStatusCounters.seed();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDataCleaner.deleteAll();
+    }
+
+    @Test
+    void testCommittedChanges_MatchDatabase() {
+        // When & Then
+        OrderDTO first = orderService.createOrder(newOrderDTO(customer.getId(), "CNT-001"), items());
+        OrderDTO second = orderService.createOrder(newOrderDTO(customer.getId(), "CNT-002"), items());
+        OrderDTO third = orderService.createOrder(newOrderDTO(customer.getId(), "CNT-003"), items());
+        assertCountersMatchDatabase();
+        assertEquals(3L, toMap(orderService.countByStatus()).get(Order.OrderStatus.PENDING));
+
+        orderService.updateOrderStatus(first.getId(), Order.OrderStatus.CONFIRMED);
+        orderService.updateOrderStatus(second.getId(), Order.OrderStatus.CANCELLED);
+        orderService.updatePaymentStatus(first.getId(), Order.PaymentStatus.PAID);
+        assertCountersMatchDatabase();
+
+        orderService.deleteOrder(third.getId());
+        assertCountersMatchDatabase();
+        Map<Object, Long> byStatus = toMap(orderService.countByStatus());
+        assertNull(byStatus.get(Order.OrderStatus.PENDING));
+        assertEquals(1L, byStatus.get(Order.OrderStatus.CONFIRMED));
+        assertEquals(1L, byStatus.get(Order.OrderStatus.CANCELLED));
+    }
+
+    @Test
+    void testRolledBackChange_NotCounted() {
+        // Given
+        OrderDTO order = orderService.createOrder(newOrderDTO(customer.getId(), "CNT-101"), items());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            orderService.updateOrderStatus(order.getId(), Order.OrderStatus.CONFIRMED);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        assertCountersMatchDatabase();
+        assertEquals(1L, toMap(orderService.countByStatus()).get(Order.OrderStatus.PENDING));
+    }
+
+    @Test
+    void testReconcile_CorrectsPersistentDrift() {
+        // Given 绕过 OrderService 写入订单
+        orderService.createOrder(newOrderDTO(customer.getId(), "CNT-201"), items());
+        Order direct = new Order();
+        direct.setOrderNumber("CNT-202");
+        direct.setCustomerId(customer.getId());
+        direct.setOrderDate(LocalDate.now());
+        direct.setTotalAmount(new BigDecimal("10.00"));
+        direct.setFinalAmount(new BigDecimal("10.00"));
+        direct.setStatus(Order.OrderStatus.SHIPPED);
+        orderRepository.save(direct);
+        double before = meterRegistry.get("orders.status.counters.corrections").counter().count();
+
+        // When & Then 第一次对账只记录差值，第二次差值不变才修正
+        orderStatusCounters.reconcile();
+        assertNull(toMap(orderService.countByStatus()).get(Order.OrderStatus.SHIPPED));
+        orderStatusCounters.reconcile();
+        assertCountersMatchDatabase();
+        assertEquals(before + 2, meterRegistry.get("orders.status.counters.corrections").counter().count());
+    }
+
+    private void assertCountersMatchDatabase() {
+        assertEquals(toMap(orderRepository.countByStatus()), toMap(orderService.countByStatus()));
+        assertEquals(toMap(orderRepository.countByPaymentStatus()), toMap(orderService.countByPaymentStatus()));
+    }
+
+    private static Map<Object, Long> toMap(List<Object[]> rows) {
+        Map<Object, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put(row[0], ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+
+    private List<OrderItemDTO> items() {
+        return Collections.singletonList(newItem(product, 1));
+    }
+}
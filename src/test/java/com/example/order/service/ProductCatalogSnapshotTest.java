@@ -0,0 +1,211 @@
+package com.example.order.service;
+
+import com.example.order.dto.ProductBrowseDTO;
+import com.example.order.dto.ProductBrowseRequest;
+import com.example.order.dto.ProductSummaryDTO;
+import com.example.order.entity.Product;
+import com.example.order.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * 产品目录列式快照测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogSnapshotTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        List<ProductSummaryDTO> rows = Arrays.asList(
+                row(1L, "手机", "5999.00", 50, 10, Product.ProductStatus.ACTIVE),
+                row(2L, "手机", "1999.50", 5, 10, Product.ProductStatus.ACTIVE),
+                row(3L, "电脑配件", "99.99", 0, 5, Product.ProductStatus.ACTIVE),
+                row(4L, "电脑配件", "199.00", 100, 5, Product.ProductStatus.INACTIVE),
+                row(5L, "手机配件", "29.90", 3, 5, Product.ProductStatus.DISCONTINUED),
+                row(6L, null, "10.00", 20, 5, Product.ProductStatus.ACTIVE));
+        when(productRepository.findSummariesAfterId(eq(0L), any(Pageable.class))).thenReturn(rows);
+        productCatalogSnapshot = new ProductCatalogSnapshot(productRepository);
+        productCatalogSnapshot.build();
+    }
+
+    @Test
+    void testBrowse_NoFilter() {
+        // When
+        ProductBrowseDTO result = browse(new ProductBrowseRequest());
+
+        // Then
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L), ids(result));
+        assertEquals(6, result.getTotalElements());
+        assertEquals(Arrays.asList("手机", "电脑配件", "手机配件"), new ArrayList<>(result.getCategoryFacets().keySet()));
+        assertEquals(4L, result.getStatusFacets().get(Product.ProductStatus.ACTIVE));
+        assertEquals(1L, result.getStatusFacets().get(Product.ProductStatus.DISCONTINUED));
+        assertEquals(3, result.getLowStockCount());
+        assertEquals(new BigDecimal("1999.50"), result.getContent().get(1).getUnitPrice());
+        assertNull(result.getContent().get(5).getCategory());
+    }
+
+    @Test
+    void testBrowse_CombinedFiltersAndFacets() {
+        // Given 多个分类取"或"，与状态、价格条件取"与"
+        ProductBrowseRequest request = new ProductBrowseRequest();
+        request.setCategory(Arrays.asList("手机", "电脑配件"));
+        request.setStatus(Collections.singletonList(Product.ProductStatus.ACTIVE));
+        request.setMaxPrice(new BigDecimal("2000"));
+
+        // When
+        ProductBrowseDTO result = browse(request);
+
+        // Then 分类分面不应用分类条件，状态分面不应用状态条件
+        assertEquals(Arrays.asList(2L, 3L), ids(result));
+        assertEquals(1L, result.getCategoryFacets().get("手机"));
+        assertEquals(1L, result.getCategoryFacets().get("电脑配件"));
+        assertFalse(result.getCategoryFacets().containsKey("手机配件"));
+        assertEquals(2L, result.getStatusFacets().get(Product.ProductStatus.ACTIVE));
+        assertEquals(1L, result.getStatusFacets().get(Product.ProductStatus.INACTIVE));
+        assertEquals(0L, result.getStatusFacets().get(Product.ProductStatus.DISCONTINUED));
+        assertEquals(2, result.getLowStockCount());
+    }
+
+    @Test
+    void testBrowse_RangeBoundariesAndLowStock() {
+        // Given 价格边界包含在内，按分比较
+        ProductBrowseRequest price = new ProductBrowseRequest();
+        price.setMinPrice(new BigDecimal("99.985"));
+        price.setMaxPrice(new BigDecimal("199.009"));
+        ProductBrowseRequest stock = new ProductBrowseRequest();
+        stock.setMinStock(3);
+        stock.setMaxStock(20);
+        ProductBrowseRequest lowStock = new ProductBrowseRequest();
+        lowStock.setLowStock(true);
+        ProductBrowseRequest unknownCategory = new ProductBrowseRequest();
+        unknownCategory.setCategory(Collections.singletonList("不存在"));
+
+        // When / Then
+        assertEquals(Arrays.asList(3L, 4L), ids(browse(price)));
+        assertEquals(Arrays.asList(2L, 5L, 6L), ids(browse(stock)));
+        assertEquals(Arrays.asList(2L, 3L, 5L), ids(browse(lowStock)));
+        ProductBrowseDTO empty = browse(unknownCategory);
+        assertTrue(empty.getContent().isEmpty());
+        assertEquals(3, empty.getCategoryFacets().size());
+    }
+
+    @Test
+    void testBrowse_Paging() {
+        // When
+        ProductBrowseDTO secondPage = productCatalogSnapshot.browse(new ProductBrowseRequest(), PageRequest.of(1, 4));
+
+        // Then
+        assertEquals(Arrays.asList(5L, 6L), ids(secondPage));
+        assertEquals(6, secondPage.getTotalElements());
+        assertEquals(1, secondPage.getPage());
+        assertEquals(4, secondPage.getSize());
+    }
+
+    @Test
+    void testCopyOnWriteUpdates() {
+        // Given
+        ProductBrowseRequest phones = new ProductBrowseRequest();
+        phones.setCategory(Collections.singletonList("手机"));
+        ProductBrowseDTO before = browse(phones);
+
+        // When 新增、改分类、删除
+        productCatalogSnapshot.updateAfterCommit(product(7L, "手机", "2999.00", 8, 10));
+        productCatalogSnapshot.updateAfterCommit(product(3L, "手机", "99.99", 0, 5));
+        productCatalogSnapshot.removeAfterCommit(1L);
+
+        // Then 新快照反映修改，已返回的结果不变
+        ProductBrowseDTO after = browse(phones);
+        assertEquals(Arrays.asList(2L, 3L, 7L), ids(after));
+        assertEquals(3, after.getLowStockCount());
+        assertEquals(1L, after.getCategoryFacets().get("电脑配件"));
+        assertEquals(Arrays.asList(1L, 2L), ids(before));
+    }
+
+    @Test
+    void testRefreshStale_ReloadsChangedStock() {
+        // Given 产品1库存被订单扣减，产品5已删除
+        when(productRepository.findSummariesByIdIn(anyCollection())).thenReturn(Collections.singletonList(
+                row(1L, "手机", "5999.00", 2, 10, Product.ProductStatus.ACTIVE)));
+        productCatalogSnapshot.markStaleAfterCommit(Arrays.asList(1L, 5L));
+
+        // When
+        productCatalogSnapshot.refreshStale();
+
+        // Then
+        ProductBrowseRequest lowStock = new ProductBrowseRequest();
+        lowStock.setLowStock(true);
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(browse(lowStock)));
+        assertEquals(5, browse(new ProductBrowseRequest()).getTotalElements());
+    }
+
+    @Test
+    void testRebuild_LoadsInBatches() {
+        // Given
+        List<ProductSummaryDTO> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstBatch.add(row(id, "批量", "1.00", 10, 5, Product.ProductStatus.ACTIVE));
+        }
+        when(productRepository.findSummariesAfterId(eq(0L), any(Pageable.class))).thenReturn(firstBatch);
+        when(productRepository.findSummariesAfterId(eq(1000L), any(Pageable.class))).thenReturn(
+                Collections.singletonList(row(1001L, "尾批", "1.00", 10, 5, Product.ProductStatus.ACTIVE)));
+
+        // When
+        productCatalogSnapshot.rebuild();
+
+        // Then
+        ProductBrowseDTO result = browse(new ProductBrowseRequest());
+        assertEquals(1001, result.getTotalElements());
+        assertEquals(1000L, result.getCategoryFacets().get("批量"));
+        assertEquals(1L, result.getCategoryFacets().get("尾批"));
+    }
+
+    private ProductBrowseDTO browse(ProductBrowseRequest request) {
+        return productCatalogSnapshot.browse(request, PageRequest.of(0, 20));
+    }
+
+    private static List<Long> ids(ProductBrowseDTO result) {
+        return result.getContent().stream().map(ProductSummaryDTO::getId).collect(Collectors.toList());
+    }
+
+    private static ProductSummaryDTO row(Long id, String category, String price, int stock, int minStock,
+                                         Product.ProductStatus status) {
+        return new ProductSummaryDTO(id, "P" + id, "产品" + id, category, new BigDecimal(price), stock, minStock,
+                status);
+    }
+
+    private static Product product(Long id, String category, String price, int stock, int minStock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductCode("P" + id);
+        product.setName("产品" + id);
+        product.setCategory(category);
+        product.setUnitPrice(new BigDecimal(price));
+        product.setStockQuantity(stock);
+        product.setMinStock(minStock);
+        product.setStatus(Product.ProductStatus.ACTIVE);
+        return product;
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.order.service;
+
+import com.example.order.entity.Product;
+import com.example.order.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * 产品搜索索引测试
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = Arrays.asList(
+                product(1L, "IPHONE15", "iPhone 15 Pro", "手机", "苹果旗舰手机"),
+                product(2L, "MOUSE-01", "无线鼠标", "电脑配件", "静音无线鼠标，适配 iPhone 平板"),
+                product(3L, "KB-01", "机械键盘", "电脑配件", "带鼠标垫的键盘套装"),
+                product(4L, "CASE-15", "手机壳", "手机配件", "适用于 iPhone15"));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(products);
+        productSearchIndex = new ProductSearchIndex(productRepository);
+        productSearchIndex.build();
+    }
+
+    @Test
+    void testSearch_ChineseSubstring() {
+        // When
+        ProductSearchIndex.Hits hits = productSearchIndex.search("鼠标", 0, 10);
+
+        // Then 名称命中排在仅描述命中之前
+        assertEquals(Arrays.asList(2L, 3L), hits.getProductIds());
+        assertEquals(2, hits.getTotal());
+    }
+
+    @Test
+    void testSearch_PrefixAndLetterDigitParts() {
+        // When / Then 前缀匹配，iphone15 同时拆出 iphone 与 15
+        assertEquals(Arrays.asList(1L, 4L, 2L), productSearchIndex.search("iph", 0, 10).getProductIds());
+        assertEquals(Arrays.asList(1L, 4L), productSearchIndex.search("iphone 15", 0, 10).getProductIds());
+    }
+
+    @Test
+    void testSearch_ProductCodeAndCategory() {
+        // When / Then
+        assertEquals(Collections.singletonList(2L), productSearchIndex.search("mouse-01", 0, 10).getProductIds());
+        assertEquals(Arrays.asList(2L, 3L), productSearchIndex.search("电脑配件", 0, 10).getProductIds());
+    }
+
+    @Test
+    void testSearch_AllTermsRequired() {
+        // When / Then
+        assertTrue(productSearchIndex.search("无线 键盘", 0, 10).getProductIds().isEmpty());
+        assertEquals(0, productSearchIndex.search("不存在", 0, 10).getTotal());
+        assertEquals(0, productSearchIndex.search("，。", 0, 10).getTotal());
+    }
+
+    @Test
+    void testSearch_Paging() {
+        // When
+        ProductSearchIndex.Hits firstPage = productSearchIndex.search("iph", 0, 2);
+        ProductSearchIndex.Hits secondPage = productSearchIndex.search("iph", 2, 2);
+        ProductSearchIndex.Hits beyond = productSearchIndex.search("iph", 4, 2);
+
+        // Then
+        assertEquals(Arrays.asList(1L, 4L), firstPage.getProductIds());
+        assertEquals(Collections.singletonList(2L), secondPage.getProductIds());
+        assertTrue(beyond.getProductIds().isEmpty());
+        assertEquals(3, firstPage.getTotal());
+        assertEquals(3, beyond.getTotal());
+    }
+
+    @Test
+    void testIncrementalUpdates() {
+        // When 新增、改名、删除
+        productSearchIndex.indexAfterCommit(product(5L, "MOUSE-02", "游戏鼠标", "电脑配件", null));
+        productSearchIndex.indexAfterCommit(product(3L, "KB-01", "机械键盘", "电脑配件", "键盘"));
+        productSearchIndex.removeAfterCommit(2L);
+
+        // Then
+        assertEquals(Collections.singletonList(5L), productSearchIndex.search("鼠标", 0, 10).getProductIds());
+        assertEquals(Collections.singletonList(5L), productSearchIndex.search("mouse", 0, 10).getProductIds());
+    }
+
+    @Test
+    void testRebuild_KeepsSearchable() {
+        // Given
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            products.add(product(id, "SKU-" + id, "商品" + id, "批量", null));
+        }
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(products);
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(1000L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(product(1001L, "SKU-1001", "鼠标垫", "批量", null)));
+
+        // When 分批加载
+        productSearchIndex.rebuild();
+
+        // Then
+        assertEquals(1001, productSearchIndex.search("批量", 0, 5).getTotal());
+        assertEquals(Collections.singletonList(1001L), productSearchIndex.search("鼠标", 0, 10).getProductIds());
+        assertEquals(Collections.singletonList(42L), productSearchIndex.search("sku-42", 0, 1).getProductIds());
+    }
+
+    @Test
+    void testSearch_PrefixExpansionKeepsMostFrequentTerms() {
+        // Given 100个只出现一次的 zza* 词项，字典序在后的 zzzz 出现在5个产品中
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            String suffix = "" + (char) ('a' + (id - 1) / 26) + (char) ('a' + (id - 1) % 26);
+            products.add(product(id, "Z-" + id, "zza" + suffix, null, null));
+        }
+        for (long id = 101; id <= 105; id++) {
+            products.add(product(id, "Z-" + id, "zzzz", null, null));
+        }
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(products);
+        productSearchIndex.rebuild();
+
+        // When
+        ProductSearchIndex.Hits hits = productSearchIndex.search("zz", 0, 200);
+
+        // Then
+        assertTrue(hits.isPrefixTruncated());
+        assertTrue(hits.getProductIds().containsAll(Arrays.asList(101L, 102L, 103L, 104L, 105L)));
+        assertEquals(ProductSearchIndex.MAX_PREFIX_EXPANSIONS - 1 + 5, hits.getTotal());
+        assertFalse(productSearchIndex.search("zzz", 0, 10).isPrefixTruncated());
+    }
+
+    private static Product product(Long id, String code, String name, String category, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductCode(code);
+        product.setName(name);
+        product.setCategory(category);
+        product.setDescription(description);
+        product.setUnitPrice(BigDecimal.ONE);
+        product.setStockQuantity(1);
+        return product;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.order.service;
+
+import com.example.order.config.CacheConfig;
+import com.example.order.dto.ProductDTO;
+import com.example.order.entity.Product;
+import com.example.order.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 产品缓存测试
+ *
+ * 验证产品查询命中缓存后不再访问数据库，以及写操作按键失效缓存
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductServiceCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Product product;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(newProduct("CACHE001", "缓存产品", "12.50", 20));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDataCleaner.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void testFindById_SecondCallServedFromCache() {
+        CacheStats before = nativeStats(CacheConfig.PRODUCTS);
+        productService.findById(product.getId());
+        long loadsAfterFirstCall = statistics.getPrepareStatementCount();
+
+        ProductDTO cached = productService.findById(product.getId()).get();
+
+        assertEquals(loadsAfterFirstCall, statistics.getPrepareStatementCount());
+        assertEquals("CACHE001", cached.getProductCode());
+        CacheStats stats = nativeStats(CacheConfig.PRODUCTS).minus(before);
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void testFindByProductCodeAndName_Cached() {
+        productService.findByProductCode("CACHE001");
+        productService.findByName("缓存产品");
+        long statements = statistics.getPrepareStatementCount();
+
+        assertTrue(productService.findByProductCode("CACHE001").isPresent());
+        assertTrue(productService.findByName("缓存产品").isPresent());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindById_MissingProductNotCached() {
+        assertFalse(productService.findById(-1L).isPresent());
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(-1L));
+    }
+
+    @Test
+    void testUpdateStock_EvictsCachedProduct() {
+        productService.findById(product.getId());
+        productService.findByProductCode("CACHE001");
+
+        productService.updateStock(product.getId(), -5);
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS).get(product.getId()));
+        assertNull(cacheManager.getCache(CacheConfig.PRODUCTS_BY_CODE).get("CACHE001"));
+        assertEquals(15, productService.findById(product.getId()).get().getStockQuantity().intValue());
+    }
+
+    @Test
+    void testUpdateProduct_EvictsOldCodeAndName() {
+        productService.findById(product.getId());
+        productService.findByProductCode("CACHE001");
+        productService.findByName("缓存产品");
+
+        ProductDTO update = ProductDTO.fromEntity(product);
+        update.setProductCode("CACHE002");
+        update.setName("改名产品");
+        productService.updateProduct(product.getId(), update);
+
+        assertFalse(productService.findByProductCode("CACHE001").isPresent());
+        assertFalse(productService.findByName("缓存产品").isPresent());
+        assertEquals("CACHE002", productService.findById(product.getId()).get().getProductCode());
+    }
+
+    @Test
+    void testDeleteProduct_EvictsCachedProduct() {
+        productService.findById(product.getId());
+
+        productService.deleteProduct(product.getId());
+
+        assertFalse(productService.findById(product.getId()).isPresent());
+    }
+
+    private CacheStats nativeStats(String cacheName) {
+        TransactionAwareCacheDecorator decorator = (TransactionAwareCacheDecorator) cacheManager.getCache(cacheName);
+        return ((CaffeineCache) decorator.getTargetCache()).getNativeCache().stats();
+    }
+}
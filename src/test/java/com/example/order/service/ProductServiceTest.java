@@ -4,6 +4,7 @@ import com.example.order.dto.ProductDTO;
 import com.example.order.entity.Product;
 import com.example.order.exception.ResourceNotFoundException;
 import com.example.order.exception.DuplicateResourceException;
+import com.example.order.exception.InsufficientStockException;
 import com.example.order.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -31,6 +33,21 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private HotStockReservationService hotStockReservationService;
+
+    @Mock
+    private InventoryLedgerService inventoryLedgerService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
     @InjectMocks
     private ProductService productService;
 
@@ -225,9 +242,10 @@ class ProductServiceTest {
         // Given
         String keyword = "iPhone";
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(testProduct), pageable, 1);
-        when(productRepository.findByNameContainingIgnoreCase(keyword, pageable))
-            .thenReturn(productPage);
+        when(productSearchIndex.search(keyword, 0, 10))
+            .thenReturn(new ProductSearchIndex.Hits(Arrays.asList(1L), 1));
+        when(productRepository.findAllById(Arrays.asList(1L)))
+            .thenReturn(Arrays.asList(testProduct));
 
         // When
         Page<ProductDTO> result = productService.searchProducts(keyword, pageable);
@@ -238,7 +256,7 @@ class ProductServiceTest {
         assertEquals(1, result.getContent().size());
         assertEquals("iPhone 15", result.getContent().get(0).getName());
 
-        verify(productRepository).findByNameContainingIgnoreCase(keyword, pageable);
+        verify(productSearchIndex).search(keyword, 0, 10);
     }
 
     @Test
@@ -264,14 +282,42 @@ class ProductServiceTest {
         // Given
         Integer quantity = 10;
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productRepository.increaseStock(1L, 10)).thenReturn(1);
 
         // When
         productService.updateStock(1L, quantity);
 
         // Then
-        verify(productRepository).findById(1L);
-        verify(productRepository).save(any(Product.class));
+        verify(productRepository).increaseStock(1L, 10);
+        verify(cacheManager).getCache("products");
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateStock_Decrease() {
+        // Given
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.decreaseStock(1L, 10)).thenReturn(1);
+
+        // When
+        productService.updateStock(1L, -10);
+
+        // Then
+        verify(productRepository).decreaseStock(1L, 10);
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdateStock_InsufficientStock() {
+        // Given
+        when(productRepository.decreaseStock(1L, 200)).thenReturn(0);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        // When & Then
+        assertThrows(InsufficientStockException.class, () -> {
+            productService.updateStock(1L, -200);
+        });
+        verify(productRepository, never()).save(any());
     }
 
     @Test
@@ -286,6 +332,7 @@ class ProductServiceTest {
         });
 
         verify(productRepository).findById(1L);
+        verify(productRepository, never()).increaseStock(anyLong(), anyInt());
         verify(productRepository, never()).save(any());
     }
 } 
\ No newline at end of file
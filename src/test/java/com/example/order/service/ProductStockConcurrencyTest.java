@@ -0,0 +1,154 @@
+package com.example.order.service;
+
+import com.example.order.entity.Customer;
+import com.example.order.entity.Product;
+import com.example.order.exception.InsufficientStockException;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.OrderRepository;
+import com.example.order.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 库存并发扣减测试
+ *
+ * 多线程并发扣减同一产品库存，验证库存不会被超卖或丢失更新
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockConcurrencyTest {
+
+    private static final int INITIAL_STOCK = 100;
+    private static final int THREAD_COUNT = 16;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Product product;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(newProduct("HOT001", "热卖产品", "9.90", INITIAL_STOCK));
+        customer = customerRepository.save(newCustomer("CUST-HOT", "并发客户"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDataCleaner.deleteAll();
+    }
+
+    @Test
+    void testUpdateStock_ConcurrentDecrease_NeverNegative() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(attempt -> {
+            try {
+                productService.updateStock(product.getId(), -1);
+                succeeded.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        int finalStock = productRepository.findById(product.getId()).get().getStockQuantity();
+        assertEquals(0, finalStock);
+        assertEquals(INITIAL_STOCK, succeeded.get());
+        assertEquals(THREAD_COUNT * ATTEMPTS_PER_THREAD - INITIAL_STOCK, rejected.get());
+    }
+
+    @Test
+    void testCreateOrder_ConcurrentCheckout_NeverOversells() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(attempt -> {
+            try {
+                orderService.createOrder(newOrderDTO(customer.getId(), "HOT-" + attempt),
+                        Collections.singletonList(newItem(product, 3)));
+                succeeded.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        int finalStock = productRepository.findById(product.getId()).get().getStockQuantity();
+        assertTrue(finalStock >= 0);
+        assertEquals(INITIAL_STOCK - succeeded.get() * 3, finalStock);
+        assertEquals(INITIAL_STOCK / 3, succeeded.get());
+        assertEquals(succeeded.get(), orderRepository.count());
+        assertEquals(THREAD_COUNT * ATTEMPTS_PER_THREAD - succeeded.get(), rejected.get());
+    }
+
+    private void runConcurrently(Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sequence = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        attempt.run(sequence.incrementAndGet());
+                        int current = productRepository.findById(product.getId()).get().getStockQuantity();
+                        assertTrue(current >= 0, "库存不应为负数: " + current);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        void run(int sequence);
+    }
+}
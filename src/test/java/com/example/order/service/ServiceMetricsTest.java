@@ -0,0 +1,113 @@
+package com.example.order.service;
+
+import com.example.order.config.MetricsConfig;
+import com.example.order.entity.Customer;
+import com.example.order.entity.Product;
+import com.example.order.exception.InsufficientStockException;
+import com.example.order.repository.CustomerRepository;
+import com.example.order.repository.ProductRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 服务监控指标测试
+ *
+ * 验证服务方法按 服务/方法/结果/异常 计时，以及订单创建数、每单订单项数、库存不足拒单计数
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ServiceTestConfiguration.class, MetricsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ServiceMetricsTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderDataCleaner orderDataCleaner;
+
+    private Customer customer;
+    private Product first;
+    private Product second;
+    private double createdBefore;
+    private long ordersItemsBefore;
+
+    @BeforeEach
+    void setUp() {
+        createdBefore = meterRegistry.get("orders.created").counter().count();
+        ordersItemsBefore = meterRegistry.get("orders.items").summary().count();
+
+        customer = customerRepository.save(newCustomer("CUST-METRICS", "指标客户"));
+
+        first = productRepository.save(newProduct("METRICS-1", "指标产品METRICS-1", "10.00", 100));
+        second = productRepository.save(newProduct("METRICS-2", "指标产品METRICS-2", "10.00", 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderDataCleaner.deleteAll();
+    }
+
+    @Test
+    void testCreateOrder_RecordsTimerAndCounters() {
+        // When
+        orderService.createOrder(newOrderDTO(customer.getId(), "MET-001"),
+                Arrays.asList(newItem(first, 1), newItem(second, 1)));
+
+        // Then
+        Timer timer = meterRegistry.get(MetricsConfig.SERVICE_INVOCATIONS)
+                .tags("service", "OrderService", "method", "createOrder", "outcome", "SUCCESS", "exception", "none")
+                .timer();
+        assertEquals(1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(createdBefore + 1, meterRegistry.get("orders.created").counter().count());
+        DistributionSummary items = meterRegistry.get("orders.items").summary();
+        assertEquals(ordersItemsBefore + 1, items.count());
+        assertEquals(2.0, items.max());
+    }
+
+    @Test
+    void testCreateOrder_InsufficientStock_RecordsErrorAndRejection() {
+        // When
+        assertThrows(InsufficientStockException.class, () ->
+                orderService.createOrder(newOrderDTO(customer.getId(), "MET-002"),
+                        Arrays.asList(newItem(first, 1), newItem(second, 5))));
+
+        // Then
+        assertEquals(1, meterRegistry.get(MetricsConfig.SERVICE_INVOCATIONS)
+                .tags("service", "OrderService", "method", "createOrder",
+                        "outcome", "ERROR", "exception", "InsufficientStockException")
+                .timer().count());
+        assertEquals(1.0, meterRegistry.get("orders.stock.rejections").tag("reservation", "db").counter().count());
+        assertEquals(0.0, meterRegistry.get("orders.stock.rejections").tag("reservation", "hot").counter().count());
+        assertEquals(createdBefore, meterRegistry.get("orders.created").counter().count());
+        assertEquals(ordersItemsBefore, meterRegistry.get("orders.items").summary().count());
+    }
+}
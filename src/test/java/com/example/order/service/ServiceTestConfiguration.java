@@ -0,0 +1,21 @@
+package com.example.order.service;
+
+import com.example.order.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * 服务层测试配置
+ *
+ * 基于 @DataJpaTest 的服务测试导入此配置即可创建订单、维护产品；服务新增依赖时只需在这里补充
+ */
+@TestConfiguration
+@Import({OrderService.class, ProductService.class, HotStockReservationService.class,
+        InventoryLedgerService.class, OrderDailyStatsService.class,
+        OrderStatusCounters.class, OrderMetrics.class, OrderNumberGenerator.class,
+        SequenceBlockAllocator.class, IdSequenceInitializer.class, CustomerSuggestIndex.class,
+        ProductCatalogSnapshot.class, ProductSearchIndex.class, CacheConfig.class, SimpleMeterRegistry.class,
+        OrderDataCleaner.class})
+class ServiceTestConfiguration {
+}
@@ -0,0 +1,97 @@
+package com.example.order.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分段库存计数器测试
+ */
+class StripedStockCounterTest {
+
+    @Test
+    void testReset_DistributesAcrossStripes() {
+        StripedStockCounter counter = new StripedStockCounter(8, 101);
+
+        assertEquals(101, counter.available());
+    }
+
+    @Test
+    void testTryAcquire_GathersAcrossStripes() {
+        // 每个分段只有1件，扣减8件需要跨段汇集
+        StripedStockCounter counter = new StripedStockCounter(8, 8);
+
+        assertTrue(counter.tryAcquire(8));
+        assertEquals(0, counter.available());
+        assertFalse(counter.tryAcquire(1));
+    }
+
+    @Test
+    void testTryAcquire_InsufficientStock_RestoresPartialGather() {
+        StripedStockCounter counter = new StripedStockCounter(4, 7);
+
+        assertFalse(counter.tryAcquire(8));
+        assertEquals(7, counter.available());
+    }
+
+    @Test
+    void testRelease() {
+        StripedStockCounter counter = new StripedStockCounter(4, 0);
+
+        counter.release(5);
+
+        assertEquals(5, counter.available());
+        assertTrue(counter.tryAcquire(5));
+    }
+
+    @Test
+    void testTryAcquire_InvalidQuantity() {
+        StripedStockCounter counter = new StripedStockCounter(4, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> counter.tryAcquire(0));
+    }
+
+    @Test
+    void testTryAcquire_Concurrent_NeverOversells() throws Exception {
+        int initial = 1000;
+        int threads = 16;
+        int attemptsPerThread = 200;
+        StripedStockCounter counter = new StripedStockCounter(8, initial);
+        AtomicInteger acquired = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (counter.tryAcquire(1)) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(initial, acquired.get());
+        assertEquals(0, counter.available());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.order.service;
+
+import com.example.order.dto.OrderSummaryDTO;
+import com.example.order.dto.ProductSummaryDTO;
+import com.example.order.entity.Order;
+import com.example.order.entity.Product;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static com.example.order.service.OrderFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 列表摘要投影测试
+ *
+ * 基于H2验证状态/客户/库存列表只查询摘要列、按页返回并以COUNT统计总数，不加载任何实体
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ServiceTestConfiguration.class)
+class SummaryProjectionTest {
+
+    private static final int ORDER_COUNT = 12;
+    private static final int PRODUCT_COUNT = 9;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long customerId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        customerId = entityManager.persist(newCustomer("CUST-SUMMARY", "摘要客户")).getId();
+
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = new Order();
+            order.setOrderNumber("ORD-SUMMARY-" + i);
+            order.setCustomerId(customerId);
+            order.setOrderDate(LocalDate.of(2024, 1, 1));
+            order.setTotalAmount(new BigDecimal("100.00"));
+            order.setFinalAmount(new BigDecimal("100.00"));
+            order.setStatus(i % 3 == 0 ? Order.OrderStatus.SHIPPED : Order.OrderStatus.PENDING);
+            order.setPaymentStatus(i % 2 == 0 ? Order.PaymentStatus.PAID : Order.PaymentStatus.UNPAID);
+            entityManager.persist(order);
+        }
+
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            // 前4个产品库存低于最小库存
+            Product product = newProduct("SUM" + i, "摘要产品" + i, "10.00", i < 4 ? 1 : 100);
+            product.setMinStock(5);
+            product.setStatus(i == 0 ? Product.ProductStatus.INACTIVE : Product.ProductStatus.ACTIVE);
+            entityManager.persist(product);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindByStatus_ReturnsPagedSummariesWithoutEntities() {
+        // When
+        Page<OrderSummaryDTO> page = orderService.findByStatus(Order.OrderStatus.PENDING,
+                PageRequest.of(0, 5, Sort.by("id")));
+
+        // Then
+        assertEquals(8, page.getTotalElements());
+        assertEquals(2, page.getTotalPages());
+        assertEquals(5, page.getNumberOfElements());
+        assertTrue(page.getContent().stream().allMatch(o -> o.getStatus() == Order.OrderStatus.PENDING));
+        OrderSummaryDTO first = page.getContent().get(0);
+        assertNotNull(first.getOrderNumber());
+        assertEquals(customerId, first.getCustomerId());
+        assertEquals(0, new BigDecimal("100.00").compareTo(first.getFinalAmount()));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindByCustomerIdAndPaymentStatus_Paged() {
+        // When
+        Page<OrderSummaryDTO> byCustomer = orderService.findByCustomerId(customerId, PageRequest.of(1, 10));
+        Page<OrderSummaryDTO> byPayment = orderService.findByPaymentStatus(Order.PaymentStatus.PAID,
+                PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(ORDER_COUNT, byCustomer.getTotalElements());
+        assertEquals(2, byCustomer.getNumberOfElements());
+        assertEquals(6, byPayment.getTotalElements());
+        assertTrue(byPayment.getContent().stream().allMatch(o -> o.getPaymentStatus() == Order.PaymentStatus.PAID));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testProductSummaries_ActiveAndLowStock() {
+        // When
+        Page<ProductSummaryDTO> active = productService.findAllActiveProducts(PageRequest.of(0, 20));
+        Page<ProductSummaryDTO> lowStock = productService.findLowStockProducts(PageRequest.of(0, 2));
+
+        // Then
+        assertEquals(PRODUCT_COUNT - 1, active.getTotalElements());
+        assertTrue(active.getContent().stream().allMatch(p -> p.getStatus() == Product.ProductStatus.ACTIVE));
+        assertEquals(4, lowStock.getTotalElements());
+        assertEquals(2, lowStock.getNumberOfElements());
+        assertTrue(lowStock.getContent().stream().allMatch(p -> p.getStockQuantity() <= p.getMinStock()));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testCountLowStockProducts_SingleCountQuery() {
+        // When
+        long count = productService.countLowStockProducts();
+
+        // Then
+        assertEquals(4, count);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}